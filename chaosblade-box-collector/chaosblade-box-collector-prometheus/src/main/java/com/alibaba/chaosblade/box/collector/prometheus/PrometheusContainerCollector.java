@@ -38,6 +38,9 @@ import java.util.stream.Collectors;
 @CollectorStrategy(CollectorType.PROMETHEUS)
 public class PrometheusContainerCollector extends AbstractCollector<Container> implements ContainerCollector {
 
+    private static final TypeReference<PrometheusResponse<PrometheusContainer>> RESPONSE_TYPE = new TypeReference<PrometheusResponse<PrometheusContainer>>() {
+    };
+
     @Override
     public CompletableFuture<List<Container>> collect(Query query) {
         return collect(String.format("kube_pod_container_info{pod='%s'}", query.getPodName()));
@@ -46,8 +49,7 @@ public class PrometheusContainerCollector extends AbstractCollector<Container> i
     @Override
     List<Container> pack(byte[] bytes) {
 
-        PrometheusResponse<PrometheusContainer> response = JsonUtils.readValue(new TypeReference<PrometheusResponse<PrometheusContainer>>() {
-        }, bytes);
+        PrometheusResponse<PrometheusContainer> response = JsonUtils.readValue(RESPONSE_TYPE, bytes);
 
         return response.getData().getResult().stream().map(result ->
                 Container.builder().name(result.getMetric().getName())
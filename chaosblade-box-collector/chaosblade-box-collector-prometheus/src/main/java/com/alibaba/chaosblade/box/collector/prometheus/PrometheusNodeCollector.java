@@ -38,6 +38,9 @@ import java.util.stream.Collectors;
 @CollectorStrategy(CollectorType.PROMETHEUS)
 public class PrometheusNodeCollector extends AbstractCollector<Node> implements NodeCollector {
 
+    private static final TypeReference<PrometheusResponse<PrometheusNode>> RESPONSE_TYPE = new TypeReference<PrometheusResponse<PrometheusNode>>() {
+    };
+
     @Override
     public CompletableFuture<List<Node>> collect(Query query) {
         return collect("kube_node_info");
@@ -46,8 +49,7 @@ public class PrometheusNodeCollector extends AbstractCollector<Node> implements
     @Override
     List<Node> pack(byte[] bytes) {
 
-        PrometheusResponse<PrometheusNode> response = JsonUtils.readValue(new TypeReference<PrometheusResponse<PrometheusNode>>() {
-        }, bytes);
+        PrometheusResponse<PrometheusNode> response = JsonUtils.readValue(RESPONSE_TYPE, bytes);
 
         return response.getData().getResult().stream().map(result ->
                 Node.builder().name(result.getMetric().getName())
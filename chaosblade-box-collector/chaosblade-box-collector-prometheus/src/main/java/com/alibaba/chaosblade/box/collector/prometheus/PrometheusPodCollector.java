@@ -38,6 +38,9 @@ import java.util.stream.Collectors;
 @CollectorStrategy(CollectorType.PROMETHEUS)
 public class PrometheusPodCollector extends AbstractCollector<Pod> implements PodCollector {
 
+    private static final TypeReference<PrometheusResponse<PrometheusPod>> RESPONSE_TYPE = new TypeReference<PrometheusResponse<PrometheusPod>>() {
+    };
+
     @Override
     public CompletableFuture<List<Pod>> collect(Query query) {
         return collect(String.format("kube_pod_info{node='%s'}", query.getNodeName()));
@@ -46,8 +49,7 @@ public class PrometheusPodCollector extends AbstractCollector<Pod> implements Po
     @Override
     List<Pod> pack(byte[] bytes) {
 
-        PrometheusResponse<PrometheusPod> response = JsonUtils.readValue(new TypeReference<PrometheusResponse<PrometheusPod>>() {
-        }, bytes);
+        PrometheusResponse<PrometheusPod> response = JsonUtils.readValue(RESPONSE_TYPE, bytes);
 
         return response.getData().getResult().stream().map(result ->
                 Pod.builder().name(result.getMetric().getName())
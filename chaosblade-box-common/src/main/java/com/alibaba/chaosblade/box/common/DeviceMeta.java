@@ -25,7 +25,7 @@ import lombok.*;
 /**
  * @author yefei
  */
-@Builder
+@Builder(toBuilder = true)
 @AllArgsConstructor
 @NoArgsConstructor
 @Data
@@ -65,7 +65,8 @@ public enum ExceptionMessageEnum {
     INVOKER_NOT_EXISTS(7000, "不存在对应的执行器"),
 
     // CLUSTER
-    CLUSTER_CONNECT_ERROR(8000, "集群连接异常，请检查 Config")
+    CLUSTER_CONNECT_ERROR(8000, "集群连接异常，请检查 Config"),
+    CLUSTER_NOT_FOUNT(8001, "集群不存在")
     ;
 
 
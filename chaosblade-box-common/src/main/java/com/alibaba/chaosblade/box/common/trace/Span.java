@@ -0,0 +1,87 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.chaosblade.box.common.trace;
+
+import lombok.Getter;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A timed phase of an experiment task, times are epoch nanos.
+ *
+ * @author yefei
+ */
+@Getter
+public class Span {
+
+    /**
+     * anchor wall clock to the monotonic clock once, so that spans are ordered by nanoTime
+     */
+    private static final long EPOCH_OFFSET_NANOS = System.currentTimeMillis() * 1_000_000L - System.nanoTime();
+
+    private final Long taskId;
+
+    private final Long activityTaskId;
+
+    private final SpanKind kind;
+
+    private final String name;
+
+    private final String target;
+
+    private final long startNanos;
+
+    private long endNanos;
+
+    private boolean success;
+
+    private final transient SpanRecorder recorder;
+
+    private final transient AtomicBoolean ended = new AtomicBoolean();
+
+    Span(Long taskId, Long activityTaskId, SpanKind kind, String name, String target, SpanRecorder recorder) {
+        this.taskId = taskId;
+        this.activityTaskId = activityTaskId;
+        this.kind = kind;
+        this.name = name;
+        this.target = target;
+        this.recorder = recorder;
+        this.startNanos = now();
+    }
+
+    public static long now() {
+        return EPOCH_OFFSET_NANOS + System.nanoTime();
+    }
+
+    /**
+     * end the span, only the first call takes effect
+     *
+     * @param success
+     */
+    public void end(boolean success) {
+        if (!ended.compareAndSet(false, true)) {
+            return;
+        }
+        this.endNanos = now();
+        this.success = success;
+        recorder.record(this);
+    }
+
+    public long getDurationNanos() {
+        return endNanos - startNanos;
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.chaosblade.box.common.trace;
+
+import java.util.Arrays;
+
+/**
+ * @author yefei
+ */
+public enum SpanKind {
+
+    /**
+     * whole experiment task pipeline
+     */
+    TASK((byte) 0),
+
+    /**
+     * single activity task
+     */
+    ACTIVITY((byte) 1),
+
+    /**
+     * wait of before / after
+     */
+    WAIT((byte) 2),
+
+    /**
+     * database read and write
+     */
+    DB((byte) 3),
+
+    /**
+     * agent or kubernetes api call of one device
+     */
+    INVOKE((byte) 4),
+
+    /**
+     * crd status poll
+     */
+    POLL((byte) 5);
+
+    private final byte value;
+
+    SpanKind(byte value) {
+        this.value = value;
+    }
+
+    public byte getValue() {
+        return value;
+    }
+
+    public static SpanKind parse(byte value) {
+        return Arrays.stream(SpanKind.values())
+                .filter(o -> o.value == value)
+                .findFirst()
+                .orElse(null);
+    }
+}
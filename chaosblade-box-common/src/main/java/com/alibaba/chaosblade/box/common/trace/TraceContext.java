@@ -0,0 +1,50 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.chaosblade.box.common.trace;
+
+/**
+ * Carries the experiment task identity into components that can not see the task model, e.g. invokers.
+ *
+ * @author yefei
+ */
+public class TraceContext {
+
+    public static final TraceContext NOOP = new TraceContext(null, null, null, SpanRecorder.NOOP);
+
+    private final Long taskId;
+
+    private final Long activityTaskId;
+
+    private final String target;
+
+    private final SpanRecorder recorder;
+
+    public TraceContext(Long taskId, Long activityTaskId, String target, SpanRecorder recorder) {
+        this.taskId = taskId;
+        this.activityTaskId = activityTaskId;
+        this.target = target;
+        this.recorder = recorder;
+    }
+
+    public Span start(SpanKind kind, String name) {
+        return new Span(taskId, activityTaskId, kind, name, target, recorder);
+    }
+
+    public TraceContext withTarget(String target) {
+        return new TraceContext(taskId, activityTaskId, target, recorder);
+    }
+}
@@ -25,6 +25,10 @@ import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import lombok.extern.slf4j.Slf4j;
 
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * @author yefei
  */
@@ -37,25 +41,35 @@ public class JsonUtils {
         mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
     }
 
+    private final static ObjectReader READER = mapper.reader();
+
+    private final static ObjectWriter WRITER = mapper.writer();
+
+    /**
+     * readers are immutable, caching them saves constructing the type and the reader on every call,
+     * deserializers are cached by the mapper anyway
+     */
+    private final static Map<Type, ObjectReader> READERS = new ConcurrentHashMap<>();
+
     public static ObjectReader reader(TypeReference<?> typeReference) {
-        return mapper.readerFor(typeReference);
+        return READERS.computeIfAbsent(typeReference.getType(), type -> mapper.readerFor(mapper.constructType(type)));
     }
 
     public static ObjectReader reader(Class<?> clazz) {
-        return mapper.readerFor(clazz);
+        return READERS.computeIfAbsent(clazz, type -> mapper.readerFor(mapper.constructType(type)));
     }
 
     public static ObjectReader reader() {
-        return mapper.reader();
+        return READER;
     }
 
     public static ObjectWriter writer() {
-        return mapper.writer();
+        return WRITER;
     }
 
     public static <T> T readValue(Class<T> clazz, String content) {
         try {
-            return mapper.readerFor(clazz).readValue(content);
+            return reader(clazz).readValue(content);
         } catch (Exception e) {
             AnyThrow.throwUnchecked(e);
         }
@@ -64,7 +78,7 @@ public class JsonUtils {
 
     public static <T> T readValue(Class<T> clazz, byte[] content) {
         try {
-            return mapper.readerFor(clazz).readValue(content);
+            return reader(clazz).readValue(content);
         } catch (Exception e) {
             AnyThrow.throwUnchecked(e);
         }
@@ -73,7 +87,7 @@ public class JsonUtils {
 
     public static <T> T readValue(TypeReference<T> typeReference, String content) {
         try {
-            return mapper.readerFor(typeReference).readValue(content);
+            return reader(typeReference).readValue(content);
         } catch (Exception e) {
             AnyThrow.throwUnchecked(e);
         }
@@ -82,7 +96,7 @@ public class JsonUtils {
 
     public static <T> T readValue(TypeReference<T> typeReference, byte[] content) {
         try {
-            return mapper.readerFor(typeReference).readValue(content);
+            return reader(typeReference).readValue(content);
         } catch (Exception e) {
             AnyThrow.throwUnchecked(e);
         }
@@ -91,7 +105,7 @@ public class JsonUtils {
 
     public static String writeValueAsString(Object o) {
         try {
-            return mapper.writer().writeValueAsString(o);
+            return WRITER.writeValueAsString(o);
         } catch (JsonProcessingException e) {
             AnyThrow.throwUnchecked(e);
         }
@@ -103,7 +117,7 @@ public class JsonUtils {
             return null;
         }
         try {
-            return mapper.writer().writeValueAsBytes(o);
+            return WRITER.writeValueAsBytes(o);
         } catch (JsonProcessingException e) {
             AnyThrow.throwUnchecked(e);
         }
@@ -0,0 +1,45 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.chaosblade.box.dao.mapper;
+
+import com.alibaba.chaosblade.box.dao.model.ExperimentTargetDO;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.ResultType;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
+import org.springframework.stereotype.Repository;
+
+/**
+ * @author yefei
+ */
+@Repository
+public interface ExperimentTargetMapper extends BaseMapper<ExperimentTargetDO> {
+
+    /**
+     * stream rows of the task, the mysql driver only streams with fetch size Integer.MIN_VALUE
+     *
+     * @param taskId
+     * @param resultHandler
+     */
+    @Select("select * from t_chaos_experiment_target where task_id = #{taskId} order by id")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    @ResultType(ExperimentTargetDO.class)
+    void streamByTaskId(@Param("taskId") Long taskId, ResultHandler<ExperimentTargetDO> resultHandler);
+}
@@ -16,6 +16,7 @@
 
 package com.alibaba.chaosblade.box.dao.model;
 
+import com.baomidou.mybatisplus.annotation.TableField;
 import com.baomidou.mybatisplus.annotation.TableName;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -37,6 +38,10 @@ public class ExperimentMiniFlowGroupDO extends BaseDO {
 
     private Long experimentId;
 
+    /**
+     * only kept for migrating to t_chaos_experiment_target
+     */
+    @TableField(select = false)
     private String hosts;
 
 }
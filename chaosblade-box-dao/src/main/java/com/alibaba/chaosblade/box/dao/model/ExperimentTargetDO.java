@@ -0,0 +1,61 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.chaosblade.box.dao.model;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * t_chaos_experiment_target, a target device of the flow group, or of the task snapshot when task id is set
+ *
+ * @author yefei
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@TableName("t_chaos_experiment_target")
+public class ExperimentTargetDO extends BaseDO {
+
+    private Long experimentId;
+
+    private Long groupId;
+
+    private Long taskId;
+
+    private Long deviceId;
+
+    private Byte deviceType;
+
+    private String hostname;
+
+    private String ip;
+
+    private Long clusterId;
+
+    private String nodeName;
+
+    private String namespace;
+
+    private String podName;
+
+    private String containerName;
+
+}
@@ -52,6 +52,10 @@ public class ExperimentTaskDO extends BaseDO {
 
     private Date gmtEnd;
 
+    /**
+     * only kept for migrating to t_chaos_experiment_target
+     */
+    @TableField(select = false)
     private String hosts;
 
     private Long activityId;
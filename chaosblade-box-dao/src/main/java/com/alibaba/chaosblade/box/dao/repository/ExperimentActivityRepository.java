@@ -25,9 +25,7 @@ import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
-import java.util.Map;
-import java.util.Optional;
+import java.util.*;
 import java.util.stream.Collectors;
 
 /**
@@ -55,6 +53,17 @@ public class ExperimentActivityRepository extends ServiceImpl<ExperimentActivity
         return activityDOS;
     }
 
+    public Map<Long, List<ExperimentActivityDO>> selectListByExperiments(Collection<Long> experimentIds) {
+        if (experimentIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        QueryWrapper<ExperimentActivityDO> queryWrapper = new QueryWrapper<>();
+        queryWrapper.lambda().in(ExperimentActivityDO::getExperimentId, experimentIds);
+        queryWrapper.lambda().orderByAsc(ExperimentActivityDO::getId);
+        return experimentActivityMapper.selectList(queryWrapper).stream()
+                .collect(Collectors.groupingBy(ExperimentActivityDO::getExperimentId));
+    }
+
     @Override
     public Optional<ExperimentActivityDO> selectById(Long aLong) {
         return Optional.empty();
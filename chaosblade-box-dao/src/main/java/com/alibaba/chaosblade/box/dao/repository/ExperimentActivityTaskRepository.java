@@ -23,6 +23,8 @@ import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import java.io.Serializable;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -41,6 +43,10 @@ public class ExperimentActivityTaskRepository implements IRepository<Long, Exper
         return experimentActivityTaskMapper.selectList(queryWrapper);
     }
 
+    public List<ExperimentActivityTaskDO> selectBatchIds(Collection<? extends Serializable> idList) {
+        return experimentActivityTaskMapper.selectBatchIds(idList);
+    }
+
     @Override
     public Optional<ExperimentActivityTaskDO> selectById(Long aLong) {
         return Optional.ofNullable(experimentActivityTaskMapper.selectById(aLong));
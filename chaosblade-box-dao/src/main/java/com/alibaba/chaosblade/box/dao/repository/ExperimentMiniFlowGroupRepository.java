@@ -20,6 +20,7 @@ import com.alibaba.chaosblade.box.dao.QueryWrapperBuilder;
 import com.alibaba.chaosblade.box.dao.model.ExperimentMiniFlowGroupDO;
 import com.alibaba.chaosblade.box.dao.mapper.ExperimentMiniFlowGroupMapper;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -64,4 +65,19 @@ public class ExperimentMiniFlowGroupRepository implements IRepository<Long, Expe
         return experimentMiniFlowGroupMapper.update(experimentMiniFlowGroupDO, wrapper) == 1;
     }
 
+    public List<ExperimentMiniFlowGroupDO> selectWithHosts(Long afterId, int limit) {
+        QueryWrapper<ExperimentMiniFlowGroupDO> queryWrapper = QueryWrapperBuilder.build();
+        queryWrapper.lambda().select(ExperimentMiniFlowGroupDO::getId, ExperimentMiniFlowGroupDO::getExperimentId, ExperimentMiniFlowGroupDO::getHosts)
+                .isNotNull(ExperimentMiniFlowGroupDO::getHosts)
+                .gt(ExperimentMiniFlowGroupDO::getId, afterId)
+                .orderByAsc(ExperimentMiniFlowGroupDO::getId)
+                .last("limit " + limit);
+        return experimentMiniFlowGroupMapper.selectList(queryWrapper);
+    }
+
+    public boolean clearHosts(Long id) {
+        UpdateWrapper<ExperimentMiniFlowGroupDO> updateWrapper = new UpdateWrapper<>();
+        updateWrapper.lambda().set(ExperimentMiniFlowGroupDO::getHosts, null).eq(ExperimentMiniFlowGroupDO::getId, id);
+        return experimentMiniFlowGroupMapper.update(null, updateWrapper) == 1;
+    }
 }
@@ -0,0 +1,105 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.chaosblade.box.dao.repository;
+
+import com.alibaba.chaosblade.box.dao.QueryWrapperBuilder;
+import com.alibaba.chaosblade.box.dao.mapper.ExperimentTargetMapper;
+import com.alibaba.chaosblade.box.dao.model.ExperimentTargetDO;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * @author yefei
+ */
+@Repository
+public class ExperimentTargetRepository extends ServiceImpl<ExperimentTargetMapper, ExperimentTargetDO>
+        implements IRepository<Long, ExperimentTargetDO> {
+
+    @Autowired
+    private ExperimentTargetMapper experimentTargetMapper;
+
+    @Override
+    public Optional<ExperimentTargetDO> selectById(Long aLong) {
+        return Optional.ofNullable(experimentTargetMapper.selectById(aLong));
+    }
+
+    @Override
+    public Long insert(ExperimentTargetDO experimentTargetDO) {
+        experimentTargetMapper.insert(experimentTargetDO);
+        return experimentTargetDO.getId();
+    }
+
+    @Override
+    public boolean updateByPrimaryKey(Long id, ExperimentTargetDO experimentTargetDO) {
+        experimentTargetDO.setId(id);
+        return experimentTargetMapper.updateById(experimentTargetDO) == 1;
+    }
+
+    public List<ExperimentTargetDO> selectByGroupId(Long groupId) {
+        QueryWrapper<ExperimentTargetDO> queryWrapper = QueryWrapperBuilder.build();
+        queryWrapper.lambda().eq(ExperimentTargetDO::getGroupId, groupId).orderByAsc(ExperimentTargetDO::getId);
+        return experimentTargetMapper.selectList(queryWrapper);
+    }
+
+    public void streamByTaskId(Long taskId, Consumer<ExperimentTargetDO> consumer) {
+        experimentTargetMapper.streamByTaskId(taskId, context -> consumer.accept(context.getResultObject()));
+    }
+
+    public int deleteByGroupId(Long groupId) {
+        QueryWrapper<ExperimentTargetDO> queryWrapper = QueryWrapperBuilder.build();
+        queryWrapper.lambda().eq(ExperimentTargetDO::getGroupId, groupId);
+        return experimentTargetMapper.delete(queryWrapper);
+    }
+
+    public int deleteByTaskId(Long taskId) {
+        QueryWrapper<ExperimentTargetDO> queryWrapper = QueryWrapperBuilder.build();
+        queryWrapper.lambda().eq(ExperimentTargetDO::getTaskId, taskId);
+        return experimentTargetMapper.delete(queryWrapper);
+    }
+
+    public int deleteByExperimentId(Long experimentId) {
+        QueryWrapper<ExperimentTargetDO> queryWrapper = QueryWrapperBuilder.build();
+        queryWrapper.lambda().eq(ExperimentTargetDO::getExperimentId, experimentId);
+        return experimentTargetMapper.delete(queryWrapper);
+    }
+
+    public List<Long> selectExperimentIdsByPod(String namespace, String podName) {
+        QueryWrapper<ExperimentTargetDO> queryWrapper = QueryWrapperBuilder.build();
+        queryWrapper.select("distinct experiment_id");
+        queryWrapper.lambda().eq(ExperimentTargetDO::getNamespace, namespace)
+                .eq(ExperimentTargetDO::getPodName, podName);
+        return experimentTargetMapper.selectObjs(queryWrapper).stream()
+                .map(id -> ((Number) id).longValue())
+                .collect(Collectors.toList());
+    }
+
+    public List<Long> selectExperimentIdsByDeviceId(Long deviceId) {
+        QueryWrapper<ExperimentTargetDO> queryWrapper = QueryWrapperBuilder.build();
+        queryWrapper.select("distinct experiment_id");
+        queryWrapper.lambda().eq(ExperimentTargetDO::getDeviceId, deviceId);
+        return experimentTargetMapper.selectObjs(queryWrapper).stream()
+                .map(id -> ((Number) id).longValue())
+                .collect(Collectors.toList());
+    }
+}
@@ -20,11 +20,12 @@ import com.alibaba.chaosblade.box.dao.QueryWrapperBuilder;
 import com.alibaba.chaosblade.box.dao.mapper.ExperimentTaskMapper;
 import com.alibaba.chaosblade.box.dao.model.ExperimentTaskDO;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.stream.Collectors;
 
 /**
  * @author yefei
@@ -67,4 +68,41 @@ public class ExperimentTaskRepository implements IRepository<Long, ExperimentTas
         return experimentTaskMapper.selectList(queryWrapper);
     }
 
+    public Map<Long, ExperimentTaskDO> selectByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return experimentTaskMapper.selectBatchIds(ids).stream()
+                .collect(Collectors.toMap(ExperimentTaskDO::getId, experimentTaskDO -> experimentTaskDO));
+    }
+
+    public Map<Long, Integer> selectCountByExperimentIds(Collection<Long> experimentIds) {
+        if (experimentIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        QueryWrapper<ExperimentTaskDO> queryWrapper = QueryWrapperBuilder.build();
+        queryWrapper.select("experiment_id as experimentId", "count(*) as count");
+        queryWrapper.in("experiment_id", experimentIds);
+        queryWrapper.groupBy("experiment_id");
+        return experimentTaskMapper.selectMaps(queryWrapper).stream()
+                .collect(Collectors.toMap(
+                        map -> ((Number) map.get("experimentId")).longValue(),
+                        map -> ((Number) map.get("count")).intValue()));
+    }
+
+    public List<ExperimentTaskDO> selectWithHosts(Long afterId, int limit) {
+        QueryWrapper<ExperimentTaskDO> queryWrapper = QueryWrapperBuilder.build();
+        queryWrapper.lambda().select(ExperimentTaskDO::getId, ExperimentTaskDO::getExperimentId, ExperimentTaskDO::getHosts)
+                .isNotNull(ExperimentTaskDO::getHosts)
+                .gt(ExperimentTaskDO::getId, afterId)
+                .orderByAsc(ExperimentTaskDO::getId)
+                .last("limit " + limit);
+        return experimentTaskMapper.selectList(queryWrapper);
+    }
+
+    public boolean clearHosts(Long id) {
+        UpdateWrapper<ExperimentTaskDO> updateWrapper = new UpdateWrapper<>();
+        updateWrapper.lambda().set(ExperimentTaskDO::getHosts, null).eq(ExperimentTaskDO::getId, id);
+        return experimentTaskMapper.update(null, updateWrapper) == 1;
+    }
 }
@@ -0,0 +1,70 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.chaosblade.box.dao.repository;
+
+import com.alibaba.chaosblade.box.dao.QueryWrapperBuilder;
+import com.alibaba.chaosblade.box.dao.mapper.ExperimentTaskSpanMapper;
+import com.alibaba.chaosblade.box.dao.model.ExperimentTaskSpanDO;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * @author yefei
+ */
+@Repository
+public class ExperimentTaskSpanRepository extends ServiceImpl<ExperimentTaskSpanMapper, ExperimentTaskSpanDO>
+        implements IRepository<Long, ExperimentTaskSpanDO> {
+
+    @Autowired
+    private ExperimentTaskSpanMapper experimentTaskSpanMapper;
+
+    @Override
+    public Optional<ExperimentTaskSpanDO> selectById(Long aLong) {
+        return Optional.ofNullable(experimentTaskSpanMapper.selectById(aLong));
+    }
+
+    @Override
+    public Long insert(ExperimentTaskSpanDO experimentTaskSpanDO) {
+        experimentTaskSpanMapper.insert(experimentTaskSpanDO);
+        return experimentTaskSpanDO.getId();
+    }
+
+    @Override
+    public boolean updateByPrimaryKey(Long id, ExperimentTaskSpanDO experimentTaskSpanDO) {
+        experimentTaskSpanDO.setId(id);
+        return experimentTaskSpanMapper.updateById(experimentTaskSpanDO) == 1;
+    }
+
+    public List<ExperimentTaskSpanDO> selectByTaskId(Long taskId) {
+        QueryWrapper<ExperimentTaskSpanDO> queryWrapper = QueryWrapperBuilder.build();
+        queryWrapper.lambda().eq(ExperimentTaskSpanDO::getTaskId, taskId);
+        queryWrapper.lambda().orderByAsc(ExperimentTaskSpanDO::getStartNanos);
+        return experimentTaskSpanMapper.selectList(queryWrapper);
+    }
+
+    public int deleteBefore(Long startNanos, int limit) {
+        QueryWrapper<ExperimentTaskSpanDO> queryWrapper = QueryWrapperBuilder.build();
+        queryWrapper.lambda().lt(ExperimentTaskSpanDO::getStartNanos, startNanos);
+        queryWrapper.last("limit " + limit);
+        return experimentTaskSpanMapper.delete(queryWrapper);
+    }
+}
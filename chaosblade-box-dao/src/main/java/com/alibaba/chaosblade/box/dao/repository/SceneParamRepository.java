@@ -58,6 +58,10 @@ public class SceneParamRepository extends ServiceImpl<SceneParamMapper, ScenePar
         return sceneParamMapper.updateById(sceneParamDO) == 1;
     }
 
+    public List<SceneParamDO> selectBySceneId(Long sceneId) {
+        return selectList(SceneParamDO.builder().sceneId(sceneId).build());
+    }
+
     public List<SceneParamDO> selectList(SceneParamDO sceneParamDO) {
         QueryWrapper<SceneParamDO> queryWrapper = QueryWrapperBuilder.build();
         if (sceneParamDO.getSceneId() != null) {
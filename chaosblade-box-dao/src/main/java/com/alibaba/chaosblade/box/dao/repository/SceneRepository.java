@@ -29,6 +29,7 @@ import org.springframework.stereotype.Component;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  * @author yefei
@@ -72,6 +73,12 @@ public class SceneRepository extends ServiceImpl<SceneMapper, SceneDO> implement
         return Optional.ofNullable(sceneMapper.selectOne(queryWrapper));
     }
 
+    public List<String> selectCodesByVersion(String version) {
+        QueryWrapper<SceneDO> queryWrapper = QueryWrapperBuilder.build();
+        queryWrapper.lambda().select(SceneDO::getSceneCode).eq(SceneDO::getVersion, version);
+        return sceneMapper.selectObjs(queryWrapper).stream().map(String::valueOf).collect(Collectors.toList());
+    }
+
     public List<SceneDO> selectByCode(String code) {
         QueryWrapper<SceneDO> queryWrapper = QueryWrapperBuilder.build();
         queryWrapper.lambda().likeRight(SceneDO::getSceneCode, code);
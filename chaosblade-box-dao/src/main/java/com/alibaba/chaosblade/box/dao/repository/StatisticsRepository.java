@@ -0,0 +1,87 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.chaosblade.box.dao.repository;
+
+import cn.hutool.core.date.DateUtil;
+import com.alibaba.chaosblade.box.dao.QueryWrapperBuilder;
+import com.alibaba.chaosblade.box.dao.mapper.StatisticsMapper;
+import com.alibaba.chaosblade.box.dao.model.StatisticsDO;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * @author yefei
+ */
+@Repository
+public class StatisticsRepository implements IRepository<Long, StatisticsDO> {
+
+    @Autowired
+    private StatisticsMapper statisticsMapper;
+
+    @Override
+    public Optional<StatisticsDO> selectById(Long aLong) {
+        return Optional.ofNullable(statisticsMapper.selectById(aLong));
+    }
+
+    @Override
+    public Long insert(StatisticsDO statisticsDO) {
+        statisticsMapper.insert(statisticsDO);
+        return statisticsDO.getId();
+    }
+
+    @Override
+    public boolean updateByPrimaryKey(Long id, StatisticsDO statisticsDO) {
+        statisticsDO.setId(id);
+        return statisticsMapper.updateById(statisticsDO) == 1;
+    }
+
+    public List<StatisticsDO> selectAll() {
+        return statisticsMapper.selectList(QueryWrapperBuilder.build());
+    }
+
+    /**
+     * add delta to the value in database, insert the key if absent
+     *
+     * @param statKey
+     * @param delta
+     */
+    public void increment(String statKey, long delta) {
+        UpdateWrapper<StatisticsDO> updateWrapper = new UpdateWrapper<>();
+        updateWrapper.setSql("stat_value = stat_value + " + delta);
+        updateWrapper.set("gmt_modified", DateUtil.date());
+        updateWrapper.eq("stat_key", statKey);
+        if (statisticsMapper.update(null, updateWrapper) == 0) {
+            save(statKey, delta);
+        }
+    }
+
+    public void save(String statKey, long value) {
+        QueryWrapper<StatisticsDO> queryWrapper = QueryWrapperBuilder.build();
+        queryWrapper.lambda().eq(StatisticsDO::getStatKey, statKey);
+        StatisticsDO statisticsDO = statisticsMapper.selectOne(queryWrapper);
+        if (statisticsDO == null) {
+            statisticsMapper.insert(StatisticsDO.builder().statKey(statKey).statValue(value).build());
+        } else {
+            updateByPrimaryKey(statisticsDO.getId(), StatisticsDO.builder().statValue(value).build());
+        }
+    }
+}
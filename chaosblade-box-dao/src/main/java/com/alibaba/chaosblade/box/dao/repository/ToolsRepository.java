@@ -24,8 +24,8 @@ import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.stream.Collectors;
 
 /**
  * @author yefei
@@ -72,6 +72,16 @@ public class ToolsRepository implements IRepository<Long, ToolsDO> {
         return toolsMapper.selectList(queryWrapper);
     }
 
+    public Map<Long, List<ToolsDO>> selectByDeviceIds(Collection<Long> deviceIds) {
+        if (deviceIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        QueryWrapper<ToolsDO> queryWrapper = QueryWrapperBuilder.build();
+        queryWrapper.lambda().in(ToolsDO::getDeviceId, deviceIds);
+        return toolsMapper.selectList(queryWrapper).stream()
+                .collect(Collectors.groupingBy(ToolsDO::getDeviceId));
+    }
+
     public Integer selectCountOfHost() {
         QueryWrapper<ToolsDO> queryWrapper = QueryWrapperBuilder.build();
         queryWrapper.lambda().eq(ToolsDO::getDeviceType, 0);
@@ -0,0 +1,68 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.chaosblade.box.invoker;
+
+import java.io.IOException;
+
+/**
+ * Connection of a kubernetes cluster, the client built from its kubeconfig is kept by the handle,
+ * a changed cluster gets a new handle.
+ *
+ * @author yefei
+ */
+public class ClusterHandle {
+
+    private final Long clusterId;
+
+    private final String config;
+
+    private volatile Object client;
+
+    public ClusterHandle(Long clusterId, String config) {
+        this.clusterId = clusterId;
+        this.config = config;
+    }
+
+    public Long getClusterId() {
+        return clusterId;
+    }
+
+    public String getConfig() {
+        return config;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T client(ClientFactory<T> factory) throws IOException {
+        Object c = client;
+        if (c == null) {
+            synchronized (this) {
+                c = client;
+                if (c == null) {
+                    c = factory.create(config);
+                    client = c;
+                }
+            }
+        }
+        return (T) c;
+    }
+
+    @FunctionalInterface
+    public interface ClientFactory<T> {
+
+        T create(String config) throws IOException;
+    }
+}
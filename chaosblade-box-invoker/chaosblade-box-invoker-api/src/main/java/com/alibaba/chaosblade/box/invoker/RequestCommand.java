@@ -16,6 +16,8 @@
 
 package com.alibaba.chaosblade.box.invoker;
 
+import com.alibaba.chaosblade.box.common.trace.TraceContext;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 
 import java.util.Map;
@@ -44,4 +46,13 @@ public class RequestCommand {
 
     private String config;
 
+    /**
+     * cluster connection, preferred over config
+     */
+    @JsonIgnore
+    private ClusterHandle cluster;
+
+    @JsonIgnore
+    private TraceContext traceContext = TraceContext.NOOP;
+
 }
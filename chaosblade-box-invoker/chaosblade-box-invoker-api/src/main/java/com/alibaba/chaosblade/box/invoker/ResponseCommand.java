@@ -17,6 +17,7 @@
 package com.alibaba.chaosblade.box.invoker;
 
 import com.alibaba.chaosblade.box.common.jackson.JsonToStringDeserializer;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
@@ -25,6 +26,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 /**
  * @author yefei
  */
@@ -48,4 +51,10 @@ public class ResponseCommand {
     @JsonDeserialize(using = JsonToStringDeserializer.class)
     private String result;
 
+    /**
+     * per resource results, only filled by invokers that can tell them apart
+     */
+    @JsonIgnore
+    private List<TargetResult> targets;
+
 }
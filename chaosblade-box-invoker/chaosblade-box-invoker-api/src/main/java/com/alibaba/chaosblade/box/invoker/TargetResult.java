@@ -0,0 +1,45 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.chaosblade.box.invoker;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Result of a single resource matched by an experiment, e.g. one pod of a ChaosBlade CRD.
+ *
+ * @author yefei
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TargetResult {
+
+    /**
+     * resource identifier, slash separated, e.g. namespace/node/pod/container
+     */
+    private String identifier;
+
+    private boolean success;
+
+    private String state;
+
+    private String error;
+}
@@ -24,8 +24,10 @@ import com.alibaba.chaosblade.box.common.utils.timer.Timer;
 import com.alibaba.chaosblade.box.invoker.ChaosInvoker;
 import com.alibaba.chaosblade.box.invoker.RequestCommand;
 import com.alibaba.chaosblade.box.invoker.ResponseCommand;
+import com.alibaba.chaosblade.box.invoker.TargetResult;
 import com.alibaba.chaosblade.box.invoker.blade.kubeapi.crd.ChaosBlade;
 import com.alibaba.chaosblade.box.invoker.blade.kubeapi.crd.ExperimentStatus;
+import com.alibaba.chaosblade.box.invoker.blade.kubeapi.crd.ResourceStatus;
 import com.alibaba.chaosblade.box.invoker.blade.kubeapi.model.StatusResponseCommand;
 import io.kubernetes.client.openapi.ApiCallback;
 import io.kubernetes.client.openapi.ApiClient;
@@ -36,6 +38,9 @@ import org.springframework.beans.factory.InitializingBean;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
@@ -60,12 +65,35 @@ public abstract class AbstractChaosBladeChaosInvoker implements ChaosInvoker<Req
     }
 
     protected ApiClient getClient(RequestCommand requestCommand) throws IOException {
+        if (requestCommand.getCluster() != null) {
+            return requestCommand.getCluster().client(AbstractChaosBladeChaosInvoker::buildClient);
+        }
         if (StrUtil.isBlank(requestCommand.getConfig())) {
             return client;
-        } else {
-            ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(requestCommand.getConfig().getBytes());
-            return Config.fromConfig(byteArrayInputStream);
         }
+        return buildClient(requestCommand.getConfig());
+    }
+
+    private static ApiClient buildClient(String config) throws IOException {
+        return Config.fromConfig(new ByteArrayInputStream(config.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static List<TargetResult> toTargets(ExperimentStatus[] expStatuses) {
+        List<TargetResult> targets = new ArrayList<>();
+        for (ExperimentStatus expStatus : expStatuses) {
+            if (ArrayUtil.isEmpty(expStatus.getResStatuses())) {
+                continue;
+            }
+            for (ResourceStatus resStatus : expStatus.getResStatuses()) {
+                targets.add(TargetResult.builder()
+                        .identifier(resStatus.getIdentifier())
+                        .success(Boolean.parseBoolean(resStatus.getSuccess()))
+                        .state(resStatus.getState())
+                        .error(resStatus.getError())
+                        .build());
+            }
+        }
+        return targets;
     }
 
     protected CompletableFuture<StatusResponseCommand> checkStatus(RequestCommand requestCommand) {
@@ -101,6 +129,7 @@ public abstract class AbstractChaosBladeChaosInvoker implements ChaosInvoker<Req
                                 statusResponseCommand.setState(expStatus.getState());
                                 statusResponseCommand.setError(expStatus.getError());
                                 statusResponseCommand.setSuccess(expStatus.isSuccess());
+                                statusResponseCommand.setTargets(toTargets(chaosBlade.getStatus().getExpStatuses()));
                             }
 
                             statusResponseCommand.setPhase(chaosBlade.getStatus().getPhase());
@@ -20,6 +20,8 @@ import cn.hutool.core.util.IdUtil;
 import cn.hutool.core.util.StrUtil;
 import com.alibaba.chaosblade.box.common.constants.ChaosConstant;
 import com.alibaba.chaosblade.box.common.enums.DeviceType;
+import com.alibaba.chaosblade.box.common.trace.Span;
+import com.alibaba.chaosblade.box.common.trace.SpanKind;
 import com.alibaba.chaosblade.box.common.utils.JsonUtils;
 import com.alibaba.chaosblade.box.common.utils.SceneCodeParseUtil;
 import com.alibaba.chaosblade.box.common.utils.timer.HashedWheelTimer;
@@ -103,7 +105,9 @@ public class ChaosBladeAttackChaosInvoker extends AbstractChaosBladeChaosInvoker
 
                         @Override
                         public void onSuccess(Object result, int statusCode, Map responseHeaders) {
-                            checkStatus(completableFuture, v1ObjectMeta.getName(), requestCommand.getConfig());
+                            Span span = requestCommand.getTraceContext().start(SpanKind.POLL, "checkStatus");
+                            completableFuture.whenComplete((r, e) -> span.end(e == null && r.isSuccess()));
+                            checkStatus(completableFuture, v1ObjectMeta.getName(), requestCommand);
                         }
 
                         @Override
@@ -142,12 +146,13 @@ public class ChaosBladeAttackChaosInvoker extends AbstractChaosBladeChaosInvoker
         });
     }
 
-    private void checkStatus(CompletableFuture<ResponseCommand> future, String name, String config) {
+    private void checkStatus(CompletableFuture<ResponseCommand> future, String name, RequestCommand source) {
 
         timer.newTimeout(timeout -> {
             RequestCommand requestCommand = new RequestCommand();
             requestCommand.setName(name);
-            requestCommand.setConfig(config);
+            requestCommand.setConfig(source.getConfig());
+            requestCommand.setCluster(source.getCluster());
 
             CompletableFuture<StatusResponseCommand> completableFuture = checkStatus(requestCommand);
 
@@ -172,7 +177,7 @@ public class ChaosBladeAttackChaosInvoker extends AbstractChaosBladeChaosInvoker
                         if ("Running".equals(statusResponseCommand.getPhase())) {
                             future.complete(statusResponseCommand);
                         } else {
-                            checkStatus(future, name, config);
+                            checkStatus(future, name, source);
                         }
                     }
                 }
@@ -19,6 +19,8 @@ package com.alibaba.chaosblade.box.invoker.blade.kubeapi;
 import cn.hutool.core.util.StrUtil;
 import com.alibaba.chaosblade.box.common.constants.ChaosConstant;
 import com.alibaba.chaosblade.box.common.enums.DeviceType;
+import com.alibaba.chaosblade.box.common.trace.Span;
+import com.alibaba.chaosblade.box.common.trace.SpanKind;
 import com.alibaba.chaosblade.box.common.exception.BizException;
 import com.alibaba.chaosblade.box.invoker.ChaosInvokerStrategy;
 import com.alibaba.chaosblade.box.invoker.RequestCommand;
@@ -80,7 +82,9 @@ public class ChaosBladeRecoverChaosInvoker extends AbstractChaosBladeChaosInvoke
 
                         @Override
                         public void onSuccess(Object result, int statusCode, Map responseHeaders) {
-                            checkStatus(completableFuture, requestCommand.getName(), requestCommand.getConfig());
+                            Span span = requestCommand.getTraceContext().start(SpanKind.POLL, "checkStatus");
+                            completableFuture.whenComplete((r, e) -> span.end(e == null && r.isSuccess()));
+                            checkStatus(completableFuture, requestCommand.getName(), requestCommand);
                         }
 
                         @Override
@@ -109,12 +113,13 @@ public class ChaosBladeRecoverChaosInvoker extends AbstractChaosBladeChaosInvoke
     }
 
 
-    private void checkStatus(CompletableFuture<ResponseCommand> future, String name, String config) {
+    private void checkStatus(CompletableFuture<ResponseCommand> future, String name, RequestCommand source) {
 
         timer.newTimeout(timeout -> {
                     RequestCommand requestCommand = new RequestCommand();
                     requestCommand.setName(name);
-                    requestCommand.setConfig(config);
+                    requestCommand.setConfig(source.getConfig());
+                    requestCommand.setCluster(source.getCluster());
 
                     CompletableFuture<StatusResponseCommand> completableFuture = checkStatus(requestCommand);
 
@@ -142,7 +147,7 @@ public class ChaosBladeRecoverChaosInvoker extends AbstractChaosBladeChaosInvoke
                             if ("Destroyed".equals(statusResponseCommand.getPhase())) {
                                 future.complete(statusResponseCommand);
                             } else {
-                                checkStatus(future, name, config);
+                                checkStatus(future, name, source);
                             }
 
                         }
@@ -17,6 +17,7 @@
 package com.alibaba.chaosblade.box.invoker.blade.kubeapi;
 
 import com.alibaba.chaosblade.box.invoker.blade.kubeapi.crd.ExperimentStatus;
+import com.alibaba.chaosblade.box.invoker.blade.kubeapi.crd.ResourceStatus;
 import com.alibaba.testable.core.annotation.MockMethod;
 import io.kubernetes.client.openapi.ApiCallback;
 import io.kubernetes.client.openapi.ApiException;
@@ -48,6 +49,17 @@ public class AbstractChaosBladeChaosInvokerMock {
         List<ExperimentStatus> value = new ArrayList<>();
         value.add(ExperimentStatus.builder()
                 .success(true)
+                .resStatuses(new ResourceStatus[]{
+                        ResourceStatus.builder()
+                                .identifier("default/node1/pod1")
+                                .success("true")
+                                .build(),
+                        ResourceStatus.builder()
+                                .identifier("default/node1/pod2")
+                                .success("false")
+                                .error("container not found")
+                                .build()
+                })
                 .build());
 
         status.put("expStatuses", value);
@@ -87,6 +87,10 @@ public class ChaosBladeAttackChaosInvokerTest {
 
         ResponseCommand responseCommand = chaosBladeAttackChaosInvoker.invoke(requestCommand).get();
         Assert.assertTrue(responseCommand.isSuccess());
+        Assert.assertEquals(2, responseCommand.getTargets().size());
+        Assert.assertEquals("default/node1/pod2", responseCommand.getTargets().get(1).getIdentifier());
+        Assert.assertFalse(responseCommand.getTargets().get(1).isSuccess());
+        Assert.assertEquals("container not found", responseCommand.getTargets().get(1).getError());
     }
 
 }
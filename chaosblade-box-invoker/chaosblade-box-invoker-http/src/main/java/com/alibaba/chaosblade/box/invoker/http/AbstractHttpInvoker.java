@@ -17,7 +17,6 @@
 package com.alibaba.chaosblade.box.invoker.http;
 
 import cn.hutool.core.util.StrUtil;
-import com.alibaba.chaosblade.box.common.utils.JsonUtils;
 import com.alibaba.chaosblade.box.invoker.ChaosInvoker;
 import com.alibaba.chaosblade.box.invoker.ResponseCommand;
 import com.alibaba.chaosblade.box.invoker.http.constant.Header;
@@ -27,15 +26,13 @@ import org.apache.http.HttpResponse;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.concurrent.FutureCallback;
-import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
 import org.apache.http.impl.nio.client.HttpAsyncClients;
-import org.apache.http.util.EntityUtils;
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
 
 import java.io.IOException;
-import java.nio.charset.Charset;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -47,6 +44,12 @@ public abstract class AbstractHttpInvoker implements ChaosInvoker<HttpChannelReq
 
     private CloseableHttpAsyncClient httpclient;
 
+    /**
+     * ask agents for gzip responses, agents without gzip support answer plain json
+     */
+    @Value("${chaos.agent.compress:true}")
+    private boolean compress;
+
     @Override
     public void destroy() throws Exception {
         httpclient.close();
@@ -73,10 +76,17 @@ public abstract class AbstractHttpInvoker implements ChaosInvoker<HttpChannelReq
         }
 
         httpPost.setHeader("Accept", "application/json;charset=UTF-8");
-        httpPost.setHeader("Content-Type", "application/x-www-form-urlencoded");
+        if (compress) {
+            httpPost.setHeader(AgentCodec.ACCEPT_ENCODING, AgentCodec.GZIP);
+        }
 
-        StringEntity stringEntity = new StringEntity(JsonUtils.writeValueAsString(requestCommand), Charset.defaultCharset());
-        httpPost.setEntity(stringEntity);
+        try {
+            httpPost.setEntity(AgentCodec.encode(requestCommand));
+        } catch (IOException e) {
+            CompletableFuture<ResponseCommand> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
 
         if (requestCommand.getTimeout() != null) {
             httpPost.setConfig(RequestConfig.custom().setSocketTimeout(requestCommand.getTimeout().intValue()).build());
@@ -88,8 +98,7 @@ public abstract class AbstractHttpInvoker implements ChaosInvoker<HttpChannelReq
             public void completed(HttpResponse httpResponse) {
                 HttpEntity entity = httpResponse.getEntity();
                 try {
-                    ResponseCommand v = JsonUtils.readValue(ResponseCommand.class, EntityUtils.toByteArray(entity));
-                    completableFuture.complete(v);
+                    completableFuture.complete(AgentCodec.decode(entity));
                 } catch (IOException e) {
                     completableFuture.completeExceptionally(e);
                 }
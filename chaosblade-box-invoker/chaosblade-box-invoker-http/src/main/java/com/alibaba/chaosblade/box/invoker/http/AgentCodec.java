@@ -0,0 +1,66 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.chaosblade.box.invoker.http;
+
+import com.alibaba.chaosblade.box.common.utils.JsonUtils;
+import com.alibaba.chaosblade.box.invoker.ResponseCommand;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Encodes agent requests and decodes agent responses, UTF-8 json, gzip responses accepted.
+ *
+ * @author yefei
+ */
+public class AgentCodec {
+
+    public static final String ACCEPT_ENCODING = "Accept-Encoding";
+
+    public static final String GZIP = "gzip";
+
+    private static final ObjectWriter WRITER = JsonUtils.writer();
+
+    private static final ObjectReader READER = JsonUtils.reader(ResponseCommand.class);
+
+    /**
+     * jackson writes into its recycled buffers, the bytes are handed to the entity without a String copy
+     */
+    public static HttpEntity encode(Object request) throws IOException {
+        return new ByteArrayEntity(WRITER.writeValueAsBytes(request), ContentType.APPLICATION_JSON);
+    }
+
+    public static ResponseCommand decode(HttpEntity entity) throws IOException {
+        try (InputStream inputStream = isGzip(entity)
+                ? new GZIPInputStream(entity.getContent())
+                : entity.getContent()) {
+            return READER.readValue(inputStream);
+        }
+    }
+
+    private static boolean isGzip(HttpEntity entity) {
+        Header encoding = entity.getContentEncoding();
+        return encoding != null && GZIP.equalsIgnoreCase(encoding.getValue());
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.chaosblade.box.invoker.http;
+
+import com.alibaba.chaosblade.box.common.utils.JsonUtils;
+import com.alibaba.chaosblade.box.invoker.ResponseCommand;
+import com.alibaba.chaosblade.box.invoker.http.model.reuest.HttpChannelRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.util.EntityUtils;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * @author yefei
+ */
+@Slf4j
+public class AgentCodecTest {
+
+    @Test
+    public void testEncodeUtf8() throws Exception {
+        HttpChannelRequest request = new HttpChannelRequest();
+        request.setSceneCode("chaosblade.cpu.fullload");
+        request.addParam("desc", "演练");
+
+        HttpEntity entity = AgentCodec.encode(request);
+        Assert.assertEquals("application/json; charset=UTF-8", entity.getContentType().getValue());
+
+        String body = new String(EntityUtils.toByteArray(entity), StandardCharsets.UTF_8);
+        Assert.assertTrue(body.contains("演练"));
+    }
+
+    @Test
+    public void testDecodeGzip() throws Exception {
+        String json = "{\"Code\":\"200\",\"Success\":true,\"Result\":{\"uid\":\"abc\"}}";
+        ByteArrayEntity entity = new ByteArrayEntity(gzip(json.getBytes(StandardCharsets.UTF_8)));
+        entity.setContentEncoding(AgentCodec.GZIP);
+
+        ResponseCommand responseCommand = AgentCodec.decode(entity);
+        Assert.assertTrue(responseCommand.isSuccess());
+        Assert.assertEquals("{\"uid\":\"abc\"}", responseCommand.getResult());
+
+        responseCommand = AgentCodec.decode(new StringEntity(json));
+        Assert.assertEquals("200", responseCommand.getCode());
+    }
+
+    @Test
+    @Ignore("benchmark, run manually")
+    public void benchmark() throws Exception {
+        HttpChannelRequest request = new HttpChannelRequest();
+        request.setSceneCode("chaosblade.network.delay");
+        Map<String, String> arguments = new HashMap<>();
+        for (int i = 0; i < 20; i++) {
+            arguments.put("flag" + i, "value-" + i);
+        }
+        request.setArguments(arguments);
+
+        StringBuilder result = new StringBuilder("[");
+        for (int i = 0; i < 200; i++) {
+            result.append(i == 0 ? "" : ",").append("{\"pid\":").append(i).append(",\"cmd\":\"java -jar app.jar\"}");
+        }
+        byte[] response = ("{\"Code\":\"200\",\"Success\":true,\"Result\":" + result + "]}").getBytes(StandardCharsets.UTF_8);
+        byte[] gzipResponse = gzip(response);
+
+        int rounds = 5000;
+        for (int warmup = 0; warmup < 2; warmup++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < rounds; i++) {
+                EntityUtils.toByteArray(new StringEntity(JsonUtils.writeValueAsString(request), Charset.defaultCharset()));
+                JsonUtils.readValue(ResponseCommand.class, EntityUtils.toByteArray(new ByteArrayEntity(response)));
+            }
+            long legacy = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < rounds; i++) {
+                EntityUtils.toByteArray(AgentCodec.encode(request));
+                AgentCodec.decode(new ByteArrayEntity(response));
+            }
+            long codec = System.nanoTime() - start;
+
+            log.info("per call, legacy: {} ns, codec: {} ns, response bytes plain: {}, gzip: {}",
+                    legacy / rounds, codec / rounds, response.length, gzipResponse.length);
+        }
+        Assert.assertTrue(gzipResponse.length < response.length);
+    }
+
+    private static byte[] gzip(byte[] bytes) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
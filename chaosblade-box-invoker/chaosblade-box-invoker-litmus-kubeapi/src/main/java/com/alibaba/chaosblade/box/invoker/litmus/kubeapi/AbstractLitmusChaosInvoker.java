@@ -27,6 +27,8 @@ import io.kubernetes.client.util.Config;
 import org.springframework.beans.factory.InitializingBean;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -44,8 +46,16 @@ public abstract class AbstractLitmusChaosInvoker implements ChaosInvoker<Request
     }
 
     protected ApiClient getClient(RequestCommand requestCommand) throws Exception {
+        return resolveClient(requestCommand, client);
+    }
+
+    static ApiClient resolveClient(RequestCommand requestCommand, ApiClient defaultClient) throws IOException {
+        if (requestCommand.getCluster() != null) {
+            return requestCommand.getCluster().client(config ->
+                    Config.fromConfig(new ByteArrayInputStream(config.getBytes(StandardCharsets.UTF_8))));
+        }
         if (StrUtil.isBlank(requestCommand.getConfig())) {
-            return client;
+            return defaultClient;
         } else {
             ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(requestCommand.getConfig().getBytes());
             return Config.fromConfig(byteArrayInputStream);
@@ -16,35 +16,28 @@
 
 package com.alibaba.chaosblade.box.invoker.litmus.kubeapi;
 
-import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.util.IdUtil;
 import cn.hutool.core.util.StrUtil;
 import com.alibaba.chaosblade.box.common.constants.ChaosConstant;
 import com.alibaba.chaosblade.box.common.enums.ChaosTools;
 import com.alibaba.chaosblade.box.common.enums.DeviceType;
-import com.alibaba.chaosblade.box.common.utils.JsonUtils;
+import com.alibaba.chaosblade.box.common.trace.Span;
+import com.alibaba.chaosblade.box.common.trace.SpanKind;
 import com.alibaba.chaosblade.box.common.utils.SceneCodeParseUtil;
 import com.alibaba.chaosblade.box.invoker.ChaosInvokerStrategy;
 import com.alibaba.chaosblade.box.invoker.RequestCommand;
 import com.alibaba.chaosblade.box.invoker.ResponseCommand;
 import com.alibaba.chaosblade.box.invoker.litmus.kubeapi.crd.engine.*;
-import com.alibaba.chaosblade.box.scenario.litmus.LitmusScenarioParser;
-import com.alibaba.chaosblade.box.scenario.litmus.model.ChaosExperiment;
 import com.alibaba.chaosblade.box.scenario.litmus.model.experiments.ChaosExperimentDefinitionEnv;
 import io.kubernetes.client.openapi.ApiCallback;
 import io.kubernetes.client.openapi.ApiException;
-import io.kubernetes.client.openapi.apis.CoreV1Api;
 import io.kubernetes.client.openapi.apis.CustomObjectsApi;
-import io.kubernetes.client.openapi.apis.RbacAuthorizationV1Api;
-import io.kubernetes.client.openapi.models.*;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.util.Arrays;
-import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collectors;
 
 /**
  * @author yefei
@@ -58,115 +51,7 @@ import java.util.stream.Collectors;
 public class LitmusAttackChaosInvoker extends AbstractLitmusChaosInvoker {
 
     @Autowired
-    private LitmusScenarioParser litmusScenarioParser;
-
-    private String preExperiment(RequestCommand requestCommand) throws Exception {
-        CompletableFuture<ResponseCommand> future = new CompletableFuture<>();
-        String serviceAccount = requestCommand.getSceneCode() + SA_SUFFIX;
-        Map<String, ChaosExperiment> experimentMap = litmusScenarioParser.getExperimentMap();
-        ChaosExperiment chaosExperiment = experimentMap.get(requestCommand.getSceneCode());
-
-        try {
-            CustomObjectsApi customObjectsApi = new CustomObjectsApi(getClient(requestCommand));
-            customObjectsApi.createNamespacedCustomObject(
-                    Constants.GROUP,
-                    Constants.VERSION,
-                    requestCommand.getNamespace(),
-                    Constants.EXPERIMENT_PLURAL,
-                    JsonUtils.writeValueAsBytes(chaosExperiment),
-                    "true",
-                    null,
-                    null
-            );
-        } catch (ApiException e) {
-            if (e.getCode() == 409) {
-                // ignore
-            } else {
-                future.complete(ResponseCommand.builder()
-                        .code(String.valueOf(e.getCode()))
-                        .error(e.getMessage())
-                        .result(e.getResponseBody())
-                        .success(false).build());
-            }
-        }
-        try {
-            CoreV1Api apiInstance = new CoreV1Api(getClient(requestCommand));
-            // todo
-            V1ServiceAccount v1ServiceAccount = new V1ServiceAccount();
-            v1ServiceAccount.metadata(new V1ObjectMeta().name(serviceAccount).namespace(requestCommand.getNamespace()));
-            apiInstance.createNamespacedServiceAccount(
-                    requestCommand.getNamespace(),
-                    v1ServiceAccount,
-                    "true",
-                    null,
-                    null
-            );
-
-        } catch (ApiException e) {
-            if (e.getCode() == 409) {
-                // ignore
-            } else {
-                future.complete(ResponseCommand.builder()
-                        .code(String.valueOf(e.getCode()))
-                        .error(e.getMessage())
-                        .result(e.getResponseBody())
-                        .success(false).build());
-            }
-        }
-        RbacAuthorizationV1Api rbacAuthorizationV1Api = new RbacAuthorizationV1Api(getClient(requestCommand));
-        try {
-            // role
-            V1ClusterRole v1ClusterRole = new V1ClusterRole();
-
-            v1ClusterRole.metadata(new V1ObjectMeta()
-                    .name(serviceAccount)
-                    .namespace(requestCommand.getNamespace())
-            );
-            List<V1PolicyRule> policyRules = Arrays.stream(chaosExperiment.getSpec().getDefinition().getPermissions())
-                    .map(permission ->
-                            new V1PolicyRule()
-                                    .apiGroups(Arrays.asList(permission.getApiGroups()))
-                                    .resources(Arrays.asList(permission.getResources()))
-                                    .verbs(Arrays.asList(permission.getVerbs()))
-                    ).collect(Collectors.toList());
-
-            v1ClusterRole.setRules(policyRules);
-            rbacAuthorizationV1Api.createClusterRole(v1ClusterRole, "true", null, null);
-        } catch (ApiException e) {
-            if (e.getCode() == 409) {
-                // ignore
-            } else {
-                future.complete(ResponseCommand.builder()
-                        .code(String.valueOf(e.getCode()))
-                        .error(e.getMessage())
-                        .result(e.getResponseBody())
-                        .success(false).build());
-            }
-        }
-        try {
-            // role binding
-            V1ClusterRoleBinding v1RoleBinding = new V1ClusterRoleBinding();
-            v1RoleBinding.metadata(new V1ObjectMeta()
-                    .namespace(requestCommand.getNamespace())
-                    .name(serviceAccount))
-                    .roleRef(new V1RoleRef().apiGroup("rbac.authorization.k8s.io").kind("ClusterRole").name(serviceAccount))
-                    .setSubjects(CollUtil.newArrayList(new V1Subject()
-                            .kind("ServiceAccount").name(serviceAccount).namespace(requestCommand.getNamespace())));
-
-            rbacAuthorizationV1Api.createClusterRoleBinding(v1RoleBinding, "true", null, null);
-        } catch (ApiException e) {
-            if (e.getCode() == 409) {
-                // ignore
-            } else {
-                future.complete(ResponseCommand.builder()
-                        .code(String.valueOf(e.getCode()))
-                        .error(e.getMessage())
-                        .result(e.getResponseBody())
-                        .success(false).build());
-            }
-        }
-        return serviceAccount;
-    }
+    private LitmusProvisioner litmusProvisioner;
 
     @Override
     public CompletableFuture<ResponseCommand> invoke(RequestCommand requestCommand) {
@@ -175,8 +60,21 @@ public class LitmusAttackChaosInvoker extends AbstractLitmusChaosInvoker {
         }
 
         CompletableFuture<ResponseCommand> completableFuture = new CompletableFuture<>();
+        Span span = requestCommand.getTraceContext().start(SpanKind.INVOKE, "preExperiment");
+        litmusProvisioner.provision(requestCommand).whenComplete((serviceAccount, e) -> {
+            span.end(e == null);
+            if (e != null) {
+                completableFuture.completeExceptionally(e);
+            } else {
+                createEngine(requestCommand, serviceAccount, completableFuture);
+            }
+        });
+        return completableFuture;
+    }
+
+    private void createEngine(RequestCommand requestCommand, String serviceAccount,
+                              CompletableFuture<ResponseCommand> completableFuture) {
         try {
-            String serviceAccount = preExperiment(requestCommand);
             CustomObjectsApi apiInstance = new CustomObjectsApi(getClient(requestCommand));
 
             V1ObjectMeta v1ObjectMeta = new V1ObjectMeta();
@@ -276,7 +174,6 @@ public class LitmusAttackChaosInvoker extends AbstractLitmusChaosInvoker {
         } catch (Exception e) {
             completableFuture.completeExceptionally(e);
         }
-        return completableFuture;
     }
 
 }
@@ -0,0 +1,261 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.chaosblade.box.invoker.litmus.kubeapi;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.util.StrUtil;
+import com.alibaba.chaosblade.box.common.constants.ChaosConstant;
+import com.alibaba.chaosblade.box.common.utils.JsonUtils;
+import com.alibaba.chaosblade.box.invoker.RequestCommand;
+import com.alibaba.chaosblade.box.scenario.litmus.LitmusScenarioParser;
+import com.alibaba.chaosblade.box.scenario.litmus.model.ChaosExperiment;
+import io.kubernetes.client.openapi.ApiClient;
+import io.kubernetes.client.openapi.ApiException;
+import io.kubernetes.client.openapi.apis.CoreV1Api;
+import io.kubernetes.client.openapi.apis.CustomObjectsApi;
+import io.kubernetes.client.openapi.apis.RbacAuthorizationV1Api;
+import io.kubernetes.client.openapi.models.*;
+import io.kubernetes.client.util.Config;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Provisions the prerequisites of a litmus experiment, the ChaosExperiment, service account and RBAC,
+ * once per (cluster, namespace, experiment). Provisioned keys are re-verified in background after ttl,
+ * and can be provisioned ahead of the attack by {@link #prewarm(RequestCommand)}.
+ *
+ * @author yefei
+ */
+@Slf4j
+@Component
+public class LitmusProvisioner implements InitializingBean, DisposableBean {
+
+    private static final String DEFAULT_NAMESPACE = "default";
+
+    private static final String DEFAULT_CLUSTER = "default";
+
+    @Autowired
+    private LitmusScenarioParser litmusScenarioParser;
+
+    @Value("${chaos.litmus.provision.ttl:600000}")
+    private long ttl;
+
+    @Value("${chaos.litmus.provision.parallelism:4}")
+    private int parallelism;
+
+    private final Map<String, Provision> provisions = new ConcurrentHashMap<>();
+
+    private ApiClient client;
+
+    private ExecutorService executor;
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        client = Config.defaultClient();
+        AtomicInteger threadIndex = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread thread = new Thread(r);
+            thread.setDaemon(true);
+            thread.setName("LITMUS-PROVISION-" + threadIndex.incrementAndGet());
+            return thread;
+        });
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @return service account of the experiment, completes at once if it was provisioned
+     */
+    public CompletableFuture<String> provision(RequestCommand requestCommand) {
+        String key = key(requestCommand);
+        Provision provision = provisions.compute(key, (k, old) -> {
+            if (old != null && (!old.future.isDone() || old.present)) {
+                return old;
+            }
+            return start(requestCommand);
+        });
+        if (provision.present && System.currentTimeMillis() - provision.time > ttl
+                && provision.verifying.compareAndSet(false, true)) {
+            Provision verified = start(requestCommand);
+            verified.future.whenComplete((r, e) -> provisions.replace(key, provision, verified));
+        }
+        return provision.future;
+    }
+
+    public void prewarm(RequestCommand requestCommand) {
+        provision(requestCommand).whenComplete((r, e) -> {
+            if (e != null) {
+                log.warn("Prewarm litmus experiment {} failed", requestCommand.getSceneCode(), e);
+            }
+        });
+    }
+
+    /**
+     * forget the provision, e.g. its resources were deleted
+     */
+    public void invalidate(RequestCommand requestCommand) {
+        provisions.remove(key(requestCommand));
+    }
+
+    private Provision start(RequestCommand requestCommand) {
+        Provision provision = new Provision();
+        executor.execute(() -> {
+            try {
+                provision.future.complete(create(requestCommand, provision));
+            } catch (Exception e) {
+                provision.future.completeExceptionally(e);
+            }
+        });
+        return provision;
+    }
+
+    private String create(RequestCommand requestCommand, Provision provision) throws Exception {
+        String sceneCode = sceneCode(requestCommand);
+        String namespace = namespace(requestCommand);
+        String serviceAccount = sceneCode + AbstractLitmusChaosInvoker.SA_SUFFIX;
+        ChaosExperiment chaosExperiment = litmusScenarioParser.getExperimentMap().get(sceneCode);
+        ApiClient apiClient = AbstractLitmusChaosInvoker.resolveClient(requestCommand, client);
+        boolean present = true;
+
+        try {
+            CustomObjectsApi customObjectsApi = new CustomObjectsApi(apiClient);
+            customObjectsApi.createNamespacedCustomObject(
+                    Constants.GROUP,
+                    Constants.VERSION,
+                    namespace,
+                    Constants.EXPERIMENT_PLURAL,
+                    JsonUtils.writeValueAsBytes(chaosExperiment),
+                    "true",
+                    null,
+                    null
+            );
+        } catch (ApiException e) {
+            present &= created(e, "experiment", sceneCode);
+        }
+        try {
+            CoreV1Api apiInstance = new CoreV1Api(apiClient);
+            V1ServiceAccount v1ServiceAccount = new V1ServiceAccount();
+            v1ServiceAccount.metadata(new V1ObjectMeta().name(serviceAccount).namespace(namespace));
+            apiInstance.createNamespacedServiceAccount(
+                    namespace,
+                    v1ServiceAccount,
+                    "true",
+                    null,
+                    null
+            );
+        } catch (ApiException e) {
+            present &= created(e, "service account", serviceAccount);
+        }
+        RbacAuthorizationV1Api rbacAuthorizationV1Api = new RbacAuthorizationV1Api(apiClient);
+        try {
+            // role
+            V1ClusterRole v1ClusterRole = new V1ClusterRole();
+            v1ClusterRole.metadata(new V1ObjectMeta()
+                    .name(serviceAccount)
+                    .namespace(namespace)
+            );
+            List<V1PolicyRule> policyRules = Arrays.stream(chaosExperiment.getSpec().getDefinition().getPermissions())
+                    .map(permission ->
+                            new V1PolicyRule()
+                                    .apiGroups(Arrays.asList(permission.getApiGroups()))
+                                    .resources(Arrays.asList(permission.getResources()))
+                                    .verbs(Arrays.asList(permission.getVerbs()))
+                    ).collect(Collectors.toList());
+
+            v1ClusterRole.setRules(policyRules);
+            rbacAuthorizationV1Api.createClusterRole(v1ClusterRole, "true", null, null);
+        } catch (ApiException e) {
+            present &= created(e, "cluster role", serviceAccount);
+        }
+        try {
+            // role binding
+            V1ClusterRoleBinding v1RoleBinding = new V1ClusterRoleBinding();
+            v1RoleBinding.metadata(new V1ObjectMeta()
+                    .namespace(namespace)
+                    .name(serviceAccount))
+                    .roleRef(new V1RoleRef().apiGroup("rbac.authorization.k8s.io").kind("ClusterRole").name(serviceAccount))
+                    .setSubjects(CollUtil.newArrayList(new V1Subject()
+                            .kind("ServiceAccount").name(serviceAccount).namespace(namespace)));
+
+            rbacAuthorizationV1Api.createClusterRoleBinding(v1RoleBinding, "true", null, null);
+        } catch (ApiException e) {
+            present &= created(e, "cluster role binding", serviceAccount);
+        }
+
+        provision.time = System.currentTimeMillis();
+        provision.present = present;
+        return serviceAccount;
+    }
+
+    /**
+     * conflict means the resource exists, other failures are left to the chaos engine to report
+     */
+    private boolean created(ApiException e, String kind, String name) {
+        if (e.getCode() == 409) {
+            return true;
+        }
+        log.warn("Create litmus {} {} failed, code: {}, body: {}", kind, name, e.getCode(), e.getResponseBody());
+        return false;
+    }
+
+    private String key(RequestCommand requestCommand) {
+        String cluster;
+        if (requestCommand.getCluster() != null) {
+            cluster = requestCommand.getCluster().getClusterId() + ":"
+                    + StrUtil.nullToEmpty(requestCommand.getCluster().getConfig()).hashCode();
+        } else if (StrUtil.isNotBlank(requestCommand.getConfig())) {
+            cluster = String.valueOf(requestCommand.getConfig().hashCode());
+        } else {
+            cluster = DEFAULT_CLUSTER;
+        }
+        return cluster + "/" + namespace(requestCommand) + "/" + sceneCode(requestCommand);
+    }
+
+    private static String namespace(RequestCommand requestCommand) {
+        return StrUtil.blankToDefault(requestCommand.getNamespace(), DEFAULT_NAMESPACE);
+    }
+
+    private static String sceneCode(RequestCommand requestCommand) {
+        return StrUtil.removeSuffix(requestCommand.getSceneCode(), ChaosConstant.CHAOS_DESTROY_SUFFIX);
+    }
+
+    private static class Provision {
+
+        private final CompletableFuture<String> future = new CompletableFuture<>();
+
+        private final AtomicBoolean verifying = new AtomicBoolean();
+
+        private volatile boolean present;
+
+        private volatile long time;
+    }
+}
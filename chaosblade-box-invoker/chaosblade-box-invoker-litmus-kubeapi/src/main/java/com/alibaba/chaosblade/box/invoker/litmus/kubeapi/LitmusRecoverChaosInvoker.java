@@ -30,6 +30,8 @@ import io.kubernetes.client.openapi.apis.CoreV1Api;
 import io.kubernetes.client.openapi.apis.CustomObjectsApi;
 import io.kubernetes.client.openapi.apis.RbacAuthorizationV1Api;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.Map;
@@ -47,6 +49,16 @@ import java.util.concurrent.CompletableFuture;
 @Component
 public class LitmusRecoverChaosInvoker extends AbstractLitmusChaosInvoker {
 
+    @Autowired
+    private LitmusProvisioner litmusProvisioner;
+
+    /**
+     * keep the experiment, service account and RBAC for later attacks instead of deleting them on recovery,
+     * they are shared by experiments of the same scene in a namespace
+     */
+    @Value("${chaos.litmus.provision.keep:false}")
+    private boolean keepProvision;
+
     @Override
     public CompletableFuture<ResponseCommand> invoke(RequestCommand requestCommand) {
         if (StrUtil.isBlank(requestCommand.getNamespace())) {
@@ -128,6 +140,10 @@ public class LitmusRecoverChaosInvoker extends AbstractLitmusChaosInvoker {
     }
 
     private void clean(RequestCommand requestCommand) throws Exception {
+        if (keepProvision) {
+            return;
+        }
+        litmusProvisioner.invalidate(requestCommand);
         String serviceAccount = requestCommand.getSceneCode().replace(ChaosConstant.CHAOS_DESTROY_SUFFIX, "") + SA_SUFFIX;
 
         String experimentName;
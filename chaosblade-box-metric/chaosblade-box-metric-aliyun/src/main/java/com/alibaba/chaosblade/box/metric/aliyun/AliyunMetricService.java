@@ -18,26 +18,29 @@ package com.alibaba.chaosblade.box.metric.aliyun;
 
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.date.DateUtil;
+import cn.hutool.core.util.StrUtil;
 import com.alibaba.chaosblade.box.common.DeviceMeta;
 import com.alibaba.chaosblade.box.common.exception.BizException;
 import com.alibaba.chaosblade.box.common.utils.JsonUtils;
 import com.alibaba.chaosblade.box.common.utils.Preconditions;
 import com.alibaba.chaosblade.box.metric.*;
-import com.alibaba.chaosblade.box.metric.*;
 import com.aliyuncs.DefaultAcsClient;
 import com.aliyuncs.IAcsClient;
 import com.aliyuncs.cms.model.v20190101.DescribeMetricListRequest;
 import com.aliyuncs.cms.model.v20190101.DescribeMetricListResponse;
 import com.aliyuncs.exceptions.ClientException;
 import com.aliyuncs.profile.DefaultProfile;
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-import java.util.Map;
-import java.util.concurrent.CompletableFuture;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 /**
@@ -46,102 +49,170 @@ import java.util.stream.Collectors;
 @Slf4j
 @Service
 @MetricStrategy(MetricSource.ALIYUN)
-public class AliyunMetricService implements MetricService, InitializingBean {
+public class AliyunMetricService implements MetricService, InitializingBean, DisposableBean {
 
     private final static String PARAM_REGION = "region";
 
+    private final static String INSTANCE_ID = "instanceId";
+
+    private final static String[] DIMENSIONS = {"Average", "Minimum", "Maximum"};
+
+    @Value("${chaos.metric.aliyun.ak:}")
     private String ak;
 
+    @Value("${chaos.metric.aliyun.sk:}")
     private String sk;
 
+    @Value("${chaos.metric.aliyun.concurrency:4}")
+    private int concurrency;
+
+    /**
+     * requests per second to cms
+     */
+    @Value("${chaos.metric.aliyun.qps:10}")
+    private int qps;
+
+    /**
+     * instance ids of one request
+     */
+    @Value("${chaos.metric.aliyun.batch-size:10}")
+    private int batchSize;
+
     private IAcsClient client;
 
+    private ExecutorService executor;
+
+    private final Map<String, DefaultProfile> profiles = new ConcurrentHashMap<>();
+
+    private long nextRequestNanos;
+
     @Override
     public CompletableFuture<List<MetricChartLineResponse>> selectChartLine(MetricChartLineRequest metricChartLineRequest) {
-        CompletableFuture<List<MetricChartLineResponse>> completableFuture = new CompletableFuture<>();
-
         Map<String, String> map = metricChartLineRequest.getParams();
         Preconditions.checkNotNull(map, new BizException("Aliyun Metric need param"));
         Preconditions.checkNotNull(map.get(PARAM_REGION), new BizException("region param url"));
 
-        List<MetricChartLineResponse> metricChartLineResponses = CollUtil.newArrayList();
-        for (DeviceMeta device : metricChartLineRequest.getDevices()) {
+        DefaultProfile profile = profiles.computeIfAbsent(map.get(PARAM_REGION),
+                region -> DefaultProfile.getProfile(region, ak, sk));
+
+        Map<String, DeviceMeta> devices = new LinkedHashMap<>();
+        metricChartLineRequest.getDevices().forEach(device -> devices.putIfAbsent(device.getHostname(), device));
 
-            DescribeMetricListRequest describeMetricListRequest = new DescribeMetricListRequest();
-            describeMetricListRequest.setDimensions("{\"instanceId\":\"" + device.getHostname() + "\"}");
-            describeMetricListRequest.setStartTime(DateUtil.date(metricChartLineRequest.getStartTime()).toStringDefaultTimeZone());
-            describeMetricListRequest.setEndTime(DateUtil.date(metricChartLineRequest.getEndTime()).toStringDefaultTimeZone());
-            describeMetricListRequest.setPeriod("15");
-            describeMetricListRequest.setNamespace("acs_ecs_dashboard");
-            String[] split = metricChartLineRequest.getCategoryCode().split("[.]");
-            describeMetricListRequest.setMetricName(split[2]);
+        List<CompletableFuture<List<MetricChartLineResponse>>> futures = CollUtil.split(devices.values(), batchSize)
+                .stream()
+                .map(batch -> CompletableFuture.supplyAsync(() -> selectChartLine(metricChartLineRequest, batch, profile), executor))
+                .collect(Collectors.toList());
 
-            DescribeMetricListResponse response = null;
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).thenApply(v ->
+                futures.stream().flatMap(future -> future.join().stream()).collect(Collectors.toList()));
+    }
+
+    private List<MetricChartLineResponse> selectChartLine(MetricChartLineRequest metricChartLineRequest,
+                                                          List<DeviceMeta> devices, DefaultProfile profile) {
+        DescribeMetricListRequest describeMetricListRequest = new DescribeMetricListRequest();
+        describeMetricListRequest.setDimensions(JsonUtils.writeValueAsString(devices.stream()
+                .map(device -> Collections.singletonMap(INSTANCE_ID, device.getHostname()))
+                .collect(Collectors.toList())));
+        describeMetricListRequest.setStartTime(DateUtil.date(metricChartLineRequest.getStartTime()).toStringDefaultTimeZone());
+        describeMetricListRequest.setEndTime(DateUtil.date(metricChartLineRequest.getEndTime()).toStringDefaultTimeZone());
+        describeMetricListRequest.setPeriod("15");
+        describeMetricListRequest.setNamespace("acs_ecs_dashboard");
+        String[] split = metricChartLineRequest.getCategoryCode().split("[.]");
+        describeMetricListRequest.setMetricName(split[2]);
+
+        // instance id -> lines of Average, Minimum, Maximum
+        Map<String, List<List<MetricChartLine>>> lines = new HashMap<>();
+        devices.forEach(device -> {
+            List<List<MetricChartLine>> dimensionLines = new ArrayList<>(DIMENSIONS.length);
+            for (int i = 0; i < DIMENSIONS.length; i++) {
+                dimensionLines.add(new ArrayList<>());
+            }
+            lines.put(device.getHostname(), dimensionLines);
+        });
+
+        String nextToken = null;
+        do {
+            describeMetricListRequest.setNextToken(nextToken);
+            DescribeMetricListResponse response;
             try {
-                DefaultProfile profile = DefaultProfile.getProfile(map.get(PARAM_REGION), ak, sk);
+                acquire();
                 response = client.getAcsResponse(describeMetricListRequest, profile);
             } catch (ClientException e) {
-                completableFuture.completeExceptionally(e);
+                throw new CompletionException(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
             }
-            String datapoints = response.getDatapoints();
-            List<Map<String, String>> list = JsonUtils.readValue(new TypeReference<List<Map<String, String>>>() {
-            }, datapoints);
-
-            {
-                List<MetricChartLine> lines = list.stream().map(dot ->
-                        MetricChartLine.builder()
-                                .time(DateUtil.date(Long.parseLong(dot.get("timestamp"))))
-                                .value(dot.get("Average"))
-                                .build()
-                ).collect(Collectors.toList());
-
-                Metric metric = Metric.builder().instance(device.getHostname()).dimension("Average").build();
-                MetricChartLineResponse metricChartLineResponse = MetricChartLineResponse.builder().build();
-                metricChartLineResponse.setMetricChartLines(lines);
-                metricChartLineResponse.setMetric(JsonUtils.writeValueAsString(metric));
-                metricChartLineResponse.setDeviceMeta(device);
-                metricChartLineResponses.add(metricChartLineResponse);
-            }
-
-            {
-                List<MetricChartLine> lines = list.stream().map(dot ->
-                        MetricChartLine.builder()
-                                .time(DateUtil.date(Long.parseLong(dot.get("timestamp"))))
-                                .value(dot.get("Minimum"))
-                                .build()
-                ).collect(Collectors.toList());
 
-                Metric metric = Metric.builder().instance(device.getHostname()).dimension("Minimum").build();
-                MetricChartLineResponse metricChartLineResponse = MetricChartLineResponse.builder().build();
-                metricChartLineResponse.setMetricChartLines(lines);
-                metricChartLineResponse.setMetric(JsonUtils.writeValueAsString(metric));
-                metricChartLineResponse.setDeviceMeta(device);
-                metricChartLineResponses.add(metricChartLineResponse);
+            JsonNode datapoints;
+            try {
+                datapoints = JsonUtils.reader().readTree(StrUtil.blankToDefault(response.getDatapoints(), "[]"));
+            } catch (IOException e) {
+                throw new CompletionException(e);
             }
-
-            {
-                List<MetricChartLine> lines = list.stream().map(dot ->
-                        MetricChartLine.builder()
-                                .time(DateUtil.date(Long.parseLong(dot.get("timestamp"))))
-                                .value(dot.get("Maximum"))
-                                .build()
-                ).collect(Collectors.toList());
-
-                Metric metric = Metric.builder().instance(device.getHostname()).dimension("Maximum").build();
+            for (JsonNode dot : datapoints) {
+                String instanceId = dot.path(INSTANCE_ID).asText(devices.size() == 1 ? devices.get(0).getHostname() : null);
+                List<List<MetricChartLine>> dimensionLines = lines.get(instanceId);
+                if (dimensionLines == null) {
+                    continue;
+                }
+                Date time = DateUtil.date(dot.path("timestamp").asLong());
+                for (int i = 0; i < DIMENSIONS.length; i++) {
+                    JsonNode value = dot.get(DIMENSIONS[i]);
+                    dimensionLines.get(i).add(MetricChartLine.builder()
+                            .time(time)
+                            .value(value == null || value.isNull() ? null : value.asText())
+                            .build());
+                }
+            }
+            nextToken = response.getNextToken();
+        } while (StrUtil.isNotBlank(nextToken));
+
+        List<MetricChartLineResponse> metricChartLineResponses = new ArrayList<>(devices.size() * DIMENSIONS.length);
+        for (DeviceMeta device : devices) {
+            List<List<MetricChartLine>> dimensionLines = lines.get(device.getHostname());
+            for (int i = 0; i < DIMENSIONS.length; i++) {
+                Metric metric = Metric.builder().instance(device.getHostname()).dimension(DIMENSIONS[i]).build();
                 MetricChartLineResponse metricChartLineResponse = MetricChartLineResponse.builder().build();
-                metricChartLineResponse.setMetricChartLines(lines);
+                metricChartLineResponse.setMetricChartLines(dimensionLines.get(i));
                 metricChartLineResponse.setMetric(JsonUtils.writeValueAsString(metric));
                 metricChartLineResponse.setDeviceMeta(device);
                 metricChartLineResponses.add(metricChartLineResponse);
             }
         }
+        return metricChartLineResponses;
+    }
 
-        completableFuture.complete(metricChartLineResponses);
-        return completableFuture;
+    /**
+     * spaces the requests of all callers by 1/qps second
+     */
+    private void acquire() throws InterruptedException {
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long next = nextRequestNanos - now > 0 ? nextRequestNanos : now;
+            nextRequestNanos = next + TimeUnit.SECONDS.toNanos(1) / Math.max(qps, 1);
+            waitNanos = next - now;
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
     }
 
     @Override
     public void afterPropertiesSet() {
         client = new DefaultAcsClient();
+        AtomicInteger threadIndex = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(concurrency, r -> {
+            Thread thread = new Thread(r);
+            thread.setDaemon(true);
+            thread.setName("ALIYUN-METRIC-" + threadIndex.incrementAndGet());
+            return thread;
+        });
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
     }
 }
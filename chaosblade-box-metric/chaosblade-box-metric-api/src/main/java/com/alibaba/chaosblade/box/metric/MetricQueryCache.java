@@ -0,0 +1,136 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.chaosblade.box.metric;
+
+import cn.hutool.core.util.NumberUtil;
+import com.alibaba.chaosblade.box.common.DeviceMeta;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Short lived results of chart line queries keyed by category, params, devices and the step aligned window,
+ * identical queries in flight share one upstream call. Cached results are shared and must not be modified.
+ *
+ * @author yefei
+ */
+public class MetricQueryCache {
+
+    private static final String PARAM_STEP = "step";
+
+    private final long ttl;
+
+    private final long defaultAlign;
+
+    private final ConcurrentMap<Key, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * @param ttl          millis a result is reused after it was requested
+     * @param defaultAlign millis the window is aligned to when the query has no step
+     */
+    public MetricQueryCache(long ttl, long defaultAlign) {
+        this.ttl = ttl;
+        this.defaultAlign = defaultAlign;
+    }
+
+    public CompletableFuture<List<MetricChartLineResponse>> get(MetricChartLineRequest request,
+                                                                Function<MetricChartLineRequest, CompletableFuture<List<MetricChartLineResponse>>> loader) {
+        long align = align(request.getParams());
+        long start = request.getStartTime().getTime() / align * align;
+        long end = request.getEndTime().getTime() / align * align;
+        Map<String, String> params = request.getParams() == null ? Collections.emptyMap() : new HashMap<>(request.getParams());
+        List<DeviceMeta> devices = request.getDevices() == null ? Collections.emptyList() : new ArrayList<>(request.getDevices());
+        Key key = new Key(request.getCategoryCode(), params, devices, start, end);
+
+        long now = System.currentTimeMillis();
+        Entry entry = entries.compute(key, (k, v) -> v == null || v.expireAt <= now ? new Entry(now + ttl) : v);
+        if (!entry.loading.compareAndSet(false, true)) {
+            return entry.future;
+        }
+
+        entries.values().removeIf(e -> e.expireAt <= now);
+        MetricChartLineRequest aligned = MetricChartLineRequest.builder()
+                .categoryCode(request.getCategoryCode())
+                .params(request.getParams())
+                .devices(request.getDevices())
+                .startTime(new Date(start))
+                .endTime(new Date(end))
+                .build();
+        CompletableFuture<List<MetricChartLineResponse>> upstream;
+        try {
+            upstream = loader.apply(aligned);
+        } catch (RuntimeException e) {
+            upstream = new CompletableFuture<>();
+            upstream.completeExceptionally(e);
+        }
+        upstream.whenComplete((r, e) -> {
+            if (e != null) {
+                // failures are not cached
+                entries.remove(key, entry);
+                entry.future.completeExceptionally(e);
+            } else {
+                entry.future.complete(r);
+            }
+        });
+        return entry.future;
+    }
+
+    private long align(Map<String, String> params) {
+        String step = params == null ? null : params.get(PARAM_STEP);
+        if (step != null && NumberUtil.isNumber(step)) {
+            long millis = (long) (Double.parseDouble(step) * 1000);
+            if (millis > 0) {
+                return millis;
+            }
+        }
+        return defaultAlign;
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static class Key {
+
+        private final String categoryCode;
+
+        private final Map<String, String> params;
+
+        private final List<DeviceMeta> devices;
+
+        private final long start;
+
+        private final long end;
+    }
+
+    private static class Entry {
+
+        private final long expireAt;
+
+        private final CompletableFuture<List<MetricChartLineResponse>> future = new CompletableFuture<>();
+
+        private final AtomicBoolean loading = new AtomicBoolean();
+
+        Entry(long expireAt) {
+            this.expireAt = expireAt;
+        }
+    }
+}
@@ -19,6 +19,8 @@ package com.alibaba.chaosblade.box.metric;
 import com.alibaba.chaosblade.box.common.exception.ExceptionMessageEnum;
 import com.alibaba.chaosblade.box.common.utils.Preconditions;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.stereotype.Service;
 
@@ -31,12 +33,35 @@ import java.util.concurrent.ConcurrentHashMap;
  * @author yefei
  */
 @Service("metricService")
-public class MetricStrategyContext implements MetricService, BeanPostProcessor {
+public class MetricStrategyContext implements MetricService, BeanPostProcessor, InitializingBean {
 
     private final Map<MetricSource, MetricService> strategies = new ConcurrentHashMap<>();
 
+    /**
+     * 0 disables the cache
+     */
+    @Value("${chaos.metric.cache.ttl:10000}")
+    private long cacheTtl;
+
+    @Value("${chaos.metric.cache.align:10000}")
+    private long cacheAlign;
+
+    private MetricQueryCache cache;
+
+    @Override
+    public void afterPropertiesSet() {
+        cache = new MetricQueryCache(cacheTtl, cacheAlign);
+    }
+
     @Override
     public CompletableFuture<List<MetricChartLineResponse>> selectChartLine(MetricChartLineRequest metricChartLineRequest) {
+        if (cacheTtl > 0 && metricChartLineRequest.getStartTime() != null && metricChartLineRequest.getEndTime() != null) {
+            return cache.get(metricChartLineRequest, this::doSelectChartLine);
+        }
+        return doSelectChartLine(metricChartLineRequest);
+    }
+
+    private CompletableFuture<List<MetricChartLineResponse>> doSelectChartLine(MetricChartLineRequest metricChartLineRequest) {
         try {
             String category = metricChartLineRequest.getCategoryCode();
             String[] split = category.split("[.]");
@@ -0,0 +1,118 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.chaosblade.box.metric;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author yefei
+ */
+public class MetricQueryCacheTest {
+
+    @Test
+    public void concurrentCallersShareOneQuery() throws Exception {
+        MetricQueryCache cache = new MetricQueryCache(60000, 15000);
+        AtomicInteger queries = new AtomicInteger();
+        CompletableFuture<List<MetricChartLineResponse>> upstream = new CompletableFuture<>();
+        int callers = 16;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<CompletableFuture<List<MetricChartLineResponse>>>> futures = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return cache.get(request(1000), r -> {
+                        queries.incrementAndGet();
+                        return upstream;
+                    });
+                }));
+            }
+            start.countDown();
+            List<MetricChartLineResponse> lines = Collections.singletonList(MetricChartLineResponse.builder().metric("cpu").build());
+            List<CompletableFuture<List<MetricChartLineResponse>>> results = new ArrayList<>();
+            for (Future<CompletableFuture<List<MetricChartLineResponse>>> future : futures) {
+                results.add(future.get(5, TimeUnit.SECONDS));
+            }
+            upstream.complete(lines);
+            for (CompletableFuture<List<MetricChartLineResponse>> result : results) {
+                Assert.assertSame(lines, result.get(5, TimeUnit.SECONDS));
+            }
+            Assert.assertEquals(1, queries.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void sameWindowIsCached() throws Exception {
+        MetricQueryCache cache = new MetricQueryCache(60000, 15000);
+        AtomicInteger queries = new AtomicInteger();
+        cache.get(request(1000), r -> load(queries)).get();
+        cache.get(request(2000), r -> load(queries)).get();
+        Assert.assertEquals(1, queries.get());
+
+        cache.get(request(16000), r -> load(queries)).get();
+        Assert.assertEquals(2, queries.get());
+    }
+
+    @Test
+    public void expiredAfterTtl() throws Exception {
+        MetricQueryCache cache = new MetricQueryCache(50, 15000);
+        AtomicInteger queries = new AtomicInteger();
+        cache.get(request(1000), r -> load(queries)).get();
+        Thread.sleep(100);
+        cache.get(request(1000), r -> load(queries)).get();
+        Assert.assertEquals(2, queries.get());
+    }
+
+    @Test
+    public void failureIsNotCached() throws Exception {
+        MetricQueryCache cache = new MetricQueryCache(60000, 15000);
+        AtomicInteger queries = new AtomicInteger();
+        CompletableFuture<List<MetricChartLineResponse>> failed = cache.get(request(1000), r -> {
+            queries.incrementAndGet();
+            throw new IllegalStateException("down");
+        });
+        Assert.assertTrue(failed.isCompletedExceptionally());
+        cache.get(request(1000), r -> load(queries)).get();
+        Assert.assertEquals(2, queries.get());
+    }
+
+    private static CompletableFuture<List<MetricChartLineResponse>> load(AtomicInteger queries) {
+        queries.incrementAndGet();
+        return CompletableFuture.completedFuture(Collections.emptyList());
+    }
+
+    private static MetricChartLineRequest request(long end) {
+        return MetricChartLineRequest.builder()
+                .categoryCode("cpu")
+                .params(Collections.singletonMap("step", "15"))
+                .startTime(new Date(0))
+                .endTime(new Date(end))
+                .build();
+    }
+}
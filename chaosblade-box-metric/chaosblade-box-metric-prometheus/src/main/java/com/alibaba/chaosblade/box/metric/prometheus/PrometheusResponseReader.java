@@ -0,0 +1,216 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.chaosblade.box.metric.prometheus;
+
+import cn.hutool.core.date.DateUtil;
+import cn.hutool.core.util.StrUtil;
+import com.alibaba.chaosblade.box.common.DeviceMeta;
+import com.alibaba.chaosblade.box.common.utils.JsonUtils;
+import com.alibaba.chaosblade.box.metric.MetricChartLine;
+import com.alibaba.chaosblade.box.metric.MetricChartLineResponse;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+
+/**
+ * Streams a range query response of prometheus into chart lines, series are matched to devices
+ * by identifying labels in priority order: pod, instance / ip (with the rule mapping), hostname.
+ * A label value shared by several devices identifies none of them.
+ *
+ * @author yefei
+ */
+public class PrometheusResponseReader {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final String[] POD_LABELS = {"pod", "pod_name"};
+
+    private static final String[] INSTANCE_LABELS = {"instance", "ip"};
+
+    private static final String[] HOST_LABELS = {"hostname", "nodename", "node"};
+
+    private final LabelIndex pods = new LabelIndex();
+
+    private final LabelIndex instances = new LabelIndex();
+
+    private final LabelIndex hosts = new LabelIndex();
+
+    /**
+     * the only device, series not matched by labels belong to it
+     */
+    private final DeviceMeta single;
+
+    /**
+     * @param devices
+     * @param rule    json array of {ip: instance}, the instance label value of the device with the ip
+     * @throws IOException
+     */
+    public PrometheusResponseReader(List<DeviceMeta> devices, String rule) throws IOException {
+        for (DeviceMeta device : devices) {
+            pods.put(device.getPodName(), device);
+            instances.put(device.getIp(), device);
+            hosts.put(device.getHostname(), device);
+            if (StrUtil.isBlank(device.getPodName())) {
+                // node name of a pod is the node it runs on
+                hosts.put(device.getNodeName(), device);
+            }
+        }
+        if (StrUtil.isNotBlank(rule)) {
+            Map<String, DeviceMeta> byIp = new HashMap<>(instances.devices);
+            for (JsonNode node : JsonUtils.reader().readTree(rule)) {
+                Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    DeviceMeta device = byIp.get(field.getKey());
+                    if (device != null) {
+                        instances.put(field.getValue().asText(), device);
+                    }
+                }
+            }
+        }
+        single = devices.size() == 1 ? devices.get(0) : null;
+    }
+
+    public List<MetricChartLineResponse> read(InputStream inputStream) throws IOException {
+        List<MetricChartLineResponse> responses = new ArrayList<>();
+        try (JsonParser parser = JSON_FACTORY.createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return responses;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                if ("data".equals(field) && token == JsonToken.START_OBJECT) {
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String dataField = parser.getCurrentName();
+                        JsonToken dataToken = parser.nextToken();
+                        if ("result".equals(dataField) && dataToken == JsonToken.START_ARRAY) {
+                            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                                readSeries(parser, responses);
+                            }
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return responses;
+    }
+
+    private void readSeries(JsonParser parser, List<MetricChartLineResponse> responses) throws IOException {
+        Map<String, String> labels = new LinkedHashMap<>();
+        List<MetricChartLine> lines = new ArrayList<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if ("metric".equals(field) && token == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String label = parser.getCurrentName();
+                    parser.nextToken();
+                    labels.put(label, parser.getValueAsString());
+                }
+            } else if ("values".equals(field) && token == JsonToken.START_ARRAY) {
+                // [[unix seconds, "value"], ...]
+                while (parser.nextToken() == JsonToken.START_ARRAY) {
+                    parser.nextToken();
+                    long time = (long) parser.getValueAsDouble() * 1000;
+                    parser.nextToken();
+                    String value = parser.getValueAsString();
+                    parser.nextToken();
+                    lines.add(MetricChartLine.builder().time(DateUtil.date(time)).value(value).build());
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        DeviceMeta device = match(labels);
+        if (device != null) {
+            MetricChartLineResponse response = MetricChartLineResponse.builder()
+                    .metric(JsonUtils.writeValueAsString(labels))
+                    .build();
+            response.setMetricChartLines(lines);
+            response.setDeviceMeta(device);
+            responses.add(response);
+        }
+    }
+
+    DeviceMeta match(Map<String, String> labels) {
+        DeviceMeta device = match(labels, POD_LABELS, pods);
+        if (device == null) {
+            device = match(labels, INSTANCE_LABELS, instances);
+        }
+        if (device == null) {
+            device = match(labels, HOST_LABELS, hosts);
+        }
+        return device != null ? device : single;
+    }
+
+    private static DeviceMeta match(Map<String, String> labels, String[] names, LabelIndex index) {
+        for (String name : names) {
+            String value = labels.get(name);
+            if (value == null) {
+                continue;
+            }
+            DeviceMeta device = index.get(value);
+            if (device == null) {
+                // instance label, host:port
+                int colon = value.lastIndexOf(':');
+                if (colon > 0) {
+                    device = index.get(value.substring(0, colon));
+                }
+            }
+            if (device != null) {
+                return device;
+            }
+        }
+        return null;
+    }
+
+    private static class LabelIndex {
+
+        private final Map<String, DeviceMeta> devices = new HashMap<>();
+
+        /**
+         * label values of more than one device
+         */
+        private final Set<String> ambiguous = new HashSet<>();
+
+        void put(String label, DeviceMeta device) {
+            if (StrUtil.isBlank(label) || ambiguous.contains(label)) {
+                return;
+            }
+            DeviceMeta previous = devices.putIfAbsent(label, device);
+            if (previous != null && previous != device) {
+                devices.remove(label);
+                ambiguous.add(label);
+            }
+        }
+
+        DeviceMeta get(String label) {
+            return devices.get(label);
+        }
+    }
+}
@@ -16,16 +16,10 @@
 
 package com.alibaba.chaosblade.box.metric.prometheus;
 
-import cn.hutool.core.collection.CollUtil;
-import cn.hutool.core.date.DateUtil;
-import cn.hutool.core.util.StrUtil;
 import com.alibaba.chaosblade.box.common.exception.BizException;
-import com.alibaba.chaosblade.box.common.utils.JsonUtils;
 import com.alibaba.chaosblade.box.common.utils.Preconditions;
 import com.alibaba.chaosblade.box.metric.*;
 import com.alibaba.chaosblade.box.metric.*;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.node.ArrayNode;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
 import org.apache.http.NameValuePair;
@@ -41,10 +35,8 @@ import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.stereotype.Component;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
-import java.math.BigDecimal;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 
@@ -101,68 +93,13 @@ public class PrometheusService implements MetricService, InitializingBean, Dispo
             public void completed(HttpResponse httpResponse) {
                 try {
                     HttpEntity entity = httpResponse.getEntity();
-
-                    ByteArrayInputStream inputStream = new ByteArrayInputStream(EntityUtils.toByteArray(entity));
-                    JsonNode jsonNode = JsonUtils.reader().readTree(inputStream);
-
-                    ArrayNode result = (ArrayNode) jsonNode.get("data").get("result");
-
-                    String rule = map.get(PARAM_RULE);
-                    Map<String, String> ipToInstance = new HashMap<>();
-                    if (StrUtil.isNotBlank(rule)) {
-                        ArrayNode arrayNode = (ArrayNode) JsonUtils.reader().readTree(rule);
-                        for (JsonNode node : arrayNode) {
-                            String field = node.fieldNames().next();
-                            ipToInstance.put(field, node.get(field).asText());
-                        }
-                    }
-
-                    List<MetricChartLineResponse> metricChartLineResponses = CollUtil.newArrayList();
-                    if (CollUtil.isNotEmpty(result)) {
-                        for (JsonNode node : result) {
-
-                            String metric = node.get("metric").toString();
-                            MetricChartLineResponse metricChartLineResponse = MetricChartLineResponse.builder().metric(metric)
-                                    .build();
-                            // values
-                            ArrayNode values = (ArrayNode) node.get("values");
-                            List<MetricChartLine> metricChartLines = new ArrayList<>();
-                            for (JsonNode dot : values) {
-                                String date = dot.get(0).asText();
-                                String value = dot.get(1).asText();
-                                metricChartLines.add(MetricChartLine.builder()
-                                        .time(DateUtil.date(new BigDecimal(date).longValue() * 1000))
-                                        .value(value)
-                                        .build());
-                            }
-
-                            metricChartLineRequest.getDevices().stream().filter(deviceMeta -> {
-                                if (StrUtil.contains(metric, deviceMeta.getIp()) ||
-                                        StrUtil.contains(metric, deviceMeta.getHostname()) ||
-                                        StrUtil.contains(metric, deviceMeta.getNamespace()) ||
-                                        StrUtil.contains(metric, deviceMeta.getNodeName()) ||
-                                        StrUtil.contains(metric, deviceMeta.getPodName()) ||
-                                        StrUtil.contains(metric, deviceMeta.getContainerName())
-                                ) {
-                                    return true;
-                                }
-                                String value = ipToInstance.get(deviceMeta.getIp());
-                                if (value != null) {
-                                    return metric.contains(value);
-                                }
-                                return true;
-                            }).findFirst().ifPresent(deviceMeta -> {
-                                metricChartLineResponse.setMetricChartLines(metricChartLines);
-                                metricChartLineResponse.setDeviceMeta(deviceMeta);
-                                metricChartLineResponses.add(metricChartLineResponse);
-                            });
-                        }
-                        future.complete(metricChartLineResponses);
-                    } else {
-                        future.complete(Collections.emptyList());
-                    }
+                    PrometheusResponseReader reader = new PrometheusResponseReader(metricChartLineRequest.getDevices(),
+                            map.get(PARAM_RULE));
+                    future.complete(reader.read(entity.getContent()));
                 } catch (IOException e) {
                     future.completeExceptionally(e);
+                } finally {
+                    EntityUtils.consumeQuietly(httpResponse.getEntity());
                 }
             }
 
@@ -0,0 +1,160 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.chaosblade.box.metric.prometheus;
+
+import cn.hutool.core.collection.CollUtil;
+import com.alibaba.chaosblade.box.common.DeviceMeta;
+import com.alibaba.chaosblade.box.metric.MetricChartLineResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author yefei
+ */
+@Slf4j
+public class PrometheusResponseReaderTest {
+
+    private static final int SERIES = 2000;
+
+    private static final int POINTS = 240;
+
+    @Test
+    public void testMatchByLabel() throws Exception {
+        DeviceMeta host1 = DeviceMeta.builder().ip("172.19.128.194").hostname("host1").build();
+        DeviceMeta host2 = DeviceMeta.builder().ip("172.19.128.195").hostname("host2").build();
+        String body = "{\"status\":\"success\",\"data\":{\"resultType\":\"matrix\",\"result\":[" +
+                "{\"metric\":{\"__name__\":\"node_load1\",\"instance\":\"172.19.128.195:9100\"},\"values\":[[1614840609.379,\"1.5\"],[1614840623.379,\"2\"]]}," +
+                "{\"metric\":{\"__name__\":\"node_load1\",\"instance\":\"172.19.128.1:9100\"},\"values\":[[1614840609.379,\"1\"]]}" +
+                "]}}";
+
+        List<MetricChartLineResponse> responses = new PrometheusResponseReader(CollUtil.newArrayList(host1, host2), null)
+                .read(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        Assert.assertEquals(1, responses.size());
+        Assert.assertSame(host2, responses.get(0).getDeviceMeta());
+        Assert.assertEquals("{\"__name__\":\"node_load1\",\"instance\":\"172.19.128.195:9100\"}", responses.get(0).getMetric());
+        Assert.assertEquals(2, responses.get(0).getMetricChartLines().size());
+        Assert.assertEquals(1614840609000L, responses.get(0).getMetricChartLines().get(0).getTime().getTime());
+        Assert.assertEquals("1.5", responses.get(0).getMetricChartLines().get(0).getValue());
+    }
+
+    @Test
+    public void testMatchByRule() throws Exception {
+        DeviceMeta host = DeviceMeta.builder().ip("10.0.0.1").hostname("host1").build();
+        DeviceMeta other = DeviceMeta.builder().ip("10.0.0.2").hostname("host2").build();
+        String body = "{\"data\":{\"result\":[{\"metric\":{\"instance\":\"node-a\"},\"values\":[[1614840609,\"1\"]]}]}}";
+
+        List<MetricChartLineResponse> responses = new PrometheusResponseReader(CollUtil.newArrayList(other, host),
+                "[{\"10.0.0.1\":\"node-a\"}]").read(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        Assert.assertEquals(1, responses.size());
+        Assert.assertSame(host, responses.get(0).getDeviceMeta());
+    }
+
+    @Test
+    public void testSingleDevice() throws Exception {
+        DeviceMeta host = DeviceMeta.builder().ip("10.0.0.1").build();
+        String body = "{\"data\":{\"result\":[{\"values\":[[1614840609,\"1\"]],\"metric\":{\"job\":\"node\"}}]}}";
+
+        List<MetricChartLineResponse> responses = new PrometheusResponseReader(Collections.singletonList(host), null)
+                .read(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        Assert.assertEquals(1, responses.size());
+        Assert.assertSame(host, responses.get(0).getDeviceMeta());
+        Assert.assertEquals(1, responses.get(0).getMetricChartLines().size());
+    }
+
+    @Test
+    public void testMatchByPodPriority() throws Exception {
+        DeviceMeta podA = DeviceMeta.builder().podName("pod-a").nodeName("node-1").containerName("app").build();
+        DeviceMeta podB = DeviceMeta.builder().podName("pod-b").nodeName("node-1").containerName("app").build();
+        String body = "{\"data\":{\"result\":[" +
+                "{\"metric\":{\"container\":\"app\",\"instance\":\"node-1\",\"node\":\"node-1\",\"pod\":\"pod-b\"},\"values\":[[1614840609,\"1\"]]}," +
+                "{\"metric\":{\"container\":\"app\",\"node\":\"node-1\"},\"values\":[[1614840609,\"1\"]]}" +
+                "]}}";
+
+        List<MetricChartLineResponse> responses = new PrometheusResponseReader(CollUtil.newArrayList(podA, podB), null)
+                .read(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        Assert.assertEquals(1, responses.size());
+        Assert.assertSame(podB, responses.get(0).getDeviceMeta());
+    }
+
+    @Test
+    public void testAmbiguousLabel() throws Exception {
+        DeviceMeta host1 = DeviceMeta.builder().ip("10.0.0.1").hostname("same").build();
+        DeviceMeta host2 = DeviceMeta.builder().ip("10.0.0.2").hostname("same").build();
+        String body = "{\"data\":{\"result\":[" +
+                "{\"metric\":{\"hostname\":\"same\"},\"values\":[[1614840609,\"1\"]]}," +
+                "{\"metric\":{\"hostname\":\"same\",\"instance\":\"10.0.0.2:9100\"},\"values\":[[1614840609,\"1\"]]}" +
+                "]}}";
+
+        List<MetricChartLineResponse> responses = new PrometheusResponseReader(CollUtil.newArrayList(host1, host2), null)
+                .read(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        Assert.assertEquals(1, responses.size());
+        Assert.assertSame(host2, responses.get(0).getDeviceMeta());
+    }
+
+    @Test
+    @Ignore("benchmark, run manually")
+    public void benchmarkRangeQuery() throws Exception {
+        List<DeviceMeta> devices = new ArrayList<>(SERIES);
+        StringBuilder body = new StringBuilder("{\"status\":\"success\",\"data\":{\"resultType\":\"matrix\",\"result\":[");
+        for (int i = 0; i < SERIES; i++) {
+            String ip = "10.0." + (i / 256) + "." + (i % 256);
+            devices.add(DeviceMeta.builder().ip(ip).hostname("host-" + i).build());
+            if (i > 0) {
+                body.append(',');
+            }
+            body.append("{\"metric\":{\"__name__\":\"node_memory_Buffers_bytes\",\"job\":\"node-exporter\",\"instance\":\"")
+                    .append(ip).append(":9100\"},\"values\":[");
+            for (int j = 0; j < POINTS; j++) {
+                if (j > 0) {
+                    body.append(',');
+                }
+                body.append('[').append(1614840609 + j * 14).append(".379,\"").append(187949056 + j).append("\"]");
+            }
+            body.append("]}");
+        }
+        body.append("]}}");
+        byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+
+        List<MetricChartLineResponse> responses = null;
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 10; i++) {
+            long start = System.nanoTime();
+            responses = new PrometheusResponseReader(devices, null).read(new ByteArrayInputStream(bytes));
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        log.info("parse {} series x {} points, {} bytes, best of 10: {} ms", SERIES, POINTS, bytes.length, best / 1000000);
+
+        Assert.assertEquals(SERIES, responses.size());
+        for (int i = 0; i < SERIES; i++) {
+            Assert.assertSame(devices.get(i), responses.get(i).getDeviceMeta());
+            Assert.assertEquals(POINTS, responses.get(i).getMetricChartLines().size());
+        }
+    }
+}
@@ -19,9 +19,6 @@ package com.alibaba.chaosblade.box.scenario.api;
 import cn.hutool.core.io.IoUtil;
 import cn.hutool.core.io.resource.ResourceUtil;
 import cn.hutool.core.util.StrUtil;
-import cn.hutool.http.HttpRequest;
-import cn.hutool.http.HttpResponse;
-import cn.hutool.http.HttpUtil;
 import com.alibaba.chaosblade.box.common.model.chaos.PluginSpecBean;
 import com.alibaba.chaosblade.box.common.utils.SystemPropertiesUtils;
 import com.alibaba.chaosblade.box.scenario.api.model.ToolsVersion;
@@ -64,6 +61,9 @@ public class DefaultScenarioYamlProvider implements ScenarioYamlProvider, Initia
     @Autowired
     private ApplicationContext applicationContext;
 
+    @Autowired
+    private SceneMarketCache sceneMarketCache;
+
     @Value("${chaos.scene.market}")
     private String sceneMarket;
 
@@ -117,6 +117,7 @@ public class DefaultScenarioYamlProvider implements ScenarioYamlProvider, Initia
             if (!toolsVersion.getScenarioFiles().contains(specFileName)) {
                 toolsVersion.getScenarioFiles().add(specFileName);
                 versionYaml.put(pluginSpecBean.getVersion(), yaml.dumpAs(toolsVersion, Tag.MAP, DumperOptions.FlowStyle.BLOCK));
+                applicationContext.publishEvent(new ScenarioMarketChangedEvent(pluginSpecBean.getKind()));
             }
         };
         pluginSpecBeanList.forEach(pluginSpecBeanConsumer);
@@ -130,9 +131,7 @@ public class DefaultScenarioYamlProvider implements ScenarioYamlProvider, Initia
                 Constants.VERSION_YAML);
 
         if (StrUtil.isNotBlank(sceneMarket)) {
-            HttpRequest request = HttpUtil.createGet(sceneMarket + path);
-            HttpResponse execute = request.execute();
-            return IoUtil.read(execute.bodyStream(), SystemPropertiesUtils.getPropertiesFileEncoding());
+            return sceneMarketCache.get(path);
         }
 
         String yaml = versionYaml.get(scenarioRequest.getVersion());
@@ -157,9 +156,7 @@ public class DefaultScenarioYamlProvider implements ScenarioYamlProvider, Initia
                 scenarioRequest.getSpec());
 
         if (StrUtil.isNotBlank(sceneMarket)) {
-            HttpRequest request = HttpUtil.createGet(sceneMarket + path);
-            HttpResponse execute = request.execute();
-            return IoUtil.read(execute.bodyStream(), SystemPropertiesUtils.getPropertiesFileEncoding());
+            return sceneMarketCache.get(path);
         }
 
         String yaml = specYaml.get(scenarioRequest.getSpec());
@@ -187,9 +184,7 @@ public class DefaultScenarioYamlProvider implements ScenarioYamlProvider, Initia
         String path = String.format("%s", Constants.CONFIGURATION_YAML);
 
         if (StrUtil.isNotBlank(sceneMarket)) {
-            HttpRequest request = HttpUtil.createGet(sceneMarket + path);
-            HttpResponse execute = request.execute();
-            return IoUtil.read(execute.bodyStream(), SystemPropertiesUtils.getPropertiesFileEncoding());
+            return sceneMarketCache.get(path);
         } else {
             InputStream inputStream = Thread.currentThread().getContextClassLoader().getResourceAsStream(path);
             if (inputStream == null) {
@@ -207,9 +202,7 @@ public class DefaultScenarioYamlProvider implements ScenarioYamlProvider, Initia
                 Constants.OVERVIEW_YAML);
 
         if (StrUtil.isNotBlank(sceneMarket)) {
-            HttpRequest request = HttpUtil.createGet(sceneMarket + path);
-            HttpResponse execute = request.execute();
-            return IoUtil.read(execute.bodyStream(), SystemPropertiesUtils.getPropertiesFileEncoding());
+            return sceneMarketCache.get(path);
         } else {
             InputStream inputStream = Thread.currentThread().getContextClassLoader().getResourceAsStream(path);
             if (inputStream == null) {
@@ -0,0 +1,35 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.chaosblade.box.scenario.api;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published when the yaml of a chaos tools changed, source is the tools name.
+ *
+ * @author yefei
+ */
+public class ScenarioMarketChangedEvent extends ApplicationEvent {
+
+    public ScenarioMarketChangedEvent(String chaosTools) {
+        super(chaosTools);
+    }
+
+    public String getChaosTools() {
+        return (String) getSource();
+    }
+}
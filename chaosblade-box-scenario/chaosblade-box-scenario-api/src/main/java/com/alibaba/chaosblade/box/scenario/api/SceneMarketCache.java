@@ -0,0 +1,319 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.chaosblade.box.scenario.api;
+
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.util.StrUtil;
+import cn.hutool.crypto.SecureUtil;
+import cn.hutool.http.HttpRequest;
+import cn.hutool.http.HttpResponse;
+import cn.hutool.http.HttpStatus;
+import cn.hutool.http.HttpUtil;
+import com.alibaba.chaosblade.box.common.exception.BizException;
+import com.alibaba.chaosblade.box.common.utils.JsonUtils;
+import com.alibaba.chaosblade.box.common.utils.SystemPropertiesUtils;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.core.type.TypeReference;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.File;
+import java.nio.charset.Charset;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Memory and disk cache of the remote scene market. Files are stored by sha256 under
+ * chaos.scene.market-cache.dir with an index of path, hash and validators, revalidated
+ * in the background with If-None-Match / If-Modified-Since. A cached copy is served when
+ * the market is unreachable, so the box keeps working offline, a file never fetched fails as the market did.
+ *
+ * @author yefei
+ */
+@Slf4j
+@Component
+public class SceneMarketCache implements InitializingBean, DisposableBean {
+
+    private static final String INDEX = "index.json";
+
+    private static final String BLOBS = "blobs";
+
+    @Value("${chaos.scene.market:}")
+    private String sceneMarket;
+
+    @Value("${chaos.scene.market-cache.dir:${user.home}/.chaos/market}")
+    private String dir;
+
+    @Value("${chaos.scene.market-cache.refresh:600000}")
+    private long refresh;
+
+    @Value("${chaos.scene.market-cache.timeout:5000}")
+    private int timeout;
+
+    @Value("${chaos.scene.market-cache.parallelism:4}")
+    private int parallelism;
+
+    @Autowired
+    private ApplicationEventPublisher publisher;
+
+    private final Map<String, MarketFile> files = new ConcurrentHashMap<>();
+
+    private final Map<String, Object> locks = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService scheduler;
+
+    private ExecutorService fetcher;
+
+    @Override
+    public void afterPropertiesSet() {
+        if (StrUtil.isBlank(sceneMarket)) {
+            return;
+        }
+        loadIndex();
+        AtomicInteger threadIndex = new AtomicInteger();
+        fetcher = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread thread = new Thread(r);
+            thread.setDaemon(true);
+            thread.setName("SCENE-MARKET-FETCH-" + threadIndex.incrementAndGet());
+            return thread;
+        });
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r);
+            thread.setDaemon(true);
+            thread.setName("SCENE-MARKET-REFRESH");
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::refreshAll, refresh, refresh, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            fetcher.shutdownNow();
+        }
+    }
+
+    /**
+     * @param path relative to the market
+     * @return content
+     * @throws BizException if the path is not cached and the market fails
+     */
+    public String get(String path) {
+        MarketFile file = files.get(path);
+        if (file != null) {
+            return file.content;
+        }
+        synchronized (locks.computeIfAbsent(path, k -> new Object())) {
+            file = files.get(path);
+            if (file == null) {
+                file = fetch(path, null);
+            }
+        }
+        return file.content;
+    }
+
+    private void refreshAll() {
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (String path : files.keySet()) {
+            futures.add(CompletableFuture.runAsync(() -> {
+                synchronized (locks.computeIfAbsent(path, k -> new Object())) {
+                    fetch(path, files.get(path));
+                }
+            }, fetcher));
+        }
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } catch (Exception e) {
+            log.warn("Refresh scene market failed, {}", e.getMessage());
+        }
+    }
+
+    /**
+     * conditional get, keeps the cached file when not modified or the market fails
+     *
+     * @throws BizException if the market fails and nothing is cached
+     */
+    private MarketFile fetch(String path, MarketFile cached) {
+        String error;
+        try (HttpResponse response = conditionalGet(path, cached)) {
+            if (response.getStatus() == HttpStatus.HTTP_NOT_MODIFIED && cached != null) {
+                return cached;
+            }
+            if (response.isOk()) {
+                return update(path, cached, response);
+            }
+            error = "status: " + response.getStatus();
+        } catch (Exception e) {
+            error = e.getMessage();
+        }
+        log.warn("Fetch {} from scene market failed, {}", path, error);
+        if (cached == null) {
+            throw new BizException("Fetch " + path + " from scene market failed, " + error);
+        }
+        return cached;
+    }
+
+    private MarketFile update(String path, MarketFile cached, HttpResponse response) {
+        byte[] bytes = response.bodyBytes();
+        MarketFile file = new MarketFile(SecureUtil.sha256().digestHex(bytes), response.header("ETag"),
+                response.header("Last-Modified"),
+                new String(bytes, Charset.forName(SystemPropertiesUtils.getPropertiesFileEncoding())));
+        store(path, cached, file, bytes);
+        if (cached != null && cached.sha256.equals(file.sha256)) {
+            return file;
+        }
+        if (cached != null) {
+            log.info("Scene market file {} changed", path);
+            publisher.publishEvent(new ScenarioMarketChangedEvent(StrUtil.subBefore(path, "/", false)));
+        }
+        if (path.endsWith(Constants.VERSION_YAML)) {
+            prefetch(path, file.content);
+        }
+        return file;
+    }
+
+    /**
+     * writes the blob and the index, the blob of the replaced file is deleted unless another file has it
+     */
+    private synchronized void store(String path, MarketFile cached, MarketFile file, byte[] bytes) {
+        File blob = FileUtil.file(dir, BLOBS, file.sha256);
+        if (!blob.exists()) {
+            FileUtil.writeBytes(bytes, blob);
+        }
+        files.put(path, file);
+        saveIndex();
+        if (cached != null && files.values().stream().noneMatch(f -> f.sha256.equals(cached.sha256))) {
+            FileUtil.del(FileUtil.file(dir, BLOBS, cached.sha256));
+        }
+    }
+
+    private HttpResponse conditionalGet(String path, MarketFile cached) {
+        HttpRequest request = HttpUtil.createGet(sceneMarket + path).timeout(timeout);
+        if (cached != null) {
+            if (StrUtil.isNotBlank(cached.etag)) {
+                request.header("If-None-Match", cached.etag);
+            }
+            if (StrUtil.isNotBlank(cached.lastModified)) {
+                request.header("If-Modified-Since", cached.lastModified);
+            }
+        }
+        return request.execute();
+    }
+
+    /**
+     * fetches the scenario files listed in a version yaml in parallel
+     */
+    @SuppressWarnings("unchecked")
+    private void prefetch(String versionPath, String versionYaml) {
+        Object scenarioFiles;
+        try {
+            Map<String, Object> version = new Yaml().load(versionYaml);
+            scenarioFiles = version == null ? null : version.get("scenarioFiles");
+        } catch (Exception e) {
+            log.warn("Parse {} failed, {}", versionPath, e.getMessage());
+            return;
+        }
+        if (!(scenarioFiles instanceof List)) {
+            return;
+        }
+        String base = StrUtil.subBefore(versionPath, Constants.VERSION_YAML, true);
+        for (Object scenarioFile : (List<Object>) scenarioFiles) {
+            String path = base + scenarioFile;
+            if (!files.containsKey(path)) {
+                fetcher.execute(() -> {
+                    try {
+                        get(path);
+                    } catch (BizException ignore) {
+                        // logged by fetch, fetched again on demand
+                    }
+                });
+            }
+        }
+    }
+
+    private void loadIndex() {
+        File index = FileUtil.file(dir, INDEX);
+        if (!index.exists()) {
+            return;
+        }
+        try {
+            Map<String, MarketFile> entries = JsonUtils.readValue(new TypeReference<Map<String, MarketFile>>() {
+            }, FileUtil.readUtf8String(index));
+            entries.forEach((path, file) -> {
+                File blob = FileUtil.file(dir, BLOBS, file.sha256);
+                if (blob.exists()) {
+                    file.content = FileUtil.readString(blob, Charset.forName(SystemPropertiesUtils.getPropertiesFileEncoding()));
+                    files.put(path, file);
+                }
+            });
+            log.info("Load {} scene market files from {}", files.size(), dir);
+        } catch (Exception e) {
+            log.warn("Load scene market index failed, {}", e.getMessage());
+        }
+        collectBlobs();
+    }
+
+    /**
+     * deletes blobs no file of the index refers to, e.g. left by a crash between the blob and the index
+     */
+    private synchronized void collectBlobs() {
+        Set<String> referenced = new HashSet<>();
+        files.values().forEach(file -> referenced.add(file.sha256));
+        File[] blobs = FileUtil.file(dir, BLOBS).listFiles();
+        if (blobs == null) {
+            return;
+        }
+        for (File blob : blobs) {
+            if (!referenced.contains(blob.getName())) {
+                FileUtil.del(blob);
+            }
+        }
+    }
+
+    private void saveIndex() {
+        File index = FileUtil.file(dir, INDEX);
+        File temp = FileUtil.file(dir, INDEX + ".tmp");
+        FileUtil.writeUtf8String(JsonUtils.writeValueAsString(new TreeMap<>(files)), temp);
+        FileUtil.move(temp, index, true);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class MarketFile {
+
+        private String sha256;
+
+        private String etag;
+
+        private String lastModified;
+
+        @JsonIgnore
+        private String content;
+    }
+}
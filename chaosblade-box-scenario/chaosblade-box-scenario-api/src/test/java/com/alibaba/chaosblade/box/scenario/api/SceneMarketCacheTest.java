@@ -0,0 +1,184 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.chaosblade.box.scenario.api;
+
+import com.alibaba.chaosblade.box.common.exception.BizException;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * @author yefei
+ */
+public class SceneMarketCacheTest {
+
+    private static final String PATH = "chaosblade/1.7.2/chaosblade-jvm-spec.yaml";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private HttpServer server;
+
+    private volatile int status = 200;
+
+    private volatile String content = "v1";
+
+    private volatile String etag = "\"v1\"";
+
+    private final String lastModified = "Mon, 19 Oct 2026 12:00:00 GMT";
+
+    private final List<String> ifNoneMatch = new ArrayList<>();
+
+    private final List<String> ifModifiedSince = new ArrayList<>();
+
+    private final List<Object> events = new ArrayList<>();
+
+    private final List<SceneMarketCache> caches = new ArrayList<>();
+
+    @Before
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            String noneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+            ifNoneMatch.add(noneMatch);
+            ifModifiedSince.add(exchange.getRequestHeaders().getFirst("If-Modified-Since"));
+            if (status != 200) {
+                exchange.sendResponseHeaders(status, -1);
+            } else if (Objects.equals(noneMatch, etag)) {
+                exchange.sendResponseHeaders(304, -1);
+            } else {
+                byte[] body = content.getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("ETag", etag);
+                exchange.getResponseHeaders().set("Last-Modified", lastModified);
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            }
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        caches.forEach(SceneMarketCache::destroy);
+        server.stop(0);
+    }
+
+    @Test
+    public void conditionalRefresh() {
+        SceneMarketCache cache = cache();
+        Assert.assertEquals("v1", cache.get(PATH));
+        Assert.assertEquals("v1", cache.get(PATH));
+        Assert.assertEquals(1, ifNoneMatch.size());
+
+        ReflectionTestUtils.invokeMethod(cache, "refreshAll");
+        Assert.assertEquals(2, ifNoneMatch.size());
+        Assert.assertEquals("\"v1\"", ifNoneMatch.get(1));
+        Assert.assertEquals(lastModified, ifModifiedSince.get(1));
+        Assert.assertEquals("v1", cache.get(PATH));
+        Assert.assertTrue(events.isEmpty());
+    }
+
+    @Test
+    public void changeEvent() {
+        SceneMarketCache cache = cache();
+        Assert.assertEquals("v1", cache.get(PATH));
+
+        content = "v2";
+        etag = "\"v2\"";
+        ReflectionTestUtils.invokeMethod(cache, "refreshAll");
+        Assert.assertEquals("v2", cache.get(PATH));
+        Assert.assertEquals(1, events.size());
+        Assert.assertEquals("chaosblade", ((ScenarioMarketChangedEvent) events.get(0)).getChaosTools());
+        // the blob of v1 is collected
+        Assert.assertEquals(1, new File(folder.getRoot(), "blobs").list().length);
+    }
+
+    @Test
+    public void marketFailureServesCache() {
+        SceneMarketCache cache = cache();
+        Assert.assertEquals("v1", cache.get(PATH));
+
+        status = 500;
+        ReflectionTestUtils.invokeMethod(cache, "refreshAll");
+        Assert.assertEquals("v1", cache.get(PATH));
+    }
+
+    @Test
+    public void diskCache() {
+        Assert.assertEquals("v1", cache().get(PATH));
+
+        status = 500;
+        SceneMarketCache restarted = cache();
+        Assert.assertEquals("v1", restarted.get(PATH));
+        Assert.assertEquals(1, ifNoneMatch.size());
+    }
+
+    @Test
+    public void unreferencedBlobsCollectedOnLoad() throws Exception {
+        Assert.assertEquals("v1", cache().get(PATH));
+        File orphan = new File(new File(folder.getRoot(), "blobs"), "orphan");
+        Assert.assertTrue(orphan.createNewFile());
+
+        cache();
+        Assert.assertFalse(orphan.exists());
+        Assert.assertEquals(1, new File(folder.getRoot(), "blobs").list().length);
+    }
+
+    @Test(expected = BizException.class)
+    public void firstFetchFailureThrows() {
+        status = 404;
+        cache().get(PATH);
+    }
+
+    @Test(expected = BizException.class)
+    public void unreachableMarketThrows() {
+        SceneMarketCache cache = cache();
+        server.stop(0);
+        cache.get(PATH);
+    }
+
+    private SceneMarketCache cache() {
+        SceneMarketCache cache = new SceneMarketCache();
+        ReflectionTestUtils.setField(cache, "sceneMarket", "http://127.0.0.1:" + server.getAddress().getPort() + "/");
+        ReflectionTestUtils.setField(cache, "dir", folder.getRoot().getAbsolutePath());
+        ReflectionTestUtils.setField(cache, "refresh", 3600000L);
+        ReflectionTestUtils.setField(cache, "timeout", 2000);
+        ReflectionTestUtils.setField(cache, "parallelism", 1);
+        ReflectionTestUtils.setField(cache, "publisher", (ApplicationEventPublisher) events::add);
+        cache.afterPropertiesSet();
+        caches.add(cache);
+        return cache;
+    }
+}
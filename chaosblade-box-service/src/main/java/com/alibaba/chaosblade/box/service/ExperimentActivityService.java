@@ -18,7 +18,9 @@ package com.alibaba.chaosblade.box.service;
 
 import com.alibaba.chaosblade.box.service.model.experiment.activity.ExperimentActivity;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author yefei
@@ -39,4 +41,11 @@ public interface ExperimentActivityService {
      * @throws Exception
      */
     List<ExperimentActivity> selectAttackByExperimentId(Long ExperimentId);
+
+    /**
+     *
+     * @param experimentIds
+     * @return
+     */
+    Map<Long, List<ExperimentActivity>> selectAttackByExperimentIds(Collection<Long> experimentIds);
 }
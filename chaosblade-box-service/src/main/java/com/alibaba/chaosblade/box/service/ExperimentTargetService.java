@@ -0,0 +1,82 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.chaosblade.box.service;
+
+import com.alibaba.chaosblade.box.common.DeviceMeta;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Target devices of experiment flow groups and task snapshots, stored one row per device.
+ *
+ * @author yefei
+ */
+public interface ExperimentTargetService {
+
+    /**
+     * replace the targets of the flow group
+     *
+     * @param experimentId
+     * @param groupId
+     * @param deviceMetas
+     */
+    void saveGroupTargets(Long experimentId, Long groupId, List<DeviceMeta> deviceMetas);
+
+    /**
+     * replace the targets snapshot of the task
+     *
+     * @param experimentId
+     * @param taskId
+     * @param deviceMetas
+     */
+    void saveTaskTargets(Long experimentId, Long taskId, List<DeviceMeta> deviceMetas);
+
+    /**
+     * delete the targets of the flow groups and tasks of the experiment
+     *
+     * @param experimentId
+     */
+    void deleteByExperimentId(Long experimentId);
+
+    /**
+     * @param groupId
+     * @return
+     */
+    List<DeviceMeta> selectByGroupId(Long groupId);
+
+    /**
+     * stream the targets of the task without loading them all
+     *
+     * @param taskId
+     * @param consumer
+     */
+    void forEachTaskTarget(Long taskId, Consumer<DeviceMeta> consumer);
+
+    /**
+     * @param namespace
+     * @param podName
+     * @return experiments touched the pod
+     */
+    List<Long> selectExperimentIdsByPod(String namespace, String podName);
+
+    /**
+     * @param deviceId
+     * @return experiments touched the device
+     */
+    List<Long> selectExperimentIdsByDeviceId(Long deviceId);
+}
@@ -18,8 +18,10 @@ package com.alibaba.chaosblade.box.service;
 
 import com.alibaba.chaosblade.box.service.model.experiment.ExperimentTaskRequest;
 import com.alibaba.chaosblade.box.service.model.experiment.ExperimentRequest;
+import com.alibaba.chaosblade.box.service.model.experiment.ExperimentTaskDeltaResponse;
 import com.alibaba.chaosblade.box.service.model.experiment.ExperimentTaskResponse;
 import com.alibaba.chaosblade.box.service.model.experiment.ExperimentTaskStatistics;
+import com.alibaba.chaosblade.box.service.model.experiment.ExperimentTaskTraceResponse;
 import com.alibaba.chaosblade.box.service.model.experiment.activity.ExperimentActivityTask;
 import com.alibaba.chaosblade.box.service.model.experiment.activity.ExperimentActivityTaskRecord;
 
@@ -90,4 +92,19 @@ public interface ExperimentTaskService {
      * @return
      */
     ExperimentActivityTask failRetryActivityTask(ExperimentTaskRequest experimentRequest);
+
+    /**
+     *
+     * @param experimentRequest
+     * @return
+     */
+    ExperimentTaskTraceResponse queryTaskTrace(ExperimentTaskRequest experimentRequest);
+
+    /**
+     * changes of the task since the version of the request
+     *
+     * @param experimentRequest
+     * @return
+     */
+    ExperimentTaskDeltaResponse queryTaskDelta(ExperimentTaskRequest experimentRequest);
 }
@@ -16,13 +16,16 @@
 
 package com.alibaba.chaosblade.box.service;
 
+import com.alibaba.chaosblade.box.service.model.scene.SceneCategoryResponse;
 import com.alibaba.chaosblade.box.service.model.scene.SceneRequest;
 import com.alibaba.chaosblade.box.service.model.scene.SceneResponse;
 import com.alibaba.chaosblade.box.service.model.scene.SceneImportRequest;
 import com.alibaba.chaosblade.box.service.model.scene.SceneImportResponse;
 
 import java.io.InputStream;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  *
@@ -57,6 +60,14 @@ public interface SceneService {
      */
     SceneResponse getScenarioById(SceneRequest sceneRequest);
 
+    /**
+     * categories of the scenarios, the scenarios missing in the cache are loaded in one batch
+     *
+     * @param scenarioIds
+     * @return categories by scenario id, absent for unknown scenarios
+     */
+    Map<Long, List<SceneCategoryResponse>> getScenarioCategories(Collection<Long> scenarioIds);
+
     /**
      *
      * @param sceneRequest
@@ -71,10 +82,24 @@ public interface SceneService {
      */
     SceneResponse unbanScenario(SceneRequest sceneRequest);
 
+    /**
+     * scenarios imported at startup and the cost, null if not finished
+     *
+     * @return
+     */
+    SceneImportResponse startupImportStatistics();
+
     /**
      *
      * @param sceneImportRequest
      * @return
      */
     SceneImportResponse uploadScenarios(SceneImportRequest sceneImportRequest) throws Exception;
+
+    /**
+     * drop the cached view of the scene
+     *
+     * @param scenarioId
+     */
+    void evictScenario(Long scenarioId);
 }
@@ -0,0 +1,88 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.chaosblade.box.service;
+
+import com.alibaba.chaosblade.box.dao.model.ExperimentTaskDO;
+import com.alibaba.chaosblade.box.service.model.experiment.ExperimentStatisticsResponse;
+import com.alibaba.chaosblade.box.service.model.experiment.ExperimentTaskStatistics;
+
+import java.util.List;
+
+/**
+ * Dashboard counters, maintained by the write paths instead of aggregating on read.
+ *
+ * @author yefei
+ */
+public interface StatisticsService {
+
+    /**
+     *
+     */
+    void experimentCreated();
+
+    /**
+     * call before the experiment is deleted
+     *
+     * @param experimentId
+     */
+    void experimentDeleted(Long experimentId);
+
+    /**
+     *
+     * @param previous last task of the experiment before, may be null
+     * @param created
+     */
+    void experimentTaskCreated(ExperimentTaskDO previous, ExperimentTaskDO created);
+
+    /**
+     * update the experiment task and move the counters of its experiment
+     *
+     * @param taskId
+     * @param experimentTaskDO
+     */
+    void updateExperimentTask(Long taskId, ExperimentTaskDO experimentTaskDO);
+
+    /**
+     *
+     * @param before containers json of the pod before
+     * @param after containers json of the pod after
+     */
+    void containersChanged(String before, String after);
+
+    /**
+     *
+     * @return
+     */
+    ExperimentStatisticsResponse getExperimentStatistics();
+
+    /**
+     *
+     * @return
+     */
+    List<ExperimentTaskStatistics> getTaskStatistics();
+
+    /**
+     *
+     * @return
+     */
+    long getContainers();
+
+    /**
+     * recompute all counters from the tables
+     */
+    void rebuild();
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.chaosblade.box.service.cluster;
+
+import com.alibaba.chaosblade.box.common.exception.BizException;
+import com.alibaba.chaosblade.box.dao.model.ClusterDO;
+import com.alibaba.chaosblade.box.dao.repository.ClusterRepository;
+import com.alibaba.chaosblade.box.invoker.ClusterHandle;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.alibaba.chaosblade.box.common.exception.ExceptionMessageEnum.CLUSTER_NOT_FOUNT;
+
+/**
+ * Cluster connections by cluster id, so that attacks don't read and parse the kubeconfig each time.
+ * Refreshed when a cluster is added or updated, and reloaded after ttl for changes made by other instances.
+ * A cluster that doesn't exist is looked up again on every call.
+ *
+ * @author yefei
+ */
+@Slf4j
+@Component
+public class ClusterRegistry {
+
+    @Autowired
+    private ClusterRepository clusterRepository;
+
+    @Value("${chaos.cluster.registry.ttl:300000}")
+    private long ttl;
+
+    private final Map<Long, Entry> clusters = new ConcurrentHashMap<>();
+
+    /**
+     * @param clusterId
+     * @return empty if clusterId is null or the cluster doesn't exist
+     */
+    public Optional<ClusterHandle> get(Long clusterId) {
+        if (clusterId == null) {
+            return Optional.empty();
+        }
+        Entry entry = clusters.get(clusterId);
+        if (entry == null || System.currentTimeMillis() - entry.loadTime > ttl) {
+            entry = load(clusterId);
+        }
+        return entry == null ? Optional.empty() : Optional.of(entry.handle);
+    }
+
+    /**
+     * @param clusterId null for the default client
+     * @return the handle, null for the default client, failed with CLUSTER_NOT_FOUNT if the cluster doesn't exist
+     */
+    public CompletableFuture<ClusterHandle> resolve(Long clusterId) {
+        if (clusterId == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        Optional<ClusterHandle> handle = get(clusterId);
+        if (handle.isPresent()) {
+            return CompletableFuture.completedFuture(handle.get());
+        }
+        CompletableFuture<ClusterHandle> future = new CompletableFuture<>();
+        future.completeExceptionally(new BizException(CLUSTER_NOT_FOUNT, clusterId));
+        return future;
+    }
+
+    /**
+     * replaces the handle after the current transaction commits, or right away without one
+     */
+    public void refresh(Long clusterId, String config) {
+        afterCommit(() -> {
+            clusters.put(clusterId, new Entry(new ClusterHandle(clusterId, config)));
+            log.info("Cluster {} refreshed in registry", clusterId);
+        });
+    }
+
+    /**
+     * @return null if the cluster doesn't exist, missing clusters are not cached
+     */
+    private Entry load(Long clusterId) {
+        return clusters.compute(clusterId, (id, old) -> {
+            String config = clusterRepository.selectById(id).map(ClusterDO::getConfig).orElse(null);
+            if (config == null) {
+                return null;
+            }
+            // keep the handle and its client while the kubeconfig is unchanged
+            if (old != null && config.equals(old.handle.getConfig())) {
+                return new Entry(old.handle);
+            }
+            return new Entry(new ClusterHandle(id, config));
+        });
+    }
+
+    private void afterCommit(Runnable runnable) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            runnable.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                runnable.run();
+            }
+        });
+    }
+
+    private static class Entry {
+
+        private final ClusterHandle handle;
+
+        private final long loadTime = System.currentTimeMillis();
+
+        Entry(ClusterHandle handle) {
+            this.handle = handle;
+        }
+    }
+}
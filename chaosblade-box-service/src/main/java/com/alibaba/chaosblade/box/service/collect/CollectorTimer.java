@@ -41,6 +41,7 @@ import com.alibaba.chaosblade.box.dao.repository.ClusterRepository;
 import com.alibaba.chaosblade.box.dao.repository.DeviceNodeRepository;
 import com.alibaba.chaosblade.box.dao.repository.DevicePodRepository;
 import com.alibaba.chaosblade.box.dao.repository.DeviceRepository;
+import com.alibaba.chaosblade.box.service.StatisticsService;
 import com.alibaba.chaosblade.box.service.model.device.ContainerBO;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import lombok.extern.slf4j.Slf4j;
@@ -79,6 +80,9 @@ public class CollectorTimer implements InitializingBean {
     @Autowired
     private ClusterRepository clusterRepository;
 
+    @Autowired
+    private StatisticsService statisticsService;
+
     @Value("${chaos.collector.type}")
     private String collectorType;
 
@@ -274,8 +278,10 @@ public class CollectorTimer implements InitializingBean {
                                         .build()
                         ).collect(Collectors.toList());
 
+                        String containersJson = JsonUtils.writeValueAsString(list);
                         devicePodRepository.updateByPrimaryKey(devicePod.getId(),
-                                DevicePodDO.builder().containers(JsonUtils.writeValueAsString(list)).build());
+                                DevicePodDO.builder().containers(containersJson).build());
+                        statisticsService.containersChanged(devicePod.getContainers(), containersJson);
                         return null;
                     });
                 }
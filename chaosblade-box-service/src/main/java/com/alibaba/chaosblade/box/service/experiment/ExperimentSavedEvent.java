@@ -0,0 +1,42 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.chaosblade.box.service.experiment;
+
+import com.alibaba.chaosblade.box.common.DeviceMeta;
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.List;
+
+/**
+ * Published when an experiment is created or updated, listeners run after the transaction commits.
+ *
+ * @author yefei
+ */
+@Getter
+public class ExperimentSavedEvent extends ApplicationEvent {
+
+    private final Long scenarioId;
+
+    private final List<DeviceMeta> deviceMetas;
+
+    public ExperimentSavedEvent(Long experimentId, Long scenarioId, List<DeviceMeta> deviceMetas) {
+        super(experimentId);
+        this.scenarioId = scenarioId;
+        this.deviceMetas = deviceMetas;
+    }
+}
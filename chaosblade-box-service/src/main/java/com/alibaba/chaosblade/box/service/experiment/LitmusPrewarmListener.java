@@ -0,0 +1,70 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.chaosblade.box.service.experiment;
+
+import cn.hutool.core.collection.CollUtil;
+import com.alibaba.chaosblade.box.common.enums.ChaosTools;
+import com.alibaba.chaosblade.box.common.utils.SceneCodeParseUtil;
+import com.alibaba.chaosblade.box.invoker.RequestCommand;
+import com.alibaba.chaosblade.box.invoker.litmus.kubeapi.LitmusProvisioner;
+import com.alibaba.chaosblade.box.service.SceneService;
+import com.alibaba.chaosblade.box.service.cluster.ClusterRegistry;
+import com.alibaba.chaosblade.box.service.model.scene.SceneRequest;
+import com.alibaba.chaosblade.box.service.model.scene.SceneResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Provisions the litmus prerequisites of a saved experiment ahead, so that the attack only creates the chaos engine.
+ * Runs after commit, a rolled back experiment provisions nothing.
+ *
+ * @author yefei
+ */
+@Slf4j
+@Component
+public class LitmusPrewarmListener {
+
+    @Autowired
+    private SceneService sceneService;
+
+    @Autowired
+    private ClusterRegistry clusterRegistry;
+
+    @Autowired
+    private LitmusProvisioner litmusProvisioner;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onExperimentSaved(ExperimentSavedEvent event) {
+        if (CollUtil.isEmpty(event.getDeviceMetas())) {
+            return;
+        }
+        try {
+            SceneResponse scenario = sceneService.getScenarioById(SceneRequest.builder().scenarioId(event.getScenarioId()).build());
+            if (!ChaosTools.LITMUS_CHAOS.getName().equals(SceneCodeParseUtil.getOriginal(scenario.getCode()))) {
+                return;
+            }
+            RequestCommand requestCommand = new RequestCommand();
+            requestCommand.setSceneCode(scenario.getCode());
+            requestCommand.setCluster(clusterRegistry.resolve(event.getDeviceMetas().get(0).getClusterId()).join());
+            litmusProvisioner.prewarm(requestCommand);
+        } catch (Exception e) {
+            log.warn("Prewarm experiment {} failed", event.getSource(), e);
+        }
+    }
+}
@@ -9,6 +9,7 @@ import com.alibaba.chaosblade.box.dao.model.ClusterDO;
 import com.alibaba.chaosblade.box.dao.page.PageUtils;
 import com.alibaba.chaosblade.box.dao.repository.ClusterRepository;
 import com.alibaba.chaosblade.box.service.ClusterService;
+import com.alibaba.chaosblade.box.service.cluster.ClusterRegistry;
 import com.alibaba.chaosblade.box.service.collect.CollectorTimer;
 import com.alibaba.chaosblade.box.service.model.cluster.ClusterBO;
 import lombok.extern.slf4j.Slf4j;
@@ -36,6 +37,9 @@ public class ClusterServiceImpl implements ClusterService, InitializingBean {
     @Autowired
     private CollectorTimer collectorTimer;
 
+    @Autowired
+    private ClusterRegistry clusterRegistry;
+
     @Value("${spring.application.name}")
     private String applicationName;
 
@@ -66,6 +70,7 @@ public class ClusterServiceImpl implements ClusterService, InitializingBean {
                 .isCollector(false)
                 .build();
         clusterRepository.insert(clusterDO);
+        clusterRegistry.refresh(clusterDO.getId(), clusterBO.getConfig());
 
         String home = SystemPropertiesUtils.getPropertiesValue("user.home");
 
@@ -135,6 +140,7 @@ public class ClusterServiceImpl implements ClusterService, InitializingBean {
                 .config(clusterBO.getConfig())
                 .build();
         clusterRepository.updateByPrimaryKey(clusterBO.getId(), clusterDO);
+        clusterRegistry.refresh(clusterBO.getId(), clusterBO.getConfig());
 
         String home = SystemPropertiesUtils.getPropertiesValue("user.home");
         FileUtil.writeString(clusterBO.getConfig(),
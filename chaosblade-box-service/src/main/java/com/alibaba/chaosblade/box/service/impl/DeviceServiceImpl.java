@@ -36,6 +36,8 @@ import com.alibaba.chaosblade.box.dao.model.*;
 import com.alibaba.chaosblade.box.dao.page.PageUtils;
 import com.alibaba.chaosblade.box.dao.repository.*;
 import com.alibaba.chaosblade.box.service.DeviceService;
+import com.alibaba.chaosblade.box.service.StatisticsService;
+import com.alibaba.chaosblade.box.service.loader.BatchLoader;
 import com.alibaba.chaosblade.box.service.model.device.*;
 import com.alibaba.chaosblade.box.service.model.tools.ToolsResponse;
 import com.alibaba.chaosblade.box.service.probes.ProbesInstallSuccessEvent;
@@ -47,10 +49,8 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.io.IOException;
 import java.util.*;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import static com.alibaba.chaosblade.box.common.exception.ExceptionMessageEnum.DEVICE_NOT_FOUNT;
 
@@ -61,6 +61,9 @@ import static com.alibaba.chaosblade.box.common.exception.ExceptionMessageEnum.D
 @Service
 public class DeviceServiceImpl implements DeviceService {
 
+    private static final TypeReference<List<ContainerBO>> CONTAINERS_TYPE = new TypeReference<List<ContainerBO>>() {
+    };
+
     @Autowired
     private DeviceRepository deviceRepository;
 
@@ -85,6 +88,9 @@ public class DeviceServiceImpl implements DeviceService {
     @Autowired
     private ToolsRepository toolsRepository;
 
+    @Autowired
+    private StatisticsService statisticsService;
+
     @Autowired
     private DevicePodMapper devicePodMapper;
 
@@ -237,10 +243,16 @@ public class DeviceServiceImpl implements DeviceService {
             return Collections.emptyList();
         }
 
-        return devices.stream().map(deviceDO -> covert(deviceDO)).collect(Collectors.toList());
+        BatchLoader<Long, List<ToolsDO>> toolsLoader = BatchLoader.of(toolsRepository::selectByDeviceIds)
+                .addAll(devices.stream().map(DeviceDO::getId).collect(Collectors.toList()));
+        return devices.stream().map(deviceDO -> covert(deviceDO, toolsLoader)).collect(Collectors.toList());
     }
 
     public DeviceResponse covert(DeviceDO deviceDO) {
+        return covert(deviceDO, BatchLoader.of(toolsRepository::selectByDeviceIds));
+    }
+
+    private DeviceResponse covert(DeviceDO deviceDO, BatchLoader<Long, List<ToolsDO>> toolsLoader) {
         DeviceResponse deviceResponse = new DeviceResponse();
         deviceResponse.setVersion(deviceDO.getVersion())
                 .setDeviceId(deviceDO.getId())
@@ -252,7 +264,7 @@ public class DeviceServiceImpl implements DeviceService {
                 .setHeartbeatTime(deviceDO.getLastOnlineTime())
                 .setChaosTime(deviceDO.getLastExperimentTime())
                 .setTaskId(deviceDO.getLastTaskId())
-                .setChaostools(toolsRepository.selectByDeviceId(deviceDO.getId()).stream().map(toolsDO ->
+                .setChaostools(toolsLoader.getOrDefault(deviceDO.getId(), Collections.emptyList()).stream().map(toolsDO ->
                         ToolsResponse.builder()
                                 .name(toolsDO.getName())
                                 .version(toolsDO.getVersion())
@@ -272,19 +284,9 @@ public class DeviceServiceImpl implements DeviceService {
                 .pods(deviceRepository.selectHostCount(DeviceDO.builder()
                         .type(DeviceType.POD.getCode())
                         .build()))
-                .namespaces(devicePodMapper.selectList(QueryWrapperBuilder.<DevicePodDO>build()
-                        .groupBy("namespace").select("max(id)")).size())
-                .containers(devicePodRepository.selectList(DevicePodDO.builder().build()).stream().flatMap(devicePodDO ->
-                        Optional.ofNullable(devicePodDO.getContainers()).map(
-                                containers -> {
-                                    try {
-                                        return Stream.of(JsonUtils.reader(ContainerBO[].class).readValue(containers));
-                                    } catch (IOException e) {
-                                        return Stream.empty();
-                                    }
-                                }
-                        ).orElse(Stream.empty())
-                ).count())
+                .namespaces(devicePodMapper.selectCount(QueryWrapperBuilder.<DevicePodDO>build()
+                        .select("distinct namespace")))
+                .containers(statisticsService.getContainers())
                 .build();
     }
 
@@ -378,8 +380,7 @@ public class DeviceServiceImpl implements DeviceService {
                     if (StrUtil.isBlank(devicePodDO.getContainers())) {
                         containers = Collections.emptyList();
                     } else {
-                        containers = JsonUtils.readValue(new TypeReference<List<ContainerBO>>() {
-                        }, devicePodDO.getContainers());
+                        containers = JsonUtils.readValue(CONTAINERS_TYPE, devicePodDO.getContainers());
                     }
 
                     devicePodResponse.setClusterName(nodeMap.get(devicePodDO.getNodeId()).getClusterName())
@@ -513,8 +514,7 @@ public class DeviceServiceImpl implements DeviceService {
         if (StrUtil.isBlank(devicePodDO.getContainers())) {
             containers = Collections.emptyList();
         } else {
-            containers = JsonUtils.readValue(new TypeReference<List<ContainerBO>>() {
-            }, devicePodDO.getContainers());
+            containers = JsonUtils.readValue(CONTAINERS_TYPE, devicePodDO.getContainers());
         }
 
         devicePodResponse.setClusterName(deviceNodeDO.getClusterName())
@@ -23,7 +23,9 @@ import com.alibaba.chaosblade.box.service.model.experiment.activity.ExperimentAc
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -71,4 +73,12 @@ public class ExperimentActivityServiceImpl implements ExperimentActivityService
                 .map(this::covert)
                 .collect(Collectors.toList());
     }
+
+    @Override
+    public Map<Long, List<ExperimentActivity>> selectAttackByExperimentIds(Collection<Long> experimentIds) {
+        return experimentActivityRepository.selectListByExperiments(experimentIds).entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().stream()
+                        .map(this::covert)
+                        .collect(Collectors.toList())));
+    }
 }
@@ -35,11 +35,14 @@ import com.alibaba.chaosblade.box.metric.MetricChartLineRequest;
 import com.alibaba.chaosblade.box.metric.MetricService;
 import com.alibaba.chaosblade.box.service.ExperimentActivityTaskService;
 import com.alibaba.chaosblade.box.service.ExperimentMiniFlowService;
+import com.alibaba.chaosblade.box.service.StatisticsService;
 import com.alibaba.chaosblade.box.service.model.experiment.activity.ExperimentActivityTask;
 import com.alibaba.chaosblade.box.service.model.metric.MetricModel;
 import com.alibaba.chaosblade.box.service.task.ActivityTask;
+import com.alibaba.chaosblade.box.service.task.ActivityTaskDefinitions;
 import com.alibaba.chaosblade.box.service.task.ActivityTaskExecuteContext;
 import com.alibaba.chaosblade.box.service.task.ActivityTaskExecutePipeline;
+import com.alibaba.chaosblade.box.service.task.listener.ExperimentTaskStatePublisher;
 import com.alibaba.chaosblade.box.service.task.log.i18n.TaskLogType;
 import com.alibaba.chaosblade.box.service.task.log.i18n.TaskLogUtil;
 import com.fasterxml.jackson.core.type.TypeReference;
@@ -62,6 +65,12 @@ import static com.alibaba.chaosblade.box.common.exception.ExceptionMessageEnum.E
 @Service
 public class ExperimentActivityTaskServiceImpl implements ExperimentActivityTaskService {
 
+    @Autowired
+    private ActivityTaskDefinitions activityTaskDefinitions;
+
+    private static final TypeReference<List<MetricModel>> METRIC_MODELS_TYPE = new TypeReference<List<MetricModel>>() {
+    };
+
     @Autowired
     private ExperimentTaskRepository experimentTaskRepository;
 
@@ -92,6 +101,12 @@ public class ExperimentActivityTaskServiceImpl implements ExperimentActivityTask
     @Autowired
     private ActivityTaskExecuteContext activityTaskExecuteContext;
 
+    @Autowired
+    private StatisticsService statisticsService;
+
+    @Autowired
+    private ExperimentTaskStatePublisher experimentTaskStatePublisher;
+
     @Override
     public void manualChecked(Long activityTaskId) {
 
@@ -108,7 +123,7 @@ public class ExperimentActivityTaskServiceImpl implements ExperimentActivityTask
             List<DeviceMeta> deviceMetas = experimentMiniFlowService.selectExperimentDeviceByFlowId(experimentActivityTask.getFlowId());
             String activityDefinition = experimentActivityTask.getRunParam();
 
-            ActivityTask activityTask = JsonUtils.readValue(ActivityTask.class, activityDefinition);
+            ActivityTask activityTask = activityTaskDefinitions.parse(activityDefinition);
 
             activityTask.setDeviceMetas(deviceMetas);
             activityTask.setFlowId(experimentActivityTask.getFlowId());
@@ -138,10 +153,11 @@ public class ExperimentActivityTaskServiceImpl implements ExperimentActivityTask
 
                 TaskLogUtil.info(logger, TaskLogType.START_EXPERIMENT, activityTask.getExperimentTaskId());
 
-                experimentTaskRepository.updateByPrimaryKey(experimentTaskDO.getId(), ExperimentTaskDO.builder()
+                statisticsService.updateExperimentTask(experimentTaskDO.getId(), ExperimentTaskDO.builder()
                         .gmtStart(DateUtil.date())
                         .runStatus(RunStatus.RUNNING.getValue())
                         .build());
+                experimentTaskStatePublisher.task(activityTask.getExperimentTaskId(), RunStatus.RUNNING.getValue(), null, null);
 
                 for (DeviceMeta deviceMeta : activityTask.getDeviceMetas()) {
                     // update device last experiment
@@ -156,8 +172,7 @@ public class ExperimentActivityTaskServiceImpl implements ExperimentActivityTask
                 String metric = experimentTaskDO.getMetric();
                 if (StrUtil.isNotBlank(metric)) {
                     TaskLogUtil.info(logger, TaskLogType.START_METRIC, activityTask.getExperimentTaskId());
-                    List<MetricModel> metricModels = JsonUtils.readValue(new TypeReference<List<MetricModel>>() {
-                    }, metric);
+                    List<MetricModel> metricModels = JsonUtils.readValue(METRIC_MODELS_TYPE, metric);
                     metricModels.forEach(metricModel -> metric(context, metricModel, activityTask));
                 } else {
                     TaskLogUtil.info(logger, TaskLogType.NO_METRIC, activityTask.getExperimentTaskId());
@@ -172,10 +187,12 @@ public class ExperimentActivityTaskServiceImpl implements ExperimentActivityTask
                 ExperimentTaskDO experimentTask = experimentTaskRepository.selectById(activityTask.getExperimentTaskId())
                         .orElseThrow(() -> new BizException(EXPERIMENT_TASK_NOT_FOUNT));
                 if (experimentTask.getResultStatus() == null) {
-                    experimentTaskRepository.updateByPrimaryKey(activityTask.getExperimentTaskId(), ExperimentTaskDO.builder()
+                    statisticsService.updateExperimentTask(activityTask.getExperimentTaskId(), ExperimentTaskDO.builder()
                             .resultStatus(ResultStatus.FAILED.getValue())
                             .errorMessage(e.getMessage())
                             .build());
+                    experimentTaskStatePublisher.task(activityTask.getExperimentTaskId(), experimentTask.getRunStatus(),
+                            ResultStatus.FAILED.getValue(), e.getMessage());
 
                 }
             }
@@ -193,7 +210,9 @@ public class ExperimentActivityTaskServiceImpl implements ExperimentActivityTask
                     TaskLogUtil.info(logger, TaskLogType.EXPERIMENT_RECOVER_SUCCESS, activityTask.getExperimentTaskId());
                     taskDO.setResultStatus(ResultStatus.SUCCESS.getValue());
                 }
-                experimentTaskRepository.updateByPrimaryKey(activityTask.getExperimentTaskId(), taskDO);
+                statisticsService.updateExperimentTask(activityTask.getExperimentTaskId(), taskDO);
+                experimentTaskStatePublisher.task(activityTask.getExperimentTaskId(), taskDO.getRunStatus(),
+                        taskDO.getResultStatus(), taskDO.getErrorMessage());
 
                 for (DeviceMeta deviceMeta : activityTask.getDeviceMetas()) {
                     if (deviceMeta.getDeviceType() == null) {
@@ -279,6 +298,7 @@ public class ExperimentActivityTaskServiceImpl implements ExperimentActivityTask
                                                     .metric(v.getMetric())
                                                     .build()
                                     )).collect(Collectors.toList()));
+                            experimentTaskStatePublisher.metric(activityTask.getExperimentTaskId(), metricModel.getCode(), r);
                         }
                         return null;
                     }, context.executor());
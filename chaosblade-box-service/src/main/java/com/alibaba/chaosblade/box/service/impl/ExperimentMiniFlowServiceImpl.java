@@ -17,13 +17,12 @@
 package com.alibaba.chaosblade.box.service.impl;
 
 import com.alibaba.chaosblade.box.service.ExperimentMiniFlowService;
+import com.alibaba.chaosblade.box.service.ExperimentTargetService;
 import com.alibaba.chaosblade.box.common.DeviceMeta;
 import com.alibaba.chaosblade.box.common.exception.BizException;
-import com.alibaba.chaosblade.box.common.utils.JsonUtils;
 import com.alibaba.chaosblade.box.dao.model.ExperimentMiniFlowGroupDO;
 import com.alibaba.chaosblade.box.dao.repository.ExperimentMiniFlowGroupRepository;
 import com.alibaba.chaosblade.box.dao.repository.ExperimentMiniFlowRepository;
-import com.fasterxml.jackson.core.type.TypeReference;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -44,6 +43,9 @@ public class ExperimentMiniFlowServiceImpl implements ExperimentMiniFlowService
     @Autowired
     private ExperimentMiniFlowRepository experimentMiniFlowRepository;
 
+    @Autowired
+    private ExperimentTargetService experimentTargetService;
+
     @Override
     public ExperimentMiniFlowGroupDO selectByFlowId(Long flowId) {
         return experimentMiniFlowRepository.selectById(flowId)
@@ -55,18 +57,9 @@ public class ExperimentMiniFlowServiceImpl implements ExperimentMiniFlowService
 
     @Override
     public List<DeviceMeta> selectExperimentDeviceByFlowId(Long flowId) {
-        ExperimentMiniFlowGroupDO experimentMiniFlowGroupDO = experimentMiniFlowRepository.selectById(flowId)
-                .map(experimentMiniFlowDO ->
-                        experimentMiniFlowGroupRepository.selectById(experimentMiniFlowDO.getGroupId()).orElseThrow(
-                                () -> new BizException(FLOW_GROUP_NOT_EXISTS)))
-                .orElse(null);
-
-        if (experimentMiniFlowGroupDO == null) {
-            return Collections.emptyList();
-        }
-        String host = experimentMiniFlowGroupDO.getHosts();
-        return JsonUtils.readValue(new TypeReference<List<DeviceMeta>>() {
-        }, host);
+        return experimentMiniFlowRepository.selectById(flowId)
+                .map(experimentMiniFlowDO -> experimentTargetService.selectByGroupId(experimentMiniFlowDO.getGroupId()))
+                .orElse(Collections.emptyList());
     }
 
     @Override
@@ -75,9 +68,7 @@ public class ExperimentMiniFlowServiceImpl implements ExperimentMiniFlowService
         // TODO
         ExperimentMiniFlowGroupDO experimentMiniFlowGroupDO = experimentMiniFlowGroupRepository
                 .selectByExperiment(experimentId).get(0);
-        String host = experimentMiniFlowGroupDO.getHosts();
 
-        return JsonUtils.readValue(new TypeReference<List<DeviceMeta>>() {
-        }, host);
+        return experimentTargetService.selectByGroupId(experimentMiniFlowGroupDO.getId());
     }
 }
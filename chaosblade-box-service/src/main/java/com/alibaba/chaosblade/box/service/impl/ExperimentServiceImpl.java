@@ -38,7 +38,10 @@ import com.alibaba.chaosblade.box.dao.model.ExperimentActivityDO;
 import com.alibaba.chaosblade.box.dao.model.ExperimentDO;
 import com.alibaba.chaosblade.box.dao.model.ExperimentMiniFlowDO;
 import com.alibaba.chaosblade.box.dao.model.ExperimentMiniFlowGroupDO;
+import com.alibaba.chaosblade.box.dao.model.ExperimentTaskDO;
 import com.alibaba.chaosblade.box.dao.page.PageUtils;
+import com.alibaba.chaosblade.box.service.experiment.ExperimentSavedEvent;
+import com.alibaba.chaosblade.box.service.loader.BatchLoader;
 import com.alibaba.chaosblade.box.service.model.MachineResponse;
 import com.alibaba.chaosblade.box.service.model.device.DeviceNodeResponse;
 import com.alibaba.chaosblade.box.service.model.device.DevicePodResponse;
@@ -46,13 +49,16 @@ import com.alibaba.chaosblade.box.service.model.device.DeviceRequest;
 import com.alibaba.chaosblade.box.service.model.experiment.*;
 import com.alibaba.chaosblade.box.service.model.experiment.activity.ExperimentActivity;
 import com.alibaba.chaosblade.box.service.model.metric.MetricModel;
+import com.alibaba.chaosblade.box.service.model.scene.SceneCategoryResponse;
 import com.alibaba.chaosblade.box.service.model.scene.SceneRequest;
 import com.alibaba.chaosblade.box.service.model.scene.SceneResponse;
 import com.alibaba.chaosblade.box.service.model.scene.param.SceneParamResponse;
 import com.alibaba.chaosblade.box.service.model.scene.prepare.JavaAgentPrepare;
 import com.alibaba.chaosblade.box.service.task.ActivityTask;
+import com.alibaba.chaosblade.box.service.task.ActivityTaskDefinitions;
 import com.fasterxml.jackson.core.type.TypeReference;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -69,6 +75,12 @@ import static com.alibaba.chaosblade.box.common.exception.ExceptionMessageEnum.E
 @Service
 public class ExperimentServiceImpl implements ExperimentService {
 
+    @Autowired
+    private ActivityTaskDefinitions activityTaskDefinitions;
+
+    private static final TypeReference<List<MetricModel>> METRIC_MODELS_TYPE = new TypeReference<List<MetricModel>>() {
+    };
+
     @Autowired
     private ExperimentMapper experimentMapper;
 
@@ -102,6 +114,15 @@ public class ExperimentServiceImpl implements ExperimentService {
     @Autowired
     private DeviceService deviceService;
 
+    @Autowired
+    private StatisticsService statisticsService;
+
+    @Autowired
+    private ExperimentTargetService experimentTargetService;
+
+    @Autowired
+    private ApplicationEventPublisher publisher;
+
     @Override
     @Transactional
     public ExperimentResponse createExperiment(CreateExperimentRequest createExperimentRequest) throws Exception {
@@ -113,14 +134,15 @@ public class ExperimentServiceImpl implements ExperimentService {
                 .dimension(createExperimentRequest.getDimension())
                 .build();
         Long experimentId = experimentRepository.insert(experimentDO);
+        statisticsService.experimentCreated();
 
         List<DeviceMeta> deviceMetas = getDeviceMetas(createExperimentRequest);
 
         Long flowGroupId = experimentMiniFlowGroupRepository.insert(ExperimentMiniFlowGroupDO.builder()
                 .groupName(CHAOS_DEFAULT_NA)
-                .hosts(JsonUtils.writeValueAsString(deviceMetas))
                 .experimentId(experimentId)
                 .build());
+        experimentTargetService.saveGroupTargets(experimentId, flowGroupId, deviceMetas);
 
         // default mini flow
         Long flowId = experimentMiniFlowRepository.insert(ExperimentMiniFlowDO.builder()
@@ -130,6 +152,7 @@ public class ExperimentServiceImpl implements ExperimentService {
 
         createExperimentRequest.setExperimentId(experimentId);
         experimentPhase(createExperimentRequest, flowId);
+        publisher.publishEvent(new ExperimentSavedEvent(experimentId, createExperimentRequest.getScenarioId(), deviceMetas));
 
         return ExperimentResponse.builder()
                 .experimentId(experimentDO.getId())
@@ -254,8 +277,7 @@ public class ExperimentServiceImpl implements ExperimentService {
         }
 
         List<MetricModel> metricModels = Optional.ofNullable(createExperimentRequest.getMetrics())
-                .map(metric -> JsonUtils.readValue(new TypeReference<List<MetricModel>>() {
-                }, metric)).orElse(null);
+                .map(metric -> JsonUtils.readValue(METRIC_MODELS_TYPE, metric)).orElse(null);
 
         // attack
         ActivityTask activityTask = ActivityTask.builder()
@@ -305,8 +327,11 @@ public class ExperimentServiceImpl implements ExperimentService {
     }
 
     @Override
+    @Transactional
     public void deleteExperiment(ExperimentRequest experimentRequest) {
+        statisticsService.experimentDeleted(experimentRequest.getExperimentId());
         experimentRepository.deleteById(experimentRequest.getExperimentId());
+        experimentTargetService.deleteByExperimentId(experimentRequest.getExperimentId());
     }
 
     @Override
@@ -325,8 +350,7 @@ public class ExperimentServiceImpl implements ExperimentService {
                 .build();
 
         if (StrUtil.isNotBlank(experimentDO.getMetric())) {
-            List<MetricModel> metricModels = JsonUtils.readValue(new TypeReference<List<MetricModel>>() {
-            }, experimentDO.getMetric());
+            List<MetricModel> metricModels = JsonUtils.readValue(METRIC_MODELS_TYPE, experimentDO.getMetric());
             experimentResponse.setMetrics(metricModels);
         }
 
@@ -343,15 +367,25 @@ public class ExperimentServiceImpl implements ExperimentService {
 
         // todo
         ExperimentMiniFlowGroupDO experimentMiniFlowGroupDO = groupDOS.get(0);
-        String hosts = experimentMiniFlowGroupDO.getHosts();
 
-        List<MachineResponse> machineResponses = JsonUtils.readValue(new TypeReference<List<MachineResponse>>() {
-        }, hosts);
+        List<MachineResponse> machineResponses = experimentTargetService.selectByGroupId(experimentMiniFlowGroupDO.getId())
+                .stream()
+                .map(deviceMeta -> new MachineResponse()
+                        .setDeviceId(deviceMeta.getDeviceId())
+                        .setDeviceType(deviceMeta.getDeviceType() == null ? null : String.valueOf(deviceMeta.getDeviceType()))
+                        .setHostname(deviceMeta.getHostname())
+                        .setIp(deviceMeta.getIp())
+                        .setClusterId(deviceMeta.getClusterId())
+                        .setNodeName(deviceMeta.getNodeName())
+                        .setNamespace(deviceMeta.getNamespace())
+                        .setPodName(deviceMeta.getPodName())
+                        .setContainerName(deviceMeta.getContainerName()))
+                .collect(Collectors.toList());
         experimentResponse.setMachines(machineResponses);
 
         List<ExperimentActivity> experimentActivities = experimentActivityService.selectAttackByExperimentId(experimentDO.getId());
         experimentActivities.stream().forEach(experimentActivity -> {
-            ActivityTask activityTask = JsonUtils.readValue(ActivityTask.class, experimentActivity.getActivityDefinition());
+            ActivityTask activityTask = activityTaskDefinitions.parse(experimentActivity.getActivityDefinition());
             SceneResponse scenario = sceneService.getScenarioById(SceneRequest.builder().scenarioId(activityTask.getSceneId()).build());
             scenario.setParameters(scenario.getParameters().stream().map(
                     sceneParam -> SceneParamResponse.builder()
@@ -373,7 +407,7 @@ public class ExperimentServiceImpl implements ExperimentService {
                         experimentActivity.getPhase().equals(ChaosConstant.PHASE_ATTACK))
                 .map(experimentActivity ->
                         {
-                            ActivityTask activityTask = JsonUtils.readValue(ActivityTask.class, experimentActivity.getActivityDefinition());
+                            ActivityTask activityTask = activityTaskDefinitions.parse(experimentActivity.getActivityDefinition());
                             SceneResponse scenario = experimentActivity.getScene();
                             return SceneResponse.builder()
                                     .code(experimentActivity.getSceneCode())
@@ -414,14 +448,11 @@ public class ExperimentServiceImpl implements ExperimentService {
 
         List<DeviceMeta> deviceMetas = getDeviceMetas(createExperimentRequest);
 
-        experimentMiniFlowGroupRepository.updateByExperimentId(experimentId, ExperimentMiniFlowGroupDO.builder()
-                .hosts(JsonUtils.writeValueAsString(deviceMetas))
-                .build());
-
         experimentMiniFlowRepository.deleteByExperimentId(experimentId);
 
         List<ExperimentMiniFlowGroupDO> experimentMiniFlowGroup = experimentMiniFlowGroupRepository.selectByExperiment(experimentId);
         Long flowGroupId = experimentMiniFlowGroup.get(0).getId();
+        experimentTargetService.saveGroupTargets(experimentId, flowGroupId, deviceMetas);
 
         // default mini flow
         Long flowId = experimentMiniFlowRepository.insert(ExperimentMiniFlowDO.builder()
@@ -432,6 +463,7 @@ public class ExperimentServiceImpl implements ExperimentService {
         experimentActivityRepository.deleteExperimentId(experimentId);
 
         experimentPhase(createExperimentRequest, flowId);
+        publisher.publishEvent(new ExperimentSavedEvent(experimentId, createExperimentRequest.getScenarioId(), deviceMetas));
 
         return ExperimentResponse.builder()
                 .experimentId(experimentDO.getId())
@@ -474,6 +506,25 @@ public class ExperimentServiceImpl implements ExperimentService {
         if (CollectionUtil.isEmpty(experimentDOS)) {
             return Collections.emptyList();
         }
+
+        // resolve the lookups of the whole page in batch
+        List<Long> experimentIds = experimentDOS.stream().map(ExperimentDO::getId).collect(Collectors.toList());
+        BatchLoader<Long, Integer> taskCountLoader = BatchLoader.of(experimentTaskRepository::selectCountByExperimentIds)
+                .addAll(experimentIds);
+        BatchLoader<Long, ExperimentTaskDO> lastTaskLoader = BatchLoader.of(experimentTaskRepository::selectByIds)
+                .addAll(experimentDOS.stream().map(ExperimentDO::getTaskId).filter(Objects::nonNull).collect(Collectors.toList()));
+        BatchLoader<Long, List<ExperimentActivity>> activityLoader = BatchLoader.of(experimentActivityService::selectAttackByExperimentIds)
+                .addAll(experimentIds);
+        BatchLoader<Long, List<SceneCategoryResponse>> categoryLoader = BatchLoader.of(sceneService::getScenarioCategories);
+        Map<ExperimentActivity, ActivityTask> activityTasks = new IdentityHashMap<>();
+        experimentIds.forEach(experimentId -> activityLoader.getOrDefault(experimentId, Collections.emptyList()).stream()
+                .filter(experimentActivity -> experimentActivity.getPhase().equals(ChaosConstant.PHASE_ATTACK))
+                .forEach(experimentActivity -> {
+                    ActivityTask activityTask = activityTaskDefinitions.parse(experimentActivity.getActivityDefinition());
+                    activityTasks.put(experimentActivity, activityTask);
+                    categoryLoader.add(activityTask.getSceneId());
+                }));
+
         return experimentDOS.stream().map(experimentDO -> {
 
             ExperimentResponse experimentResponse = ExperimentResponse.builder()
@@ -481,10 +532,10 @@ public class ExperimentServiceImpl implements ExperimentService {
                     .experimentName(experimentDO.getName())
                     .createTime(experimentDO.getGmtCreate())
                     .modifyTime(experimentDO.getGmtModified())
-                    .taskCount(experimentTaskRepository.selectByExperimentId(experimentDO.getId()).size())
+                    .taskCount(taskCountLoader.getOrDefault(experimentDO.getId(), 0))
                     .build();
 
-            experimentTaskRepository.selectById(experimentDO.getTaskId())
+            Optional.ofNullable(lastTaskLoader.get(experimentDO.getTaskId()))
                     .ifPresent(experimentTaskDO -> {
                         experimentResponse.setLastTaskId(experimentTaskDO.getId());
                         experimentResponse.setLastTaskStartTime(experimentTaskDO.getGmtStart());
@@ -493,22 +544,19 @@ public class ExperimentServiceImpl implements ExperimentService {
                         experimentResponse.setLastTaskResult(experimentTaskDO.getResultStatus());
                     });
 
-            List<ExperimentActivity> experimentActivities = experimentActivityService.selectAttackByExperimentId(experimentDO.getId());
+            List<ExperimentActivity> experimentActivities = activityLoader.getOrDefault(experimentDO.getId(), Collections.emptyList());
 
             experimentResponse.setScenarios(experimentActivities.stream()
                     .filter(experimentActivity ->
                             experimentActivity.getPhase().equals(ChaosConstant.PHASE_ATTACK))
                     .map(experimentActivity ->
                             {
-                                ActivityTask activityTask = JsonUtils.readValue(ActivityTask.class, experimentActivity.getActivityDefinition());
+                                ActivityTask activityTask = activityTasks.get(experimentActivity);
                                 return SceneResponse.builder()
                                         .code(experimentActivity.getSceneCode())
                                         .name(experimentActivity.getActivityName())
                                         .scenarioId(activityTask.getSceneId())
-                                        .categories(
-                                                sceneService.getScenarioById(SceneRequest.builder().scenarioId(activityTask.getSceneId()).build())
-                                                        .getCategories()
-                                        )
+                                        .categories(categoryLoader.getOrDefault(activityTask.getSceneId(), Collections.emptyList()))
                                         .parameters(Optional.ofNullable(activityTask.getArguments()).map((arguments) ->
                                                 arguments.entrySet().stream().map(entry -> SceneParamResponse.builder()
                                                         .name(entry.getKey())
@@ -523,14 +571,6 @@ public class ExperimentServiceImpl implements ExperimentService {
 
     @Override
     public ExperimentStatisticsResponse getExperimentTotalStatistics() {
-
-        return ExperimentStatisticsResponse.builder()
-                .totals(experimentMapper.selectCount(QueryWrapperBuilder.build()))
-                .prepares(experimentMapper.selectPreparesCount())
-                .success(experimentMapper.selectSuccessCount())
-                .failed(experimentMapper.selectFailedCount())
-                .running(experimentMapper.selectRunningCount())
-                .finished(experimentMapper.selectFinishedCount())
-                .build();
+        return statisticsService.getExperimentStatistics();
     }
 }
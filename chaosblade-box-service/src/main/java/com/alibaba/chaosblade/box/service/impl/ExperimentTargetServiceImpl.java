@@ -0,0 +1,198 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.chaosblade.box.service.impl;
+
+import cn.hutool.core.util.StrUtil;
+import com.alibaba.chaosblade.box.common.DeviceMeta;
+import com.alibaba.chaosblade.box.common.utils.JsonUtils;
+import com.alibaba.chaosblade.box.dao.model.ExperimentMiniFlowGroupDO;
+import com.alibaba.chaosblade.box.dao.model.ExperimentTargetDO;
+import com.alibaba.chaosblade.box.dao.model.ExperimentTaskDO;
+import com.alibaba.chaosblade.box.dao.repository.ExperimentMiniFlowGroupRepository;
+import com.alibaba.chaosblade.box.dao.repository.ExperimentTargetRepository;
+import com.alibaba.chaosblade.box.dao.repository.ExperimentTaskRepository;
+import com.alibaba.chaosblade.box.service.ExperimentTargetService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * @author yefei
+ */
+@Slf4j
+@Service
+public class ExperimentTargetServiceImpl implements ExperimentTargetService {
+
+    private static final TypeReference<List<DeviceMeta>> DEVICE_METAS_TYPE = new TypeReference<List<DeviceMeta>>() {
+    };
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final int MIGRATE_PAGE_SIZE = 50;
+
+    @Autowired
+    private ExperimentTargetRepository experimentTargetRepository;
+
+    @Autowired
+    private ExperimentMiniFlowGroupRepository experimentMiniFlowGroupRepository;
+
+    @Autowired
+    private ExperimentTaskRepository experimentTaskRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Override
+    @Transactional
+    public void saveGroupTargets(Long experimentId, Long groupId, List<DeviceMeta> deviceMetas) {
+        experimentTargetRepository.deleteByGroupId(groupId);
+        experimentTargetRepository.saveBatch(deviceMetas.stream()
+                .map(deviceMeta -> convert(deviceMeta, experimentId, groupId, null))
+                .collect(Collectors.toList()), BATCH_SIZE);
+    }
+
+    @Override
+    @Transactional
+    public void saveTaskTargets(Long experimentId, Long taskId, List<DeviceMeta> deviceMetas) {
+        experimentTargetRepository.deleteByTaskId(taskId);
+        experimentTargetRepository.saveBatch(deviceMetas.stream()
+                .map(deviceMeta -> convert(deviceMeta, experimentId, null, taskId))
+                .collect(Collectors.toList()), BATCH_SIZE);
+    }
+
+    @Override
+    public List<DeviceMeta> selectByGroupId(Long groupId) {
+        return experimentTargetRepository.selectByGroupId(groupId).stream()
+                .map(this::convert)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void forEachTaskTarget(Long taskId, Consumer<DeviceMeta> consumer) {
+        experimentTargetRepository.streamByTaskId(taskId, target -> consumer.accept(convert(target)));
+    }
+
+    @Override
+    public List<Long> selectExperimentIdsByPod(String namespace, String podName) {
+        return experimentTargetRepository.selectExperimentIdsByPod(namespace, podName);
+    }
+
+    @Override
+    public void deleteByExperimentId(Long experimentId) {
+        experimentTargetRepository.deleteByExperimentId(experimentId);
+    }
+
+    @Override
+    public List<Long> selectExperimentIdsByDeviceId(Long deviceId) {
+        return experimentTargetRepository.selectExperimentIdsByDeviceId(deviceId);
+    }
+
+    /**
+     * move the json hosts of flow groups and tasks created before t_chaos_experiment_target into it,
+     * each flow group or task in its own transaction
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateHosts() {
+        int groups = 0;
+        long afterId = 0;
+        List<ExperimentMiniFlowGroupDO> groupDOS;
+        while (!(groupDOS = experimentMiniFlowGroupRepository.selectWithHosts(afterId, MIGRATE_PAGE_SIZE)).isEmpty()) {
+            for (ExperimentMiniFlowGroupDO groupDO : groupDOS) {
+                afterId = groupDO.getId();
+                try {
+                    transactionTemplate.execute(status -> {
+                        saveGroupTargets(groupDO.getExperimentId(), groupDO.getId(), parseHosts(groupDO.getHosts()));
+                        return experimentMiniFlowGroupRepository.clearHosts(groupDO.getId());
+                    });
+                    groups++;
+                } catch (Exception e) {
+                    log.error("Migrate hosts of flow group {} failed", groupDO.getId(), e);
+                }
+            }
+        }
+
+        int tasks = 0;
+        afterId = 0;
+        List<ExperimentTaskDO> taskDOS;
+        while (!(taskDOS = experimentTaskRepository.selectWithHosts(afterId, MIGRATE_PAGE_SIZE)).isEmpty()) {
+            for (ExperimentTaskDO taskDO : taskDOS) {
+                afterId = taskDO.getId();
+                try {
+                    transactionTemplate.execute(status -> {
+                        saveTaskTargets(taskDO.getExperimentId(), taskDO.getId(), parseHosts(taskDO.getHosts()));
+                        return experimentTaskRepository.clearHosts(taskDO.getId());
+                    });
+                    tasks++;
+                } catch (Exception e) {
+                    log.error("Migrate hosts of experiment task {} failed", taskDO.getId(), e);
+                }
+            }
+        }
+
+        if (groups > 0 || tasks > 0) {
+            log.info("Migrated experiment hosts to targets, flow groups: {}, tasks: {}", groups, tasks);
+        }
+    }
+
+    private List<DeviceMeta> parseHosts(String hosts) {
+        if (StrUtil.isBlank(hosts)) {
+            return Collections.emptyList();
+        }
+        return JsonUtils.readValue(DEVICE_METAS_TYPE, hosts);
+    }
+
+    private ExperimentTargetDO convert(DeviceMeta deviceMeta, Long experimentId, Long groupId, Long taskId) {
+        return ExperimentTargetDO.builder()
+                .experimentId(experimentId)
+                .groupId(groupId)
+                .taskId(taskId)
+                .deviceId(deviceMeta.getDeviceId())
+                .deviceType(deviceMeta.getDeviceType())
+                .hostname(deviceMeta.getHostname())
+                .ip(deviceMeta.getIp())
+                .clusterId(deviceMeta.getClusterId())
+                .nodeName(deviceMeta.getNodeName())
+                .namespace(deviceMeta.getNamespace())
+                .podName(deviceMeta.getPodName())
+                .containerName(deviceMeta.getContainerName())
+                .build();
+    }
+
+    private DeviceMeta convert(ExperimentTargetDO target) {
+        return DeviceMeta.builder()
+                .deviceId(target.getDeviceId())
+                .deviceType(target.getDeviceType())
+                .hostname(target.getHostname())
+                .ip(target.getIp())
+                .clusterId(target.getClusterId())
+                .nodeName(target.getNodeName())
+                .namespace(target.getNamespace())
+                .podName(target.getPodName())
+                .containerName(target.getContainerName())
+                .build();
+    }
+}
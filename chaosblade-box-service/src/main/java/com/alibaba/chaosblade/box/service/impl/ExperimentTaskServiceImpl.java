@@ -18,7 +18,6 @@ package com.alibaba.chaosblade.box.service.impl;
 
 import cn.hutool.core.bean.BeanUtil;
 import cn.hutool.core.util.EnumUtil;
-import cn.hutool.core.util.StrUtil;
 import com.alibaba.chaosblade.box.common.DeviceMeta;
 import com.alibaba.chaosblade.box.common.constants.ChaosConstant;
 import com.alibaba.chaosblade.box.common.enums.ExperimentDimension;
@@ -26,15 +25,17 @@ import com.alibaba.chaosblade.box.common.enums.ResultStatus;
 import com.alibaba.chaosblade.box.common.enums.RunStatus;
 import com.alibaba.chaosblade.box.common.exception.BizException;
 import com.alibaba.chaosblade.box.common.exception.ExceptionMessageEnum;
-import com.alibaba.chaosblade.box.common.utils.JsonUtils;
-import com.alibaba.chaosblade.box.dao.mapper.ExperimentTaskMapper;
+import com.alibaba.chaosblade.box.common.trace.SpanKind;
 import com.alibaba.chaosblade.box.dao.model.*;
 import com.alibaba.chaosblade.box.dao.repository.*;
 import com.alibaba.chaosblade.box.service.*;
 import com.alibaba.chaosblade.box.service.model.experiment.ExperimentRequest;
+import com.alibaba.chaosblade.box.service.model.experiment.ExperimentTaskDeltaResponse;
 import com.alibaba.chaosblade.box.service.model.experiment.ExperimentTaskRequest;
 import com.alibaba.chaosblade.box.service.model.experiment.ExperimentTaskResponse;
+import com.alibaba.chaosblade.box.service.model.experiment.ExperimentTaskSpan;
 import com.alibaba.chaosblade.box.service.model.experiment.ExperimentTaskStatistics;
+import com.alibaba.chaosblade.box.service.model.experiment.ExperimentTaskTraceResponse;
 import com.alibaba.chaosblade.box.service.model.experiment.activity.ExperimentActivity;
 import com.alibaba.chaosblade.box.service.model.experiment.activity.ExperimentActivityTask;
 import com.alibaba.chaosblade.box.service.model.experiment.activity.ExperimentActivityTaskRecord;
@@ -42,15 +43,14 @@ import com.alibaba.chaosblade.box.service.model.scene.SceneRequest;
 import com.alibaba.chaosblade.box.service.model.scene.SceneResponse;
 import com.alibaba.chaosblade.box.service.model.scene.param.SceneParamResponse;
 import com.alibaba.chaosblade.box.service.task.ActivityTask;
+import com.alibaba.chaosblade.box.service.task.ActivityTaskDefinitions;
 import com.alibaba.chaosblade.box.service.task.ActivityTaskExecuteContext;
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.alibaba.chaosblade.box.service.task.journal.TaskChangeJournal;
+import com.alibaba.chaosblade.box.service.task.journal.TaskChanges;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.Collections;
-import java.util.List;
-import java.util.Map;
-import java.util.Optional;
+import java.util.*;
 import java.util.stream.Collectors;
 
 import static com.alibaba.chaosblade.box.common.exception.ExceptionMessageEnum.*;
@@ -61,6 +61,12 @@ import static com.alibaba.chaosblade.box.common.exception.ExceptionMessageEnum.*
 @Service
 public class ExperimentTaskServiceImpl implements ExperimentTaskService {
 
+    @Autowired
+    private ActivityTaskDefinitions activityTaskDefinitions;
+
+    @Autowired
+    private TaskChangeJournal taskChangeJournal;
+
     @Autowired
     private ExperimentRepository experimentRepository;
 
@@ -70,6 +76,12 @@ public class ExperimentTaskServiceImpl implements ExperimentTaskService {
     @Autowired
     private ExperimentTaskLogRepository experimentTaskLogRepository;
 
+    @Autowired
+    private ExperimentTaskSpanRepository experimentTaskSpanRepository;
+
+    @Autowired
+    private StatisticsService statisticsService;
+
     @Autowired
     private ExperimentActivityService experimentActivityService;
 
@@ -89,7 +101,7 @@ public class ExperimentTaskServiceImpl implements ExperimentTaskService {
     private ExperimentMiniFlowService experimentMiniFlowService;
 
     @Autowired
-    private ExperimentTaskMapper experimentTaskMapper;
+    private ExperimentTargetService experimentTargetService;
 
     @Autowired
     private ActivityTaskExecuteContext activityTaskExecuteContext;
@@ -99,10 +111,11 @@ public class ExperimentTaskServiceImpl implements ExperimentTaskService {
         ExperimentDO experimentDO = experimentRepository.selectById(experimentId)
                 .orElseThrow(() -> new BizException(ExceptionMessageEnum.EXPERIMENT_NOT_FOUNT));
         Long preTaskId = experimentDO.getTaskId();
+        ExperimentTaskDO preTask = null;
         if (preTaskId != null) {
-            ExperimentTaskDO experimentTaskDO = experimentTaskRepository.selectById(preTaskId).get();
+            preTask = experimentTaskRepository.selectById(preTaskId).get();
 
-            if (!(experimentTaskDO.getRunStatus() == RunStatus.FINISHED.getValue())) {
+            if (!(preTask.getRunStatus() == RunStatus.FINISHED.getValue())) {
                 throw new BizException(ExceptionMessageEnum.EXPERIMENT_PRE_NO_FINISH);
             }
         }
@@ -113,16 +126,17 @@ public class ExperimentTaskServiceImpl implements ExperimentTaskService {
                 .experimentId(experimentId)
                 .taskName(experimentDO.getName())
                 .taskType((byte) 0)
-                .hosts(JsonUtils.writeValueAsString(deviceMetas))
                 .metric(experimentDO.getMetric())
                 .runStatus(RunStatus.READY.getValue())
                 .build();
         // ready experiment task
         experimentTaskRepository.insert(experimentTaskDO);
+        experimentTargetService.saveTaskTargets(experimentId, experimentTaskDO.getId(), deviceMetas);
 
         experimentRepository.updateByPrimaryKey(experimentId, ExperimentDO.builder()
                 .taskId(experimentTaskDO.getId())
                 .build());
+        statisticsService.experimentTaskCreated(preTask, experimentTaskDO);
 
         ExperimentActivity experimentActivity = experimentActivityService.selectByExperimentId(experimentId);
         readyActivityTasks(null, experimentActivity, experimentTaskDO.getId());
@@ -177,7 +191,7 @@ public class ExperimentTaskServiceImpl implements ExperimentTaskService {
             throw new BizException(EXPERIMENT_TASK_END);
         }
 
-        experimentTaskRepository.updateByPrimaryKey(taskId, ExperimentTaskDO.builder()
+        statisticsService.updateExperimentTask(taskId, ExperimentTaskDO.builder()
                 .runStatus(RunStatus.STOPPING.getValue())
                 .build());
 
@@ -187,10 +201,11 @@ public class ExperimentTaskServiceImpl implements ExperimentTaskService {
             Byte runState = experimentActivityTaskDO.getRunStatus();
             // ready -> skip
             if (runState.equals(RunStatus.READY.getValue())) {
-                experimentActivityTaskRepository.updateByPrimaryKey(taskId, ExperimentActivityTaskDO.builder()
+                experimentActivityTaskRepository.updateByPrimaryKey(experimentActivityTaskDO.getId(), ExperimentActivityTaskDO.builder()
                         .runStatus(RunStatus.FINISHED.getValue())
                         .resultStatus(ResultStatus.REJECTED.getValue())
                         .build());
+                taskChangeJournal.activity(taskId, experimentActivityTaskDO.getId());
             }
         });
 
@@ -232,7 +247,7 @@ public class ExperimentTaskServiceImpl implements ExperimentTaskService {
                 .activityTaskId(experimentTaskDO.getActivityTaskId())
                 .error(experimentTaskDO.getErrorMessage())
                 .activityTasks(experimentActivityTasks.stream().map(experimentActivityTask -> {
-                    ActivityTask activityTask = JsonUtils.readValue(ActivityTask.class, experimentActivityTask.getRunParam());
+                    ActivityTask activityTask = activityTaskDefinitions.parse(experimentActivityTask.getRunParam());
                     SceneResponse scenario = sceneService.getScenarioById(SceneRequest.builder().scenarioId(activityTask.getSceneId()).build());
 
                     scenario.setParameters(scenario.getParameters().stream().map(
@@ -264,12 +279,13 @@ public class ExperimentTaskServiceImpl implements ExperimentTaskService {
         if (experimentTaskDO.getRunStatus() == RunStatus.RUNNING.getValue()) {
             List<ExperimentActivityTaskDO> experimentActivityTasks = experimentActivityTaskRepository
                     .selectByTaskId(experimentTaskDO.getId());
-            experimentTaskRepository.updateByPrimaryKey(taskId,
+            statisticsService.updateExperimentTask(taskId,
                     ExperimentTaskDO.builder().runStatus(RunStatus.READY.getValue()).resultStatus(null).build());
 
             experimentActivityTasks.forEach(experimentActivityTaskDO -> {
                 experimentActivityTaskRepository.updateByPrimaryKey(experimentActivityTaskDO.getId(),
                         ExperimentActivityTaskDO.builder().runStatus(RunStatus.READY.getValue()).build());
+                taskChangeJournal.activity(taskId, experimentActivityTaskDO.getId());
             });
             experimentActivityTaskService.executeActivityTasks(experimentActivityTasks, experimentTaskDO);
         } else if (experimentTaskDO.getRunStatus() == RunStatus.FINISHED.getValue()) {
@@ -284,13 +300,6 @@ public class ExperimentTaskServiceImpl implements ExperimentTaskService {
     public List<ExperimentActivityTaskRecord> queryTaskRecord(ExperimentTaskRequest experimentRequest) {
         ExperimentTaskDO experimentTaskDO = experimentTaskRepository.selectById(experimentRequest.getTaskId())
                 .orElseThrow(() -> new BizException(EXPERIMENT_TASK_NOT_FOUNT));
-        if (StrUtil.isBlank(experimentTaskDO.getHosts())) {
-            return Collections.emptyList();
-        }
-
-        List<DeviceMeta> deviceMetas = JsonUtils.readValue(new TypeReference<List<DeviceMeta>>() {
-        }, experimentTaskDO.getHosts());
-
         Map<String, ExperimentActivityTaskRecordDO> map = experimentActivityTaskRecordRepository
                 .selectActivityTaskId(experimentRequest.getActivityTaskId())
                 .stream().collect(Collectors.toMap(ExperimentActivityTaskRecordDO::getIp, v -> v,
@@ -301,27 +310,25 @@ public class ExperimentTaskServiceImpl implements ExperimentTaskService {
                             return v1;
                         }));
 
-        return deviceMetas.stream().map(deviceMeta -> {
+        List<ExperimentActivityTaskRecord> records = new ArrayList<>();
+        experimentTargetService.forEachTaskTarget(experimentTaskDO.getId(), deviceMeta -> {
             ExperimentActivityTaskRecordDO experimentActivityTaskRecordDO = map.get(deviceMeta.getIp());
             if (experimentActivityTaskRecordDO == null) {
-                return ExperimentActivityTaskRecord.builder()
+                records.add(ExperimentActivityTaskRecord.builder()
                         .ip(deviceMeta.getIp())
-                        .build();
+                        .build());
             } else {
                 ExperimentActivityTaskRecord experimentActivityTask = new ExperimentActivityTaskRecord();
                 BeanUtil.copyProperties(experimentActivityTaskRecordDO, experimentActivityTask);
-                return experimentActivityTask;
+                records.add(experimentActivityTask);
             }
-        }).collect(Collectors.toList());
+        });
+        return records;
     }
 
     @Override
     public List<ExperimentTaskStatistics> queryTaskStatistics() {
-        List<Map<Integer, Object>> maps = experimentTaskMapper.queryTaskStatistics();
-        return maps.stream().map(map -> ExperimentTaskStatistics.builder()
-                .date(String.valueOf(map.get("date")))
-                .taskCount(String.valueOf(map.get("taskCount")))
-                .build()).collect(Collectors.toList());
+        return statisticsService.getTaskStatistics();
     }
 
     @Override
@@ -332,7 +339,7 @@ public class ExperimentTaskServiceImpl implements ExperimentTaskService {
         List<DeviceMeta> deviceMetas = experimentMiniFlowService.selectExperimentDeviceByFlowId(experimentActivityTask.getFlowId());
         String activityDefinition = experimentActivityTask.getRunParam();
 
-        ActivityTask activityTask = JsonUtils.readValue(ActivityTask.class, activityDefinition);
+        ActivityTask activityTask = activityTaskDefinitions.parse(activityDefinition);
 
         activityTask.setDeviceMetas(deviceMetas);
         activityTask.setFlowId(experimentActivityTask.getFlowId());
@@ -350,4 +357,109 @@ public class ExperimentTaskServiceImpl implements ExperimentTaskService {
         activityTaskExecuteContext.executeActivityTask(activityTask);
         return null;
     }
+
+    @Override
+    public ExperimentTaskTraceResponse queryTaskTrace(ExperimentTaskRequest experimentRequest) {
+        Long taskId = experimentRequest.getTaskId();
+        List<ExperimentTaskSpanDO> spans = experimentTaskSpanRepository.selectByTaskId(taskId);
+        if (spans.isEmpty()) {
+            return ExperimentTaskTraceResponse.builder()
+                    .taskId(taskId)
+                    .summary(Collections.emptyMap())
+                    .spans(Collections.emptyList())
+                    .build();
+        }
+
+        long start = spans.get(0).getStartNanos();
+        long end = spans.stream().mapToLong(span -> span.getStartNanos() + span.getDurationNanos()).max().orElse(start);
+
+        // spans are sorted by start, merge overlapping intervals of the same kind
+        Map<String, Long> summary = new LinkedHashMap<>();
+        Map<String, long[]> intervals = new HashMap<>();
+        for (ExperimentTaskSpanDO span : spans) {
+            String kind = SpanKind.parse(span.getKind()).name();
+            long spanStart = span.getStartNanos();
+            long spanEnd = spanStart + span.getDurationNanos();
+            long[] interval = intervals.get(kind);
+            if (interval == null || spanStart > interval[1]) {
+                if (interval != null) {
+                    summary.merge(kind, interval[1] - interval[0], Long::sum);
+                }
+                intervals.put(kind, new long[]{spanStart, spanEnd});
+            } else {
+                interval[1] = Math.max(interval[1], spanEnd);
+            }
+        }
+        intervals.forEach((kind, interval) -> summary.merge(kind, interval[1] - interval[0], Long::sum));
+        summary.replaceAll((kind, nanos) -> nanos / 1000);
+
+        return ExperimentTaskTraceResponse.builder()
+                .taskId(taskId)
+                .startTime(start / 1000_000)
+                .durationMicros((end - start) / 1000)
+                .summary(summary)
+                .spans(spans.stream().map(span -> ExperimentTaskSpan.builder()
+                        .kind(SpanKind.parse(span.getKind()).name())
+                        .name(span.getName())
+                        .activityTaskId(span.getActivityTaskId())
+                        .target(span.getTarget())
+                        .offsetMicros((span.getStartNanos() - start) / 1000)
+                        .durationMicros(span.getDurationNanos() / 1000)
+                        .success(span.getSuccess())
+                        .build()
+                ).collect(Collectors.toList()))
+                .build();
+    }
+
+    @Override
+    public ExperimentTaskDeltaResponse queryTaskDelta(ExperimentTaskRequest experimentRequest) {
+        Long taskId = experimentRequest.getTaskId();
+        TaskChanges changes = taskChangeJournal.since(taskId, experimentRequest.getVersion());
+        if (changes.isReset()) {
+            return ExperimentTaskDeltaResponse.builder()
+                    .version(changes.getVersion())
+                    .reset(true)
+                    .build();
+        }
+
+        ExperimentTaskResponse task = null;
+        if (changes.isTaskChanged()) {
+            task = experimentTaskRepository.selectById(taskId).map(experimentTaskDO -> ExperimentTaskResponse.builder()
+                    .experimentId(experimentTaskDO.getExperimentId())
+                    .taskId(experimentTaskDO.getId())
+                    .endTime(experimentTaskDO.getGmtEnd())
+                    .startTime(experimentTaskDO.getGmtStart())
+                    .taskName(experimentTaskDO.getTaskName())
+                    .status(experimentTaskDO.getRunStatus())
+                    .resultStatus(experimentTaskDO.getResultStatus())
+                    .activityTaskId(experimentTaskDO.getActivityTaskId())
+                    .error(experimentTaskDO.getErrorMessage())
+                    .build()
+            ).orElse(null);
+        }
+
+        List<ExperimentActivityTask> activityTasks = changes.getActivityTaskIds().isEmpty() ? Collections.emptyList()
+                : experimentActivityTaskRepository.selectBatchIds(changes.getActivityTaskIds()).stream()
+                .map(experimentActivityTaskDO -> {
+                    ExperimentActivityTask experimentActivityTask = ExperimentActivityTask.builder().build();
+                    BeanUtil.copyProperties(experimentActivityTaskDO, experimentActivityTask);
+                    return experimentActivityTask;
+                }).collect(Collectors.toList());
+
+        List<ExperimentActivityTaskRecord> records = changes.getRecordIds().isEmpty() ? Collections.emptyList()
+                : experimentActivityTaskRecordRepository.listByIds(changes.getRecordIds()).stream()
+                .map(experimentActivityTaskRecordDO -> {
+                    ExperimentActivityTaskRecord experimentActivityTaskRecord = new ExperimentActivityTaskRecord();
+                    BeanUtil.copyProperties(experimentActivityTaskRecordDO, experimentActivityTaskRecord);
+                    return experimentActivityTaskRecord;
+                }).collect(Collectors.toList());
+
+        return ExperimentTaskDeltaResponse.builder()
+                .version(changes.getVersion())
+                .task(task)
+                .activityTasks(activityTasks)
+                .records(records)
+                .logs(changes.getLogs())
+                .build();
+    }
 }
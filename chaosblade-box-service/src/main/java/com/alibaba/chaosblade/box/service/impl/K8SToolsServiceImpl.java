@@ -18,7 +18,9 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.yaml.snakeyaml.Yaml;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -91,11 +93,12 @@ public class K8SToolsServiceImpl implements K8SToolsService {
         String kubeconfig = clusterService.getKubeconfig(ClusterBO.builder().id(toolsRequest.getMachineId()).build());
         helmRequest.setKubeconfig(kubeconfig);
 
-        StringBuilder commandOptions = new StringBuilder("--set ");
+        List<String> arguments = new ArrayList<>(params.size() * 2);
         for (Map.Entry<String, String> entry : params.entrySet()) {
-            commandOptions.append(entry.getKey() + "=" + entry.getValue() + ",");
+            arguments.add("--set");
+            arguments.add(entry.getKey() + "=" + entry.getValue());
         }
-        helmRequest.setCommandOptions(commandOptions.toString().substring(0, commandOptions.length() - 1));
+        helmRequest.setArguments(arguments);
 
         Response<String> response = helmChaosToolsMgr.deployTools(helmRequest);
         if (response.isSuccess()) {
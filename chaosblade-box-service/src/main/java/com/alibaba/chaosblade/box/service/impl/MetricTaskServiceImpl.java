@@ -51,6 +51,12 @@ import java.util.stream.Collectors;
 @Service
 public class MetricTaskServiceImpl implements MetricTaskService {
 
+    private static final TypeReference<List<MetricModel>> METRIC_MODELS_TYPE = new TypeReference<List<MetricModel>>() {
+    };
+
+    private static final TypeReference<List<MetricParam>> METRIC_PARAMS_TYPE = new TypeReference<List<MetricParam>>() {
+    };
+
     @Autowired
     private MetricTaskRepository metricTaskRepository;
 
@@ -70,8 +76,7 @@ public class MetricTaskServiceImpl implements MetricTaskService {
                 .orElseThrow(() -> new BizException(ExceptionMessageEnum.EXPERIMENT_TASK_NOT_FOUNT));
 
         String metric = experimentTaskDO.getMetric();
-        List<MetricModel> metricModels = JsonUtils.readValue(new TypeReference<List<MetricModel>>() {
-        }, metric);
+        List<MetricModel> metricModels = JsonUtils.readValue(METRIC_MODELS_TYPE, metric);
 
         List<DeviceMeta> deviceMetas = experimentMiniFlowService.selectExperimentDevice(experimentTaskDO.getExperimentId());
 
@@ -127,8 +132,7 @@ public class MetricTaskServiceImpl implements MetricTaskService {
                                 .level(metricCategory.getLevel())
                                 .name(metricCategory.getName())
                                 .code(metricCategory.getCode())
-                                .params(Optional.ofNullable(metricCategory.getParams()).map(v -> JsonUtils.readValue(new TypeReference<List<MetricParam>>() {
-                                }, v)).orElse(Collections.emptyList()))
+                                .params(Optional.ofNullable(metricCategory.getParams()).map(v -> JsonUtils.readValue(METRIC_PARAMS_TYPE, v)).orElse(Collections.emptyList()))
                                 .build()
         ).collect(Collectors.toList());
 
@@ -18,6 +18,7 @@ package com.alibaba.chaosblade.box.service.impl;
 
 import cn.hutool.core.collection.CollectionUtil;
 import com.alibaba.chaosblade.box.service.SceneParamService;
+import com.alibaba.chaosblade.box.service.SceneService;
 import com.alibaba.chaosblade.box.common.utils.JsonUtils;
 import com.alibaba.chaosblade.box.dao.model.SceneParamDO;
 import com.alibaba.chaosblade.box.dao.repository.SceneParamRepository;
@@ -41,6 +42,9 @@ public class SceneParamServiceImpl implements SceneParamService {
     @Autowired
     private SceneParamRepository sceneParamRepository;
 
+    @Autowired
+    private SceneService sceneService;
+
     @Override
     public List<SceneParamResponse> selectSceneParam(SceneParamRequest sceneParamRequest) {
 
@@ -63,11 +67,13 @@ public class SceneParamServiceImpl implements SceneParamService {
 
     @Override
     public List<SceneParamResponse> selectSceneParamBySceneId(Long sceneId) {
+        return responses(sceneParamRepository.selectBySceneId(sceneId));
+    }
 
-        List<SceneParamDO> sceneParamDOS = sceneParamRepository.selectList(SceneParamDO.builder()
-                .sceneId(sceneId)
-                .build());
-
+    /**
+     * shared with {@link SceneServiceImpl}, which reads the params from the repository
+     */
+    static List<SceneParamResponse> responses(List<SceneParamDO> sceneParamDOS) {
         if (CollectionUtil.isEmpty(sceneParamDOS)) {
             return Collections.emptyList();
         }
@@ -95,5 +101,7 @@ public class SceneParamServiceImpl implements SceneParamService {
                         .isRequired(sceneParamRequest.getIsRequired())
                         .component(JsonUtils.writeValueAsString(sceneParamRequest.getComponent()))
                         .build());
+        sceneParamRepository.selectById(sceneParamRequest.getParameterId())
+                .ifPresent(sceneParamDO -> sceneService.evictScenario(sceneParamDO.getSceneId()));
     }
 }
@@ -16,6 +16,9 @@
 
 package com.alibaba.chaosblade.box.service.impl;
 
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.LRUCache;
+import cn.hutool.core.bean.BeanUtil;
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.collection.CollectionUtil;
 import cn.hutool.core.io.IoUtil;
@@ -38,7 +41,6 @@ import com.alibaba.chaosblade.box.dao.repository.SceneParamRepository;
 import com.alibaba.chaosblade.box.dao.repository.SceneRepository;
 import com.alibaba.chaosblade.box.scenario.api.model.ToolsOverview;
 import com.alibaba.chaosblade.box.scenario.api.model.ToolsVersion;
-import com.alibaba.chaosblade.box.service.SceneParamService;
 import com.alibaba.chaosblade.box.service.SceneService;
 import com.alibaba.chaosblade.box.service.ToolsService;
 import com.alibaba.chaosblade.box.service.model.device.KubernetesDevice;
@@ -51,7 +53,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -59,9 +63,11 @@ import org.yaml.snakeyaml.Yaml;
 import org.yaml.snakeyaml.representer.Representer;
 
 import java.nio.charset.Charset;
-import java.util.Collections;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 /**
@@ -72,6 +78,9 @@ import java.util.stream.Collectors;
 @DependsOn("sceneCategoryLoader")
 public class SceneServiceImpl implements SceneService, InitializingBean {
 
+    private static final TypeReference<List<Long>> IDS_TYPE = new TypeReference<List<Long>>() {
+    };
+
     @Autowired
     private SceneRepository sceneRepository;
 
@@ -81,24 +90,54 @@ public class SceneServiceImpl implements SceneService, InitializingBean {
     @Autowired
     private SceneCategoryRepository sceneCategoryRepository;
 
-    @Autowired
-    private SceneParamService sceneParamService;
-
     @Autowired
     private ToolsService toolsService;
 
     @Value("${chaos.scene.import}")
     private boolean autoImport;
 
+    /**
+     * import after the web server is ready instead of blocking the startup
+     */
+    @Value("${chaos.scene.import-async:false}")
+    private boolean importAsync;
+
+    @Value("${chaos.scene.import-parallelism:4}")
+    private int importParallelism;
+
+    @Value("${chaos.scene.cache.size:1024}")
+    private int cacheSize;
+
+    @Value("${chaos.scene.cache.expire:600000}")
+    private long cacheExpire;
+
+    /**
+     * assembled scene views by scene id, parameters are not covered by dimension
+     */
+    private LRUCache<Long, SceneResponse> sceneCache;
+
+    private volatile SceneImportResponse startupImport;
+
     @Override
     public void afterPropertiesSet() {
-        if (autoImport) {
-            for (ChaosTools value : ChaosTools.values()) {
-                covert(value.getName());
-            }
+        sceneCache = CacheUtil.newLRUCache(cacheSize, cacheExpire);
+        if (autoImport && !importAsync) {
+            importChaosTools();
         }
     }
 
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (autoImport && importAsync) {
+            importChaosTools();
+        }
+    }
+
+    @Override
+    public SceneImportResponse startupImportStatistics() {
+        return startupImport;
+    }
+
     private List<Scene> pluginSpecBeanToSpec(PluginSpecBean pluginSpecBean) {
         return pluginSpecBean.getItems().stream().map(
                 item -> Scene.builder().actions(
@@ -145,31 +184,77 @@ public class SceneServiceImpl implements SceneService, InitializingBean {
     }
 
 
-    private void covert(String origin) {
-        ToolsOverview toolsOverview = toolsService.toolsOverview(origin);
+    /**
+     * parses the spec files of all chaos tools in parallel, then imports the scenarios not imported yet
+     */
+    private void importChaosTools() {
+        long start = System.currentTimeMillis();
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(importParallelism, r -> {
+            Thread thread = new Thread(r);
+            thread.setDaemon(true);
+            thread.setName("SCENE-IMPORT-" + threadIndex.incrementAndGet());
+            return thread;
+        });
+        try {
+            List<CompletableFuture<SceneImportRequest>> requests = Arrays.stream(ChaosTools.values())
+                    .map(value -> CompletableFuture.supplyAsync(() -> toolsService.toolsOverview(value.getName()), executor)
+                            .thenCompose(toolsOverview -> parseScenarios(toolsOverview, executor)))
+                    .collect(Collectors.toList());
+
+            long count = 0;
+            for (CompletableFuture<SceneImportRequest> request : requests) {
+                count += importScenarios(request.join(), true).getScenarioCount();
+            }
+            startupImport = SceneImportResponse.builder()
+                    .scenarioCount(count)
+                    .costMillis(System.currentTimeMillis() - start)
+                    .build();
+            log.info("Import scenarios of chaos tools finished, count: {}, cost: {}ms", count, startupImport.getCostMillis());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private CompletableFuture<SceneImportRequest> parseScenarios(ToolsOverview toolsOverview, ExecutorService executor) {
         ToolsVersion toolsVersion = toolsService.toolsVersion(toolsOverview.getName(), toolsOverview.getLatest());
-        List<String> scenarioFiles = toolsVersion.getScenarioFiles();
-        for (String scenarioFile : scenarioFiles) {
-            PluginSpecBean pluginSpecBean = toolsService.toolsScene(toolsOverview.getName(), toolsOverview.getLatest(), scenarioFile);
-            List<Scene> scenes = pluginSpecBeanToSpec(pluginSpecBean);
-            try {
-                importScenarios(SceneImportRequest.builder()
+        List<CompletableFuture<List<Scene>>> files = toolsVersion.getScenarioFiles().stream()
+                .map(scenarioFile -> CompletableFuture.supplyAsync(() -> pluginSpecBeanToSpec(
+                        toolsService.toolsScene(toolsOverview.getName(), toolsOverview.getLatest(), scenarioFile)), executor))
+                .collect(Collectors.toList());
+
+        return CompletableFuture.allOf(files.toArray(new CompletableFuture[0])).thenApply(v ->
+                SceneImportRequest.builder()
                         .name(toolsOverview.getName())
                         .version(toolsOverview.getLatest())
                         .active(true)
-                        .scenarios(scenes).build());
-            } catch (BizException e) {
-                // ignore
-            }
-        }
+                        .scenarios(files.stream().flatMap(file -> file.join().stream()).collect(Collectors.toList()))
+                        .build());
     }
 
     @Override
     @Transactional
     public SceneImportResponse importScenarios(SceneImportRequest sceneImportRequest) {
+        return importScenarios(sceneImportRequest, false);
+    }
+
+    /**
+     * existing codes and categories are loaded once, scenes and params are inserted in batches
+     *
+     * @param skipExists skip the scenes of the version already imported, otherwise fails
+     */
+    private SceneImportResponse importScenarios(SceneImportRequest sceneImportRequest, boolean skipExists) {
+        sceneCache.clear();
         String version = sceneImportRequest.getVersion();
         String source = sceneImportRequest.getName();
 
+        Set<String> codes = new HashSet<>(sceneRepository.selectCodesByVersion(version));
+        Map<String, Long> categories = new LinkedHashMap<>();
+        sceneCategoryRepository.selectList(SceneCategoryDO.builder().build())
+                .forEach(category -> categories.putIfAbsent(category.getCategoryCode(), category.getId()));
+
+        List<SceneDO> sceneDOS = new ArrayList<>();
+        List<List<SceneParamDO>> sceneParams = new ArrayList<>();
         long count = 0L;
 
         for (Scene scenario : sceneImportRequest.getScenarios()) {
@@ -177,7 +262,6 @@ public class SceneServiceImpl implements SceneService, InitializingBean {
                 continue;
             }
 
-            Long prepareId = null;
             if (scenario.getPrepare() != null) {
                 Prepare prepare = scenario.getPrepare();
                 String sconeCode = StrUtil.builder(source,
@@ -186,28 +270,15 @@ public class SceneServiceImpl implements SceneService, InitializingBean {
                         ChaosConstant.DOT,
                         prepare.getType()).toString();
 
-                sceneRepository.selectByCodeAndVersion(sconeCode, version).map(SceneDO::getId)
-                        .orElseGet(() -> {
-                            SceneDO sceneDO = SceneDO.builder()
-                                    .sceneName(sconeCode)
-                                    .sceneCode(sconeCode)
-                                    .version(version)
-                                    .original(source)
-                                    .build();
-                            sceneRepository.insert(sceneDO);
-
-                            if (CollUtil.isNotEmpty(prepare.getFlags())) {
-                                prepare.getFlags().forEach(flag ->
-                                        sceneParamRepository.insert(SceneParamDO.builder()
-                                                .sceneId(sceneDO.getId())
-                                                .alias(flag.getName())
-                                                .paramName(flag.getName())
-                                                .description(flag.getDesc())
-                                                .isRequired(flag.isRequired())
-                                                .build()));
-                            }
-                            return sceneDO.getId();
-                        });
+                if (codes.add(sconeCode)) {
+                    sceneDOS.add(SceneDO.builder()
+                            .sceneName(sconeCode)
+                            .sceneCode(sconeCode)
+                            .version(version)
+                            .original(source)
+                            .build());
+                    sceneParams.add(toSceneParams(prepare.getFlags()));
+                }
             }
 
             for (Action action : scenario.getActions()) {
@@ -222,7 +293,10 @@ public class SceneServiceImpl implements SceneService, InitializingBean {
                             ChaosConstant.DOT, action.getName()).toString();
                 }
 
-                if (sceneRepository.selectByCodeAndVersion(sconeCode, version).isPresent()) {
+                if (!codes.add(sconeCode)) {
+                    if (skipExists) {
+                        continue;
+                    }
                     throw new BizException(ExceptionMessageEnum.SCENE_EXISTS, sconeCode + ":" + version);
                 }
 
@@ -230,7 +304,6 @@ public class SceneServiceImpl implements SceneService, InitializingBean {
                         .sceneName(sconeCode)
                         .sceneCode(sconeCode)
                         .description(action.getDesc())
-                        .preSceneId(prepareId)
                         .version(version)
                         .supportScope("[\"" + scenario.getScope() + "\"]")
                         .original(source)
@@ -240,43 +313,59 @@ public class SceneServiceImpl implements SceneService, InitializingBean {
                     sceneDO.setStatus(SceneStatus.ACTIVE.getCode());
                 }
                 if (CollUtil.isNotEmpty(action.getCategories())) {
-                    List<Long> categories = sceneCategoryRepository.selectListByCodes(action.getCategories()).stream()
-                            .map(SceneCategoryDO::getId).collect(Collectors.toList());
-                    sceneDO.setCategories(JsonUtils.writeValueAsString(categories));
+                    sceneDO.setCategories(JsonUtils.writeValueAsString(categories.entrySet().stream()
+                            .filter(entry -> action.getCategories().contains(entry.getKey()))
+                            .map(Map.Entry::getValue)
+                            .collect(Collectors.toList())));
                 }
-                sceneRepository.insert(sceneDO);
+                sceneDOS.add(sceneDO);
                 count++;
 
+                List<SceneParamDO> params = new ArrayList<>();
                 if (CollUtil.isNotEmpty(action.getMatchers())) {
-                    action.getMatchers().forEach(matcher -> {
-
-                        sceneParamRepository.insert(SceneParamDO.builder()
-                                .sceneId(sceneDO.getId())
-                                .alias(matcher.getName())
-                                .paramName(matcher.getName())
-                                .description(matcher.getDesc())
-                                .isRequired(matcher.isRequired())
-                                .build());
-                    });
-                }
-                if (CollUtil.isNotEmpty(action.getFlags())) {
-                    action.getFlags().forEach(flag -> {
-
-                        sceneParamRepository.insert(SceneParamDO.builder()
-                                .sceneId(sceneDO.getId())
-                                .alias(flag.getName())
-                                .paramName(flag.getName())
-                                .description(flag.getDesc())
-                                .isRequired(flag.isRequired())
-                                .build());
-                    });
+                    action.getMatchers().forEach(matcher -> params.add(SceneParamDO.builder()
+                            .alias(matcher.getName())
+                            .paramName(matcher.getName())
+                            .description(matcher.getDesc())
+                            .isRequired(matcher.isRequired())
+                            .build()));
                 }
+                params.addAll(toSceneParams(action.getFlags()));
+                sceneParams.add(params);
+            }
+        }
+
+        if (CollUtil.isNotEmpty(sceneDOS)) {
+            // ids are assigned before insert
+            sceneRepository.insertBatch(sceneDOS);
+            List<SceneParamDO> params = new ArrayList<>();
+            for (int i = 0; i < sceneDOS.size(); i++) {
+                Long sceneId = sceneDOS.get(i).getId();
+                sceneParams.get(i).forEach(param -> {
+                    param.setSceneId(sceneId);
+                    params.add(param);
+                });
+            }
+            if (CollUtil.isNotEmpty(params)) {
+                sceneParamRepository.insertBatch(params);
             }
         }
 
         return SceneImportResponse.builder().scenarioCount(count).build();
     }
 
+    private List<SceneParamDO> toSceneParams(List<Flag> flags) {
+        if (CollUtil.isEmpty(flags)) {
+            return new ArrayList<>();
+        }
+        return flags.stream().map(flag -> SceneParamDO.builder()
+                .alias(flag.getName())
+                .paramName(flag.getName())
+                .description(flag.getDesc())
+                .isRequired(flag.isRequired())
+                .build()).collect(Collectors.toList());
+    }
+
     @Override
     public List<SceneResponse> getScenariosPageable(SceneRequest sceneRequest) {
         PageUtils.startPage(sceneRequest);
@@ -304,8 +393,7 @@ public class SceneServiceImpl implements SceneService, InitializingBean {
                 .original(scene.getOriginal())
                 .categories(
                         Optional.ofNullable(scene.getCategories()).map(s ->
-                                sceneCategoryRepository.selectByIds(JsonUtils.readValue(new TypeReference<List<Long>>() {
-                                }, s)).stream().map(sceneCategoryDO ->
+                                sceneCategoryRepository.selectByIds(JsonUtils.readValue(IDS_TYPE, s)).stream().map(sceneCategoryDO ->
                                         SceneCategoryResponse.builder()
                                                 .categoryId(sceneCategoryDO.getId())
                                                 .categoryName(sceneCategoryDO.getName())
@@ -314,7 +402,7 @@ public class SceneServiceImpl implements SceneService, InitializingBean {
                         ).orElse(Collections.emptyList())
                 )
                 .parameters(
-                        sceneParamService.selectSceneParamBySceneId(scene.getId()).stream().map(
+                        SceneParamServiceImpl.responses(sceneParamRepository.selectBySceneId(scene.getId())).stream().map(
                                 sceneParamResponse -> sceneParamCover(sceneParamResponse, sceneRequest)
                         ).collect(Collectors.toList())
                 )
@@ -347,12 +435,69 @@ public class SceneServiceImpl implements SceneService, InitializingBean {
                 );
             }
         }
+        sceneCache.remove(sceneRequest.getScenarioId());
         return getScenarioById(sceneRequest);
     }
 
     @Override
     public SceneResponse getScenarioById(SceneRequest sceneRequest) {
-        Optional<SceneDO> sceneDO = sceneRepository.selectById(sceneRequest.getScenarioId());
+        Long scenarioId = sceneRequest.getScenarioId();
+        SceneResponse sceneResponse = sceneCache.get(scenarioId);
+        if (sceneResponse == null) {
+            sceneResponse = loadScenario(scenarioId);
+            sceneCache.put(scenarioId, sceneResponse);
+        }
+
+        // callers modify the response, never hand out the cached one
+        return sceneResponse.toBuilder()
+                .supportScopeTypes(CollUtil.newArrayList(sceneResponse.getSupportScopeTypes()))
+                .categories(CollUtil.newArrayList(sceneResponse.getCategories()))
+                .parameters(sceneResponse.getParameters().stream().map(sceneParamResponse -> {
+                    SceneParamResponse copy = BeanUtil.copyProperties(sceneParamResponse, SceneParamResponse.class);
+                    if (sceneParamResponse.getComponent() != null) {
+                        copy.setComponent(BeanUtil.copyProperties(sceneParamResponse.getComponent(), Component.class));
+                    }
+                    return sceneParamCover(copy, sceneRequest);
+                }).collect(Collectors.toList()))
+                .build();
+    }
+
+    @Override
+    public Map<Long, List<SceneCategoryResponse>> getScenarioCategories(Collection<Long> scenarioIds) {
+        Map<Long, List<SceneCategoryResponse>> result = new HashMap<>();
+        List<Long> misses = new ArrayList<>();
+        for (Long scenarioId : scenarioIds) {
+            SceneResponse sceneResponse = sceneCache.get(scenarioId);
+            if (sceneResponse == null) {
+                misses.add(scenarioId);
+            } else {
+                result.put(scenarioId, CollUtil.newArrayList(sceneResponse.getCategories()));
+            }
+        }
+        if (misses.isEmpty()) {
+            return result;
+        }
+
+        Map<Long, List<Long>> categoryIds = sceneRepository.listByIds(misses).stream()
+                .collect(Collectors.toMap(SceneDO::getId, scene -> Optional.ofNullable(scene.getCategories())
+                        .map(s -> JsonUtils.readValue(IDS_TYPE, s))
+                        .orElse(Collections.emptyList())));
+        Set<Long> allCategoryIds = categoryIds.values().stream().flatMap(List::stream).collect(Collectors.toSet());
+        Map<Long, SceneCategoryResponse> categories = allCategoryIds.isEmpty() ? Collections.emptyMap()
+                : sceneCategoryRepository.selectByIds(allCategoryIds).stream()
+                .collect(Collectors.toMap(SceneCategoryDO::getId, sceneCategoryDO -> SceneCategoryResponse.builder()
+                        .categoryId(sceneCategoryDO.getId())
+                        .categoryName(sceneCategoryDO.getName())
+                        .build()));
+        categoryIds.forEach((scenarioId, ids) -> result.put(scenarioId, ids.stream()
+                .map(categories::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList())));
+        return result;
+    }
+
+    private SceneResponse loadScenario(Long scenarioId) {
+        Optional<SceneDO> sceneDO = sceneRepository.selectById(scenarioId);
 
         return sceneDO.map(scene ->
                 SceneResponse.builder()
@@ -369,8 +514,7 @@ public class SceneServiceImpl implements SceneService, InitializingBean {
                         .modifyTime(scene.getGmtModified())
                         .categories(
                                 Optional.ofNullable(scene.getCategories()).map(s ->
-                                        sceneCategoryRepository.selectByIds(JsonUtils.readValue(new TypeReference<List<Long>>() {
-                                        }, s)).stream().map(sceneCategoryDO ->
+                                        sceneCategoryRepository.selectByIds(JsonUtils.readValue(IDS_TYPE, s)).stream().map(sceneCategoryDO ->
                                                 SceneCategoryResponse.builder()
                                                         .categoryId(sceneCategoryDO.getId())
                                                         .categoryName(sceneCategoryDO.getName())
@@ -379,17 +523,18 @@ public class SceneServiceImpl implements SceneService, InitializingBean {
                                 ).orElse(Collections.emptyList())
                         )
                         .requiredJavaAgent(scene.getRequiredJavaAgent())
-                        .parameters(
-                                sceneParamService.selectSceneParamBySceneId(scene.getId()).stream().map(
-                                        sceneParamResponse -> sceneParamCover(sceneParamResponse, sceneRequest)
-                                ).collect(Collectors.toList())
-                        )
+                        .parameters(SceneParamServiceImpl.responses(sceneParamRepository.selectBySceneId(scene.getId())))
                         .count(Optional.ofNullable(scene.getUseCount()).orElse(0))
                         .preScenarioId(scene.getPreSceneId())
                         .build()
         ).orElseThrow(() -> new BizException(ExceptionMessageEnum.SCENE_IS_NULL));
     }
 
+    @Override
+    public void evictScenario(Long scenarioId) {
+        sceneCache.remove(scenarioId);
+    }
+
     // todo
     private SceneParamResponse sceneParamCover(SceneParamResponse sceneParamResponse, SceneRequest sceneRequest) {
         if (StrUtil.isBlank(sceneRequest.getDimension())) {
@@ -481,6 +626,7 @@ public class SceneServiceImpl implements SceneService, InitializingBean {
         sceneRepository.updateByPrimaryKey(sceneRequest.getScenarioId(),
                 SceneDO.builder().status(SceneStatus.SOLD_OUT.getCode()).build()
         );
+        sceneCache.remove(sceneRequest.getScenarioId());
         return getScenarioById(sceneRequest);
     }
 
@@ -489,6 +635,7 @@ public class SceneServiceImpl implements SceneService, InitializingBean {
         sceneRepository.updateByPrimaryKey(sceneRequest.getScenarioId(),
                 SceneDO.builder().status(SceneStatus.ACTIVE.getCode()).build()
         );
+        sceneCache.remove(sceneRequest.getScenarioId());
         return getScenarioById(sceneRequest);
     }
 
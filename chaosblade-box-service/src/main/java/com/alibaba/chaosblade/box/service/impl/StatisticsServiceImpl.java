@@ -0,0 +1,398 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.chaosblade.box.service.impl;
+
+import cn.hutool.core.date.DateUtil;
+import cn.hutool.core.util.StrUtil;
+import com.alibaba.chaosblade.box.common.enums.ResultStatus;
+import com.alibaba.chaosblade.box.common.enums.RunStatus;
+import com.alibaba.chaosblade.box.common.utils.JsonUtils;
+import com.alibaba.chaosblade.box.dao.QueryWrapperBuilder;
+import com.alibaba.chaosblade.box.dao.mapper.ExperimentMapper;
+import com.alibaba.chaosblade.box.dao.mapper.ExperimentTaskMapper;
+import com.alibaba.chaosblade.box.dao.model.DevicePodDO;
+import com.alibaba.chaosblade.box.dao.model.ExperimentDO;
+import com.alibaba.chaosblade.box.dao.model.ExperimentTaskDO;
+import com.alibaba.chaosblade.box.dao.model.StatisticsDO;
+import com.alibaba.chaosblade.box.dao.repository.DevicePodRepository;
+import com.alibaba.chaosblade.box.dao.repository.ExperimentRepository;
+import com.alibaba.chaosblade.box.dao.repository.ExperimentTaskRepository;
+import com.alibaba.chaosblade.box.dao.repository.StatisticsRepository;
+import com.alibaba.chaosblade.box.service.StatisticsService;
+import com.alibaba.chaosblade.box.service.model.device.ContainerBO;
+import com.alibaba.chaosblade.box.service.model.experiment.ExperimentStatisticsResponse;
+import com.alibaba.chaosblade.box.service.model.experiment.ExperimentTaskStatistics;
+import com.alibaba.chaosblade.box.service.task.journal.TaskChangeJournal;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Counters live in memory and in t_chaos_statistics, every change is applied to both.
+ * A periodic rebuild repairs drift caused by concurrent writes.
+ * The state of the last task of every experiment is kept in memory as well,
+ * so task updates move the counters without reading the task back.
+ * Changes made inside a transaction are applied after it commits.
+ *
+ * @author yefei
+ */
+@Slf4j
+@Service
+public class StatisticsServiceImpl implements StatisticsService, InitializingBean, DisposableBean {
+
+    private static final String EXPERIMENT_TOTAL = "experiment.total";
+
+    private static final String EXPERIMENT_PREPARE = "experiment.prepare";
+
+    private static final String EXPERIMENT_RUNNING = "experiment.running";
+
+    private static final String EXPERIMENT_FINISHED = "experiment.finished";
+
+    private static final String EXPERIMENT_SUCCESS = "experiment.success";
+
+    private static final String EXPERIMENT_FAILED = "experiment.failed";
+
+    private static final String KUBERNETES_CONTAINER = "kubernetes.container";
+
+    private static final String TASK_DAY_PREFIX = "task.day.";
+
+    private static final int LOAD_PAGE_SIZE = 500;
+
+    @Autowired
+    private StatisticsRepository statisticsRepository;
+
+    @Autowired
+    private TaskChangeJournal taskChangeJournal;
+
+    @Autowired
+    private ExperimentRepository experimentRepository;
+
+    @Autowired
+    private ExperimentTaskRepository experimentTaskRepository;
+
+    @Autowired
+    private ExperimentMapper experimentMapper;
+
+    @Autowired
+    private ExperimentTaskMapper experimentTaskMapper;
+
+    @Autowired
+    private DevicePodRepository devicePodRepository;
+
+    @Value("${chaos.statistics.rebuild-period:3600}")
+    private long rebuildPeriod;
+
+    private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    /**
+     * last task of each experiment by task id, only run status, result status and start time
+     */
+    private final Map<Long, ExperimentTaskDO> lastTasks = new ConcurrentHashMap<>();
+
+    /**
+     * guards the states in lastTasks and the counter moves derived from them
+     */
+    private final Object stateLock = new Object();
+
+    private ScheduledExecutorService rebuilder;
+
+    @Override
+    public void afterPropertiesSet() {
+        List<StatisticsDO> statistics = statisticsRepository.selectAll();
+        if (statistics.isEmpty()) {
+            rebuild();
+        } else {
+            statistics.forEach(statisticsDO ->
+                    counters.put(statisticsDO.getStatKey(), new AtomicLong(statisticsDO.getStatValue())));
+            loadLastTasks();
+        }
+
+        if (rebuildPeriod > 0) {
+            rebuilder = new ScheduledThreadPoolExecutor(1, r -> {
+                Thread thread = new Thread(r);
+                thread.setDaemon(true);
+                thread.setName("STATISTICS-REBUILD");
+                return thread;
+            });
+            rebuilder.scheduleWithFixedDelay(() -> {
+                try {
+                    rebuild();
+                } catch (Exception e) {
+                    log.error("rebuild statistics error!", e);
+                }
+            }, rebuildPeriod, rebuildPeriod, TimeUnit.SECONDS);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (rebuilder != null) {
+            rebuilder.shutdownNow();
+        }
+    }
+
+    @Override
+    public void experimentCreated() {
+        afterCommit(() -> {
+            increment(EXPERIMENT_TOTAL, 1);
+            increment(EXPERIMENT_PREPARE, 1);
+        });
+    }
+
+    @Override
+    public void experimentDeleted(Long experimentId) {
+        experimentRepository.selectById(experimentId).ifPresent(experimentDO -> {
+            ExperimentTaskDO last = Optional.ofNullable(experimentDO.getTaskId())
+                    .flatMap(experimentTaskRepository::selectById)
+                    .orElse(null);
+            Set<String> keys = stateKeys(last);
+            afterCommit(() -> {
+                synchronized (stateLock) {
+                    if (experimentDO.getTaskId() != null) {
+                        lastTasks.remove(experimentDO.getTaskId());
+                    }
+                    keys.forEach(key -> increment(key, -1));
+                }
+                increment(EXPERIMENT_TOTAL, -1);
+            });
+        });
+    }
+
+    @Override
+    public void experimentTaskCreated(ExperimentTaskDO previous, ExperimentTaskDO created) {
+        ExperimentTaskDO state = state(created);
+        afterCommit(() -> {
+            synchronized (stateLock) {
+                if (previous != null) {
+                    lastTasks.remove(previous.getId());
+                }
+                lastTasks.put(created.getId(), state);
+                move(previous, state);
+            }
+        });
+    }
+
+    @Override
+    public void updateExperimentTask(Long taskId, ExperimentTaskDO experimentTaskDO) {
+        experimentTaskRepository.updateByPrimaryKey(taskId, experimentTaskDO);
+        taskChangeJournal.task(taskId);
+
+        ExperimentTaskDO change = state(experimentTaskDO);
+        afterCommit(() -> {
+            synchronized (stateLock) {
+                // only the last task of an experiment is counted
+                ExperimentTaskDO before = lastTasks.get(taskId);
+                if (before == null) {
+                    return;
+                }
+                if (change.getGmtStart() != null && before.getGmtStart() == null) {
+                    increment(TASK_DAY_PREFIX + DateUtil.formatDate(change.getGmtStart()), 1);
+                }
+                ExperimentTaskDO after = ExperimentTaskDO.builder()
+                        .runStatus(Optional.ofNullable(change.getRunStatus()).orElse(before.getRunStatus()))
+                        .resultStatus(Optional.ofNullable(change.getResultStatus()).orElse(before.getResultStatus()))
+                        .gmtStart(Optional.ofNullable(change.getGmtStart()).orElse(before.getGmtStart()))
+                        .build();
+                move(before, after);
+                lastTasks.put(taskId, after);
+            }
+        });
+    }
+
+    @Override
+    public void containersChanged(String before, String after) {
+        long delta = countContainers(after) - countContainers(before);
+        if (delta != 0) {
+            afterCommit(() -> increment(KUBERNETES_CONTAINER, delta));
+        }
+    }
+
+    @Override
+    public ExperimentStatisticsResponse getExperimentStatistics() {
+        return ExperimentStatisticsResponse.builder()
+                .totals((int) get(EXPERIMENT_TOTAL))
+                .prepares((int) get(EXPERIMENT_PREPARE))
+                .success((int) get(EXPERIMENT_SUCCESS))
+                .failed((int) get(EXPERIMENT_FAILED))
+                .running((int) get(EXPERIMENT_RUNNING))
+                .finished((int) get(EXPERIMENT_FINISHED))
+                .build();
+    }
+
+    @Override
+    public List<ExperimentTaskStatistics> getTaskStatistics() {
+        return counters.entrySet().stream()
+                .filter(entry -> entry.getKey().startsWith(TASK_DAY_PREFIX) && entry.getValue().get() > 0)
+                .sorted(Map.Entry.comparingByKey())
+                .map(entry -> ExperimentTaskStatistics.builder()
+                        .date(StrUtil.removePrefix(entry.getKey(), TASK_DAY_PREFIX))
+                        .taskCount(String.valueOf(entry.getValue().get()))
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public long getContainers() {
+        return get(KUBERNETES_CONTAINER);
+    }
+
+    @Override
+    public synchronized void rebuild() {
+        Map<String, Long> values = new HashMap<>();
+        values.put(EXPERIMENT_TOTAL, experimentMapper.selectCount(QueryWrapperBuilder.build()).longValue());
+        values.put(EXPERIMENT_PREPARE, experimentMapper.selectPreparesCount().longValue());
+        values.put(EXPERIMENT_SUCCESS, experimentMapper.selectSuccessCount().longValue());
+        values.put(EXPERIMENT_FAILED, experimentMapper.selectFailedCount().longValue());
+        values.put(EXPERIMENT_RUNNING, experimentMapper.selectRunningCount().longValue());
+        values.put(EXPERIMENT_FINISHED, experimentMapper.selectFinishedCount().longValue());
+        values.put(KUBERNETES_CONTAINER, devicePodRepository.selectList(DevicePodDO.builder().build()).stream()
+                .mapToLong(devicePodDO -> countContainers(devicePodDO.getContainers()))
+                .sum());
+        experimentTaskMapper.queryTaskStatistics().stream()
+                .filter(map -> map.get("date") != null)
+                .forEach(map -> values.put(TASK_DAY_PREFIX + map.get("date"),
+                        ((Number) map.get("taskCount")).longValue()));
+
+        values.forEach((key, value) -> {
+            statisticsRepository.save(key, value);
+            counters.computeIfAbsent(key, k -> new AtomicLong()).set(value);
+        });
+        loadLastTasks();
+        log.info("rebuild statistics, keys: {}", values.size());
+    }
+
+    /**
+     * page through the experiments, the ones created meanwhile are added by experimentTaskCreated
+     */
+    private void loadLastTasks() {
+        Map<Long, ExperimentTaskDO> tasks = new HashMap<>();
+        long lastId = 0;
+        while (true) {
+            QueryWrapper<ExperimentDO> queryWrapper = QueryWrapperBuilder.build();
+            queryWrapper.select("id", "task_id")
+                    .gt("id", lastId)
+                    .isNotNull("task_id")
+                    .orderByAsc("id")
+                    .last("limit " + LOAD_PAGE_SIZE);
+            List<ExperimentDO> experiments = experimentMapper.selectList(queryWrapper);
+            if (experiments.isEmpty()) {
+                break;
+            }
+            lastId = experiments.get(experiments.size() - 1).getId();
+            experimentTaskRepository.selectByIds(experiments.stream().map(ExperimentDO::getTaskId).collect(Collectors.toList()))
+                    .forEach((taskId, experimentTaskDO) -> tasks.put(taskId, state(experimentTaskDO)));
+            if (experiments.size() < LOAD_PAGE_SIZE) {
+                break;
+            }
+        }
+
+        synchronized (stateLock) {
+            lastTasks.keySet().retainAll(tasks.keySet());
+            tasks.forEach(lastTasks::putIfAbsent);
+        }
+    }
+
+    private void afterCommit(Runnable runnable) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            runnable.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                runnable.run();
+            }
+        });
+    }
+
+    private ExperimentTaskDO state(ExperimentTaskDO experimentTaskDO) {
+        return ExperimentTaskDO.builder()
+                .runStatus(experimentTaskDO.getRunStatus())
+                .resultStatus(experimentTaskDO.getResultStatus())
+                .gmtStart(experimentTaskDO.getGmtStart())
+                .build();
+    }
+
+    private long countContainers(String containers) {
+        if (StrUtil.isBlank(containers)) {
+            return 0;
+        }
+        try {
+            return JsonUtils.reader(ContainerBO[].class).<ContainerBO[]>readValue(containers).length;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private void move(ExperimentTaskDO before, ExperimentTaskDO after) {
+        Set<String> removed = stateKeys(before);
+        Set<String> added = stateKeys(after);
+        removed.stream().filter(key -> !added.contains(key)).forEach(key -> increment(key, -1));
+        added.stream().filter(key -> !removed.contains(key)).forEach(key -> increment(key, 1));
+    }
+
+    /**
+     * same conditions as the count queries in ExperimentDao.xml
+     */
+    private Set<String> stateKeys(ExperimentTaskDO last) {
+        Set<String> keys = new HashSet<>();
+        if (last == null) {
+            keys.add(EXPERIMENT_PREPARE);
+            return keys;
+        }
+        Byte runStatus = last.getRunStatus();
+        if (runStatus != null) {
+            keys.add(runStatus < RunStatus.FINISHED.getValue() ? EXPERIMENT_RUNNING : EXPERIMENT_FINISHED);
+        }
+        Byte resultStatus = last.getResultStatus();
+        if (resultStatus != null && resultStatus == ResultStatus.SUCCESS.getValue()) {
+            keys.add(EXPERIMENT_SUCCESS);
+        }
+        if (resultStatus != null && resultStatus == ResultStatus.FAILED.getValue()) {
+            keys.add(EXPERIMENT_FAILED);
+        }
+        return keys;
+    }
+
+    private long get(String key) {
+        return Optional.ofNullable(counters.get(key)).map(AtomicLong::get).orElse(0L);
+    }
+
+    private void increment(String key, long delta) {
+        counters.computeIfAbsent(key, k -> new AtomicLong()).addAndGet(delta);
+        try {
+            statisticsRepository.increment(key, delta);
+        } catch (Exception e) {
+            log.error("increment statistics error, key: {}", key, e);
+        }
+    }
+}
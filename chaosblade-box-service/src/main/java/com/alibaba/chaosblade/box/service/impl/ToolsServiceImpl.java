@@ -16,6 +16,8 @@
 
 package com.alibaba.chaosblade.box.service.impl;
 
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.LRUCache;
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.util.StrUtil;
 import com.alibaba.chaosblade.box.common.enums.ChaosTools;
@@ -34,6 +36,7 @@ import com.alibaba.chaosblade.box.dao.page.PageUtils;
 import com.alibaba.chaosblade.box.dao.repository.ClusterRepository;
 import com.alibaba.chaosblade.box.dao.repository.DeviceRepository;
 import com.alibaba.chaosblade.box.dao.repository.ToolsRepository;
+import com.alibaba.chaosblade.box.scenario.api.ScenarioMarketChangedEvent;
 import com.alibaba.chaosblade.box.scenario.api.ScenarioRequest;
 import com.alibaba.chaosblade.box.scenario.api.ScenarioYamlProvider;
 import com.alibaba.chaosblade.box.scenario.api.model.ToolsOverview;
@@ -52,7 +55,11 @@ import com.alibaba.chaosblade.box.toolsmgr.api.ChaosToolsMgrStrategyContext;
 import com.alibaba.chaosblade.box.toolsmgr.api.Request;
 import com.alibaba.chaosblade.box.toolsmgr.api.Response;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationListener;
 import org.springframework.stereotype.Service;
 import org.yaml.snakeyaml.Yaml;
 import org.yaml.snakeyaml.introspector.Property;
@@ -63,6 +70,8 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static com.alibaba.chaosblade.box.common.exception.ExceptionMessageEnum.*;
@@ -70,8 +79,9 @@ import static com.alibaba.chaosblade.box.common.exception.ExceptionMessageEnum.*
 /**
  * @author yefei
  */
+@Slf4j
 @Service
-public class ToolsServiceImpl implements ToolsService {
+public class ToolsServiceImpl implements ToolsService, InitializingBean, ApplicationListener<ScenarioMarketChangedEvent> {
 
     @Autowired
     private ToolsRepository toolsRepository;
@@ -94,6 +104,53 @@ public class ToolsServiceImpl implements ToolsService {
     @Autowired
     private DeviceMapper deviceMapper;
 
+    @Value("${chaos.tools.cache.size:1024}")
+    private int cacheSize;
+
+    /**
+     * bounds staleness of a remote scene market, 0 never expires
+     */
+    @Value("${chaos.tools.cache.expire:600000}")
+    private long cacheExpire;
+
+    /**
+     * parsed overview, version and spec yaml by tools, version and file, the models are shared and must not be modified
+     */
+    private LRUCache<String, Object> yamlCache;
+
+    /**
+     * bumped on invalidation, a parse started before it is not cached
+     */
+    private final AtomicLong cacheVersion = new AtomicLong();
+
+    @Override
+    public void afterPropertiesSet() {
+        yamlCache = CacheUtil.newLRUCache(cacheSize, cacheExpire);
+    }
+
+    /**
+     * a listener bean, unlike @EventListener, also receives the changes published by the import at startup
+     */
+    @Override
+    public void onApplicationEvent(ScenarioMarketChangedEvent event) {
+        log.info("Scenario market of {} changed, clear parsed yaml", event.getChaosTools());
+        cacheVersion.incrementAndGet();
+        yamlCache.clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T cached(String key, Supplier<T> loader) {
+        T value = (T) yamlCache.get(key);
+        if (value == null) {
+            long version = cacheVersion.get();
+            value = loader.get();
+            if (value != null && version == cacheVersion.get()) {
+                yamlCache.put(key, value);
+            }
+        }
+        return value;
+    }
+
     @Override
     public ToolsStatisticsResponse getChaostoolsDeployedStatistics(ToolsRequest toolsRequest) {
         return ToolsStatisticsResponse.builder()
@@ -178,48 +235,53 @@ public class ToolsServiceImpl implements ToolsService {
 
     @Override
     public ToolsOverview toolsOverview(String toolsName) {
-        Representer representer = new Representer();
-        String overview = scenarioYamlProvider.overview(ScenarioRequest.builder()
-                .chaosTools(toolsName)
-                .build());
-        representer.getPropertyUtils().setSkipMissingProperties(true);
-        return new Yaml(representer).loadAs(overview, ToolsOverview.class);
+        return cached("overview:" + toolsName, () -> {
+            Representer representer = new Representer();
+            String overview = scenarioYamlProvider.overview(ScenarioRequest.builder()
+                    .chaosTools(toolsName)
+                    .build());
+            representer.getPropertyUtils().setSkipMissingProperties(true);
+            return new Yaml(representer).loadAs(overview, ToolsOverview.class);
+        });
     }
 
     @Override
     public ToolsVersion toolsVersion(String toolsName, String version) {
-
-        Representer representer = new Representer();
-        representer.setPropertyUtils(new PropertyUtils() {
-            @Override
-            public Property getProperty(Class<? extends Object> type, String name) {
-                if (name.indexOf('-') > -1) {
-                    name = name.replace('-', '_');
+        return cached("version:" + toolsName + ":" + version, () -> {
+            Representer representer = new Representer();
+            representer.setPropertyUtils(new PropertyUtils() {
+                @Override
+                public Property getProperty(Class<? extends Object> type, String name) {
+                    if (name.indexOf('-') > -1) {
+                        name = name.replace('-', '_');
+                    }
+                    return super.getProperty(type, name);
                 }
-                return super.getProperty(type, name);
-            }
-        });
-        representer.getPropertyUtils().setSkipMissingProperties(true);
+            });
+            representer.getPropertyUtils().setSkipMissingProperties(true);
 
-        String versionYaml = scenarioYamlProvider.versionYaml(ScenarioRequest.builder()
-                .chaosTools(toolsName)
-                .version(version)
-                .build());
+            String versionYaml = scenarioYamlProvider.versionYaml(ScenarioRequest.builder()
+                    .chaosTools(toolsName)
+                    .version(version)
+                    .build());
 
-        return new Yaml(representer).loadAs(versionYaml, ToolsVersion.class);
+            return new Yaml(representer).loadAs(versionYaml, ToolsVersion.class);
+        });
     }
 
     @Override
     public PluginSpecBean toolsScene(String toolsName, String version, String sceneFileName) {
-        Representer representer = new Representer();
-        representer.getPropertyUtils().setSkipMissingProperties(true);
-
-        String versionYaml = scenarioYamlProvider.specYaml(ScenarioRequest.builder()
-                .chaosTools(toolsName)
-                .version(version)
-                .spec(sceneFileName)
-                .build());
-        return new Yaml(representer).loadAs(versionYaml, PluginSpecBean.class);
+        return cached("spec:" + toolsName + ":" + version + ":" + sceneFileName, () -> {
+            Representer representer = new Representer();
+            representer.getPropertyUtils().setSkipMissingProperties(true);
+
+            String versionYaml = scenarioYamlProvider.specYaml(ScenarioRequest.builder()
+                    .chaosTools(toolsName)
+                    .version(version)
+                    .spec(sceneFileName)
+                    .build());
+            return new Yaml(representer).loadAs(versionYaml, PluginSpecBean.class);
+        });
     }
 
     @Override
@@ -0,0 +1,86 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.chaosblade.box.service.loader;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Collects keys of a page and resolves them with one batch query on first access,
+ * lives only as long as a single listing call and is not thread safe.
+ *
+ * @author yefei
+ */
+public class BatchLoader<K, V> {
+
+    private final Function<Collection<K>, Map<K, V>> batchFunction;
+
+    private final Set<K> pending = new LinkedHashSet<>();
+
+    private final Map<K, V> loaded = new HashMap<>();
+
+    public BatchLoader(Function<Collection<K>, Map<K, V>> batchFunction) {
+        this.batchFunction = batchFunction;
+    }
+
+    public static <K, V> BatchLoader<K, V> of(Function<Collection<K>, Map<K, V>> batchFunction) {
+        return new BatchLoader<>(batchFunction);
+    }
+
+    public BatchLoader<K, V> add(K key) {
+        if (key != null && !loaded.containsKey(key)) {
+            pending.add(key);
+        }
+        return this;
+    }
+
+    public BatchLoader<K, V> addAll(Collection<K> keys) {
+        keys.forEach(this::add);
+        return this;
+    }
+
+    public V get(K key) {
+        return getOrDefault(key, null);
+    }
+
+    public V getOrDefault(K key, V defaultValue) {
+        if (key == null) {
+            return defaultValue;
+        }
+        if (!loaded.containsKey(key)) {
+            pending.add(key);
+            dispatch();
+        }
+        V value = loaded.get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * resolve all pending keys, keys missing in the result are remembered as absent
+     */
+    public void dispatch() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<K> keys = new ArrayList<>(pending);
+        pending.clear();
+        Map<K, V> values = batchFunction.apply(keys);
+        for (K key : keys) {
+            loaded.put(key, values.get(key));
+        }
+    }
+}
@@ -26,6 +26,7 @@ import cn.hutool.core.date.DateUtil;
 import cn.hutool.core.util.ArrayUtil;
 import com.alibaba.chaosblade.box.dao.model.ExperimentTaskLogDO;
 import com.alibaba.chaosblade.box.dao.repository.ExperimentTaskLogRepository;
+import com.alibaba.chaosblade.box.service.task.journal.TaskChangeJournal;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.ApplicationContext;
@@ -52,6 +53,8 @@ public class DBLoggerAppender extends UnsynchronizedAppenderBase<ILoggingEvent>
 
     private static ApplicationContext applicationContext;
 
+    private static TaskChangeJournal taskChangeJournal;
+
     @Override
     public void append(ILoggingEvent iLoggingEvent) {
         String message = new String(encoder.encode(iLoggingEvent));
@@ -69,15 +72,19 @@ public class DBLoggerAppender extends UnsynchronizedAppenderBase<ILoggingEvent>
             }
         }
         // insert db
-        logRepository.insert(ExperimentTaskLogDO.builder()
+        Long logId = logRepository.insert(ExperimentTaskLogDO.builder()
                 .taskId(taskId)
                 .logDate(DateUtil.date())
                 .content(message)
                 .build());
+        if (taskId != null) {
+            taskChangeJournal.log(taskId, logId, message);
+        }
     }
 
     public static void configure(LoggerContext lc, Class<?> clazz, ApplicationContext applicationContext) {
         DBLoggerAppender.applicationContext = applicationContext;
+        DBLoggerAppender.taskChangeJournal = applicationContext.getBean(TaskChangeJournal.class);
 
         StatusManager sm = lc.getStatusManager();
         if (sm != null) {
@@ -0,0 +1,68 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.chaosblade.box.service.model.experiment;
+
+import com.alibaba.chaosblade.box.service.model.experiment.activity.ExperimentActivityTask;
+import com.alibaba.chaosblade.box.service.model.experiment.activity.ExperimentActivityTaskRecord;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Changes of an experiment task since the version of the request.
+ *
+ * @author yefei
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExperimentTaskDeltaResponse {
+
+    /**
+     * version for the next request
+     */
+    private Long version;
+
+    /**
+     * the changes are unknown, reload the task with QueryTaskResult, QueryTaskRecord and QueryTaskLog
+     */
+    private boolean reset;
+
+    /**
+     * task status, null if not changed
+     */
+    private ExperimentTaskResponse task;
+
+    /**
+     * changed activity tasks, without scene
+     */
+    private List<ExperimentActivityTask> activityTasks;
+
+    /**
+     * inserted or updated records
+     */
+    private List<ExperimentActivityTaskRecord> records;
+
+    /**
+     * appended logs
+     */
+    private List<String> logs;
+}
@@ -30,4 +30,9 @@ public class ExperimentTaskRequest {
 
     private ExperimentTaskRequest task;
 
+    /**
+     * version returned by the last QueryTaskDelta
+     */
+    private Long version;
+
 }
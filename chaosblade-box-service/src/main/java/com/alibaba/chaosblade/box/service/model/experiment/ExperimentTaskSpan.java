@@ -0,0 +1,49 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.chaosblade.box.service.model.experiment;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * @author yefei
+ */
+@Builder
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExperimentTaskSpan {
+
+    private String kind;
+
+    private String name;
+
+    private Long activityTaskId;
+
+    private String target;
+
+    /**
+     * offset from the task start
+     */
+    private Long offsetMicros;
+
+    private Long durationMicros;
+
+    private Boolean success;
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.chaosblade.box.service.model.experiment;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A state transition of an experiment task, its activity tasks, device records or a metric sample.
+ *
+ * @author yefei
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExperimentTaskState {
+
+    private Long taskId;
+
+    private ExperimentTaskStateType type;
+
+    /**
+     * task id, activity task id or record id by type
+     */
+    private Long id;
+
+    private String phase;
+
+    private Byte runStatus;
+
+    private Byte resultStatus;
+
+    private Boolean success;
+
+    /**
+     * device of a record, category code of a metric
+     */
+    private String target;
+
+    private String message;
+
+    /**
+     * metric chart lines
+     */
+    private Object data;
+
+    private long timestamp;
+}
@@ -31,5 +31,7 @@ import lombok.NoArgsConstructor;
 public class SceneImportResponse {
 
     private Long scenarioCount;
+
+    private Long costMillis;
 }
 
@@ -27,7 +27,7 @@ import java.util.List;
  * @author yefei
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 public class SceneResponse {
 
     private Long scenarioId;
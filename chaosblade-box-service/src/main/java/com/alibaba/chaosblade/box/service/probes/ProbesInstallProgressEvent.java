@@ -0,0 +1,44 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.chaosblade.box.service.probes;
+
+import com.alibaba.chaosblade.box.service.probes.model.ProbesInstallStage;
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * @author yefei
+ */
+@Getter
+public class ProbesInstallProgressEvent extends ApplicationEvent {
+
+    private final Long probeId;
+
+    private final String host;
+
+    private final ProbesInstallStage stage;
+
+    private final String message;
+
+    public ProbesInstallProgressEvent(Object source, Long probeId, String host, ProbesInstallStage stage, String message) {
+        super(source);
+        this.probeId = probeId;
+        this.host = host;
+        this.stage = stage;
+        this.message = message;
+    }
+}
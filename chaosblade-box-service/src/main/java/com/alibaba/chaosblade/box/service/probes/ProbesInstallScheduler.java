@@ -0,0 +1,149 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.chaosblade.box.service.probes;
+
+import com.alibaba.chaosblade.box.common.enums.DeviceStatus;
+import com.alibaba.chaosblade.box.dao.model.ProbesDO;
+import com.alibaba.chaosblade.box.dao.repository.ProbesRepository;
+import com.alibaba.chaosblade.box.service.probes.model.ProbesInstallStage;
+import com.alibaba.chaosblade.box.toolsmgr.api.Response;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs probe installs with a bounded number of threads, the rest wait in a queue.
+ * Every stage change of a host is published as {@link ProbesInstallProgressEvent}.
+ *
+ * @author yefei
+ */
+@Slf4j
+@Component
+public class ProbesInstallScheduler implements InitializingBean, DisposableBean {
+
+    @Value("${chaos.probes.install.concurrency:32}")
+    private int concurrency;
+
+    @Value("${chaos.probes.install.queue-size:10000}")
+    private int queueSize;
+
+    @Autowired
+    private ProbesRepository probesRepository;
+
+    @Autowired
+    private ApplicationEventPublisher publisher;
+
+    private ThreadPoolExecutor executor;
+
+    @Override
+    public void afterPropertiesSet() {
+        executor = new ThreadPoolExecutor(
+                concurrency,
+                concurrency,
+                120L,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueSize),
+                new ThreadFactory() {
+                    final AtomicInteger atomicInteger = new AtomicInteger();
+
+                    @Override
+                    public Thread newThread(Runnable r) {
+                        Thread thread = new Thread(r);
+                        thread.setDaemon(false);
+                        thread.setName("PROBES-INSTALL-THREAD-" + atomicInteger.getAndIncrement());
+                        return thread;
+                    }
+                }
+        );
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * queue the install of a probe already marked installing
+     *
+     * @param probeId
+     * @param host
+     * @param deploy
+     */
+    public void install(Long probeId, String host, Supplier<Response<String>> deploy) {
+        progress(probeId, host, ProbesInstallStage.QUEUED, null);
+        try {
+            executor.execute(() -> {
+                progress(probeId, host, ProbesInstallStage.INSTALLING, null);
+                try {
+                    Response<String> response = deploy.get();
+                    if (response.isSuccess()) {
+                        progress(probeId, host, ProbesInstallStage.DEPLOYED, null);
+                    } else {
+                        fail(probeId, host, response.getMessage());
+                    }
+                } catch (Exception e) {
+                    fail(probeId, host, e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            fail(probeId, host, "Too many probes installing, retry later");
+        }
+    }
+
+    /**
+     * run a follow up job of an installation, e.g. deploy chaos tools,
+     * the probe is marked failed when the queue is full
+     *
+     * @param probeId
+     * @param host
+     * @param runnable
+     */
+    public void execute(Long probeId, String host, Runnable runnable) {
+        try {
+            executor.execute(runnable);
+        } catch (RejectedExecutionException e) {
+            log.warn("Probes install queue is full, reject follow up job of probe: {}", probeId);
+            fail(probeId, host, "Too many probes installing, retry later");
+        }
+    }
+
+    public void skipped(Long probeId, String host) {
+        progress(probeId, host, ProbesInstallStage.SKIPPED, null);
+    }
+
+    private void fail(Long probeId, String host, String message) {
+        probesRepository.updateByPrimaryKey(probeId, ProbesDO.builder()
+                .ip(host)
+                .status(DeviceStatus.INSTALL_FAIL.getStatus())
+                .errorMessage(message)
+                .build());
+        progress(probeId, host, ProbesInstallStage.FAILED, message);
+    }
+
+    private void progress(Long probeId, String host, ProbesInstallStage stage, String message) {
+        publisher.publishEvent(new ProbesInstallProgressEvent(this, probeId, host, stage, message));
+    }
+}
@@ -45,18 +45,16 @@ import com.alibaba.chaosblade.box.toolsmgr.api.ChaosToolsMgrStrategyContext;
 import com.alibaba.chaosblade.box.toolsmgr.api.Request;
 import com.alibaba.chaosblade.box.toolsmgr.api.Response;
 import com.alibaba.chaosblade.box.toolsmgr.ssh.SSHRequest;
-import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.*;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import static com.alibaba.chaosblade.box.common.enums.DeviceStatus.*;
@@ -66,7 +64,7 @@ import static com.alibaba.chaosblade.box.common.exception.ExceptionMessageEnum.P
  * @author yefei
  */
 @Service
-public class ProbesServiceImpl implements ProbesService, InitializingBean {
+public class ProbesServiceImpl implements ProbesService {
 
     @Autowired
     private DeviceRepository deviceRepository;
@@ -86,33 +84,12 @@ public class ProbesServiceImpl implements ProbesService, InitializingBean {
     @Autowired
     private ToolsService toolsService;
 
-    private ExecutorService executorService;
+    @Autowired
+    private ProbesInstallScheduler probesInstallScheduler;
 
     @Autowired
     private ChaosToolsMgrStrategyContext chaosToolsMgrStrategyContext;
 
-    @Override
-    public void afterPropertiesSet() {
-        executorService = new ThreadPoolExecutor(
-                0,
-                512,
-                120L,
-                TimeUnit.SECONDS,
-                new SynchronousQueue<>(),
-                new ThreadFactory() {
-                    final AtomicInteger atomicInteger = new AtomicInteger();
-
-                    @Override
-                    public Thread newThread(Runnable r) {
-                        Thread thread = new Thread(r);
-                        thread.setDaemon(false);
-                        thread.setName("PROBES-INSTALL-THREAD-" + atomicInteger.getAndIncrement());
-                        return thread;
-                    }
-                }
-        );
-    }
-
     @Override
     public List<ProbesResponse> getAnsibleHosts() {
 
@@ -245,13 +222,21 @@ public class ProbesServiceImpl implements ProbesService, InitializingBean {
         String entryPoint = InetUtils.getLocalHost() + ChaosConstant.COLON + serverPort;
 
         List<ProbesRequest> probes = installProbesRequest.getProbes();
+
+        // one query for the pre-checks of all hosts
+        Map<String, List<ProbesDO>> existing = probesRepository.selectByHosts(probes.stream()
+                .map(ProbesRequest::getHost).distinct().collect(Collectors.toList()))
+                .stream().collect(Collectors.groupingBy(ProbesDO::getIp));
+
         for (ProbesRequest probesRequest : probes) {
             probesRequest.setCommandOptions(String.format("-t %s -r %s %s", entryPoint, release, probesRequest.getCommandOptions()));
 
-            List<ProbesDO> probesDOS = probesRepository.selectByStatus(probesRequest.getHost(),
-                    CollUtil.newArrayList(DeviceStatus.ONLINE.getStatus()));
-
-            if (CollUtil.isNotEmpty(probesDOS)) {
+            List<ProbesDO> probesDOS = existing.getOrDefault(probesRequest.getHost(), Collections.emptyList());
+            Optional<ProbesDO> online = probesDOS.stream()
+                    .filter(probesDO -> probesDO.getStatus() != null && probesDO.getStatus() == DeviceStatus.ONLINE.getStatus())
+                    .findFirst();
+            if (online.isPresent()) {
+                probesInstallScheduler.skipped(online.get().getId(), probesRequest.getHost());
                 continue;
             }
 
@@ -262,7 +247,12 @@ public class ProbesServiceImpl implements ProbesService, InitializingBean {
                     .installMode((byte) ProbesInstallModel.ANSIBLE.getCode())
                     .status(DeviceStatus.INSTALLING.getStatus())
                     .build();
-            Optional<ProbesDO> optional = probesRepository.selectByHost(probesRequest.getHost());
+            Optional<ProbesDO> optional = probesDOS.stream()
+                    .filter(p -> p.getAgentType() != null && p.getAgentType() == AgentType.HOST.getCode())
+                    .findFirst();
+            if (!optional.isPresent()) {
+                optional = probesDOS.stream().findFirst();
+            }
             if (optional.isPresent()) {
                 probesRepository.updateByPrimaryKey(optional.get().getId(), probesDO);
             } else {
@@ -270,29 +260,12 @@ public class ProbesServiceImpl implements ProbesService, InitializingBean {
             }
             probesRequest.setProbeId(probesDO.getId());
 
-            executorService.execute(() -> {
-                try {
-                    Response<String> deployAgent = chaosToolsMgrStrategyContext.deployAgent(Request.builder()
+            probesInstallScheduler.install(probesDO.getId(), probesRequest.getHost(),
+                    () -> chaosToolsMgrStrategyContext.deployAgent(Request.builder()
                             .host(probesRequest.getHost())
                             .probesId(probesDO.getId())
                             .commandOptions(probesRequest.getCommandOptions())
-                            .channel(ChannelType.ANSIBLE.name()).build());
-
-                    if (!deployAgent.isSuccess()) {
-                        probesRepository.updateByPrimaryKey(probesDO.getId(), ProbesDO.builder()
-                                .ip(probesRequest.getHost())
-                                .status(DeviceStatus.INSTALL_FAIL.getStatus())
-                                .errorMessage(deployAgent.getMessage())
-                                .build());
-                    }
-                } catch (Exception e) {
-                    probesRepository.updateByPrimaryKey(probesDO.getId(), ProbesDO.builder()
-                            .ip(probesRequest.getHost())
-                            .status(DeviceStatus.INSTALL_FAIL.getStatus())
-                            .errorMessage(e.getMessage())
-                            .build());
-                }
-            });
+                            .channel(ChannelType.ANSIBLE.name()).build()));
         }
 
         return probesRepository.selectByIds(probes.stream().map(ProbesRequest::getProbeId).collect(Collectors.toList()))
@@ -316,11 +289,10 @@ public class ProbesServiceImpl implements ProbesService, InitializingBean {
 
     @EventListener
     public void listenProbesInstallSuccess(ProbesInstallSuccessEvent event) {
-        executorService.execute(() -> {
-            Long deviceId = (Long) event.getSource();
-            Optional<ProbesDO> probesDO = probesRepository.selectByDeviceId(deviceId);
-            probesDO.ifPresent(probes -> {
-                if (probes.getDeployBlade()) {
+        Long deviceId = (Long) event.getSource();
+        Optional<ProbesDO> probesDO = probesRepository.selectByDeviceId(deviceId);
+        probesDO.filter(probes -> Boolean.TRUE.equals(probes.getDeployBlade())).ifPresent(probes ->
+                probesInstallScheduler.execute(probes.getId(), probes.getIp(), () -> {
                     ToolsOverview toolsOverview = toolsService.toolsOverview(ChaosConstant.DEFAULT_TOOLS);
                     ToolsVersion toolsVersion = toolsService.toolsVersion(toolsOverview.getName(), toolsOverview.getLatest());
 
@@ -337,9 +309,7 @@ public class ProbesServiceImpl implements ProbesService, InitializingBean {
                                 .errorMessage(e.getMessage() + ":" + e.getData().toString())
                                 .build());
                     }
-                }
-            });
-        });
+                }));
     }
 
     @Override
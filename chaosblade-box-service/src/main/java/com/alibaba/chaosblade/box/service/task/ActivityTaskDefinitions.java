@@ -0,0 +1,80 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.chaosblade.box.service.task;
+
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.LRUCache;
+import cn.hutool.crypto.digest.DigestUtil;
+import com.alibaba.chaosblade.box.common.utils.JsonUtils;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Parsed activity definitions (activityDefinition / runParam json) by the sha-256 of their content. The parsed
+ * templates are never handed out, every caller gets its own copy to fill in run fields.
+ *
+ * @author yefei
+ */
+@Component
+public class ActivityTaskDefinitions implements InitializingBean {
+
+    @Value("${chaos.activity.definition.cache.size:2048}")
+    private int cacheSize;
+
+    private LRUCache<String, ActivityTask> templates;
+
+    @Override
+    public void afterPropertiesSet() {
+        templates = CacheUtil.newLRUCache(cacheSize);
+    }
+
+    /**
+     * @param definition json of an activity task
+     * @return a new activity task, null if definition is null
+     */
+    public ActivityTask parse(String definition) {
+        if (definition == null) {
+            return null;
+        }
+        String key = DigestUtil.sha256Hex(definition);
+        ActivityTask template = templates.get(key);
+        if (template == null) {
+            template = JsonUtils.readValue(ActivityTask.class, definition);
+            templates.put(key, template);
+        }
+        return copy(template);
+    }
+
+    /**
+     * the definition fields of the template with copied collections and devices, and a new run state
+     */
+    private static ActivityTask copy(ActivityTask template) {
+        return template.toBuilder()
+                .arguments(template.getArguments() == null ? null : new HashMap<>(template.getArguments()))
+                .deviceMetas(template.getDeviceMetas() == null ? null : template.getDeviceMetas().stream()
+                        .map(deviceMeta -> deviceMeta.toBuilder().build())
+                        .collect(Collectors.toList()))
+                .completableFuture(new CompletableFuture<>())
+                .activityTaskExecutePipeline(null)
+                .build();
+    }
+}
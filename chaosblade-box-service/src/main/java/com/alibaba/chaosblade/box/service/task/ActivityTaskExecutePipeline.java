@@ -17,6 +17,7 @@
 package com.alibaba.chaosblade.box.service.task;
 
 import com.alibaba.chaosblade.box.common.exception.BizException;
+import com.alibaba.chaosblade.box.common.trace.Span;
 
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
@@ -45,6 +46,11 @@ public class ActivityTaskExecutePipeline {
 
     private volatile boolean isEnd;
 
+    /**
+     * span of the whole pipeline, started at head and ended when tail completes
+     */
+    private volatile Span taskSpan;
+
     private final static AtomicReferenceFieldUpdater<ActivityTaskExecutePipeline, TaskNode> atomicReferenceFieldUpdater
             = AtomicReferenceFieldUpdater.newUpdater(ActivityTaskExecutePipeline.class, TaskNode.class, "currentTask");
 
@@ -72,6 +78,14 @@ public class ActivityTaskExecutePipeline {
         return currentTask;
     }
 
+    public Span getTaskSpan() {
+        return taskSpan;
+    }
+
+    public void setTaskSpan(Span taskSpan) {
+        this.taskSpan = taskSpan;
+    }
+
     public TaskNode<ActivityTask> head() {
         return head;
     }
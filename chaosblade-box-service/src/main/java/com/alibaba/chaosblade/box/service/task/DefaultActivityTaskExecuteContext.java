@@ -20,6 +20,8 @@ import cn.hutool.core.collection.CollUtil;
 import com.alibaba.chaosblade.box.common.executor.ExecutorFactory;
 import com.alibaba.chaosblade.box.common.executor.ThreadPoolExecutorFactory;
 import com.alibaba.chaosblade.box.common.TaskLogRecord;
+import com.alibaba.chaosblade.box.common.trace.Span;
+import com.alibaba.chaosblade.box.common.trace.SpanKind;
 import com.alibaba.chaosblade.box.common.utils.timer.HashedWheelTimer;
 import com.alibaba.chaosblade.box.common.utils.timer.Timer;
 import com.alibaba.chaosblade.box.service.task.listener.ExperimentTaskCompleteListener;
@@ -27,6 +29,7 @@ import com.alibaba.chaosblade.box.service.task.listener.ExperimentTaskStartListe
 import com.alibaba.chaosblade.box.service.task.log.i18n.TaskLogType;
 import com.alibaba.chaosblade.box.service.task.log.i18n.TaskLogUtil;
 import com.alibaba.chaosblade.box.service.task.stateless.ActivityTaskHandlerStrategyContext;
+import com.alibaba.chaosblade.box.service.task.trace.ExperimentTaskTracer;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.InitializingBean;
@@ -53,6 +56,9 @@ public class DefaultActivityTaskExecuteContext implements ActivityTaskExecuteCon
     @Autowired
     private ActivityTaskHandlerStrategyContext activityTaskHandlerStrategyContext;
 
+    @Autowired
+    private ExperimentTaskTracer experimentTaskTracer;
+
     private final Map<ActivityTaskExecutePipeline, ExperimentTaskStartListener> taskStartListenerMap = new ConcurrentHashMap<>();
 
     private final Map<ActivityTaskExecutePipeline, ExperimentTaskCompleteListener> taskCompleteListenerMap = new ConcurrentHashMap<>();
@@ -87,6 +93,10 @@ public class DefaultActivityTaskExecuteContext implements ActivityTaskExecuteCon
             return;
         }
         try {
+            if (internalTask == activityTaskExecutePipeline.head()) {
+                activityTaskExecutePipeline.setTaskSpan(experimentTaskTracer.startTask(
+                        internalTask.getTask().getExperimentTaskId(), internalTask.getTask().getPhase()));
+            }
             if (internalTask == activityTaskExecutePipeline.head() &&
                     taskStartListenerMap.get(activityTaskExecutePipeline) != null) {
                 ExperimentTaskStartListener experimentTaskStartListener = taskStartListenerMap.get(activityTaskExecutePipeline);
@@ -108,6 +118,12 @@ public class DefaultActivityTaskExecuteContext implements ActivityTaskExecuteCon
 
             ActivityTask activityTask = internalTask.getTask();
 
+            Span taskSpan = activityTaskExecutePipeline.getTaskSpan();
+            if (internalTask == activityTaskExecutePipeline.tail() && taskSpan != null) {
+                CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                        .whenComplete((r, e) -> taskSpan.end(e == null));
+            }
+
             if (internalTask == activityTaskExecutePipeline.tail()
                     && taskCompleteListenerMap.get(activityTaskExecutePipeline) != null) {
                 ExperimentTaskCompleteListener experimentTaskCompleteListener = taskCompleteListenerMap.get(activityTaskExecutePipeline);
@@ -151,8 +167,10 @@ public class DefaultActivityTaskExecuteContext implements ActivityTaskExecuteCon
                     String.valueOf(waitOfBefore)
             );
 
+            Span span = experimentTaskTracer.start(activityTask, SpanKind.WAIT, "waitOfBefore");
             timer.newTimeout(timeout ->
                             executor.execute(() -> {
+                                span.end(true);
                                 executeActivityTask0(activityTask);
                             }),
                     waitOfBefore,
@@ -167,7 +185,15 @@ public class DefaultActivityTaskExecuteContext implements ActivityTaskExecuteCon
 
     private void executeActivityTask0(ActivityTask activityTask) {
         try {
-            boolean b = activityTaskHandlerStrategyContext.preHandle(activityTask);
+            Span span = experimentTaskTracer.start(activityTask, SpanKind.DB, "preHandle");
+            boolean b;
+            boolean success = false;
+            try {
+                b = activityTaskHandlerStrategyContext.preHandle(activityTask);
+                success = true;
+            } finally {
+                span.end(success);
+            }
             if (b) {
                 activityTaskHandlerStrategyContext.handle(activityTask);
             }
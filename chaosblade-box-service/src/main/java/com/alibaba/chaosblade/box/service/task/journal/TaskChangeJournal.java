@@ -0,0 +1,210 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.chaosblade.box.service.task.journal;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory change journal per experiment task, fed by the task engine. Versions are increasing
+ * across tasks and start from the boot time, so a version from a previous process is answered with a reset.
+ * Journals are created by changes only and dropped after ttl without access.
+ *
+ * @author yefei
+ */
+@Component
+public class TaskChangeJournal implements InitializingBean, DisposableBean {
+
+    @Value("${chaos.task.journal.capacity:5000}")
+    private int capacity;
+
+    @Value("${chaos.task.journal.ttl:1800000}")
+    private long ttl;
+
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+
+    /**
+     * versions not greater than it may belong to dropped journals
+     */
+    private volatile long pruned = version.get();
+
+    private final Map<Long, Journal> journals = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService pruner;
+
+    @Override
+    public void afterPropertiesSet() {
+        pruner = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r);
+            thread.setDaemon(true);
+            thread.setName("TASK-CHANGE-JOURNAL-PRUNE");
+            return thread;
+        });
+        pruner.scheduleWithFixedDelay(this::prune, ttl, ttl, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        pruner.shutdownNow();
+    }
+
+    public void task(Long taskId) {
+        append(taskId, TaskChangeType.TASK, taskId, null);
+    }
+
+    public void activity(Long taskId, Long activityTaskId) {
+        append(taskId, TaskChangeType.ACTIVITY, activityTaskId, null);
+    }
+
+    public void record(Long taskId, Long recordId) {
+        append(taskId, TaskChangeType.RECORD, recordId, null);
+    }
+
+    public void records(Long taskId, Collection<Long> recordIds) {
+        recordIds.forEach(recordId -> record(taskId, recordId));
+    }
+
+    public void log(Long taskId, Long logId, String content) {
+        append(taskId, TaskChangeType.LOG, logId, content);
+    }
+
+    /**
+     * @param taskId
+     * @param since  version returned by the last call, null for the first call
+     * @return
+     */
+    public TaskChanges since(Long taskId, Long since) {
+        // read before the lookup, a change appended meanwhile gets a greater version and is left to the next call
+        long current = version.get();
+        Journal journal = journals.get(taskId);
+        if (journal == null) {
+            // no change of the task since a version newer than any dropped journal
+            boolean reset = since == null || since < pruned || since > current;
+            return TaskChanges.builder()
+                    .version(current)
+                    .reset(reset)
+                    .activityTaskIds(Collections.emptySet())
+                    .recordIds(Collections.emptySet())
+                    .logs(Collections.emptyList())
+                    .build();
+        }
+        synchronized (journal) {
+            if (journals.get(taskId) != journal) {
+                // pruned concurrently
+                return since(taskId, since);
+            }
+            journal.lastAccess = System.currentTimeMillis();
+            // changes of this journal are versioned under its lock, all up to current are in it
+            current = version.get();
+            if (since == null || since < journal.floor || since > current) {
+                return TaskChanges.builder().version(current).reset(true).build();
+            }
+            TaskChanges changes = TaskChanges.builder()
+                    .version(current)
+                    .activityTaskIds(new LinkedHashSet<>())
+                    .recordIds(new LinkedHashSet<>())
+                    .logs(new ArrayList<>())
+                    .build();
+            Iterator<TaskChange> iterator = journal.changes.descendingIterator();
+            LinkedList<String> logs = new LinkedList<>();
+            while (iterator.hasNext()) {
+                TaskChange change = iterator.next();
+                if (change.getVersion() <= since) {
+                    break;
+                }
+                switch (change.getType()) {
+                    case TASK:
+                        changes.setTaskChanged(true);
+                        break;
+                    case ACTIVITY:
+                        changes.getActivityTaskIds().add(change.getId());
+                        break;
+                    case RECORD:
+                        changes.getRecordIds().add(change.getId());
+                        break;
+                    case LOG:
+                        logs.addFirst(change.getContent());
+                        break;
+                    default:
+                }
+            }
+            changes.getLogs().addAll(logs);
+            return changes;
+        }
+    }
+
+    private void append(Long taskId, TaskChangeType type, Long id, String content) {
+        if (taskId == null || id == null) {
+            return;
+        }
+        Journal journal = journals.computeIfAbsent(taskId, key -> new Journal(pruned));
+        synchronized (journal) {
+            if (journals.get(taskId) != journal) {
+                // pruned concurrently, append to the new journal
+                append(taskId, type, id, content);
+                return;
+            }
+            journal.lastAccess = System.currentTimeMillis();
+            if (journal.changes.size() >= capacity) {
+                journal.floor = journal.changes.pollFirst().getVersion();
+            }
+            journal.changes.addLast(TaskChange.builder()
+                    .version(version.incrementAndGet())
+                    .taskId(taskId)
+                    .type(type)
+                    .id(id)
+                    .content(content)
+                    .build());
+        }
+    }
+
+    private void prune() {
+        long expired = System.currentTimeMillis() - ttl;
+        journals.forEach((taskId, journal) -> {
+            synchronized (journal) {
+                if (journal.lastAccess < expired && journals.remove(taskId, journal)) {
+                    pruned = Math.max(pruned, version.get());
+                }
+            }
+        });
+    }
+
+    private static class Journal {
+
+        private final ArrayDeque<TaskChange> changes = new ArrayDeque<>();
+
+        /**
+         * changes with a version not greater than floor are not in the journal
+         */
+        private long floor;
+
+        private long lastAccess;
+
+        Journal(long floor) {
+            this.floor = floor;
+        }
+    }
+}
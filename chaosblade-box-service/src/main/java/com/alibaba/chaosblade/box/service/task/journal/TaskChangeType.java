@@ -0,0 +1,43 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.chaosblade.box.service.task.journal;
+
+/**
+ * @author yefei
+ */
+public enum TaskChangeType {
+
+    /**
+     * experiment task status
+     */
+    TASK,
+
+    /**
+     * activity task status
+     */
+    ACTIVITY,
+
+    /**
+     * activity task record inserted or updated
+     */
+    RECORD,
+
+    /**
+     * task log appended
+     */
+    LOG
+}
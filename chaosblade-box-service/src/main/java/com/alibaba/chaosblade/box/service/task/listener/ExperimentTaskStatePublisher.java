@@ -0,0 +1,123 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.chaosblade.box.service.task.listener;
+
+import com.alibaba.chaosblade.box.service.model.experiment.ExperimentTaskState;
+import com.alibaba.chaosblade.box.service.model.experiment.ExperimentTaskStateType;
+import com.alibaba.chaosblade.box.service.task.ActivityTask;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Publishes state transitions of running experiment tasks as {@link ExperimentTaskStateEvent},
+ * only for tasks with subscribers. States are built from what the caller has just written.
+ *
+ * @author yefei
+ */
+@Component
+public class ExperimentTaskStatePublisher {
+
+    @Autowired
+    private ApplicationEventPublisher publisher;
+
+    /**
+     * subscriber count by task id
+     */
+    private final Map<Long, AtomicInteger> subscriptions = new ConcurrentHashMap<>();
+
+    public void subscribe(Long taskId) {
+        subscriptions.computeIfAbsent(taskId, id -> new AtomicInteger()).incrementAndGet();
+    }
+
+    public void unsubscribe(Long taskId) {
+        subscriptions.computeIfPresent(taskId, (id, count) -> count.decrementAndGet() > 0 ? count : null);
+    }
+
+    public boolean isSubscribed(Long taskId) {
+        return taskId != null && subscriptions.containsKey(taskId);
+    }
+
+    public void task(Long taskId, Byte runStatus, Byte resultStatus, String message) {
+        if (!isSubscribed(taskId)) {
+            return;
+        }
+        publish(ExperimentTaskState.builder()
+                .taskId(taskId)
+                .type(ExperimentTaskStateType.TASK)
+                .id(taskId)
+                .runStatus(runStatus)
+                .resultStatus(resultStatus)
+                .message(message)
+                .build());
+    }
+
+    public void activity(ActivityTask activityTask, Byte runStatus, Byte resultStatus, String message) {
+        if (!isSubscribed(activityTask.getExperimentTaskId())) {
+            return;
+        }
+        publish(ExperimentTaskState.builder()
+                .taskId(activityTask.getExperimentTaskId())
+                .type(ExperimentTaskStateType.ACTIVITY)
+                .id(activityTask.getActivityTaskId())
+                .phase(activityTask.getPhase())
+                .runStatus(runStatus)
+                .resultStatus(resultStatus)
+                .message(message)
+                .build());
+    }
+
+    /**
+     * @param target  hostname-ip or the kubernetes resource of the record
+     * @param success null while running
+     */
+    public void record(ActivityTask activityTask, Long recordId, String target, Boolean success, String message) {
+        if (!isSubscribed(activityTask.getExperimentTaskId())) {
+            return;
+        }
+        publish(ExperimentTaskState.builder()
+                .taskId(activityTask.getExperimentTaskId())
+                .type(ExperimentTaskStateType.RECORD)
+                .id(recordId)
+                .phase(activityTask.getPhase())
+                .success(success)
+                .target(target)
+                .message(message)
+                .build());
+    }
+
+    public void metric(Long taskId, String categoryCode, Object data) {
+        if (!isSubscribed(taskId)) {
+            return;
+        }
+        publish(ExperimentTaskState.builder()
+                .taskId(taskId)
+                .type(ExperimentTaskStateType.METRIC)
+                .target(categoryCode)
+                .data(data)
+                .build());
+    }
+
+    private void publish(ExperimentTaskState state) {
+        state.setTimestamp(System.currentTimeMillis());
+        publisher.publishEvent(new ExperimentTaskStateEvent(this, state));
+    }
+}
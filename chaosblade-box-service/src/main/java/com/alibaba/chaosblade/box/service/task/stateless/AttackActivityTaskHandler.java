@@ -22,6 +22,8 @@ import com.alibaba.chaosblade.box.service.task.ActivityTask;
 import com.alibaba.chaosblade.box.common.constants.ChaosConstant;
 import com.alibaba.chaosblade.box.common.enums.ResultStatus;
 import com.alibaba.chaosblade.box.common.enums.RunStatus;
+import com.alibaba.chaosblade.box.common.trace.Span;
+import com.alibaba.chaosblade.box.common.trace.SpanKind;
 import com.alibaba.chaosblade.box.dao.model.ExperimentActivityTaskDO;
 import com.alibaba.chaosblade.box.dao.model.ExperimentActivityTaskRecordDO;
 import com.alibaba.chaosblade.box.dao.model.ExperimentTaskDO;
@@ -57,6 +59,7 @@ public class AttackActivityTaskHandler extends DefaultActivityTaskPhaseHandler {
 
     @Override
     public void postHandle(ActivityTask activityTask, Throwable e) {
+        Span span = experimentTaskTracer.start(activityTask, SpanKind.DB, "postHandle");
 
         List<ExperimentActivityTaskRecordDO> records = experimentActivityTaskRecordRepository.selectExperimentTaskId(activityTask.getExperimentTaskId());
         long count = records.stream().filter(r ->
@@ -71,14 +74,17 @@ public class AttackActivityTaskHandler extends DefaultActivityTaskPhaseHandler {
                         .errorMessage(e != null ? e.getMessage() : StrUtil.EMPTY)
                         .gmtEnd(DateUtil.date())
                         .build());
+        taskChangeJournal.activity(activityTask.getExperimentTaskId(), activityTask.getActivityTaskId());
 
         if (count > 0) {
-            experimentTaskRepository.updateByPrimaryKey(activityTask.getExperimentTaskId(), ExperimentTaskDO.builder()
+            statisticsService.updateExperimentTask(activityTask.getExperimentTaskId(), ExperimentTaskDO.builder()
                     .resultStatus(ResultStatus.SUCCESS.getValue())
                     .build());
+            span.end(true);
 
             super.postHandle(activityTask, null);
         } else {
+            span.end(true);
             super.postHandle(activityTask, e);
         }
     }
@@ -19,13 +19,18 @@ package com.alibaba.chaosblade.box.service.task.stateless;
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.date.DateUtil;
 import cn.hutool.core.util.StrUtil;
+import com.alibaba.chaosblade.box.service.StatisticsService;
 import com.alibaba.chaosblade.box.service.task.ActivityTask;
 import com.alibaba.chaosblade.box.service.task.ActivityTaskExecuteContext;
 import com.alibaba.chaosblade.box.common.DeviceMeta;
 import com.alibaba.chaosblade.box.common.TaskLogRecord;
 import com.alibaba.chaosblade.box.common.enums.ExperimentDimension;
+import com.alibaba.chaosblade.box.common.enums.ResultStatus;
 import com.alibaba.chaosblade.box.common.enums.RunStatus;
 import com.alibaba.chaosblade.box.common.exception.BizException;
+import com.alibaba.chaosblade.box.common.trace.Span;
+import com.alibaba.chaosblade.box.common.trace.SpanKind;
+import com.alibaba.chaosblade.box.common.trace.TraceContext;
 import com.alibaba.chaosblade.box.common.utils.AnyThrow;
 import com.alibaba.chaosblade.box.dao.model.ExperimentActivityTaskDO;
 import com.alibaba.chaosblade.box.dao.model.ExperimentActivityTaskRecordDO;
@@ -37,7 +42,10 @@ import com.alibaba.chaosblade.box.invoker.http.model.reuest.HttpChannelRequest;
 import com.alibaba.chaosblade.box.invoker.ChaosInvokerStrategyContext;
 import com.alibaba.chaosblade.box.invoker.ResponseCommand;
 import com.alibaba.chaosblade.box.service.task.log.i18n.TaskLogType;
+import com.alibaba.chaosblade.box.service.task.journal.TaskChangeJournal;
+import com.alibaba.chaosblade.box.service.task.listener.ExperimentTaskStatePublisher;
 import com.alibaba.chaosblade.box.service.task.log.i18n.TaskLogUtil;
+import com.alibaba.chaosblade.box.service.task.trace.ExperimentTaskTracer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -80,6 +88,18 @@ public class DefaultActivityTaskPhaseHandler implements ActivityTaskHandler {
     @Autowired
     protected MessageSource messageSource;
 
+    @Autowired
+    protected ExperimentTaskTracer experimentTaskTracer;
+
+    @Autowired
+    protected StatisticsService statisticsService;
+
+    @Autowired
+    protected TaskChangeJournal taskChangeJournal;
+
+    @Autowired
+    protected ExperimentTaskStatePublisher experimentTaskStatePublisher;
+
     @Override
     public boolean preHandle(ActivityTask activityTask) {
         // check status
@@ -112,6 +132,9 @@ public class DefaultActivityTaskPhaseHandler implements ActivityTaskHandler {
                         .activityTaskId(activityTask.getActivityTaskId())
                         .activityId(activityTask.getActivityId())
                         .build());
+                taskChangeJournal.activity(activityTask.getExperimentTaskId(), activityTask.getActivityTaskId());
+                taskChangeJournal.task(activityTask.getExperimentTaskId());
+                experimentTaskStatePublisher.activity(activityTask, RunStatus.RUNNING.getValue(), null, null);
 
                 return true;
             } else {
@@ -130,7 +153,9 @@ public class DefaultActivityTaskPhaseHandler implements ActivityTaskHandler {
         if (!activityTask.canExecuted()) {
             return;
         }
+        traceActivity(activityTask);
 
+        TraceContext traceContext = experimentTaskTracer.context(activityTask);
         List<CompletableFuture<ResponseCommand>> futures = CollUtil.newArrayList();
 
         for (DeviceMeta deviceMeta : activityTask.getDeviceMetas()) {
@@ -147,6 +172,9 @@ public class DefaultActivityTaskPhaseHandler implements ActivityTaskHandler {
                     .phase(activityTask.getPhase())
                     .build();
             experimentActivityTaskRecordRepository.insert(experimentActivityTaskRecordDO);
+            taskChangeJournal.record(activityTask.getExperimentTaskId(), experimentActivityTaskRecordDO.getId());
+            experimentTaskStatePublisher.record(activityTask, experimentActivityTaskRecordDO.getId(),
+                    deviceMeta.getHostname() + "-" + deviceMeta.getIp(), null, null);
 
             ExperimentDimension experimentDimension = activityTask.getExperimentDimension();
             HttpChannelRequest requestCommand = new HttpChannelRequest();
@@ -157,8 +185,11 @@ public class DefaultActivityTaskPhaseHandler implements ActivityTaskHandler {
             requestCommand.setPort(chaosAgentPort);
             requestCommand.setPhase(activityTask.getPhase());
             requestCommand.setSceneCode(activityTask.getSceneCode());
+            requestCommand.setTraceContext(traceContext.withTarget(deviceMeta.getHostname() + "-" + deviceMeta.getIp()));
 
+            Span span = requestCommand.getTraceContext().start(SpanKind.INVOKE, activityTask.getSceneCode());
             CompletableFuture<ResponseCommand> invoke = chaosInvokerStrategyContext.invoke(requestCommand);
+            invoke.whenComplete((result, e) -> span.end(e == null && result.isSuccess()));
             futures.add(invoke.handleAsync((result, e) -> {
                 ExperimentActivityTaskRecordDO record = ExperimentActivityTaskRecordDO.builder().gmtEnd(DateUtil.date()).build();
                 if (e != null) {
@@ -179,6 +210,9 @@ public class DefaultActivityTaskPhaseHandler implements ActivityTaskHandler {
                     }
                 }
                 experimentActivityTaskRecordRepository.updateByPrimaryKey(experimentActivityTaskRecordDO.getId(), record);
+                taskChangeJournal.record(activityTask.getExperimentTaskId(), experimentActivityTaskRecordDO.getId());
+                experimentTaskStatePublisher.record(activityTask, experimentActivityTaskRecordDO.getId(),
+                        deviceMeta.getHostname() + "-" + deviceMeta.getIp(), record.getSuccess(), record.getErrorMessage());
                 TaskLogUtil.info(log, TaskLogType.SUB_EXECUTE_EXECUTING, activityTask.getExperimentTaskId(),
                         activityTask.getPhase(),
                         String.valueOf(activityTask.getActivityTaskId()),
@@ -223,6 +257,9 @@ public class DefaultActivityTaskPhaseHandler implements ActivityTaskHandler {
 
     @Override
     public void postHandle(ActivityTask activityTask, Throwable e) {
+        experimentTaskStatePublisher.activity(activityTask, RunStatus.FINISHED.getValue(),
+                e == null ? ResultStatus.SUCCESS.getValue() : ResultStatus.FAILED.getValue(),
+                e != null ? e.getMessage() : null);
 
         if (e != null) {
             TaskLogUtil.error(log, TaskLogType.SUB_EXECUTE_ERROR, activityTask.getExperimentTaskId(),
@@ -245,7 +282,11 @@ public class DefaultActivityTaskPhaseHandler implements ActivityTaskHandler {
                         String.valueOf(waitOfAfter)
                 );
 
-                activityTaskExecuteContext.timer().newTimeout(timeout -> activityTask.future().complete(null),
+                Span span = experimentTaskTracer.start(activityTask, SpanKind.WAIT, "waitOfAfter");
+                activityTaskExecuteContext.timer().newTimeout(timeout -> {
+                            span.end(true);
+                            activityTask.future().complete(null);
+                        },
                         waitOfAfter,
                         TimeUnit.MILLISECONDS);
             } else {
@@ -254,4 +295,13 @@ public class DefaultActivityTaskPhaseHandler implements ActivityTaskHandler {
         }
     }
 
+    /**
+     * record the activity span, ended when the activity task future completes
+     *
+     * @param activityTask
+     */
+    protected void traceActivity(ActivityTask activityTask) {
+        Span span = experimentTaskTracer.start(activityTask, SpanKind.ACTIVITY, activityTask.getPhase());
+        activityTask.future().whenComplete((r, e) -> span.end(e == null));
+    }
 }
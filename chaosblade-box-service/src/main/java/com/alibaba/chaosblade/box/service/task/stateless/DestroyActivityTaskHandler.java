@@ -27,6 +27,9 @@ import com.alibaba.chaosblade.box.common.constants.ChaosConstant;
 import com.alibaba.chaosblade.box.common.enums.ExperimentDimension;
 import com.alibaba.chaosblade.box.common.enums.RunStatus;
 import com.alibaba.chaosblade.box.common.exception.BizException;
+import com.alibaba.chaosblade.box.common.trace.Span;
+import com.alibaba.chaosblade.box.common.trace.SpanKind;
+import com.alibaba.chaosblade.box.common.trace.TraceContext;
 import com.alibaba.chaosblade.box.common.utils.AnyThrow;
 import com.alibaba.chaosblade.box.dao.model.ExperimentActivityTaskRecordDO;
 import com.alibaba.chaosblade.box.dao.model.ExperimentTaskDO;
@@ -73,6 +76,9 @@ public class DestroyActivityTaskHandler extends DefaultActivityTaskPhaseHandler
         if (!activityTask.canExecuted()) {
             return;
         }
+        traceActivity(activityTask);
+
+        TraceContext traceContext = experimentTaskTracer.context(activityTask);
         String sceneCode = activityTask.getSceneCode();
         List<ExperimentActivityTaskRecordDO> records = experimentActivityTaskRecordRepository.selectBySceneCode(
                 activityTask.getExperimentTaskId(),
@@ -93,6 +99,9 @@ public class DestroyActivityTaskHandler extends DefaultActivityTaskPhaseHandler
                     .phase(activityTask.getPhase())
                     .build();
             experimentActivityTaskRecordRepository.insert(experimentActivityTaskRecordDO);
+            taskChangeJournal.record(activityTask.getExperimentTaskId(), experimentActivityTaskRecordDO.getId());
+            experimentTaskStatePublisher.record(activityTask, experimentActivityTaskRecordDO.getId(),
+                    record.getHostname() + "-" + record.getIp(), null, null);
 
             ExperimentDimension experimentDimension = activityTask.getExperimentDimension();
             HttpChannelRequest requestCommand = new HttpChannelRequest();
@@ -106,8 +115,11 @@ public class DestroyActivityTaskHandler extends DefaultActivityTaskPhaseHandler
             if (record.getSuccess()) {
                 requestCommand.setName(record.getResult());
             }
+            requestCommand.setTraceContext(traceContext.withTarget(record.getHostname() + "-" + record.getIp()));
 
+            Span span = requestCommand.getTraceContext().start(SpanKind.INVOKE, activityTask.getSceneCode());
             CompletableFuture<ResponseCommand> invoke = chaosInvokerStrategyContext.invoke(requestCommand);
+            invoke.whenComplete((result, e) -> span.end(e == null && result.isSuccess()));
             futures.add(invoke.handleAsync((result, e) -> {
                 ExperimentActivityTaskRecordDO recordDO = ExperimentActivityTaskRecordDO.builder().gmtEnd(DateUtil.date()).build();
                 if (e != null) {
@@ -128,6 +140,9 @@ public class DestroyActivityTaskHandler extends DefaultActivityTaskPhaseHandler
                     }
                 }
                 experimentActivityTaskRecordRepository.updateByPrimaryKey(experimentActivityTaskRecordDO.getId(), recordDO);
+                taskChangeJournal.record(activityTask.getExperimentTaskId(), experimentActivityTaskRecordDO.getId());
+                experimentTaskStatePublisher.record(activityTask, experimentActivityTaskRecordDO.getId(),
+                        record.getHostname() + "-" + record.getIp(), recordDO.getSuccess(), recordDO.getErrorMessage());
 
                 TaskLogUtil.info(log, TaskLogType.SUB_EXECUTE_EXECUTING, activityTask.getExperimentTaskId(),
                         activityTask.getPhase(),
@@ -157,6 +172,7 @@ public class DestroyActivityTaskHandler extends DefaultActivityTaskPhaseHandler
     @Override
     public void postHandle(ActivityTask activityTask, Throwable e) {
 
+        Span span = experimentTaskTracer.start(activityTask, SpanKind.DB, "postHandle");
         // update activity task
         experimentActivityTaskRepository.updateByPrimaryKey(activityTask.getActivityTaskId(),
                 ExperimentActivityTaskDO.builder()
@@ -165,6 +181,8 @@ public class DestroyActivityTaskHandler extends DefaultActivityTaskPhaseHandler
                         .errorMessage(e != null ? e.getMessage() : StrUtil.EMPTY)
                         .gmtEnd(DateUtil.date())
                         .build());
+        taskChangeJournal.activity(activityTask.getExperimentTaskId(), activityTask.getActivityTaskId());
+        span.end(true);
 
         super.postHandle(activityTask, e);
     }
@@ -16,31 +16,46 @@
 
 package com.alibaba.chaosblade.box.service.task.stateless;
 
+import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.date.DateUtil;
 import cn.hutool.core.util.StrUtil;
-import com.alibaba.chaosblade.box.dao.model.ClusterDO;
-import com.alibaba.chaosblade.box.dao.repository.ClusterRepository;
+import com.alibaba.chaosblade.box.service.cluster.ClusterRegistry;
 import com.alibaba.chaosblade.box.service.task.ActivityTask;
 import com.alibaba.chaosblade.box.service.task.ActivityTaskExecuteContext;
+import com.alibaba.chaosblade.box.common.DeviceMeta;
 import com.alibaba.chaosblade.box.common.TaskLogRecord;
 import com.alibaba.chaosblade.box.common.constants.ChaosConstant;
 import com.alibaba.chaosblade.box.common.enums.ExperimentDimension;
 import com.alibaba.chaosblade.box.common.exception.BizException;
+import com.alibaba.chaosblade.box.common.trace.Span;
+import com.alibaba.chaosblade.box.common.trace.SpanKind;
 import com.alibaba.chaosblade.box.common.utils.JsonUtils;
 import com.alibaba.chaosblade.box.dao.model.ExperimentActivityTaskRecordDO;
 import com.alibaba.chaosblade.box.dao.repository.ExperimentActivityTaskRecordRepository;
 import com.alibaba.chaosblade.box.dao.repository.ExperimentActivityTaskRepository;
 import com.alibaba.chaosblade.box.dao.repository.ExperimentTaskRepository;
 import com.alibaba.chaosblade.box.invoker.ChaosInvokerStrategyContext;
+import com.alibaba.chaosblade.box.invoker.ClusterHandle;
 import com.alibaba.chaosblade.box.invoker.RequestCommand;
+import com.alibaba.chaosblade.box.invoker.ResponseCommand;
+import com.alibaba.chaosblade.box.invoker.TargetResult;
 import com.alibaba.chaosblade.box.service.task.log.i18n.TaskLogType;
 import com.alibaba.chaosblade.box.service.task.log.i18n.TaskLogUtil;
-import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+
 /**
+ * Attacks kubernetes targets through ChaosBlade CRDs. When the targets are selected by names they can be
+ * sharded into several CRDs, by node or by {@code chaos.kubernetes.shard.size} targets, which are created
+ * concurrently. Per resource statuses of each CRD are mapped back to the device records.
+ *
  * @author yefei
  */
 @Slf4j
@@ -53,6 +68,14 @@ import org.springframework.stereotype.Component;
 })
 public class KubernetesAttackActivityTaskHandler extends AttackActivityTaskHandler {
 
+    private static final String NAMES = "names";
+
+    private static final String CONTAINER_NAMES = "container-names";
+
+    private static final String SHARD_NODE = "node";
+
+    private static final String SHARD_POD = "pod";
+
     @Autowired
     protected ExperimentActivityTaskRecordRepository experimentActivityTaskRecordRepository;
 
@@ -69,13 +92,25 @@ public class KubernetesAttackActivityTaskHandler extends AttackActivityTaskHandl
     private ActivityTaskExecuteContext activityTaskExecuteContext;
 
     @Autowired
-    private ClusterRepository clusterRepository;
+    private ClusterRegistry clusterRegistry;
+
+    /**
+     * none, node or pod
+     */
+    @Value("${chaos.kubernetes.shard.mode:none}")
+    private String shardMode;
+
+    @Value("${chaos.kubernetes.shard.size:50}")
+    private int shardSize;
 
     @Override
     public void handle(ActivityTask activityTask) {
         if (!activityTask.canExecuted()) {
             return;
         }
+        traceActivity(activityTask);
+
+        Map<DeviceMeta, ExperimentActivityTaskRecordDO> records = new LinkedHashMap<>();
         activityTask.getDeviceMetas().forEach((deviceMeta -> {
             ExperimentActivityTaskRecordDO experimentActivityTaskRecordDO = ExperimentActivityTaskRecordDO.builder()
                     .experimentTaskId(activityTask.getExperimentTaskId())
@@ -88,51 +123,90 @@ public class KubernetesAttackActivityTaskHandler extends AttackActivityTaskHandl
                     .gmtStart(DateUtil.date())
                     .phase(activityTask.getPhase())
                     .build();
-            experimentActivityTaskRecordRepository.insert(experimentActivityTaskRecordDO);
+            records.putIfAbsent(deviceMeta, experimentActivityTaskRecordDO);
         }));
+        experimentActivityTaskRecordRepository.saveBatch(records.values());
+        taskChangeJournal.records(activityTask.getExperimentTaskId(), records.values().stream()
+                .map(ExperimentActivityTaskRecordDO::getId).collect(Collectors.toList()));
+        records.values().forEach(record -> experimentTaskStatePublisher.record(activityTask, record.getId(),
+                record.getHostname() + "-" + record.getIp(), null, null));
 
         ExperimentDimension experimentDimension = activityTask.getExperimentDimension();
-        RequestCommand requestCommand = new RequestCommand();
-        requestCommand.setScope(experimentDimension.name().toLowerCase());
-        requestCommand.setPhase(activityTask.getPhase());
-        requestCommand.setSceneCode(activityTask.getSceneCode());
-        requestCommand.setArguments(activityTask.getArguments());
-        requestCommand.setConfig(clusterRepository
-                .selectById(activityTask.getDeviceMetas().get(0).getClusterId())
-                .map(ClusterDO::getConfig)
-                .orElse(null));
-
-        chaosInvokerStrategyContext.invoke(requestCommand).handleAsync((result, e) -> {
+        // an unknown cluster fails the invocations instead of falling back to the default client
+        CompletableFuture<ClusterHandle> cluster = clusterRegistry.resolve(activityTask.getDeviceMetas().get(0).getClusterId());
+
+        List<List<DeviceMeta>> shards = shard(activityTask);
+        List<CompletableFuture<ResponseCommand>> futures = new ArrayList<>(shards.size());
+        for (List<DeviceMeta> shard : shards) {
+            RequestCommand requestCommand = new RequestCommand();
+            requestCommand.setScope(experimentDimension.name().toLowerCase());
+            requestCommand.setPhase(activityTask.getPhase());
+            requestCommand.setSceneCode(activityTask.getSceneCode());
+            requestCommand.setArguments(shards.size() == 1 ? activityTask.getArguments()
+                    : shardArguments(activityTask.getArguments(), experimentDimension, shard));
+            requestCommand.setTraceContext(experimentTaskTracer.context(activityTask));
+
+            Span span = requestCommand.getTraceContext().start(SpanKind.INVOKE, activityTask.getSceneCode());
+            futures.add(cluster.thenCompose(handle -> {
+                requestCommand.setCluster(handle);
+                return chaosInvokerStrategyContext.invoke(requestCommand);
+            }).whenComplete((result, e) -> span.end(e == null && result.isSuccess())));
+        }
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).handleAsync((r, ignore) -> {
+            Throwable e = null;
             try {
-                ExperimentActivityTaskRecordDO record = ExperimentActivityTaskRecordDO.builder().gmtEnd(DateUtil.date()).build();
-                if (e != null) {
-                    record.setSuccess(false);
-                    record.setErrorMessage(e.getMessage());
-                } else {
-                    record.setSuccess(result.isSuccess());
-                    record.setCode(result.getCode());
-                    record.setResult(result.getResult());
-                    record.setErrorMessage(result.getError());
-
-                    if (!result.isSuccess()) {
-                        if (StrUtil.isNotBlank(result.getError())) {
-                            e = new BizException(result.getError());
+                Date now = DateUtil.date();
+                for (int i = 0; i < shards.size(); i++) {
+                    ResponseCommand result = null;
+                    Throwable shardError = null;
+                    try {
+                        result = futures.get(i).join();
+                    } catch (CompletionException exception) {
+                        shardError = exception.getCause();
+                    }
+                    for (DeviceMeta deviceMeta : shards.get(i)) {
+                        ExperimentActivityTaskRecordDO record = records.get(deviceMeta);
+                        record.setGmtEnd(now);
+                        if (shardError != null) {
+                            record.setSuccess(false);
+                            record.setErrorMessage(shardError.getMessage());
+                            continue;
+                        }
+                        record.setCode(result.getCode());
+                        record.setResult(result.getResult());
+                        TargetResult target = match(deviceMeta, experimentDimension, result.getTargets());
+                        if (target != null) {
+                            record.setSuccess(target.isSuccess());
+                            record.setErrorMessage(target.getError());
                         } else {
-                            e = new BizException(result.getResult());
+                            record.setSuccess(result.isSuccess());
+                            record.setErrorMessage(result.getError());
+                        }
+                    }
+
+                    String error = shardError != null ? shardError.getMessage() : result.getError();
+                    TaskLogUtil.info(log, TaskLogType.SUB_EXECUTE_EXECUTING, activityTask.getExperimentTaskId(),
+                            activityTask.getPhase(),
+                            String.valueOf(activityTask.getActivityTaskId()),
+                            JsonUtils.writeValueAsString(shards.get(i)),
+                            String.valueOf(shardError == null && result.isSuccess()),
+                            error
+                    );
+
+                    if (e == null) {
+                        if (shardError != null) {
+                            e = shardError;
+                        } else if (!result.isSuccess()) {
+                            e = new BizException(StrUtil.isNotBlank(error) ? error : result.getResult());
                         }
                     }
                 }
-                UpdateWrapper<ExperimentActivityTaskRecordDO> wrapper = new UpdateWrapper<>();
-                wrapper.lambda().eq(ExperimentActivityTaskRecordDO::getActivityTaskId, activityTask.getActivityTaskId());
-                experimentActivityTaskRecordRepository.update(record, wrapper);
-
-                TaskLogUtil.info(log, TaskLogType.SUB_EXECUTE_EXECUTING, activityTask.getExperimentTaskId(),
-                        activityTask.getPhase(),
-                        String.valueOf(activityTask.getActivityTaskId()),
-                        JsonUtils.writeValueAsString(activityTask.getDeviceMetas()),
-                        String.valueOf(record.getSuccess()),
-                        record.getErrorMessage()
-                );
+                experimentActivityTaskRecordRepository.updateBatchById(records.values());
+                taskChangeJournal.records(activityTask.getExperimentTaskId(), records.values().stream()
+                        .map(ExperimentActivityTaskRecordDO::getId).collect(Collectors.toList()));
+                records.values().forEach(record -> experimentTaskStatePublisher.record(activityTask, record.getId(),
+                        record.getHostname() + "-" + record.getIp(), record.getSuccess(), record.getErrorMessage()));
 
             } catch (Exception exception) {
                 e = exception;
@@ -145,4 +219,75 @@ public class KubernetesAttackActivityTaskHandler extends AttackActivityTaskHandl
         activityTaskExecuteContext.fireExecute(activityTask.getActivityTaskExecutePipeline());
     }
 
+    /**
+     * only targets selected by names can be sharded, selections such as labels are left to a single CRD
+     */
+    private List<List<DeviceMeta>> shard(ActivityTask activityTask) {
+        List<DeviceMeta> deviceMetas = activityTask.getDeviceMetas().stream().distinct().collect(Collectors.toList());
+        Map<String, String> arguments = activityTask.getArguments();
+        if (arguments == null || StrUtil.isBlank(arguments.get(NAMES))) {
+            return Collections.singletonList(deviceMetas);
+        }
+        switch (shardMode) {
+            case SHARD_NODE:
+                return new ArrayList<>(deviceMetas.stream().collect(Collectors.groupingBy(
+                        deviceMeta -> StrUtil.nullToEmpty(deviceMeta.getNodeName()),
+                        LinkedHashMap::new,
+                        Collectors.toList())).values());
+            case SHARD_POD:
+                // containers of a pod stay in one shard, a pod is never targeted by two CRDs
+                List<List<DeviceMeta>> pods = new ArrayList<>(deviceMetas.stream().collect(Collectors.groupingBy(
+                        deviceMeta -> StrUtil.nullToEmpty(deviceMeta.getPodName()),
+                        LinkedHashMap::new,
+                        Collectors.toList())).values());
+                return CollUtil.split(pods, Math.max(shardSize, 1)).stream()
+                        .map(shard -> shard.stream().flatMap(List::stream).collect(Collectors.toList()))
+                        .collect(Collectors.toList());
+            default:
+                return Collections.singletonList(deviceMetas);
+        }
+    }
+
+    private Map<String, String> shardArguments(Map<String, String> arguments, ExperimentDimension experimentDimension,
+                                               List<DeviceMeta> shard) {
+        Map<String, String> shardArguments = new HashMap<>(arguments);
+        shardArguments.put(NAMES, shard.stream()
+                .map(deviceMeta -> experimentDimension == ExperimentDimension.NODE ? deviceMeta.getNodeName() : deviceMeta.getPodName())
+                .distinct()
+                .collect(Collectors.joining(",")));
+        if (experimentDimension == ExperimentDimension.CONTAINER && StrUtil.isNotBlank(arguments.get(CONTAINER_NAMES))) {
+            String containerNames = shard.stream()
+                    .map(DeviceMeta::getContainerName)
+                    .filter(StrUtil::isNotBlank)
+                    .distinct()
+                    .collect(Collectors.joining(","));
+            if (StrUtil.isNotBlank(containerNames)) {
+                shardArguments.put(CONTAINER_NAMES, containerNames);
+            }
+        }
+        return shardArguments;
+    }
+
+    private TargetResult match(DeviceMeta deviceMeta, ExperimentDimension experimentDimension, List<TargetResult> targets) {
+        if (CollUtil.isEmpty(targets)) {
+            return null;
+        }
+        String name = experimentDimension == ExperimentDimension.NODE ? deviceMeta.getNodeName() : deviceMeta.getPodName();
+        if (StrUtil.isBlank(name)) {
+            return null;
+        }
+        for (TargetResult target : targets) {
+            List<String> segments = StrUtil.split(target.getIdentifier(), '/');
+            if (!segments.contains(name)) {
+                continue;
+            }
+            if (experimentDimension == ExperimentDimension.CONTAINER && StrUtil.isNotBlank(deviceMeta.getContainerName())
+                    && !segments.contains(deviceMeta.getContainerName())) {
+                continue;
+            }
+            return target;
+        }
+        return null;
+    }
+
 }
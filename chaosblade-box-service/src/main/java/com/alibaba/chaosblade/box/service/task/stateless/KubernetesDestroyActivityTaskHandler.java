@@ -18,29 +18,33 @@ package com.alibaba.chaosblade.box.service.task.stateless;
 
 import cn.hutool.core.date.DateUtil;
 import cn.hutool.core.util.StrUtil;
-import com.alibaba.chaosblade.box.common.utils.JsonUtils;
-import com.alibaba.chaosblade.box.dao.model.ClusterDO;
-import com.alibaba.chaosblade.box.dao.repository.ClusterRepository;
+import com.alibaba.chaosblade.box.service.cluster.ClusterRegistry;
 import com.alibaba.chaosblade.box.service.task.ActivityTask;
 import com.alibaba.chaosblade.box.service.task.ActivityTaskExecuteContext;
 import com.alibaba.chaosblade.box.common.TaskLogRecord;
 import com.alibaba.chaosblade.box.common.constants.ChaosConstant;
 import com.alibaba.chaosblade.box.common.enums.ExperimentDimension;
 import com.alibaba.chaosblade.box.common.exception.BizException;
+import com.alibaba.chaosblade.box.common.trace.Span;
+import com.alibaba.chaosblade.box.common.trace.SpanKind;
 import com.alibaba.chaosblade.box.dao.model.ExperimentActivityTaskRecordDO;
 import com.alibaba.chaosblade.box.dao.repository.ExperimentActivityTaskRecordRepository;
 import com.alibaba.chaosblade.box.dao.repository.ExperimentActivityTaskRepository;
 import com.alibaba.chaosblade.box.dao.repository.ExperimentTaskRepository;
 import com.alibaba.chaosblade.box.invoker.ChaosInvokerStrategyContext;
+import com.alibaba.chaosblade.box.invoker.ClusterHandle;
 import com.alibaba.chaosblade.box.invoker.RequestCommand;
+import com.alibaba.chaosblade.box.invoker.ResponseCommand;
 import com.alibaba.chaosblade.box.service.task.log.i18n.TaskLogType;
 import com.alibaba.chaosblade.box.service.task.log.i18n.TaskLogUtil;
-import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
 
 /**
  * @author yefei
@@ -71,13 +75,14 @@ public class KubernetesDestroyActivityTaskHandler extends DestroyActivityTaskHan
     private ActivityTaskExecuteContext activityTaskExecuteContext;
 
     @Autowired
-    private ClusterRepository clusterRepository;
+    private ClusterRegistry clusterRegistry;
 
     @Override
     public void handle(ActivityTask activityTask) {
         if (!activityTask.canExecuted()) {
             return;
         }
+        traceActivity(activityTask);
 
         String sceneCode = activityTask.getSceneCode();
         List<ExperimentActivityTaskRecordDO> records = experimentActivityTaskRecordRepository.selectBySceneCode(
@@ -85,6 +90,9 @@ public class KubernetesDestroyActivityTaskHandler extends DestroyActivityTaskHan
                 sceneCode.replace(".stop", "")
         );
 
+        // an attack may be sharded into several CRDs, named by the attack records' result
+        Map<String, List<ExperimentActivityTaskRecordDO>> shards = new LinkedHashMap<>();
+        List<ExperimentActivityTaskRecordDO> destroyRecords = new ArrayList<>(records.size());
         records.forEach(record -> {
             ExperimentActivityTaskRecordDO experimentActivityTaskRecordDO = ExperimentActivityTaskRecordDO.builder()
                     .experimentTaskId(activityTask.getExperimentTaskId())
@@ -97,53 +105,100 @@ public class KubernetesDestroyActivityTaskHandler extends DestroyActivityTaskHan
                     .gmtStart(DateUtil.date())
                     .phase(activityTask.getPhase())
                     .build();
-            experimentActivityTaskRecordRepository.insert(experimentActivityTaskRecordDO);
+            destroyRecords.add(experimentActivityTaskRecordDO);
+            if (StrUtil.isBlank(record.getResult())) {
+                // the attack created no CRD for the target, nothing to delete
+                experimentActivityTaskRecordDO.setGmtEnd(DateUtil.date());
+                experimentActivityTaskRecordDO.setSuccess(false);
+                experimentActivityTaskRecordDO.setErrorMessage("no chaosblade resource of the attack");
+                return;
+            }
+            shards.computeIfAbsent(record.getResult(), k -> new ArrayList<>())
+                    .add(experimentActivityTaskRecordDO);
         });
+        experimentActivityTaskRecordRepository.saveBatch(destroyRecords);
+        taskChangeJournal.records(activityTask.getExperimentTaskId(), destroyRecords.stream()
+                .map(ExperimentActivityTaskRecordDO::getId).collect(Collectors.toList()));
+        destroyRecords.forEach(record -> experimentTaskStatePublisher.record(activityTask, record.getId(),
+                record.getHostname() + "-" + record.getIp(), record.getSuccess(), record.getErrorMessage()));
 
         ExperimentDimension experimentDimension = activityTask.getExperimentDimension();
-        RequestCommand requestCommand = new RequestCommand();
-        requestCommand.setScope(experimentDimension.name().toLowerCase());
-        requestCommand.setPhase(activityTask.getPhase());
-        requestCommand.setSceneCode(activityTask.getSceneCode());
-        requestCommand.setArguments(activityTask.getArguments());
-        requestCommand.setName(records.get(0).getResult());
-        requestCommand.setConfig(clusterRepository
-                .selectById(activityTask.getDeviceMetas().get(0).getClusterId())
-                .map(ClusterDO::getConfig)
-                .orElse(null));
-
-        chaosInvokerStrategyContext.invoke(requestCommand).handleAsync((result, e) -> {
+        // an unknown cluster fails the invocations instead of falling back to the default client
+        CompletableFuture<ClusterHandle> cluster = clusterRegistry.resolve(activityTask.getDeviceMetas().get(0).getClusterId());
+
+        List<String> names = new ArrayList<>(shards.keySet());
+        List<CompletableFuture<ResponseCommand>> futures = new ArrayList<>(names.size());
+        for (String name : names) {
+            RequestCommand requestCommand = new RequestCommand();
+            requestCommand.setScope(experimentDimension.name().toLowerCase());
+            requestCommand.setPhase(activityTask.getPhase());
+            requestCommand.setSceneCode(activityTask.getSceneCode());
+            requestCommand.setArguments(activityTask.getArguments());
+            requestCommand.setName(name);
+            requestCommand.setTraceContext(experimentTaskTracer.context(activityTask));
+
+            Span span = requestCommand.getTraceContext().start(SpanKind.INVOKE, activityTask.getSceneCode());
+            futures.add(cluster.thenCompose(handle -> {
+                requestCommand.setCluster(handle);
+                return chaosInvokerStrategyContext.invoke(requestCommand);
+            }).whenComplete((result, e) -> span.end(e == null && result.isSuccess())));
+        }
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).handleAsync((r, ignore) -> {
+            Throwable e = null;
             try {
-                ExperimentActivityTaskRecordDO record = ExperimentActivityTaskRecordDO.builder().gmtEnd(DateUtil.date()).build();
-                if (e != null) {
-                    record.setSuccess(false);
-                    record.setErrorMessage(e.getMessage());
-                } else {
-                    record.setSuccess(result.isSuccess());
-                    record.setCode(result.getCode());
-                    record.setResult(result.getResult());
-                    record.setErrorMessage(result.getError());
-
-                    if (!result.isSuccess()) {
-                        if (StrUtil.isNotBlank(result.getError())) {
-                            e = new BizException(result.getError());
+                Date now = DateUtil.date();
+                for (int i = 0; i < names.size(); i++) {
+                    ResponseCommand result = null;
+                    Throwable shardError = null;
+                    try {
+                        result = futures.get(i).join();
+                    } catch (CompletionException exception) {
+                        shardError = exception.getCause();
+                    }
+                    for (ExperimentActivityTaskRecordDO record : shards.get(names.get(i))) {
+                        record.setGmtEnd(now);
+                        if (shardError != null) {
+                            record.setSuccess(false);
+                            record.setErrorMessage(shardError.getMessage());
                         } else {
-                            e = new BizException(result.getResult());
+                            record.setSuccess(result.isSuccess());
+                            record.setCode(result.getCode());
+                            record.setResult(result.getResult());
+                            record.setErrorMessage(result.getError());
                         }
                     }
-                }
 
-                UpdateWrapper<ExperimentActivityTaskRecordDO> wrapper = new UpdateWrapper<>();
-                wrapper.lambda().eq(ExperimentActivityTaskRecordDO::getActivityTaskId, activityTask.getActivityTaskId());
-                experimentActivityTaskRecordRepository.update(record, wrapper);
-
-                TaskLogUtil.info(log, TaskLogType.SUB_EXECUTE_EXECUTING, activityTask.getExperimentTaskId(),
-                        activityTask.getPhase(),
-                        String.valueOf(activityTask.getActivityTaskId()),
-                        JsonUtils.writeValueAsString(activityTask.getDeviceMetas()),
-                        String.valueOf(record.getSuccess()),
-                        record.getErrorMessage()
-                );
+                    String error = shardError != null ? shardError.getMessage() : result.getError();
+                    TaskLogUtil.info(log, TaskLogType.SUB_EXECUTE_EXECUTING, activityTask.getExperimentTaskId(),
+                            activityTask.getPhase(),
+                            String.valueOf(activityTask.getActivityTaskId()),
+                            names.get(i),
+                            String.valueOf(shardError == null && result.isSuccess()),
+                            error
+                    );
+
+                    if (e == null) {
+                        if (shardError != null) {
+                            e = shardError;
+                        } else if (!result.isSuccess()) {
+                            e = new BizException(StrUtil.isNotBlank(error) ? error : result.getResult());
+                        }
+                    }
+                }
+                if (e == null) {
+                    // targets without a resource of the attack are failed before any invocation
+                    e = destroyRecords.stream()
+                            .filter(record -> Boolean.FALSE.equals(record.getSuccess()))
+                            .findFirst()
+                            .map(record -> new BizException(record.getErrorMessage()))
+                            .orElse(null);
+                }
+                experimentActivityTaskRecordRepository.updateBatchById(destroyRecords);
+                taskChangeJournal.records(activityTask.getExperimentTaskId(), destroyRecords.stream()
+                        .map(ExperimentActivityTaskRecordDO::getId).collect(Collectors.toList()));
+                destroyRecords.forEach(record -> experimentTaskStatePublisher.record(activityTask, record.getId(),
+                        record.getHostname() + "-" + record.getIp(), record.getSuccess(), record.getErrorMessage()));
 
             } catch (Exception exception) {
                 e = exception;
@@ -22,6 +22,8 @@ import com.alibaba.chaosblade.box.common.TaskLogRecord;
 import com.alibaba.chaosblade.box.common.constants.ChaosConstant;
 import com.alibaba.chaosblade.box.common.enums.ResultStatus;
 import com.alibaba.chaosblade.box.common.enums.RunStatus;
+import com.alibaba.chaosblade.box.common.trace.Span;
+import com.alibaba.chaosblade.box.common.trace.SpanKind;
 import com.alibaba.chaosblade.box.dao.model.ExperimentActivityTaskDO;
 import com.alibaba.chaosblade.box.dao.model.ExperimentActivityTaskRecordDO;
 import com.alibaba.chaosblade.box.dao.model.ExperimentTaskDO;
@@ -43,6 +45,7 @@ public class PrepareActivityTaskHandler extends DefaultActivityTaskPhaseHandler
 
     @Override
     public void postHandle(ActivityTask activityTask, Throwable e) {
+        Span span = experimentTaskTracer.start(activityTask, SpanKind.DB, "postHandle");
         List<ExperimentActivityTaskRecordDO> records = experimentActivityTaskRecordRepository.selectExperimentTaskId(activityTask.getExperimentTaskId());
         long count = records.stream().filter(r ->
                 r.getPhase().equals(ChaosConstant.PHASE_PREPARE)
@@ -56,14 +59,17 @@ public class PrepareActivityTaskHandler extends DefaultActivityTaskPhaseHandler
                         .errorMessage(e != null ? e.getMessage() : StrUtil.EMPTY)
                         .gmtEnd(DateUtil.date())
                         .build());
+        taskChangeJournal.activity(activityTask.getExperimentTaskId(), activityTask.getActivityTaskId());
 
         if (count > 0) {
-            experimentTaskRepository.updateByPrimaryKey(activityTask.getExperimentTaskId(), ExperimentTaskDO.builder()
+            statisticsService.updateExperimentTask(activityTask.getExperimentTaskId(), ExperimentTaskDO.builder()
                     .resultStatus(ResultStatus.SUCCESS.getValue())
                     .build());
+            span.end(true);
 
             super.postHandle(activityTask, null);
         } else {
+            span.end(true);
             super.postHandle(activityTask, e);
         }
     }
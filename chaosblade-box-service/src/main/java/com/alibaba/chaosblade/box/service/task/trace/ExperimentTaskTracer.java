@@ -0,0 +1,174 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.chaosblade.box.service.task.trace;
+
+import com.alibaba.chaosblade.box.common.trace.Span;
+import com.alibaba.chaosblade.box.common.trace.SpanKind;
+import com.alibaba.chaosblade.box.common.trace.SpanRecorder;
+import com.alibaba.chaosblade.box.common.trace.TraceContext;
+import com.alibaba.chaosblade.box.dao.model.ExperimentTaskSpanDO;
+import com.alibaba.chaosblade.box.dao.repository.ExperimentTaskSpanRepository;
+import com.alibaba.chaosblade.box.service.task.ActivityTask;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Buffers ended spans in memory and flushes them in batches, the task threads never touch the database.
+ * Spans older than chaos.trace.task.retention-days are purged hourly.
+ *
+ * @author yefei
+ */
+@Slf4j
+@Component
+public class ExperimentTaskTracer implements SpanRecorder, InitializingBean, DisposableBean {
+
+    private static final int MAX_PENDING = 10000;
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final int PURGE_BATCH_SIZE = 5000;
+
+    @Autowired
+    private ExperimentTaskSpanRepository experimentTaskSpanRepository;
+
+    @Value("${chaos.trace.task.enabled:true}")
+    private boolean enable;
+
+    @Value("${chaos.trace.task.retention-days:7}")
+    private int retentionDays;
+
+    private final Queue<ExperimentTaskSpanDO> pending = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger pendingSize = new AtomicInteger();
+
+    private ScheduledExecutorService scheduledExecutorService;
+
+    public TraceContext context(ActivityTask activityTask) {
+        if (!enable) {
+            return TraceContext.NOOP;
+        }
+        return new TraceContext(activityTask.getExperimentTaskId(), activityTask.getActivityTaskId(), null, this);
+    }
+
+    public Span start(ActivityTask activityTask, SpanKind kind, String name) {
+        return context(activityTask).start(kind, name);
+    }
+
+    public Span startTask(Long taskId, String name) {
+        if (!enable) {
+            return TraceContext.NOOP.start(SpanKind.TASK, name);
+        }
+        return new TraceContext(taskId, null, null, this).start(SpanKind.TASK, name);
+    }
+
+    @Override
+    public void record(Span span) {
+        if (span.getTaskId() == null) {
+            return;
+        }
+        if (pendingSize.incrementAndGet() > MAX_PENDING) {
+            pendingSize.decrementAndGet();
+            log.warn("too many pending spans, drop span: {}, task id: {}", span.getName(), span.getTaskId());
+            return;
+        }
+        pending.offer(ExperimentTaskSpanDO.builder()
+                .taskId(span.getTaskId())
+                .activityTaskId(span.getActivityTaskId())
+                .kind(span.getKind().getValue())
+                .name(span.getName())
+                .target(span.getTarget())
+                .startNanos(span.getStartNanos())
+                .durationNanos(span.getDurationNanos())
+                .success(span.isSuccess())
+                .build());
+    }
+
+    private void flush() {
+        try {
+            List<ExperimentTaskSpanDO> batch = new ArrayList<>(BATCH_SIZE);
+            ExperimentTaskSpanDO spanDO;
+            while ((spanDO = pending.poll()) != null) {
+                pendingSize.decrementAndGet();
+                batch.add(spanDO);
+                if (batch.size() >= BATCH_SIZE) {
+                    experimentTaskSpanRepository.saveBatch(batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                experimentTaskSpanRepository.saveBatch(batch);
+            }
+        } catch (Exception e) {
+            log.error("flush experiment task spans error!", e);
+        }
+    }
+
+    private void purge() {
+        try {
+            long before = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(retentionDays));
+            int deleted;
+            int total = 0;
+            do {
+                deleted = experimentTaskSpanRepository.deleteBefore(before, PURGE_BATCH_SIZE);
+                total += deleted;
+            } while (deleted >= PURGE_BATCH_SIZE);
+            if (total > 0) {
+                log.info("purge experiment task spans older than {} days, deleted: {}", retentionDays, total);
+            }
+        } catch (Exception e) {
+            log.error("purge experiment task spans error!", e);
+        }
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!enable) {
+            return;
+        }
+        scheduledExecutorService = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r);
+            thread.setDaemon(true);
+            thread.setName("EXPERIMENT-TASK-TRACER");
+            return thread;
+        });
+        scheduledExecutorService.scheduleWithFixedDelay(this::flush, 1, 1, TimeUnit.SECONDS);
+        if (retentionDays > 0) {
+            scheduledExecutorService.scheduleWithFixedDelay(this::purge, 1, 60, TimeUnit.MINUTES);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (scheduledExecutorService != null) {
+            scheduledExecutorService.shutdown();
+            flush();
+        }
+    }
+}
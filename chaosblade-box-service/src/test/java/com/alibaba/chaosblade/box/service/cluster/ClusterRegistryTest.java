@@ -0,0 +1,92 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.chaosblade.box.service.cluster;
+
+import com.alibaba.chaosblade.box.common.exception.BizException;
+import com.alibaba.chaosblade.box.dao.model.ClusterDO;
+import com.alibaba.chaosblade.box.dao.repository.ClusterRepository;
+import com.alibaba.chaosblade.box.invoker.ClusterHandle;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+
+/**
+ * @author yefei
+ */
+public class ClusterRegistryTest {
+
+    private ClusterRegistry clusterRegistry;
+
+    private ClusterRepository clusterRepository;
+
+    @Before
+    public void setUp() {
+        clusterRegistry = new ClusterRegistry();
+        clusterRepository = Mockito.mock(ClusterRepository.class);
+        ReflectionTestUtils.setField(clusterRegistry, "clusterRepository", clusterRepository);
+        ReflectionTestUtils.setField(clusterRegistry, "ttl", 300000L);
+    }
+
+    @Test
+    public void cached() {
+        Mockito.when(clusterRepository.selectById(1L)).thenReturn(Optional.of(ClusterDO.builder().config("config").build()));
+        ClusterHandle handle = clusterRegistry.get(1L).orElse(null);
+        Assert.assertNotNull(handle);
+        Assert.assertSame(handle, clusterRegistry.get(1L).orElse(null));
+        Mockito.verify(clusterRepository, Mockito.times(1)).selectById(1L);
+    }
+
+    @Test
+    public void missingIsNotCached() {
+        Mockito.when(clusterRepository.selectById(1L)).thenReturn(Optional.empty());
+        Assert.assertFalse(clusterRegistry.get(1L).isPresent());
+
+        Mockito.when(clusterRepository.selectById(1L)).thenReturn(Optional.of(ClusterDO.builder().config("config").build()));
+        Assert.assertTrue(clusterRegistry.get(1L).isPresent());
+        Mockito.verify(clusterRepository, Mockito.times(2)).selectById(1L);
+    }
+
+    @Test
+    public void resolveMissingFails() {
+        Mockito.when(clusterRepository.selectById(1L)).thenReturn(Optional.empty());
+        try {
+            clusterRegistry.resolve(1L).join();
+            Assert.fail();
+        } catch (CompletionException e) {
+            Assert.assertTrue(e.getCause() instanceof BizException);
+        }
+    }
+
+    @Test
+    public void resolveDefault() {
+        Assert.assertNull(clusterRegistry.resolve(null).join());
+        Mockito.verifyZeroInteractions(clusterRepository);
+    }
+
+    @Test
+    public void refresh() {
+        clusterRegistry.refresh(1L, "config");
+        Assert.assertEquals("config", clusterRegistry.get(1L).map(ClusterHandle::getConfig).orElse(null));
+        Mockito.verifyZeroInteractions(clusterRepository);
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.chaosblade.box.service.probes;
+
+import com.alibaba.chaosblade.box.common.enums.DeviceStatus;
+import com.alibaba.chaosblade.box.dao.model.ProbesDO;
+import com.alibaba.chaosblade.box.dao.repository.ProbesRepository;
+import com.alibaba.chaosblade.box.service.probes.model.ProbesInstallStage;
+import com.alibaba.chaosblade.box.toolsmgr.api.Response;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author yefei
+ */
+public class ProbesInstallSchedulerTest {
+
+    private final List<ProbesInstallProgressEvent> events = new CopyOnWriteArrayList<>();
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private ProbesInstallScheduler scheduler;
+
+    private ProbesRepository probesRepository;
+
+    @Before
+    public void setUp() {
+        scheduler = new ProbesInstallScheduler();
+        probesRepository = Mockito.mock(ProbesRepository.class);
+        ReflectionTestUtils.setField(scheduler, "concurrency", 1);
+        ReflectionTestUtils.setField(scheduler, "queueSize", 1);
+        ReflectionTestUtils.setField(scheduler, "probesRepository", probesRepository);
+        ReflectionTestUtils.setField(scheduler, "publisher", (ApplicationEventPublisher) event ->
+                events.add((ProbesInstallProgressEvent) event));
+        scheduler.afterPropertiesSet();
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        scheduler.destroy();
+    }
+
+    @Test
+    public void installed() throws Exception {
+        CountDownLatch deployed = new CountDownLatch(1);
+        scheduler.install(1L, "10.0.0.1", () -> {
+            deployed.countDown();
+            return Response.ofSuccess("ok");
+        });
+        Assert.assertTrue(deployed.await(5, TimeUnit.SECONDS));
+        waitForStage(ProbesInstallStage.DEPLOYED);
+        Mockito.verifyZeroInteractions(probesRepository);
+    }
+
+    @Test
+    public void rejectedFollowUpJobFailsProbe() throws Exception {
+        fillQueue();
+
+        Runnable followUp = Mockito.mock(Runnable.class);
+        scheduler.execute(3L, "10.0.0.3", followUp);
+
+        ArgumentCaptor<ProbesDO> probe = ArgumentCaptor.forClass(ProbesDO.class);
+        Mockito.verify(probesRepository).updateByPrimaryKey(Mockito.eq(3L), probe.capture());
+        Assert.assertEquals(Byte.valueOf(DeviceStatus.INSTALL_FAIL.getStatus()), probe.getValue().getStatus());
+        Assert.assertEquals("10.0.0.3", probe.getValue().getIp());
+        ProbesInstallProgressEvent event = events.get(events.size() - 1);
+        Assert.assertEquals(Long.valueOf(3L), event.getProbeId());
+        Assert.assertEquals(ProbesInstallStage.FAILED, event.getStage());
+        Mockito.verifyZeroInteractions(followUp);
+    }
+
+    @Test
+    public void rejectedInstallFailsProbe() throws Exception {
+        fillQueue();
+
+        scheduler.install(3L, "10.0.0.3", () -> Response.ofSuccess("ok"));
+
+        ArgumentCaptor<ProbesDO> probe = ArgumentCaptor.forClass(ProbesDO.class);
+        Mockito.verify(probesRepository).updateByPrimaryKey(Mockito.eq(3L), probe.capture());
+        Assert.assertEquals(Byte.valueOf(DeviceStatus.INSTALL_FAIL.getStatus()), probe.getValue().getStatus());
+        Assert.assertEquals(ProbesInstallStage.FAILED, events.get(events.size() - 1).getStage());
+    }
+
+    /**
+     * blocks the only thread and fills the queue of one
+     */
+    private void fillQueue() throws InterruptedException {
+        CountDownLatch running = new CountDownLatch(1);
+        scheduler.execute(1L, "10.0.0.1", () -> {
+            running.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Assert.assertTrue(running.await(5, TimeUnit.SECONDS));
+        scheduler.execute(2L, "10.0.0.2", () -> {
+        });
+    }
+
+    private void waitForStage(ProbesInstallStage stage) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (events.stream().noneMatch(event -> event.getStage() == stage)) {
+            Assert.assertTrue(System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.chaosblade.box.service.task;
+
+import com.alibaba.chaosblade.box.common.DeviceMeta;
+import com.alibaba.chaosblade.box.common.enums.ExperimentDimension;
+import com.alibaba.chaosblade.box.common.utils.JsonUtils;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+
+/**
+ * @author yefei
+ */
+public class ActivityTaskDefinitionsTest {
+
+    private ActivityTaskDefinitions activityTaskDefinitions;
+
+    private String definition;
+
+    @Before
+    public void setUp() {
+        activityTaskDefinitions = new ActivityTaskDefinitions();
+        ReflectionTestUtils.setField(activityTaskDefinitions, "cacheSize", 16);
+        activityTaskDefinitions.afterPropertiesSet();
+
+        ActivityTask activityTask = new ActivityTask();
+        activityTask.setFlowId(1L);
+        activityTask.setExperimentTaskId(2L);
+        activityTask.setActivityId(3L);
+        activityTask.setActivityTaskId(4L);
+        activityTask.setPreActivityTaskId(5L);
+        activityTask.setNextActivityTaskId(6L);
+        activityTask.setSceneId(7L);
+        activityTask.setSceneCode("chaosblade.cpu.fullload");
+        activityTask.setPhase("attack");
+        activityTask.setTarget("cpu");
+        activityTask.setAction("fullload");
+        activityTask.setManualChecked(true);
+        activityTask.setWaitOfBefore(8L);
+        activityTask.setWaitOfAfter(9L);
+        activityTask.setArguments(new HashMap<>(Collections.singletonMap("cpu-percent", "80")));
+        activityTask.setExperimentDimension(ExperimentDimension.HOST);
+        activityTask.setDeviceMetas(new ArrayList<>(Collections.singletonList(
+                DeviceMeta.builder().deviceId(10L).ip("127.0.0.1").hostname("localhost").build())));
+        activityTask.setRetry(true);
+        definition = JsonUtils.writeValueAsString(activityTask);
+    }
+
+    @Test
+    public void copyIsComplete() throws Exception {
+        ActivityTask parsed = JsonUtils.readValue(ActivityTask.class, definition);
+        activityTaskDefinitions.parse(definition);
+        ActivityTask cached = activityTaskDefinitions.parse(definition);
+        for (Field field : ActivityTask.class.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers()) || field.isAnnotationPresent(JsonIgnore.class)) {
+                continue;
+            }
+            field.setAccessible(true);
+            Assert.assertNotNull(field.getName(), field.get(parsed));
+            Assert.assertEquals(field.getName(), field.get(parsed), field.get(cached));
+        }
+    }
+
+    @Test
+    public void copiesAreIsolated() {
+        ActivityTask first = activityTaskDefinitions.parse(definition);
+        first.getArguments().put("timeout", "60");
+        first.getDeviceMetas().get(0).setIp("127.0.0.2");
+        first.getDeviceMetas().add(new DeviceMeta());
+        first.setActivityTaskId(40L);
+        first.setActivityTaskExecutePipeline(new ActivityTaskExecutePipeline());
+        Assert.assertTrue(first.canExecuted());
+        first.future().complete(null);
+
+        ActivityTask second = activityTaskDefinitions.parse(definition);
+        Assert.assertEquals(Collections.singletonMap("cpu-percent", "80"), second.getArguments());
+        Assert.assertEquals(1, second.getDeviceMetas().size());
+        Assert.assertEquals("127.0.0.1", second.getDeviceMetas().get(0).getIp());
+        Assert.assertEquals(Long.valueOf(4L), second.getActivityTaskId());
+        Assert.assertNull(second.getActivityTaskExecutePipeline());
+        Assert.assertTrue(second.canExecuted());
+        Assert.assertFalse(second.future().isDone());
+    }
+
+    @Test
+    public void nullDefinition() {
+        Assert.assertNull(activityTaskDefinitions.parse(null));
+    }
+}
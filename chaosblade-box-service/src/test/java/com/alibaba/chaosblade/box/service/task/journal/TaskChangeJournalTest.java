@@ -0,0 +1,109 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.chaosblade.box.service.task.journal;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+/**
+ * @author yefei
+ */
+public class TaskChangeJournalTest {
+
+    private TaskChangeJournal journal;
+
+    @Before
+    public void before() {
+        journal = new TaskChangeJournal();
+        ReflectionTestUtils.setField(journal, "capacity", 3);
+        ReflectionTestUtils.setField(journal, "ttl", 1800000L);
+    }
+
+    @Test
+    public void changesSinceVersion() {
+        TaskChanges first = journal.since(1L, null);
+        Assert.assertTrue(first.isReset());
+
+        journal.task(1L);
+        journal.activity(1L, 10L);
+        journal.log(1L, 100L, "a");
+        journal.activity(2L, 20L);
+
+        TaskChanges changes = journal.since(1L, first.getVersion());
+        Assert.assertFalse(changes.isReset());
+        Assert.assertTrue(changes.isTaskChanged());
+        Assert.assertEquals(Arrays.asList(10L), Arrays.asList(changes.getActivityTaskIds().toArray()));
+        Assert.assertEquals(Arrays.asList("a"), changes.getLogs());
+
+        TaskChanges none = journal.since(1L, changes.getVersion());
+        Assert.assertFalse(none.isReset());
+        Assert.assertFalse(none.isTaskChanged());
+        Assert.assertTrue(none.getActivityTaskIds().isEmpty());
+    }
+
+    @Test
+    public void resetBelowFloor() {
+        long version = journal.since(1L, null).getVersion();
+        journal.record(1L, 1L);
+        long afterFirst = journal.since(1L, version).getVersion();
+        journal.record(1L, 2L);
+        journal.record(1L, 3L);
+        journal.record(1L, 4L);
+
+        // the first record was evicted by the capacity
+        Assert.assertTrue(journal.since(1L, version).isReset());
+        TaskChanges changes = journal.since(1L, afterFirst);
+        Assert.assertFalse(changes.isReset());
+        Assert.assertEquals(new HashSet<>(Arrays.asList(2L, 3L, 4L)), changes.getRecordIds());
+    }
+
+    @Test
+    public void unknownTask() {
+        long version = journal.since(1L, null).getVersion();
+        journal.task(2L);
+
+        TaskChanges changes = journal.since(1L, version);
+        Assert.assertFalse(changes.isReset());
+        Assert.assertFalse(changes.isTaskChanged());
+        Assert.assertTrue(journal.since(1L, null).isReset());
+        Assert.assertTrue(journal.since(1L, changes.getVersion() + 1).isReset());
+    }
+
+    @Test
+    public void resetAfterPruned() {
+        long version = journal.since(1L, null).getVersion();
+        journal.task(1L);
+
+        ReflectionTestUtils.setField(journal, "ttl", -1L);
+        ReflectionTestUtils.invokeMethod(journal, "prune");
+
+        // the change was dropped with the journal
+        Assert.assertTrue(journal.since(1L, version).isReset());
+        long current = journal.since(1L, null).getVersion();
+        Assert.assertFalse(journal.since(1L, current).isReset());
+
+        journal.task(1L);
+        TaskChanges changes = journal.since(1L, current);
+        Assert.assertFalse(changes.isReset());
+        Assert.assertTrue(changes.isTaskChanged());
+    }
+}
@@ -0,0 +1,269 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.chaosblade.box.toolsmgr.ansible;
+
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.util.StrUtil;
+import com.alibaba.chaosblade.box.common.utils.JsonUtils;
+import com.alibaba.chaosblade.box.toolsmgr.api.ProcessCommand;
+import com.alibaba.chaosblade.box.toolsmgr.api.ProcessRunner;
+import com.alibaba.chaosblade.box.toolsmgr.api.Response;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Collects host commands for a short window and runs them with one ansible invocation.
+ * Every host gets its command as an inventory variable of a temporary inventory,
+ * per host results are parsed from the json stdout callback.
+ *
+ * @author yefei
+ */
+@Slf4j
+@Component
+public class AnsibleBatchExecutor implements InitializingBean, DisposableBean {
+
+    private static final String COMMAND_VAR = "chaos_command";
+
+    @Value("${chaos.ansible.batch.window:500}")
+    private long window;
+
+    @Value("${chaos.ansible.batch.size:200}")
+    private int batchSize;
+
+    @Value("${chaos.ansible.forks:50}")
+    private int forks;
+
+    @Value("${chaos.ansible.timeout:600000}")
+    private long timeout;
+
+    /**
+     * bytes of the json output kept, grows with the batch size
+     */
+    @Value("${chaos.ansible.max-output:67108864}")
+    private int maxOutput;
+
+    /**
+     * the inventory holding the connection variables of the hosts, merged with the temporary one
+     */
+    @Value("${chaos.ansible.inventory:/etc/ansible/hosts}")
+    private String inventory;
+
+    private final List<Pending> pending = new ArrayList<>();
+
+    @Autowired
+    private ProcessRunner processRunner;
+
+    private ScheduledExecutorService scheduler;
+
+    private ScheduledFuture<?> flushFuture;
+
+    @Override
+    public void afterPropertiesSet() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r);
+            thread.setDaemon(true);
+            thread.setName("ANSIBLE-BATCH-FLUSH");
+            return thread;
+        });
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * run the shell command on the host within the next batch, blocks until the batch finished
+     *
+     * @param host
+     * @param command
+     * @return
+     */
+    public Response<String> execute(String host, String command) {
+        Pending request = new Pending(host, command);
+        Map<String, Pending> batch = null;
+        synchronized (pending) {
+            pending.add(request);
+            if (pending.size() >= batchSize) {
+                batch = nextBatch();
+            } else if (flushFuture == null) {
+                flushFuture = scheduler.schedule(this::flush, window, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (batch != null) {
+            run(batch);
+        }
+        try {
+            return request.future.get(timeout + window, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return Response.ofFail("Ansible timeout after " + timeout + "ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Response.ofFail(e.getMessage());
+        } catch (ExecutionException e) {
+            return Response.ofFail(e.getCause().getMessage());
+        }
+    }
+
+    private void flush() {
+        Map<String, Pending> batch;
+        synchronized (pending) {
+            batch = nextBatch();
+        }
+        if (batch != null) {
+            run(batch);
+        }
+    }
+
+    private Map<String, Pending> nextBatch() {
+        if (flushFuture != null) {
+            flushFuture.cancel(false);
+            flushFuture = null;
+        }
+        if (pending.isEmpty()) {
+            return null;
+        }
+        // a host only once per batch, the others go to the next one
+        Map<String, Pending> batch = new LinkedHashMap<>();
+        List<Pending> next = new ArrayList<>();
+        for (Pending request : pending) {
+            if (batch.putIfAbsent(request.host, request) != null) {
+                next.add(request);
+            }
+        }
+        pending.clear();
+        pending.addAll(next);
+        if (!pending.isEmpty()) {
+            flushFuture = scheduler.schedule(this::flush, window, TimeUnit.MILLISECONDS);
+        }
+        return batch;
+    }
+
+    private void run(Map<String, Pending> batch) {
+        File inventoryFile;
+        try {
+            Map<String, Object> hosts = new LinkedHashMap<>();
+            batch.forEach((host, request) -> hosts.put(host, Collections.singletonMap(COMMAND_VAR, request.command)));
+            inventoryFile = File.createTempFile("chaos-inventory-", ".json");
+            FileUtil.writeUtf8String(JsonUtils.writeValueAsString(
+                    Collections.singletonMap("all", Collections.singletonMap("hosts", hosts))), inventoryFile);
+        } catch (Exception e) {
+            log.error("write ansible inventory failed", e);
+            batch.values().forEach(request -> request.future.complete(Response.ofFail(e.getMessage())));
+            return;
+        }
+
+        List<String> command = new ArrayList<>();
+        command.add("ansible");
+        command.add("all");
+        if (StrUtil.isNotBlank(inventory) && new File(inventory).exists()) {
+            command.add("-i");
+            command.add(inventory);
+        }
+        command.add("-i");
+        command.add(inventoryFile.getAbsolutePath());
+        command.add("--limit");
+        command.add(String.join(",", batch.keySet()));
+        command.add("--forks");
+        command.add(String.valueOf(forks));
+        command.add("-m");
+        command.add("shell");
+        command.add("-a");
+        command.add("{{ " + COMMAND_VAR + " }}");
+
+        Map<String, String> environment = new HashMap<>();
+        environment.put("ANSIBLE_STDOUT_CALLBACK", "json");
+        environment.put("ANSIBLE_LOAD_CALLBACK_PLUGINS", "1");
+
+        processRunner.run(ProcessCommand.builder()
+                .command(command)
+                .environment(environment)
+                .timeout(timeout)
+                .maxOutput(maxOutput)
+                .build()
+        ).whenComplete((result, e) -> {
+            FileUtil.del(inventoryFile);
+            if (e != null) {
+                log.error("run ansible batch failed", e);
+                batch.values().forEach(request -> request.future.complete(Response.ofFail(e.getMessage())));
+                return;
+            }
+            Map<String, Response<String>> results = parse(result.getStdout());
+            String error = result.isTimeout() ? "Ansible timeout after " + timeout + "ms" : result.getStderr();
+            batch.forEach((host, request) -> request.future.complete(results.getOrDefault(host,
+                    Response.ofFail(StrUtil.blankToDefault(error, "No ansible result of host " + host)))));
+        });
+    }
+
+    /**
+     * @param output of the json callback
+     * @return results by host
+     */
+    static Map<String, Response<String>> parse(String output) {
+        Map<String, Response<String>> results = new HashMap<>();
+        if (StrUtil.isBlank(output)) {
+            return results;
+        }
+        try {
+            JsonNode root = JsonUtils.reader().readTree(output);
+            for (JsonNode play : root.path("plays")) {
+                for (JsonNode task : play.path("tasks")) {
+                    Iterator<Map.Entry<String, JsonNode>> hosts = task.path("hosts").fields();
+                    while (hosts.hasNext()) {
+                        Map.Entry<String, JsonNode> entry = hosts.next();
+                        JsonNode result = entry.getValue();
+                        String message = StrUtil.appendIfMissing(result.path("stderr").asText(""),
+                                result.path("stdout").asText(""));
+                        if (result.path("failed").asBoolean(false) || result.path("unreachable").asBoolean(false)
+                                || result.path("rc").asInt(-1) != 0) {
+                            results.put(entry.getKey(), Response.ofFail(StrUtil.blankToDefault(message,
+                                    result.path("msg").asText(""))));
+                        } else {
+                            results.put(entry.getKey(), Response.ofSuccess(message));
+                        }
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.warn("parse ansible output failed, {}", e.getMessage());
+        }
+        return results;
+    }
+
+    private static class Pending {
+
+        private final String host;
+
+        private final String command;
+
+        private final CompletableFuture<Response<String>> future = new CompletableFuture<>();
+
+        Pending(String host, String command) {
+            this.host = host;
+            this.command = command;
+        }
+    }
+}
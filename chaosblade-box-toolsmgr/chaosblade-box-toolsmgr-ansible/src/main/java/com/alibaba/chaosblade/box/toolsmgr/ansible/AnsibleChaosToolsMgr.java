@@ -16,16 +16,14 @@
 
 package com.alibaba.chaosblade.box.toolsmgr.ansible;
 
-import cn.hutool.core.io.IoUtil;
+import cn.hutool.core.util.StrUtil;
 import com.alibaba.chaosblade.box.common.DeviceMeta;
-import com.alibaba.chaosblade.box.common.utils.SystemPropertiesUtils;
 import com.alibaba.chaosblade.box.toolsmgr.api.*;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.io.InputStreamReader;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -43,16 +41,23 @@ public class AnsibleChaosToolsMgr implements ChaosToolsMgr<Request> {
     @Value("${chaos.ctl.tools}")
     private String toolsCtl;
 
+    @Value("${chaos.ansible.batch.enable:true}")
+    private boolean batchEnable;
+
+    @Autowired
+    private AnsibleBatchExecutor ansibleBatchExecutor;
+
+    @Autowired
+    private ProcessRunner processRunner;
+
     @Override
     public Response<List<DeviceMeta>> listHosts(Request request) {
-        List<String> strList = new ArrayList<>();
         try {
-            Process process = Runtime.getRuntime().exec(new String[]{"/bin/sh", "-c", "ansible all --list-hosts"}, null, null);
-            process.waitFor();
-            if (process.getErrorStream().available() > 0) {
-                return Response.ofFail(IoUtil.read(process.getErrorStream(), SystemPropertiesUtils.getPropertiesFileEncoding()));
+            ProcessResult result = processRunner.run(ProcessCommand.shell("ansible all --list-hosts")).get();
+            if (!result.isSuccess()) {
+                return Response.ofFail(result.toResponse().getMessage());
             } else {
-                IoUtil.readLines(new InputStreamReader(process.getInputStream()), strList);
+                List<String> strList = StrUtil.splitTrim(result.getStdout(), '\n');
                 if (strList.size() > 1) {
                     strList.remove(0);
                 }
@@ -60,6 +65,9 @@ public class AnsibleChaosToolsMgr implements ChaosToolsMgr<Request> {
                         .map(ip -> DeviceMeta.builder().ip(ip.trim()).build())
                         .collect(Collectors.toList()));
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Response.ofFail(e.getMessage());
         } catch (Exception e) {
             log.error(e.getMessage(), e);
             return Response.ofFail(e.getMessage());
@@ -101,21 +109,15 @@ public class AnsibleChaosToolsMgr implements ChaosToolsMgr<Request> {
     }
 
     private Response<String> getStringResponse(Request request, String command) {
+        if (batchEnable) {
+            return ansibleBatchExecutor.execute(request.getHost(), command);
+        }
         try {
-            Process process = Runtime.getRuntime().exec(new String[]{"/bin/sh", "-c",
-                    String.format("ansible %s -m shell -a 'sh -c  \"%s\"'", request.getHost(), command)}, null, null);
-            process.waitFor();
-
-            if (process.getErrorStream().available() > 0) {
-                return Response.ofFail(IoUtil.read(process.getErrorStream(), SystemPropertiesUtils.getPropertiesFileEncoding()));
-            } else {
-                String result = IoUtil.read(process.getInputStream(), SystemPropertiesUtils.getPropertiesFileEncoding());
-                if (result.contains("rc=0")) {
-                    return Response.ofSuccess(result);
-                } else {
-                    return Response.ofFail(result);
-                }
-            }
+            return processRunner.run(ProcessCommand.shell(
+                    String.format("ansible %s -m shell -a 'sh -c  \"%s\"'", request.getHost(), command))).get().toResponse();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Response.ofFail(e.getMessage());
         } catch (Exception e) {
             log.error(e.getMessage(), e);
             return Response.ofFail(e.getMessage());
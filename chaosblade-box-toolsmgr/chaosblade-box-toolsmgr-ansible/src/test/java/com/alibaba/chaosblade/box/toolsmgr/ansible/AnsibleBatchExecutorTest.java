@@ -0,0 +1,56 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.chaosblade.box.toolsmgr.ansible;
+
+import cn.hutool.core.io.resource.ResourceUtil;
+import com.alibaba.chaosblade.box.toolsmgr.api.Response;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Map;
+
+/**
+ * @author yefei
+ */
+public class AnsibleBatchExecutorTest {
+
+    @Test
+    public void parse() {
+        Map<String, Response<String>> results = AnsibleBatchExecutor.parse(ResourceUtil.readUtf8Str("ansible/adhoc-result.json"));
+        Assert.assertEquals(3, results.size());
+
+        Response<String> ok = results.get("10.0.0.1");
+        Assert.assertTrue(ok.isSuccess());
+        Assert.assertEquals("version: 1.7.2", ok.getResult());
+
+        Response<String> failed = results.get("10.0.0.2");
+        Assert.assertFalse(failed.isSuccess());
+        Assert.assertEquals("/bin/sh: blade: command not found", failed.getMessage());
+
+        Response<String> unreachable = results.get("10.0.0.3");
+        Assert.assertFalse(unreachable.isSuccess());
+        Assert.assertEquals("Failed to connect to the host via ssh: ssh: connect to host 10.0.0.3 port 22: Connection refused",
+                unreachable.getMessage());
+    }
+
+    @Test
+    public void parseInvalidOutput() {
+        Assert.assertTrue(AnsibleBatchExecutor.parse("").isEmpty());
+        Assert.assertTrue(AnsibleBatchExecutor.parse("ERROR! No inventory was parsed").isEmpty());
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.chaosblade.box.toolsmgr.api;
+
+import cn.hutool.core.collection.CollUtil;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author yefei
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProcessCommand {
+
+    private List<String> command;
+
+    private Map<String, String> environment;
+
+    /**
+     * millis, the process is killed after it, default chaos.process.timeout
+     */
+    private Long timeout;
+
+    /**
+     * bytes kept of stdout and of stderr, default chaos.process.max-output
+     */
+    private Integer maxOutput;
+
+    /**
+     * @param command the program and its arguments, one argument per element
+     * @return
+     */
+    public static ProcessCommand of(String... command) {
+        return ProcessCommand.builder().command(CollUtil.newArrayList(command)).build();
+    }
+
+    public static ProcessCommand shell(String command) {
+        return ProcessCommand.builder().command(CollUtil.newArrayList("/bin/sh", "-c", command)).build();
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.chaosblade.box.toolsmgr.api;
+
+import cn.hutool.core.util.StrUtil;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * @author yefei
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProcessResult {
+
+    private int exitCode;
+
+    private String stdout;
+
+    private String stderr;
+
+    private boolean timeout;
+
+    public boolean isSuccess() {
+        return !timeout && exitCode == 0;
+    }
+
+    /**
+     * @return stdout on success, otherwise stderr, falling back to stdout
+     */
+    public Response<String> toResponse() {
+        if (isSuccess()) {
+            return Response.ofSuccess(stdout);
+        }
+        if (timeout) {
+            return Response.ofFail("Process timeout, " + StrUtil.blankToDefault(stderr, stdout));
+        }
+        return Response.ofFail(StrUtil.blankToDefault(stderr, stdout));
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.chaosblade.box.toolsmgr.api;
+
+import com.alibaba.chaosblade.box.common.utils.SystemPropertiesUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs external commands off the caller thread, at most chaos.process.max-concurrency at a time.
+ * Stdout and stderr are drained concurrently into bounded buffers, so a chatty process never blocks
+ * on a full pipe, and the process is killed when it exceeds its timeout.
+ * The caller thread only waits, a pipe kept open by a surviving child doesn't hold it past the timeout.
+ *
+ * @author yefei
+ */
+@Slf4j
+@Component
+public class ProcessRunner implements InitializingBean, DisposableBean {
+
+    @Value("${chaos.process.max-concurrency:16}")
+    private int maxConcurrency;
+
+    @Value("${chaos.process.timeout:600000}")
+    private long defaultTimeout;
+
+    @Value("${chaos.process.max-output:1048576}")
+    private int defaultMaxOutput;
+
+    /**
+     * how long the output is awaited after the process exited, children may still hold the pipes
+     */
+    @Value("${chaos.process.drain-timeout:5000}")
+    private long drainTimeout;
+
+    private ExecutorService executor;
+
+    private ExecutorService drainer;
+
+    @Override
+    public void afterPropertiesSet() {
+        executor = Executors.newFixedThreadPool(maxConcurrency, threadFactory("PROCESS-RUNNER"));
+        drainer = Executors.newCachedThreadPool(threadFactory("PROCESS-DRAINER"));
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+        drainer.shutdownNow();
+    }
+
+    public CompletableFuture<ProcessResult> run(ProcessCommand command) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return execute(command);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    private ProcessResult execute(ProcessCommand command) throws IOException, InterruptedException {
+        long timeout = command.getTimeout() == null ? defaultTimeout : command.getTimeout();
+        int maxOutput = command.getMaxOutput() == null ? defaultMaxOutput : command.getMaxOutput();
+
+        ProcessBuilder processBuilder = new ProcessBuilder(command.getCommand());
+        if (command.getEnvironment() != null) {
+            processBuilder.environment().putAll(command.getEnvironment());
+        }
+        Process process = processBuilder.start();
+        process.getOutputStream().close();
+
+        Future<String> stdout = drainer.submit(() -> drain(process.getInputStream(), maxOutput));
+        Future<String> stderr = drainer.submit(() -> drain(process.getErrorStream(), maxOutput));
+        try {
+            boolean timedOut = !process.waitFor(timeout, TimeUnit.MILLISECONDS);
+            if (timedOut) {
+                log.warn("Process timeout after {}ms, kill it, command: {}", timeout, command.getCommand());
+                process.destroyForcibly();
+            }
+            int exitCode = process.waitFor();
+            return ProcessResult.builder()
+                    .exitCode(exitCode)
+                    .stdout(output(stdout))
+                    .stderr(output(stderr))
+                    .timeout(timedOut)
+                    .build();
+        } finally {
+            if (process.isAlive()) {
+                process.destroyForcibly();
+            }
+            stdout.cancel(true);
+            stderr.cancel(true);
+        }
+    }
+
+    private String output(Future<String> output) throws InterruptedException {
+        try {
+            return output.get(drainTimeout, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            return e.getCause().getMessage();
+        } catch (TimeoutException e) {
+            return "...(output not closed)";
+        }
+    }
+
+    /**
+     * reads to the end, keeps the first maxOutput bytes
+     */
+    private static String drain(InputStream inputStream, int maxOutput) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.min(maxOutput, 8192));
+        byte[] buffer = new byte[8192];
+        boolean truncated = false;
+        try (InputStream in = inputStream) {
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                int keep = Math.min(n, maxOutput - out.size());
+                if (keep > 0) {
+                    out.write(buffer, 0, keep);
+                }
+                truncated |= keep < n;
+            }
+        }
+        String output = out.toString(SystemPropertiesUtils.getPropertiesFileEncoding());
+        return truncated ? output + "...(truncated)" : output;
+    }
+
+    private static ThreadFactory threadFactory(String name) {
+        AtomicInteger index = new AtomicInteger();
+        return r -> {
+            Thread thread = new Thread(r);
+            thread.setDaemon(true);
+            thread.setName(name + "-" + index.incrementAndGet());
+            return thread;
+        };
+    }
+}
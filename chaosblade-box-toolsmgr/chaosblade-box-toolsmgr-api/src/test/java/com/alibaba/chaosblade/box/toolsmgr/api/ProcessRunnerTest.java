@@ -0,0 +1,95 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.chaosblade.box.toolsmgr.api;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author yefei
+ */
+public class ProcessRunnerTest {
+
+    private ProcessRunner processRunner;
+
+    @Before
+    public void setUp() {
+        processRunner = new ProcessRunner();
+        ReflectionTestUtils.setField(processRunner, "maxConcurrency", 2);
+        ReflectionTestUtils.setField(processRunner, "defaultTimeout", 10000L);
+        ReflectionTestUtils.setField(processRunner, "defaultMaxOutput", 1024);
+        ReflectionTestUtils.setField(processRunner, "drainTimeout", 500L);
+        processRunner.afterPropertiesSet();
+    }
+
+    @After
+    public void tearDown() {
+        processRunner.destroy();
+    }
+
+    @Test
+    public void arguments() throws Exception {
+        ProcessResult result = processRunner.run(ProcessCommand.of("printf", "%s|", "a b", "c")).get(5, TimeUnit.SECONDS);
+        Assert.assertTrue(result.isSuccess());
+        Assert.assertEquals("a b|c|", result.getStdout());
+    }
+
+    @Test
+    public void exitCode() throws Exception {
+        ProcessResult result = processRunner.run(ProcessCommand.shell("echo failed >&2; exit 3")).get(5, TimeUnit.SECONDS);
+        Assert.assertFalse(result.isSuccess());
+        Assert.assertEquals(3, result.getExitCode());
+        Assert.assertEquals("failed\n", result.getStderr());
+        Assert.assertEquals("failed\n", result.toResponse().getMessage());
+    }
+
+    @Test
+    public void timeout() throws Exception {
+        ProcessCommand command = ProcessCommand.shell("exec sleep 10");
+        command.setTimeout(200L);
+        long start = System.currentTimeMillis();
+        ProcessResult result = processRunner.run(command).get(5, TimeUnit.SECONDS);
+        Assert.assertTrue(result.isTimeout());
+        Assert.assertFalse(result.isSuccess());
+        Assert.assertTrue(System.currentTimeMillis() - start < 5000);
+    }
+
+    @Test
+    public void outputCap() throws Exception {
+        ProcessCommand command = ProcessCommand.shell("head -c 100000 /dev/zero | tr '\\0' a");
+        command.setMaxOutput(100);
+        ProcessResult result = processRunner.run(command).get(5, TimeUnit.SECONDS);
+        Assert.assertTrue(result.isSuccess());
+        Assert.assertEquals(new String(new char[100]).replace('\0', 'a') + "...(truncated)", result.getStdout());
+    }
+
+    @Test
+    public void drainTimeout() throws Exception {
+        // the child keeps stdout open after the shell exited
+        long start = System.currentTimeMillis();
+        ProcessResult result = processRunner.run(ProcessCommand.shell("sleep 3 & echo started")).get(5, TimeUnit.SECONDS);
+        Assert.assertEquals(0, result.getExitCode());
+        Assert.assertEquals("...(output not closed)", result.getStdout());
+        Assert.assertTrue(System.currentTimeMillis() - start < 2000);
+    }
+}
@@ -1,23 +1,20 @@
 package com.alibaba.chaosblade.box.toolsmgr.helm;
 
+import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.io.IoUtil;
-import cn.hutool.core.util.RuntimeUtil;
 import cn.hutool.http.HttpRequest;
 import cn.hutool.http.HttpResponse;
 import cn.hutool.http.HttpUtil;
 import com.alibaba.chaosblade.box.common.DeviceMeta;
 import com.alibaba.chaosblade.box.common.exception.BizException;
-import com.alibaba.chaosblade.box.common.utils.SystemPropertiesUtils;
-import com.alibaba.chaosblade.box.toolsmgr.api.ChannelStrategy;
-import com.alibaba.chaosblade.box.toolsmgr.api.ChannelType;
-import com.alibaba.chaosblade.box.toolsmgr.api.ChaosToolsMgr;
-import com.alibaba.chaosblade.box.toolsmgr.api.Response;
+import com.alibaba.chaosblade.box.toolsmgr.api.*;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
 import org.apache.commons.compress.compressors.CompressorInputStream;
 import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -40,14 +37,15 @@ public class HelmChaosToolsMgr implements ChaosToolsMgr<HelmRequest>, Initializi
     @Value("${chaos.helm.repo.enable}")
     private Boolean enable;
 
+    @Autowired
+    private ProcessRunner processRunner;
+
     @Override
     public void afterPropertiesSet() throws Exception {
         if (enable) {
-            String command = String.format("helm repo add %s %s", helmRepoName, helmRepoUrl);
-            Process process = RuntimeUtil.exec(command);
-            process.waitFor();
-            if (process.getErrorStream().available() > 0) {
-                throw new BizException(IoUtil.read(process.getErrorStream(), SystemPropertiesUtils.getPropertiesFileEncoding()));
+            ProcessResult result = processRunner.run(ProcessCommand.of("helm", "repo", "add", helmRepoName, helmRepoUrl)).get();
+            if (!result.isSuccess()) {
+                throw new BizException(result.toResponse().getMessage());
             }
         }
     }
@@ -70,50 +68,26 @@ public class HelmChaosToolsMgr implements ChaosToolsMgr<HelmRequest>, Initializi
     @Override
     public Response<String> deployTools(HelmRequest helmRequest) {
 
-        String command = String.format("helm install %s %s %s --kubeconfig=%s",
-                helmRequest.getName(),
-                helmRequest.getToolsName(),
-                helmRequest.getCommandOptions(),
-                helmRequest.getKubeconfig()
-        );
-
-        Process process = RuntimeUtil.exec(command);
-
-        try {
-            process.waitFor();
-            if (process.getErrorStream().available() > 0) {
-                return Response.ofFail(IoUtil.read(process.getErrorStream(), SystemPropertiesUtils.getPropertiesFileEncoding()));
-            } else {
-                String result = IoUtil.read(process.getInputStream(), SystemPropertiesUtils.getPropertiesFileEncoding());
-                if (result.startsWith("Error:")) {
-                    return Response.ofFail(result);
-                } else {
-                    return Response.ofSuccess(result);
-                }
-            }
-        } catch (Exception e) {
-            log.error(e.getMessage(), e);
-            return Response.ofFail(e.getMessage());
+        List<String> command = CollUtil.newArrayList("helm", "install", helmRequest.getName(), helmRequest.getToolsName());
+        if (helmRequest.getArguments() != null) {
+            command.addAll(helmRequest.getArguments());
         }
+        command.add("--kubeconfig=" + helmRequest.getKubeconfig());
+        return execute(command);
     }
 
     @Override
     public Response<String> unDeployTools(HelmRequest helmRequest) {
+        return execute(CollUtil.newArrayList("helm", "uninstall", helmRequest.getName(),
+                "--kubeconfig=" + helmRequest.getKubeconfig()));
+    }
 
-        Process process = RuntimeUtil.exec(String.format("helm uninstall %s --kubeconfig=%s", helmRequest.getName(), helmRequest.getKubeconfig()));
-
+    private Response<String> execute(List<String> command) {
         try {
-            process.waitFor();
-            if (process.getErrorStream().available() > 0) {
-                return Response.ofFail(IoUtil.read(process.getErrorStream(), SystemPropertiesUtils.getPropertiesFileEncoding()));
-            } else {
-                String result = IoUtil.read(process.getInputStream(), SystemPropertiesUtils.getPropertiesFileEncoding());
-                if (result.startsWith("Error:")) {
-                    return Response.ofFail(result);
-                } else {
-                    return Response.ofSuccess(result);
-                }
-            }
+            return processRunner.run(ProcessCommand.builder().command(command).build()).get().toResponse();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Response.ofFail(e.getMessage());
         } catch (Exception e) {
             log.error(e.getMessage(), e);
             return Response.ofFail(e.getMessage());
@@ -3,6 +3,8 @@ package com.alibaba.chaosblade.box.toolsmgr.helm;
 import com.alibaba.chaosblade.box.toolsmgr.api.Request;
 import lombok.Data;
 
+import java.util.List;
+
 /**
  * @author yefei
  */
@@ -14,5 +16,10 @@ public class HelmRequest extends Request {
     private String namespace;
 
     private String kubeconfig;
+
+    /**
+     * extra arguments of helm install, one argument per element
+     */
+    private List<String> arguments;
 }
 
@@ -17,25 +17,26 @@
 package com.alibaba.chaosblade.box.toolsmgr.ssh;
 
 import ch.ethz.ssh2.ChannelCondition;
-import ch.ethz.ssh2.Connection;
-import ch.ethz.ssh2.Session;
+import ch.ethz.ssh2.StreamGobbler;
 import cn.hutool.core.io.IoUtil;
 import cn.hutool.core.util.StrUtil;
+import cn.hutool.crypto.digest.DigestUtil;
+import cn.hutool.http.HttpResponse;
+import cn.hutool.http.HttpUtil;
 import com.alibaba.chaosblade.box.common.DeviceMeta;
 import com.alibaba.chaosblade.box.toolsmgr.api.ChannelStrategy;
 import com.alibaba.chaosblade.box.toolsmgr.api.ChannelType;
 import com.alibaba.chaosblade.box.toolsmgr.api.ChaosToolsMgr;
 import com.alibaba.chaosblade.box.toolsmgr.api.Response;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.io.BufferedReader;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.PrintWriter;
 import java.nio.charset.Charset;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author yefei
@@ -45,12 +46,33 @@ import java.util.List;
 @ChannelStrategy(ChannelType.SSH)
 public class SSHChaosToolsMgr implements ChaosToolsMgr<SSHRequest> {
 
+    private static final String AGENT_SCRIPT = "chaosagentctl.sh";
+
+    private static final String TOOLS_SCRIPT = "chaostoolsctl.sh";
+
     @Value("${chaos.ctl.agent}")
     private String agentCtl;
 
     @Value("${chaos.ctl.tools}")
     private String toolsCtl;
 
+    @Value("${chaos.ssh.command-timeout:300000}")
+    private long commandTimeout;
+
+    @Value("${chaos.ssh.script-checksum-ttl:600000}")
+    private long checksumTtl;
+
+    @Value("${chaos.ssh.script-checksum-timeout:5000}")
+    private int checksumTimeout;
+
+    @Autowired
+    private SSHConnectionPool sshConnectionPool;
+
+    /**
+     * md5 of the control scripts by url, a failed fetch is kept with a null md5 until ttl
+     */
+    private final Map<String, Checksum> checksums = new ConcurrentHashMap<>();
+
     @Override
     public Response<List<DeviceMeta>> listHosts(SSHRequest request) {
         throw new UnsupportedOperationException();
@@ -58,81 +80,106 @@ public class SSHChaosToolsMgr implements ChaosToolsMgr<SSHRequest> {
 
     @Override
     public Response<String> deployAgent(SSHRequest request) {
-        String command = String.format("wget %s -O chaosagentctl.sh " +
-                "&& chmod +x chaosagentctl.sh " +
-                "&& ./chaosagentctl.sh install -u %d %s", agentCtl, request.getProbesId(), request.getCommandOptions());
+        String command = String.format("%s && ./chaosagentctl.sh install -u %d %s",
+                fetchScript(agentCtl, AGENT_SCRIPT), request.getProbesId(), request.getCommandOptions());
         return getStringResponse(request, command);
     }
 
     @Override
     public Response<String> unDeployAgent(SSHRequest request) {
-        String command = String.format("wget %s -O chaosagentctl.sh " +
-                "&& chmod +x chaosagentctl.sh " +
-                "&& ./chaosagentctl.sh uninstall " +
+        String command = String.format("%s && ./chaosagentctl.sh uninstall " +
                 "&& rm -rf chaosagentctl.sh " +
-                "&& rm -f /opt/chaos/* ", agentCtl);
+                "&& rm -f /opt/chaos/* ", fetchScript(agentCtl, AGENT_SCRIPT));
         return getStringResponse(request, command);
     }
 
     @Override
     public Response<String> deployTools(SSHRequest request) {
-        String command = String.format("wget %s -O chaostoolsctl.sh " +
-                "&& chmod +x chaostoolsctl.sh " +
-                "&& ./chaostoolsctl.sh install -n %s -v %s -r %s", toolsCtl, request.getToolsName(), request.getToolsVersion(), request.getToolsUrl());
+        String command = String.format("%s && ./chaostoolsctl.sh install -n %s -v %s -r %s",
+                fetchScript(toolsCtl, TOOLS_SCRIPT), request.getToolsName(), request.getToolsVersion(), request.getToolsUrl());
         return getStringResponse(request, command);
     }
 
     @Override
     public Response<String> unDeployTools(SSHRequest request) {
-        String command = String.format("wget %s -O chaostoolsctl.sh " +
-                "&& chmod +x chaostoolsctl.sh " +
-                "&& ./chaostoolsctl.sh uninstall -n %s", toolsCtl, request.getToolsName());
+        String command = String.format("%s && ./chaostoolsctl.sh uninstall -n %s",
+                fetchScript(toolsCtl, TOOLS_SCRIPT), request.getToolsName());
         return getStringResponse(request, command);
     }
 
-    private Response<String> getStringResponse(SSHRequest request, String command) {
-        InputStream stdOut = null;
-        InputStream stdErr = null;
-        Connection conn = null;
-        Session session = null;
-        try {
-            conn = new Connection(request.getHost());
-            conn.connect();
-            conn.authenticateWithPassword(request.getUser(), request.getPassword());
-
-            session = conn.openSession();
-            session.requestPTY("bash");
-            session.startShell();
-            stdOut = session.getStdout();
-            stdErr = session.getStderr();
-
-            PrintWriter out = new PrintWriter(session.getStdin());
-            out.println(command);
-            out.println("exit");
-            out.close();
-
-            session.waitForCondition(ChannelCondition.CLOSED | ChannelCondition.EOF | ChannelCondition.EXIT_STATUS, 20000);
-
-            String errorMessage = IoUtil.read(stdErr, Charset.defaultCharset());
-            String message = IoUtil.read(stdOut, Charset.defaultCharset());
+    /**
+     * the script is only downloaded when the copy on the host does not match the md5 of the url
+     */
+    private String fetchScript(String url, String name) {
+        String download = String.format("wget %s -O %s", url, name);
+        String md5 = checksum(url);
+        if (md5 == null) {
+            return String.format("%s && chmod +x %s", download, name);
+        }
+        return String.format("{ [ \"$(md5sum %s 2>/dev/null | cut -d ' ' -f 1)\" = \"%s\" ] || %s; } && chmod +x %s",
+                name, md5, download, name);
+    }
 
-            if (session.getExitStatus() != null && session.getExitStatus() == 0) {
-                return Response.ofSuccess(StrUtil.appendIfMissing(errorMessage, message));
+    private String checksum(String url) {
+        Checksum checksum = checksums.get(url);
+        if (checksum != null && System.currentTimeMillis() - checksum.time < checksumTtl) {
+            return checksum.md5;
+        }
+        String md5 = null;
+        try {
+            HttpResponse response = HttpUtil.createGet(url).timeout(checksumTimeout).execute();
+            if (response.isOk()) {
+                md5 = DigestUtil.md5Hex(response.bodyBytes());
             } else {
-                return Response.ofFail(StrUtil.appendIfMissing(errorMessage, message));
+                log.warn("fetch script {} failed, always download it on host, status {}", url, response.getStatus());
             }
+        } catch (Exception e) {
+            log.warn("fetch script {} failed, always download it on host, {}", url, e.getMessage());
+        }
+        checksums.put(url, new Checksum(md5, System.currentTimeMillis()));
+        return md5;
+    }
+
+    private Response<String> getStringResponse(SSHRequest request, String command) {
+        try {
+            return sshConnectionPool.execute(request, session -> {
+                session.execCommand(command);
+                StreamGobbler stdOut = new StreamGobbler(session.getStdout());
+                StreamGobbler stdErr = new StreamGobbler(session.getStderr());
+                try {
+                    int condition = session.waitForCondition(ChannelCondition.EXIT_STATUS, commandTimeout);
+                    if ((condition & ChannelCondition.TIMEOUT) != 0) {
+                        return Response.ofFail("Command timeout after " + commandTimeout + "ms");
+                    }
+
+                    String errorMessage = IoUtil.read(stdErr, Charset.defaultCharset());
+                    String message = IoUtil.read(stdOut, Charset.defaultCharset());
+
+                    if (session.getExitStatus() != null && session.getExitStatus() == 0) {
+                        return Response.ofSuccess(StrUtil.appendIfMissing(errorMessage, message));
+                    } else {
+                        return Response.ofFail(StrUtil.appendIfMissing(errorMessage, message));
+                    }
+                } finally {
+                    IoUtil.close(stdOut);
+                    IoUtil.close(stdErr);
+                }
+            });
         } catch (Exception e) {
             log.error(e.getMessage(), e);
             return Response.ofFail(e.getMessage());
-        } finally {
-            if (conn != null) {
-                conn.close();
-            }
-            if (session != null) {
-                session.close();
-            }
-            IoUtil.close(stdOut);
-            IoUtil.close(stdErr);
+        }
+    }
+
+    private static class Checksum {
+
+        private final String md5;
+
+        private final long time;
+
+        Checksum(String md5, long time) {
+            this.md5 = md5;
+            this.time = time;
         }
     }
 }
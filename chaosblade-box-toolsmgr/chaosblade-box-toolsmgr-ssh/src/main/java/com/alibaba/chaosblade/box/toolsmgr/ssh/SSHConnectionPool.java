@@ -0,0 +1,264 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.chaosblade.box.toolsmgr.ssh;
+
+import ch.ethz.ssh2.Connection;
+import ch.ethz.ssh2.Session;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.*;
+
+/**
+ * Authenticated ssh connections by host and user, commands run as sessions multiplexed on them.
+ * Idle connections and connections whose password changed are retired, and closed once their running sessions end.
+ *
+ * @author yefei
+ */
+@Slf4j
+@Component
+public class SSHConnectionPool implements InitializingBean, DisposableBean {
+
+    private static final int DEFAULT_PORT = 22;
+
+    @Value("${chaos.ssh.idle-timeout:300000}")
+    private long idleTimeout;
+
+    @Value("${chaos.ssh.connect-timeout:10000}")
+    private int connectTimeout;
+
+    /**
+     * sshd MaxSessions defaults to 10
+     */
+    @Value("${chaos.ssh.max-sessions:8}")
+    private int maxSessions;
+
+    private final Map<String, PooledConnection> connections = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService evictor;
+
+    @Override
+    public void afterPropertiesSet() {
+        evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r);
+            thread.setDaemon(true);
+            thread.setName("SSH-CONNECTION-EVICTOR");
+            return thread;
+        });
+        evictor.scheduleWithFixedDelay(this::evictIdle, idleTimeout, idleTimeout / 2, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        evictor.shutdownNow();
+        connections.values().forEach(PooledConnection::close);
+        connections.clear();
+    }
+
+    /**
+     * run the callback with a session of a pooled connection, a broken connection is replaced once
+     *
+     * @param request
+     * @param callback
+     * @return
+     */
+    public <T> T execute(SSHRequest request, SessionCallback<T> callback) throws Exception {
+        PooledConnection connection = acquire(request);
+        Session session;
+        try {
+            session = connection.openSession();
+        } catch (IOException e) {
+            log.warn("ssh connection of {} is broken, reconnect, {}", request.getHost(), e.getMessage());
+            connection.release();
+            invalidate(request, connection);
+            connection = acquire(request);
+            try {
+                session = connection.openSession();
+            } catch (IOException ex) {
+                connection.release();
+                throw ex;
+            }
+        }
+        try {
+            return callback.doInSession(session);
+        } finally {
+            connection.closeSession(session);
+            connection.release();
+        }
+    }
+
+    /**
+     * @return a connection leased to the caller, released by {@link PooledConnection#release()}
+     */
+    private PooledConnection acquire(SSHRequest request) throws IOException {
+        String key = key(request);
+        PooledConnection connection = connections.get(key);
+        if (connection != null && connection.lease(request.getPassword())) {
+            return connection;
+        }
+        synchronized (this) {
+            connection = connections.get(key);
+            if (connection != null && connection.lease(request.getPassword())) {
+                return connection;
+            }
+            if (connection != null) {
+                // the password changed, sessions still running on it keep the connection until released
+                invalidate(request, connection);
+            }
+            connection = connect(request);
+            connection.lease(request.getPassword());
+            connections.put(key, connection);
+            return connection;
+        }
+    }
+
+    PooledConnection connect(SSHRequest request) throws IOException {
+        Connection conn = new Connection(request.getHost(), request.getPort() > 0 ? request.getPort() : DEFAULT_PORT);
+        try {
+            conn.connect(null, connectTimeout, connectTimeout);
+            if (!conn.authenticateWithPassword(request.getUser(), request.getPassword())) {
+                throw new IOException("Authentication failed, host: " + request.getHost());
+            }
+        } catch (IOException e) {
+            conn.close();
+            throw e;
+        }
+        return new PooledConnection(conn, request.getPassword(), maxSessions);
+    }
+
+    private void invalidate(SSHRequest request, PooledConnection connection) {
+        if (connections.remove(key(request), connection)) {
+            connection.retire();
+        }
+    }
+
+    private void evictIdle() {
+        long now = System.currentTimeMillis();
+        connections.forEach((key, connection) -> {
+            if (connection.idleSince(now) > idleTimeout && connections.remove(key, connection)) {
+                connection.retire();
+            }
+        });
+    }
+
+    private String key(SSHRequest request) {
+        return request.getUser() + "@" + request.getHost() + ":" + request.getPort();
+    }
+
+    public interface SessionCallback<T> {
+
+        /**
+         * @param session closed by the pool
+         * @return
+         * @throws Exception
+         */
+        T doInSession(Session session) throws Exception;
+    }
+
+    static class PooledConnection {
+
+        private final Connection connection;
+
+        private final String password;
+
+        private final Semaphore sessions;
+
+        /**
+         * callers between acquire and release
+         */
+        private int leases;
+
+        private long lastUsed = System.currentTimeMillis();
+
+        /**
+         * no longer handed out, closed when the last lease is released
+         */
+        private boolean retired;
+
+        private boolean closed;
+
+        PooledConnection(Connection connection, String password, int maxSessions) {
+            this.connection = connection;
+            this.password = password;
+            this.sessions = new Semaphore(maxSessions);
+        }
+
+        synchronized boolean lease(String password) {
+            if (retired || closed || !Objects.equals(this.password, password)) {
+                return false;
+            }
+            leases++;
+            return true;
+        }
+
+        synchronized void release() {
+            leases--;
+            lastUsed = System.currentTimeMillis();
+            if (retired && leases == 0) {
+                close();
+            }
+        }
+
+        synchronized void retire() {
+            retired = true;
+            if (leases == 0) {
+                close();
+            }
+        }
+
+        Session openSession() throws IOException {
+            try {
+                sessions.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for a ssh session", e);
+            }
+            try {
+                return connection.openSession();
+            } catch (IOException e) {
+                sessions.release();
+                throw e;
+            }
+        }
+
+        void closeSession(Session session) {
+            try {
+                session.close();
+            } finally {
+                sessions.release();
+            }
+        }
+
+        /**
+         * @return 0 while leased
+         */
+        synchronized long idleSince(long now) {
+            return leases > 0 ? 0 : now - lastUsed;
+        }
+
+        synchronized void close() {
+            closed = true;
+            connection.close();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.chaosblade.box.toolsmgr.ssh;
+
+import ch.ethz.ssh2.Connection;
+import ch.ethz.ssh2.Session;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * @author yefei
+ */
+public class SSHConnectionPoolTest {
+
+    private final List<Connection> connects = new ArrayList<>();
+
+    private SSHConnectionPool pool;
+
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        pool = new SSHConnectionPool() {
+            @Override
+            PooledConnection connect(SSHRequest request) throws IOException {
+                Connection connection = Mockito.mock(Connection.class);
+                Mockito.when(connection.openSession()).thenAnswer(invocation -> Mockito.mock(Session.class));
+                connects.add(connection);
+                return new PooledConnection(connection, request.getPassword(), 1);
+            }
+        };
+        ReflectionTestUtils.setField(pool, "idleTimeout", 0L);
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @Test
+    public void reuse() throws Exception {
+        pool.execute(request("p1"), session -> null);
+        pool.execute(request("p1"), session -> null);
+        Assert.assertEquals(1, connects.size());
+        Mockito.verify(connects.get(0), Mockito.times(2)).openSession();
+        Mockito.verify(connects.get(0), Mockito.never()).close();
+    }
+
+    @Test
+    public void sessionLimit() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        Future<?> first = executor.submit(() -> pool.execute(request("p1"), session -> {
+            running.countDown();
+            return finish.await(5, TimeUnit.SECONDS);
+        }));
+        Assert.assertTrue(running.await(5, TimeUnit.SECONDS));
+
+        AtomicBoolean secondRun = new AtomicBoolean();
+        Future<?> second = executor.submit(() -> pool.execute(request("p1"), session -> {
+            secondRun.set(true);
+            return null;
+        }));
+        Thread.sleep(200);
+        Assert.assertFalse(secondRun.get());
+
+        finish.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        Assert.assertTrue(secondRun.get());
+        Assert.assertEquals(1, connects.size());
+    }
+
+    @Test
+    public void evictIdle() throws Exception {
+        pool.execute(request("p1"), session -> null);
+        Thread.sleep(10);
+        ReflectionTestUtils.invokeMethod(pool, "evictIdle");
+        Mockito.verify(connects.get(0)).close();
+
+        pool.execute(request("p1"), session -> null);
+        Assert.assertEquals(2, connects.size());
+    }
+
+    @Test
+    public void evictIdleSkipsRunning() throws Exception {
+        pool.execute(request("p1"), session -> {
+            Thread.sleep(10);
+            ReflectionTestUtils.invokeMethod(pool, "evictIdle");
+            return null;
+        });
+        Mockito.verify(connects.get(0), Mockito.never()).close();
+    }
+
+    @Test
+    public void passwordChangedRetires() throws Exception {
+        ReflectionTestUtils.setField(pool, "idleTimeout", Long.MAX_VALUE);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        Future<?> first = executor.submit(() -> pool.execute(request("p1"), session -> {
+            running.countDown();
+            return finish.await(5, TimeUnit.SECONDS);
+        }));
+        Assert.assertTrue(running.await(5, TimeUnit.SECONDS));
+
+        pool.execute(request("p2"), session -> null);
+        Assert.assertEquals(2, connects.size());
+        Mockito.verify(connects.get(0), Mockito.never()).close();
+
+        finish.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        Mockito.verify(connects.get(0)).close();
+        Mockito.verify(connects.get(1), Mockito.never()).close();
+    }
+
+    private SSHRequest request(String password) {
+        SSHRequest request = new SSHRequest();
+        request.setHost("127.0.0.1");
+        request.setUser("root");
+        request.setPassword(password);
+        return request;
+    }
+}
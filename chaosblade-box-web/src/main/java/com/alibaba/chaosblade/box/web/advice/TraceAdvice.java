@@ -19,10 +19,10 @@ package com.alibaba.chaosblade.box.web.advice;
 import cn.hutool.core.util.ReflectUtil;
 import com.alibaba.chaosblade.box.web.context.OriginContext;
 import com.alibaba.chaosblade.box.web.model.WebConstants;
-import com.alibaba.chaosblade.box.common.utils.JsonUtils;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectWriter;
+import com.alibaba.chaosblade.box.web.trace.TraceBodyWriter;
+import com.alibaba.chaosblade.box.web.trace.TraceProperties;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.MethodParameter;
 import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpInputMessage;
@@ -40,8 +40,11 @@ import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
 import javax.servlet.http.HttpServletRequest;
 import java.io.IOException;
 import java.lang.reflect.Type;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
+ * Logs sampled and truncated request and response bodies, the trace logger is asynchronous.
+ *
  * @author yefei
  */
 @Slf4j
@@ -49,6 +52,11 @@ import java.lang.reflect.Type;
 @Order(1)
 public class TraceAdvice implements ResponseBodyAdvice<Object>, RequestBodyAdvice {
 
+    private static final String TRACE_SAMPLED = "traceSampled";
+
+    @Autowired
+    private TraceProperties traceProperties;
+
     @Override
     public boolean supports(MethodParameter methodParameter, Type targetType, Class<? extends HttpMessageConverter<?>> converterType) {
         return true;
@@ -61,17 +69,14 @@ public class TraceAdvice implements ResponseBodyAdvice<Object>, RequestBodyAdvic
 
     @Override
     public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter, Type targetType, Class<? extends HttpMessageConverter<?>> converterType) {
-        RequestAttributes requestAttributes = RequestContextHolder.currentRequestAttributes();
-        Object requestId = requestAttributes.getAttribute(WebConstants.REQUEST_ID, RequestAttributes.SCOPE_REQUEST);
-
         OriginContext.setOriginal(ReflectUtil.getFieldValue(body, "original"));
 
-        HttpServletRequest request = ((ServletRequestAttributes) RequestContextHolder.getRequestAttributes()).getRequest();
-        try {
-            ObjectWriter writer = JsonUtils.writer();
-            log.info("[Request], request id: {}, path: {}, body: {}", requestId, request.getRequestURI(), writer.writeValueAsString(body));
-        } catch (JsonProcessingException e) {
-            log.error(e.getMessage(), e);
+        RequestAttributes requestAttributes = RequestContextHolder.currentRequestAttributes();
+        HttpServletRequest request = ((ServletRequestAttributes) requestAttributes).getRequest();
+        if (sampled(requestAttributes, request.getRequestURI())) {
+            Object requestId = requestAttributes.getAttribute(WebConstants.REQUEST_ID, RequestAttributes.SCOPE_REQUEST);
+            log.info("[Request], request id: {}, path: {}, body: {}", requestId, request.getRequestURI(),
+                    TraceBodyWriter.write(body, traceProperties.getMaxBodySize()));
         }
         return body;
     }
@@ -89,12 +94,26 @@ public class TraceAdvice implements ResponseBodyAdvice<Object>, RequestBodyAdvic
     @Override
     public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType, Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request, ServerHttpResponse response) {
         RequestAttributes requestAttributes = RequestContextHolder.currentRequestAttributes();
-        Object requestId = requestAttributes.getAttribute(WebConstants.REQUEST_ID, RequestAttributes.SCOPE_REQUEST);
-        try {
-            log.info("[Response], request id: {}, body: {}", requestId, JsonUtils.writer().writeValueAsString(body));
-        } catch (JsonProcessingException e) {
-            log.error(e.getMessage(), e);
+        if (sampled(requestAttributes, request.getURI().getPath())) {
+            Object requestId = requestAttributes.getAttribute(WebConstants.REQUEST_ID, RequestAttributes.SCOPE_REQUEST);
+            log.info("[Response], request id: {}, body: {}", requestId,
+                    TraceBodyWriter.write(body, traceProperties.getMaxBodySize()));
         }
         return body;
     }
+
+    /**
+     * decided once per request, so that request and response are logged together
+     */
+    private boolean sampled(RequestAttributes requestAttributes, String path) {
+        if (!traceProperties.isEnabled() || !log.isInfoEnabled()) {
+            return false;
+        }
+        Object sampled = requestAttributes.getAttribute(TRACE_SAMPLED, RequestAttributes.SCOPE_REQUEST);
+        if (sampled == null) {
+            sampled = ThreadLocalRandom.current().nextDouble() < traceProperties.sampleRate(path);
+            requestAttributes.setAttribute(TRACE_SAMPLED, sampled, RequestAttributes.SCOPE_REQUEST);
+        }
+        return (Boolean) sampled;
+    }
 }
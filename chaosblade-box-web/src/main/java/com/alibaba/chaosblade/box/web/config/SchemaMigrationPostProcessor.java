@@ -0,0 +1,55 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.chaosblade.box.web.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Migrates the schema as soon as the data source is created, before any mapper uses it.
+ *
+ * @author yefei
+ */
+@Slf4j
+@Component
+public class SchemaMigrationPostProcessor implements BeanPostProcessor, EnvironmentAware {
+
+    private Environment environment;
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        if (bean instanceof DataSource && environment.getProperty("chaos.schema.migration.enabled", Boolean.class, true)) {
+            String locations = environment.getProperty("chaos.schema.migration.locations",
+                    "classpath*:sql/migration/V*.sql");
+            List<Integer> applied = new SchemaMigrator((DataSource) bean, locations).migrate();
+            log.info("Schema migration finished, applied versions: {}", applied);
+        }
+        return bean;
+    }
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+}
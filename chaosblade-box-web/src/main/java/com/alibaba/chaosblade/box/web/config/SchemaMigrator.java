@@ -0,0 +1,211 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.chaosblade.box.web.config;
+
+import cn.hutool.core.io.IoUtil;
+import cn.hutool.core.util.StrUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Versioned schema migration, applies scripts named V{version}__{description}.sql once and in order,
+ * applied versions are recorded in t_chaos_schema_version.
+ *
+ * @author yefei
+ */
+@Slf4j
+public class SchemaMigrator {
+
+    private static final Pattern SCRIPT_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+
+    private static final String LOCK_NAME = "chaos_schema_migration";
+
+    private static final int LOCK_TIMEOUT_SECONDS = 60;
+
+    /**
+     * duplicate key name / can't drop key, a version that failed halfway may be re-applied
+     */
+    private static final Set<Integer> IGNORED_ERROR_CODES = new HashSet<>(Arrays.asList(1061, 1091));
+
+    private static final String CREATE_VERSION_TABLE = "create table if not exists t_chaos_schema_version\n" +
+            "(\n" +
+            "    version     int          not null comment 'script version' primary key,\n" +
+            "    description varchar(256) not null comment 'script description',\n" +
+            "    checksum    bigint       not null comment 'crc32 of the script',\n" +
+            "    gmt_create  datetime     not null comment 'applied time'\n" +
+            ") ENGINE = InnoDB comment 'schema version'";
+
+    private final DataSource dataSource;
+
+    private final String locations;
+
+    public SchemaMigrator(DataSource dataSource, String locations) {
+        this.dataSource = dataSource;
+        this.locations = locations;
+    }
+
+    /**
+     * @return versions applied by this call
+     */
+    public List<Integer> migrate() {
+        List<Script> scripts = loadScripts();
+        List<Integer> applied = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            lock(connection);
+            try {
+                execute(connection, CREATE_VERSION_TABLE);
+                Map<Integer, Long> versions = selectVersions(connection);
+                for (Script script : scripts) {
+                    Long checksum = versions.get(script.version);
+                    if (checksum != null) {
+                        if (checksum != script.checksum) {
+                            log.warn("Schema script {} was changed after applied, ignore it", script.name);
+                        }
+                        continue;
+                    }
+                    apply(connection, script);
+                    applied.add(script.version);
+                }
+            } finally {
+                unlock(connection);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Schema migration failed", e);
+        }
+        return applied;
+    }
+
+    private void apply(Connection connection, Script script) throws SQLException {
+        log.info("Apply schema script {}", script.name);
+        List<String> statements = new ArrayList<>();
+        ScriptUtils.splitSqlScript(script.content, ScriptUtils.DEFAULT_STATEMENT_SEPARATOR, statements);
+        for (String statement : statements) {
+            try {
+                execute(connection, statement);
+            } catch (SQLException e) {
+                if (!IGNORED_ERROR_CODES.contains(e.getErrorCode())) {
+                    throw new SQLException("Schema script " + script.name + " failed: " + statement, e);
+                }
+                log.warn("Schema script {} statement ignored, {}", script.name, e.getMessage());
+            }
+        }
+        try (PreparedStatement ps = connection.prepareStatement(
+                "insert into t_chaos_schema_version (version, description, checksum, gmt_create) values (?, ?, ?, now())")) {
+            ps.setInt(1, script.version);
+            ps.setString(2, script.description);
+            ps.setLong(3, script.checksum);
+            ps.executeUpdate();
+        }
+    }
+
+    private Map<Integer, Long> selectVersions(Connection connection) throws SQLException {
+        Map<Integer, Long> versions = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("select version, checksum from t_chaos_schema_version")) {
+            while (rs.next()) {
+                versions.put(rs.getInt(1), rs.getLong(2));
+            }
+        }
+        return versions;
+    }
+
+    private void lock(Connection connection) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("select get_lock(?, ?)")) {
+            ps.setString(1, LOCK_NAME);
+            ps.setInt(2, LOCK_TIMEOUT_SECONDS);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next() || rs.getInt(1) != 1) {
+                    throw new SQLException("Wait schema migration lock timeout");
+                }
+            }
+        }
+    }
+
+    private void unlock(Connection connection) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("select release_lock(?)")) {
+            ps.setString(1, LOCK_NAME);
+            ps.executeQuery().close();
+        }
+    }
+
+    private void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private List<Script> loadScripts() {
+        Resource[] resources;
+        try {
+            resources = new PathMatchingResourcePatternResolver().getResources(locations);
+        } catch (IOException e) {
+            throw new IllegalStateException("Load schema scripts failed, location: " + locations, e);
+        }
+        List<Script> scripts = new ArrayList<>();
+        for (Resource resource : resources) {
+            String name = resource.getFilename();
+            Matcher matcher = SCRIPT_NAME.matcher(StrUtil.nullToEmpty(name));
+            if (!matcher.matches()) {
+                log.warn("Ignore schema script {}, name not matches V{version}__{description}.sql", name);
+                continue;
+            }
+            try (InputStream inputStream = resource.getInputStream()) {
+                scripts.add(new Script(Integer.parseInt(matcher.group(1)), matcher.group(2), name,
+                        IoUtil.read(inputStream, StandardCharsets.UTF_8)));
+            } catch (IOException e) {
+                throw new IllegalStateException("Read schema script failed: " + name, e);
+            }
+        }
+        scripts.sort(Comparator.comparingInt(script -> script.version));
+        return scripts;
+    }
+
+    private static class Script {
+
+        private final int version;
+
+        private final String description;
+
+        private final String name;
+
+        private final String content;
+
+        private final long checksum;
+
+        Script(int version, String description, String name, String content) {
+            this.version = version;
+            this.description = description;
+            this.name = name;
+            this.content = content;
+            CRC32 crc32 = new CRC32();
+            crc32.update(content.getBytes(StandardCharsets.UTF_8));
+            this.checksum = crc32.getValue();
+        }
+    }
+}
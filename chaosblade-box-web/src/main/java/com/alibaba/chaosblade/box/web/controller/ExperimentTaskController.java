@@ -19,15 +19,21 @@ package com.alibaba.chaosblade.box.web.controller;
 import com.alibaba.chaosblade.box.common.utils.Preconditions;
 import com.alibaba.chaosblade.box.service.ExperimentTaskService;
 import com.alibaba.chaosblade.box.service.model.experiment.ExperimentRequest;
+import com.alibaba.chaosblade.box.service.model.experiment.ExperimentTaskDeltaResponse;
 import com.alibaba.chaosblade.box.service.model.experiment.ExperimentTaskRequest;
 import com.alibaba.chaosblade.box.service.model.experiment.ExperimentTaskResponse;
 import com.alibaba.chaosblade.box.service.model.experiment.ExperimentTaskStatistics;
+import com.alibaba.chaosblade.box.service.model.experiment.ExperimentTaskTraceResponse;
 import com.alibaba.chaosblade.box.service.model.experiment.activity.ExperimentActivityTask;
 import com.alibaba.chaosblade.box.service.model.experiment.activity.ExperimentActivityTaskRecord;
+import com.alibaba.chaosblade.box.web.stream.ExperimentTaskStream;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -43,6 +49,9 @@ public class ExperimentTaskController {
     @Autowired
     private ExperimentTaskService experimentTaskService;
 
+    @Autowired
+    private ExperimentTaskStream experimentTaskStream;
+
     @RequestMapping("/QueryTaskStatistics")
     public List<ExperimentTaskStatistics> queryTaskStatistics() {
         return experimentTaskService.queryTaskStatistics();
@@ -72,6 +81,23 @@ public class ExperimentTaskController {
         return experimentTaskService.queryTaskLog(experimentRequest);
     }
 
+    @RequestMapping("/QueryTaskDelta")
+    public ExperimentTaskDeltaResponse queryTaskDelta(@RequestBody ExperimentTaskRequest experimentRequest) {
+        Preconditions.checkNotNull(experimentRequest.getTaskId(), ID_IS_NULL);
+        return experimentTaskService.queryTaskDelta(experimentRequest);
+    }
+
+    @GetMapping("/SubscribeTaskState")
+    public SseEmitter subscribeTaskState(@RequestParam Long taskId) {
+        return experimentTaskStream.subscribe(taskId);
+    }
+
+    @RequestMapping("/QueryTaskTrace")
+    public ExperimentTaskTraceResponse queryTaskTrace(@RequestBody ExperimentTaskRequest experimentRequest) {
+        Preconditions.checkNotNull(experimentRequest.getTaskId(), ID_IS_NULL);
+        return experimentTaskService.queryTaskTrace(experimentRequest);
+    }
+
     @RequestMapping("/FailRetryExperiment")
     public ExperimentTaskResponse failRetryExperiment(@RequestBody ExperimentTaskRequest experimentRequest) {
         Preconditions.checkNotNull(experimentRequest.getTask().getTaskId(), ID_IS_NULL);
@@ -2,8 +2,10 @@ package com.alibaba.chaosblade.box.web.controller;
 
 import cn.hutool.core.util.StrUtil;
 import com.alibaba.chaosblade.box.scenario.api.DefaultScenarioYamlProvider;
+import com.alibaba.chaosblade.box.service.SceneService;
 import com.alibaba.chaosblade.box.web.model.SystemInfoRequest;
 import com.alibaba.chaosblade.box.web.model.SystemInfoResponse;
+import com.alibaba.chaosblade.box.web.trace.EndpointStatistics;
 import com.alibaba.chaosblade.box.common.utils.SystemPropertiesUtils;
 import com.alibaba.chaosblade.box.scenario.api.ScenarioRequest;
 import lombok.extern.slf4j.Slf4j;
@@ -20,6 +22,7 @@ import org.springframework.web.bind.annotation.ResponseBody;
 import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.util.List;
 import java.util.Locale;
 
 @Slf4j
@@ -29,6 +32,12 @@ public class MainController {
     @Autowired
     private DefaultScenarioYamlProvider yamlProvider;
 
+    @Autowired
+    private EndpointStatistics endpointStatistics;
+
+    @Autowired
+    private SceneService sceneService;
+
     @Value("${spring.application.version}")
     private String version;
 
@@ -56,9 +65,16 @@ public class MainController {
         return SystemInfoResponse.builder()
                 .locale(locale.getLanguage())
                 .version(version)
+                .sceneImport(sceneService.startupImportStatistics())
                 .build();
     }
 
+    @GetMapping("/api/EndpointStatistics")
+    @ResponseBody
+    public List<EndpointStatistics.Snapshot> endpointStatistics() {
+        return endpointStatistics.snapshot();
+    }
+
     @GetMapping(path = "/api/FetchChaostoolsOverview/**")
     public void overview(HttpServletRequest httpServletRequest, HttpServletResponse response) throws Exception {
         ScenarioRequest scenarioRequest = parseParam(httpServletRequest, "/api/FetchChaostoolsOverview", "");
@@ -21,12 +21,16 @@ import com.alibaba.chaosblade.box.service.probes.ProbesService;
 import com.alibaba.chaosblade.box.service.probes.model.InstallProbesRequest;
 import com.alibaba.chaosblade.box.service.probes.model.ProbesRequest;
 import com.alibaba.chaosblade.box.service.probes.model.ProbesResponse;
+import com.alibaba.chaosblade.box.web.stream.ProbesInstallStream;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -46,6 +50,9 @@ public class ProbesController {
     @Autowired
     private CollectorTimer collectorTimer;
 
+    @Autowired
+    private ProbesInstallStream probesInstallStream;
+
     @PostMapping("/GetAnsibleHosts")
     public List<ProbesResponse> getMachinesForHost() {
         return probesService.getAnsibleHosts();
@@ -77,6 +84,11 @@ public class ProbesController {
         probesService.uninstallProbe(installProbesRequest);
     }
 
+    @GetMapping("/SubscribeProbesInstallation")
+    public SseEmitter subscribeProbesInstallation(@RequestParam(required = false) List<Long> probeIds) {
+        return probesInstallStream.subscribe(probeIds);
+    }
+
     @PostMapping("/QueryProbesInstallation")
     public List<ProbesResponse> QueryProbesInstallation(@RequestBody ProbesRequest probesRequest) {
         return probesService.queryProbesInstallation(probesRequest);
@@ -16,6 +16,7 @@
 
 package com.alibaba.chaosblade.box.web.model;
 
+import com.alibaba.chaosblade.box.service.model.scene.SceneImportResponse;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -33,4 +34,6 @@ public class SystemInfoResponse {
     private String locale;
 
     private String version;
+
+    private SceneImportResponse sceneImport;
 }
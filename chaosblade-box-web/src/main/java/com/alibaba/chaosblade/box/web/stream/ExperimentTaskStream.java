@@ -0,0 +1,67 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.chaosblade.box.web.stream;
+
+import com.alibaba.chaosblade.box.service.model.experiment.ExperimentTaskState;
+import com.alibaba.chaosblade.box.service.model.experiment.ExperimentTaskStateType;
+import com.alibaba.chaosblade.box.service.task.listener.ExperimentTaskStateEvent;
+import com.alibaba.chaosblade.box.service.task.listener.ExperimentTaskStatePublisher;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Live states of experiment tasks, a pending state of the same task, activity task or record is
+ * replaced by the newer one, metric samples are never coalesced.
+ *
+ * @author yefei
+ */
+@Component
+public class ExperimentTaskStream implements DisposableBean {
+
+    private final SseBroadcaster<ExperimentTaskState> broadcaster;
+
+    private final ExperimentTaskStatePublisher publisher;
+
+    public ExperimentTaskStream(ExperimentTaskStatePublisher publisher,
+                                @Value("${chaos.task.stream.timeout:1800000}") long timeout,
+                                @Value("${chaos.task.stream.queue-size:256}") int queueSize,
+                                @Value("${chaos.task.stream.senders:2}") int senders) {
+        this.publisher = publisher;
+        this.broadcaster = new SseBroadcaster<>("EXPERIMENT-TASK", timeout, queueSize, senders,
+                state -> state.getType() == ExperimentTaskStateType.METRIC ? null
+                        : state.getType().name() + "-" + state.getId());
+    }
+
+    public SseEmitter subscribe(Long taskId) {
+        publisher.subscribe(taskId);
+        return broadcaster.subscribe(state -> taskId.equals(state.getTaskId()), () -> publisher.unsubscribe(taskId));
+    }
+
+    @EventListener
+    public void onState(ExperimentTaskStateEvent event) {
+        ExperimentTaskState state = event.getState();
+        broadcaster.broadcast(state.getType().name().toLowerCase(), state);
+    }
+
+    @Override
+    public void destroy() {
+        broadcaster.shutdown();
+    }
+}
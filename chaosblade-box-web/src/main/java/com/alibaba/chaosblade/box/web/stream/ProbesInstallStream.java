@@ -0,0 +1,69 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.chaosblade.box.web.stream;
+
+import com.alibaba.chaosblade.box.service.probes.ProbesInstallProgressEvent;
+import com.alibaba.chaosblade.box.service.probes.model.ProbesInstallProgress;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Collection;
+import java.util.HashSet;
+
+/**
+ * @author yefei
+ */
+@Component
+public class ProbesInstallStream implements DisposableBean {
+
+    private final SseBroadcaster<ProbesInstallProgress> broadcaster;
+
+    public ProbesInstallStream(@Value("${chaos.probes.install.stream-timeout:1800000}") long timeout) {
+        this.broadcaster = new SseBroadcaster<>("PROBES-INSTALL", timeout, 10000);
+    }
+
+    /**
+     * @param probeIds empty for all probes
+     * @return
+     */
+    public SseEmitter subscribe(Collection<Long> probeIds) {
+        if (probeIds == null || probeIds.isEmpty()) {
+            return broadcaster.subscribe(progress -> true);
+        }
+        HashSet<Long> ids = new HashSet<>(probeIds);
+        return broadcaster.subscribe(progress -> ids.contains(progress.getProbeId()));
+    }
+
+    @EventListener
+    public void onProgress(ProbesInstallProgressEvent event) {
+        broadcaster.broadcast("progress", ProbesInstallProgress.builder()
+                .probeId(event.getProbeId())
+                .host(event.getHost())
+                .stage(event.getStage().name())
+                .message(event.getMessage())
+                .timestamp(event.getTimestamp())
+                .build());
+    }
+
+    @Override
+    public void destroy() {
+        broadcaster.shutdown();
+    }
+}
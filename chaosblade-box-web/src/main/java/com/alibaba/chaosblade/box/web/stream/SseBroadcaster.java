@@ -0,0 +1,195 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.chaosblade.box.web.stream;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Pushes events to subscribed server sent event emitters from sender threads,
+ * so that slow clients never block the publisher.
+ * <p>
+ * Every subscriber has a bounded queue, a pending event is replaced by a newer event with the same
+ * coalesce key at the end of the queue, and the oldest pending event is dropped when the queue is full. A subscriber that lost
+ * events receives a "dropped" event with the count before the next events.
+ *
+ * @author yefei
+ */
+public class SseBroadcaster<E> {
+
+    private final List<Subscriber<E>> subscribers = new CopyOnWriteArrayList<>();
+
+    private final ExecutorService sender;
+
+    private final long timeout;
+
+    private final int queueSize;
+
+    private final Function<E, Object> coalesceKey;
+
+    public SseBroadcaster(String name, long timeout, int queueSize) {
+        this(name, timeout, queueSize, 1, event -> null);
+    }
+
+    /**
+     * @param senders     sender threads
+     * @param coalesceKey key of events replacing each other, null to keep every event
+     */
+    public SseBroadcaster(String name, long timeout, int queueSize, int senders, Function<E, Object> coalesceKey) {
+        this.timeout = timeout;
+        this.queueSize = queueSize;
+        this.coalesceKey = coalesceKey;
+        AtomicInteger count = new AtomicInteger();
+        // at most one drain task of a subscriber is queued, tasks are only rejected after shutdown
+        this.sender = new ThreadPoolExecutor(senders, senders, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                r -> {
+                    Thread thread = new Thread(r);
+                    thread.setDaemon(true);
+                    thread.setName(name + "-SSE-SENDER-" + count.getAndIncrement());
+                    return thread;
+                },
+                new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    /**
+     * @param filter events the subscriber wants
+     * @return
+     */
+    public SseEmitter subscribe(Predicate<E> filter) {
+        return subscribe(filter, () -> {
+        });
+    }
+
+    /**
+     * @param filter  events the subscriber wants
+     * @param onClose called once when the subscriber is removed
+     * @return
+     */
+    public SseEmitter subscribe(Predicate<E> filter, Runnable onClose) {
+        SseEmitter emitter = new SseEmitter(timeout);
+        Subscriber<E> subscriber = new Subscriber<>(emitter, filter, onClose);
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        return emitter;
+    }
+
+    public void broadcast(String eventName, E event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Object key = coalesceKey.apply(event);
+        for (Subscriber<E> subscriber : subscribers) {
+            if (!subscriber.filter.test(event)) {
+                continue;
+            }
+            if (subscriber.offer(key != null ? key : new Object(), eventName, event, queueSize)) {
+                sender.execute(() -> drain(subscriber));
+            }
+        }
+    }
+
+    public void shutdown() {
+        sender.shutdownNow();
+        subscribers.forEach(subscriber -> {
+            remove(subscriber);
+            subscriber.emitter.complete();
+        });
+    }
+
+    private void remove(Subscriber<E> subscriber) {
+        if (subscribers.remove(subscriber)) {
+            subscriber.onClose.run();
+        }
+    }
+
+    private void drain(Subscriber<E> subscriber) {
+        List<Object[]> events;
+        int dropped;
+        while (true) {
+            synchronized (subscriber) {
+                events = new ArrayList<>(subscriber.pending.values());
+                subscriber.pending.clear();
+                dropped = subscriber.dropped;
+                subscriber.dropped = 0;
+                if (events.isEmpty() && dropped == 0) {
+                    subscriber.draining.set(false);
+                    return;
+                }
+            }
+            try {
+                if (dropped > 0) {
+                    subscriber.emitter.send(SseEmitter.event().name("dropped").data(dropped));
+                }
+                for (Object[] event : events) {
+                    subscriber.emitter.send(SseEmitter.event().name((String) event[0]).data(event[1]));
+                }
+            } catch (Exception e) {
+                remove(subscriber);
+                subscriber.emitter.completeWithError(e);
+                return;
+            }
+        }
+    }
+
+    private static class Subscriber<E> {
+
+        private final SseEmitter emitter;
+
+        private final Predicate<E> filter;
+
+        private final Runnable onClose;
+
+        /**
+         * coalesce key -> [event name, event]
+         */
+        private final LinkedHashMap<Object, Object[]> pending = new LinkedHashMap<>();
+
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private int dropped;
+
+        Subscriber(SseEmitter emitter, Predicate<E> filter, Runnable onClose) {
+            this.emitter = emitter;
+            this.filter = filter;
+            this.onClose = onClose;
+        }
+
+        /**
+         * @return true if the caller has to schedule a drain
+         */
+        synchronized boolean offer(Object key, String eventName, E event, int queueSize) {
+            // the newest state goes to the end, after the events that happened before it
+            if (pending.remove(key) == null && pending.size() >= queueSize) {
+                Iterator<Object> iterator = pending.keySet().iterator();
+                iterator.next();
+                iterator.remove();
+                dropped++;
+            }
+            pending.put(key, new Object[]{eventName, event});
+            return draining.compareAndSet(false, true);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.chaosblade.box.web.trace;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Latency and payload size histograms by endpoint.
+ *
+ * @author yefei
+ */
+@Component
+public class EndpointStatistics {
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    public void record(String path, long latencyMillis, long requestBytes, long responseBytes) {
+        Endpoint endpoint = endpoints.computeIfAbsent(path, k -> new Endpoint());
+        endpoint.latency.record(latencyMillis);
+        endpoint.requestSize.record(requestBytes);
+        endpoint.responseSize.record(responseBytes);
+    }
+
+    public List<Snapshot> snapshot() {
+        return endpoints.entrySet().stream()
+                .map(entry -> {
+                    Endpoint endpoint = entry.getValue();
+                    long count = endpoint.latency.getCount();
+                    return Snapshot.builder()
+                            .path(entry.getKey())
+                            .count(count)
+                            .latencyAvg(count == 0 ? 0 : endpoint.latency.getSum() / count)
+                            .latencyP50(endpoint.latency.percentile(50))
+                            .latencyP99(endpoint.latency.percentile(99))
+                            .requestBytesAvg(count == 0 ? 0 : endpoint.requestSize.getSum() / count)
+                            .responseBytesAvg(count == 0 ? 0 : endpoint.responseSize.getSum() / count)
+                            .responseBytesP99(endpoint.responseSize.percentile(99))
+                            .build();
+                })
+                .sorted((o1, o2) -> o1.getPath().compareTo(o2.getPath()))
+                .collect(Collectors.toList());
+    }
+
+    private static class Endpoint {
+
+        private final Histogram latency = new Histogram();
+
+        private final Histogram requestSize = new Histogram();
+
+        private final Histogram responseSize = new Histogram();
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Snapshot {
+
+        private String path;
+
+        private long count;
+
+        private long latencyAvg;
+
+        private long latencyP50;
+
+        private long latencyP99;
+
+        private long requestBytesAvg;
+
+        private long responseBytesAvg;
+
+        private long responseBytesP99;
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.chaosblade.box.web.trace;
+
+import com.alibaba.chaosblade.box.common.utils.JsonUtils;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Serializes a body into a per thread buffer, serialization stops once the limit is reached.
+ *
+ * @author yefei
+ */
+@Slf4j
+public class TraceBodyWriter {
+
+    private static final String TRUNCATED = "...(truncated)";
+
+    private static final ThreadLocal<LimitedWriter> BUFFER = ThreadLocal.withInitial(LimitedWriter::new);
+
+    public static String write(Object body, int maxSize) {
+        LimitedWriter writer = BUFFER.get();
+        writer.reset(maxSize);
+        try {
+            JsonUtils.writer().writeValue(writer, body);
+        } catch (IOException e) {
+            if (!writer.truncated) {
+                log.warn("serialize trace body failed, {}", e.getMessage());
+            }
+        }
+        return writer.truncated ? writer.builder + TRUNCATED : writer.builder.toString();
+    }
+
+    private static class LimitedWriter extends Writer {
+
+        /**
+         * shrink the buffer after a large body, so that threads do not keep it
+         */
+        private static final int MAX_RETAINED = 64 * 1024;
+
+        private StringBuilder builder = new StringBuilder(256);
+
+        private int limit;
+
+        private boolean truncated;
+
+        void reset(int limit) {
+            if (builder.capacity() > MAX_RETAINED) {
+                builder = new StringBuilder(256);
+            }
+            builder.setLength(0);
+            this.limit = limit;
+            this.truncated = false;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            int remaining = limit - builder.length();
+            if (len > remaining) {
+                builder.append(cbuf, off, Math.max(remaining, 0));
+                truncated = true;
+                throw new IOException("trace body exceeds " + limit);
+            }
+            builder.append(cbuf, off, len);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.chaosblade.box.web.trace;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @author yefei
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "chaos.trace")
+public class TraceProperties {
+
+    /**
+     * log request and response bodies
+     */
+    private boolean enabled = true;
+
+    /**
+     * bodies are truncated to this many chars
+     */
+    private int maxBodySize = 2048;
+
+    /**
+     * sample rate of endpoints not in sampleRates, 0 ~ 1
+     */
+    private double sampleRate = 1.0;
+
+    /**
+     * sample rate by request path, e.g. /api/QueryTaskLog: 0.1
+     */
+    private Map<String, Double> sampleRates = new HashMap<>();
+
+    public double sampleRate(String path) {
+        return sampleRates.getOrDefault(path, sampleRate);
+    }
+}
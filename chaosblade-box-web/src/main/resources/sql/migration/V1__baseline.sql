@@ -290,6 +290,24 @@ create table if not exists t_chaos_experiment_task_log
 )
     comment 'experiment task log' DEFAULT CHARSET = utf8;
 
+create table if not exists t_chaos_experiment_task_span
+(
+    id               bigint unsigned auto_increment comment 'primary key'
+        primary key,
+    gmt_create       datetime         not null comment 'create time',
+    gmt_modified     datetime         not null comment 'modified time',
+    task_id          bigint unsigned  not null comment 'experiment task id',
+    activity_task_id bigint unsigned  null comment 'activity task id',
+    kind             tinyint unsigned not null comment '0-task, 1-activity, 2-wait, 3-db, 4-invoke, 5-poll',
+    name             varchar(64)      not null comment 'span name',
+    target           varchar(512)     null comment 'device identity',
+    start_nanos      bigint           not null comment 'start time, epoch nanos',
+    duration_nanos   bigint           not null comment 'duration nanos',
+    success          tinyint unsigned null comment '0-false, 1-true',
+    key `INX_EXPERIMENT_TASK_SPAN_TASK_ID` (task_id, start_nanos)
+)
+    comment 'experiment task span' DEFAULT CHARSET = utf8;
+
 create table if not exists t_chaos_probes
 (
     id               bigint unsigned auto_increment comment 'primary key'
@@ -433,3 +451,15 @@ create table if not exists `t_chaos_cluster`
     PRIMARY KEY (`id`)
 ) ENGINE = InnoDB COMMENT 'cluster info'
   DEFAULT CHARSET = utf8;
+
+create table if not exists `t_chaos_statistics`
+(
+    `id`           bigint(20) unsigned NOT NULL AUTO_INCREMENT,
+    `gmt_create`   datetime            NOT NULL COMMENT 'create time',
+    `gmt_modified` datetime            NOT NULL COMMENT 'modified time',
+    `stat_key`     varchar(64)         NOT NULL COMMENT 'statistics key',
+    `stat_value`   bigint(20)          NOT NULL DEFAULT 0 COMMENT 'statistics value',
+    PRIMARY KEY (`id`),
+    constraint `STATISTICS_STAT_KEY` unique (stat_key)
+) ENGINE = InnoDB COMMENT 'dashboard statistics'
+  DEFAULT CHARSET = utf8;
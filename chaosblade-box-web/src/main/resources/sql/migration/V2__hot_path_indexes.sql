@@ -0,0 +1,32 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+-- indexes of the hot repository predicates, varchar(256) columns use a prefix to stay under the 767 bytes limit of mysql 5.6
+
+alter table t_chaos_device
+    add key `INX_DEVICE_TYPE_HOSTNAME` (type, hostname(128));
+
+alter table t_chaos_device_pod
+    add key `INX_DEVICE_POD_NAMESPACE_POD_NAME` (namespace(128), pod_name);
+
+alter table t_chaos_probes
+    add key `INX_PROBES_DEVICE_ID` (device_id),
+    add key `INX_PROBES_STATUS` (status);
+
+-- the task id key is a prefix of the new one
+alter table t_chaos_metric_task
+    drop key `INX_METRIC_TASK_TASK_ID`,
+    add key `INX_METRIC_TASK_TASK_CATEGORY_DEVICE_DATE` (task_id, category_code, device_id, date);
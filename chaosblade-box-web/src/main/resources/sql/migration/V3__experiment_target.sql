@@ -0,0 +1,51 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+-- experiment targets used to be a json list in the hosts column of flow group and task,
+-- existing hosts are moved into this table at startup and then cleared
+
+create table if not exists t_chaos_experiment_target
+(
+    id             bigint unsigned auto_increment comment 'primary key'
+        primary key,
+    gmt_create     datetime        not null comment 'create time',
+    gmt_modified   datetime        not null comment 'modified time',
+    experiment_id  bigint unsigned not null comment 'experiment id',
+    group_id       bigint unsigned null comment 'flow group id, null for task snapshot',
+    task_id        bigint unsigned null comment 'experiment task id, null for flow group',
+    device_id      bigint unsigned null comment 'device id',
+    device_type    tinyint         null comment 'type 0-host,1-node, 2-pod',
+    hostname       varchar(256)    null comment 'hostname',
+    ip             varchar(128)    null comment 'ip',
+    cluster_id     bigint unsigned null comment 'cluster id',
+    node_name      varchar(256)    null comment 'node name',
+    namespace      varchar(256)    null comment 'namespace',
+    pod_name       varchar(128)    null comment 'pod name',
+    container_name varchar(256)    null comment 'container name',
+    key `INX_EXPERIMENT_TARGET_GROUP_ID` (group_id),
+    key `INX_EXPERIMENT_TARGET_TASK_ID` (task_id),
+    key `INX_EXPERIMENT_TARGET_DEVICE_ID` (device_id),
+    key `INX_EXPERIMENT_TARGET_POD` (namespace(128), pod_name)
+)
+    ENGINE = InnoDB
+    comment 'experiment target'
+    DEFAULT CHARSET = utf8;
+
+alter table t_chaos_experiment_mini_flow_group
+    modify hosts longtext null comment 'deprecated, moved to t_chaos_experiment_target';
+
+alter table t_chaos_experiment_task
+    modify hosts longtext null comment 'deprecated, moved to t_chaos_experiment_target';
@@ -0,0 +1,97 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.chaosblade.box.web.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Migrates a mysql schema and asserts the hot repository queries are served by an index.
+ * The build has no mysql, so this check is manual: it is skipped unless a mysql is reachable,
+ * run it with -Dchaos.test.mysql.url=... after changing a migration script or a repository query.
+ *
+ * @author yefei
+ */
+@Slf4j
+public class SchemaIndexTest {
+
+    /**
+     * same predicates as DeviceRepository, DevicePodRepository, ProbesRepository, MetricTaskRepository
+     * and ExperimentTargetRepository, written by hand, keep them in sync with the repositories
+     */
+    private static final List<String> QUERIES = Arrays.asList(
+            "select * from t_chaos_device where type = 0 and hostname = 'host'",
+            "select * from t_chaos_device where ip = '127.0.0.1'",
+            "select * from t_chaos_device_pod where pod_name = 'pod' and namespace = 'default'",
+            "select * from t_chaos_device_pod where device_id = 1",
+            "select * from t_chaos_probes where ip = '127.0.0.1'",
+            "select * from t_chaos_probes where ip = '127.0.0.1' and status in (0, 1)",
+            "select * from t_chaos_probes where device_id = 1",
+            "select * from t_chaos_probes where status in (0, 1)",
+            "select * from t_chaos_metric_task where task_id = 1 and category_code = 'cpu' and device_id = 1 " +
+                    "and date >= '2021-01-01 00:00:00' and date <= '2021-01-02 00:00:00'",
+            "select * from t_chaos_metric_task where task_id = 1 and category_code = 'cpu'",
+            "select * from t_chaos_experiment_target where group_id = 1 order by id",
+            "select * from t_chaos_experiment_target where task_id = 1 order by id",
+            "select * from t_chaos_experiment_target where experiment_id = 1",
+            "select distinct experiment_id from t_chaos_experiment_target where namespace = 'default' and pod_name = 'pod'",
+            "select distinct experiment_id from t_chaos_experiment_target where device_id = 1"
+    );
+
+    private DriverManagerDataSource dataSource;
+
+    @Before
+    public void before() {
+        dataSource = new DriverManagerDataSource(
+                System.getProperty("chaos.test.mysql.url",
+                        "jdbc:mysql://127.0.0.1:3306/chaosblade?characterEncoding=utf8&useSSL=false&serverTimezone=Asia/Shanghai"),
+                System.getProperty("chaos.test.mysql.username", "root"),
+                System.getProperty("chaos.test.mysql.password", ""));
+        try (Connection ignored = dataSource.getConnection()) {
+            log.info("mysql is reachable");
+        } catch (SQLException e) {
+            Assume.assumeNoException("mysql is not reachable", e);
+        }
+    }
+
+    @Test
+    public void noFullScan() throws SQLException {
+        new SchemaMigrator(dataSource, "classpath*:sql/migration/V*.sql").migrate();
+
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            for (String query : QUERIES) {
+                try (ResultSet rs = statement.executeQuery("explain " + query)) {
+                    Assert.assertTrue(rs.next());
+                    Assert.assertNotEquals(query, "ALL", rs.getString("type"));
+                    Assert.assertNotNull(query, rs.getString("key"));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.chaosblade.box.web.trace;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.stream.IntStream;
+
+/**
+ * @author yefei
+ */
+public class HistogramTest {
+
+    @Test
+    public void percentile() {
+        Histogram histogram = new Histogram();
+        IntStream.rangeClosed(1, 100).forEach(histogram::record);
+        Assert.assertEquals(100, histogram.getCount());
+        Assert.assertEquals(5050, histogram.getSum());
+        Assert.assertEquals(63, histogram.percentile(50));
+        Assert.assertEquals(127, histogram.percentile(99));
+    }
+}
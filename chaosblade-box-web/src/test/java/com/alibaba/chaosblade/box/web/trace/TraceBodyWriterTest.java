@@ -0,0 +1,45 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.chaosblade.box.web.trace;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * @author yefei
+ */
+public class TraceBodyWriterTest {
+
+    @Test
+    public void write() {
+        Assert.assertEquals("{\"a\":1}", TraceBodyWriter.write(Collections.singletonMap("a", 1), 100));
+    }
+
+    @Test
+    public void truncated() {
+        String body = TraceBodyWriter.write(IntStream.range(0, 100000).boxed().collect(Collectors.toList()), 64);
+        Assert.assertTrue(body.endsWith("...(truncated)"));
+        Assert.assertEquals(64 + "...(truncated)".length(), body.length());
+
+        // buffer is reused by the next body
+        Assert.assertEquals("[1]", TraceBodyWriter.write(Collections.singletonList(1), 64));
+    }
+}